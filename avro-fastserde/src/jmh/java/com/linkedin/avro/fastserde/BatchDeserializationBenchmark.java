@@ -0,0 +1,155 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.generator.AvroRandomDataGenerator;
+import com.linkedin.avro.fastserde.micro.benchmark.AvroGenericSerializer;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark decoding a batch of records framed in one array, as fetched by a consumer, comparing:
+ * <ul>
+ *   <li>a new decoder and a new record for each record,</li>
+ *   <li>a reused decoder and reused records, decoded one call at a time,</li>
+ *   <li>{@link FastDeserializer#deserializeBatch(byte[], int[], int[], int, List)}, reusing the records.</li>
+ * </ul>
+ * Scores are times per batch. Several deserializer classes are warmed up beforehand, so that calls to
+ * {@link FastDeserializer#deserialize(Object, org.apache.avro.io.Decoder)} from shared code aren't monomorphic.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+public class BatchDeserializationBenchmark {
+  private static final String SCHEMA = "{\"type\": \"record\", \"name\": \"BatchRecord\","
+      + " \"namespace\": \"com.linkedin.avro.fastserde.benchmark\", \"fields\": ["
+      + "{\"name\": \"id\", \"type\": \"long\"},"
+      + "{\"name\": \"name\", \"type\": \"string\"},"
+      + "{\"name\": \"score\", \"type\": \"double\"},"
+      + "{\"name\": \"tags\", \"type\": {\"type\": \"array\", \"items\": \"string\"}},"
+      + "{\"name\": \"payload\", \"type\": [\"null\", \"bytes\"]}]}";
+  private static final int OTHER_DESERIALIZERS = 3;
+
+  @Param({"1", "64", "1024"})
+  private int batchSize;
+
+  private final Random random = new Random(42);
+  private final Map<Object, Object> properties = new HashMap<>();
+
+  private byte[] data;
+  private int[] offsets;
+  private int[] lengths;
+  private FastDeserializer<GenericRecord> fastDeserializer;
+  private final List<GenericRecord> records = new ArrayList<>();
+
+  public BatchDeserializationBenchmark() {
+    properties.put(AvroRandomDataGenerator.ARRAY_LENGTH_PROP, BenchmarkConstants.ARRAY_SIZE);
+    properties.put(AvroRandomDataGenerator.STRING_LENGTH_PROP, BenchmarkConstants.STRING_SIZE);
+    properties.put(AvroRandomDataGenerator.BYTES_LENGTH_PROP, BenchmarkConstants.BYTES_SIZE);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(BatchDeserializationBenchmark.class.getSimpleName())
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  @SuppressWarnings("unchecked")
+  public void prepare() throws Exception {
+    Schema schema = Schema.parse(SCHEMA);
+    AvroGenericSerializer serializer = new AvroGenericSerializer(schema);
+    ByteArrayOutputStream frames = new ByteArrayOutputStream();
+    offsets = new int[batchSize];
+    lengths = new int[batchSize];
+    for (int i = 0; i < batchSize; i++) {
+      byte[] bytes = serializer.serialize(new AvroRandomDataGenerator(schema, random).generate(properties));
+      offsets[i] = frames.size();
+      lengths[i] = bytes.length;
+      frames.write(bytes);
+    }
+    data = frames.toByteArray();
+
+    FastSerdeCache cache = FastSerdeCache.getDefaultInstance();
+    fastDeserializer = (FastDeserializer<GenericRecord>) cache.buildFastGenericDeserializer(schema, schema);
+    fastDeserializer.deserializeBatch(data, offsets, lengths, batchSize, records);
+    for (int i = 0; i < OTHER_DESERIALIZERS; i++) {
+      // same layout as the benchmarked schema, under other names, for distinct deserializer classes
+      Schema otherSchema = Schema.parse(SCHEMA.replace("BatchRecord", "BatchRecord" + i));
+      FastDeserializer<GenericRecord> otherDeserializer =
+          (FastDeserializer<GenericRecord>) cache.buildFastGenericDeserializer(otherSchema, otherSchema);
+      List<GenericRecord> otherRecords = new ArrayList<>();
+      for (int j = 0; j < 10_000; j++) {
+        decodeOneByOne(otherDeserializer, otherRecords);
+        otherDeserializer.deserializeBatch(data, offsets, lengths, batchSize, otherRecords);
+      }
+    }
+  }
+
+  private void decodeOneByOne(FastDeserializer<GenericRecord> deserializer, List<GenericRecord> records)
+      throws Exception {
+    BinaryDecoder decoder = null;
+    for (int i = 0; i < batchSize; i++) {
+      decoder = AvroCompatibilityHelper.newBinaryDecoder(data, offsets[i], lengths[i], decoder);
+      if (i < records.size()) {
+        records.set(i, deserializer.deserialize(records.get(i), decoder));
+      } else {
+        records.add(deserializer.deserialize(null, decoder));
+      }
+    }
+  }
+
+  @Benchmark
+  public void testDeserializeWithNewDecoders(Blackhole bh) throws Exception {
+    for (int i = 0; i < batchSize; i++) {
+      bh.consume(fastDeserializer.deserialize(
+          AvroCompatibilityHelper.newBinaryDecoder(data, offsets[i], lengths[i], null)));
+    }
+  }
+
+  @Benchmark
+  public void testDeserializeOneByOneWithReuse(Blackhole bh) throws Exception {
+    decodeOneByOne(fastDeserializer, records);
+    bh.consume(records);
+  }
+
+  @Benchmark
+  public void testDeserializeBatch(Blackhole bh) throws Exception {
+    fastDeserializer.deserializeBatch(data, offsets, lengths, batchSize, records);
+    bh.consume(records);
+  }
+}
@@ -0,0 +1,136 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.generator.AvroRandomDataGenerator;
+import com.linkedin.avro.fastserde.micro.benchmark.AvroGenericSerializer;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates the allocations of the fast deserializers, run with the GC profiler, comparing:
+ * <ul>
+ *   <li>a new record graph for each call,</li>
+ *   <li>the previous record passed as reuse,</li>
+ *   <li>the deep reuse mode, the previous record being released, see {@link DeepReusePool}.</li>
+ * </ul>
+ * The record holds maps of strings and of records, arrays of records, enums and strings, which the deep reuse mode
+ * recycles entirely, so its gc.alloc.rate.norm should be close to 0 bytes per operation.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+public class DeepReuseBenchmark {
+  private static final int NUMBER_OF_OPERATIONS = 10_000;
+  private static final String SCHEMA = "{\"type\": \"record\", \"name\": \"DeepReuseRecord\","
+      + " \"namespace\": \"com.linkedin.avro.fastserde.benchmark\", \"fields\": ["
+      + "{\"name\": \"id\", \"type\": \"long\"},"
+      + "{\"name\": \"name\", \"type\": \"string\"},"
+      + "{\"name\": \"status\", \"type\": {\"type\": \"enum\", \"name\": \"Status\", \"symbols\": [\"ON\", \"OFF\"]}},"
+      + "{\"name\": \"tags\", \"type\": {\"type\": \"map\", \"values\": \"string\"}},"
+      + "{\"name\": \"points\", \"type\": {\"type\": \"array\", \"items\": {\"type\": \"record\", \"name\": \"Point\","
+      + " \"fields\": [{\"name\": \"x\", \"type\": \"float\"}, {\"name\": \"label\", \"type\": \"string\"}]}}},"
+      + "{\"name\": \"pointsByName\", \"type\": {\"type\": \"map\", \"values\": \"Point\"}},"
+      + "{\"name\": \"payload\", \"type\": [\"null\", \"bytes\"]}]}";
+
+  private final Random random = new Random(42);
+  private final Map<Object, Object> properties = new HashMap<>();
+
+  private byte[] serializedBytes;
+
+  private FastDeserializer<GenericRecord> fastDeserializer;
+  private FastDeserializer<GenericRecord> deepReuseDeserializer;
+
+  public DeepReuseBenchmark() {
+    properties.put(AvroRandomDataGenerator.ARRAY_LENGTH_PROP, BenchmarkConstants.ARRAY_SIZE);
+    properties.put(AvroRandomDataGenerator.STRING_LENGTH_PROP, BenchmarkConstants.STRING_SIZE);
+    properties.put(AvroRandomDataGenerator.BYTES_LENGTH_PROP, BenchmarkConstants.BYTES_SIZE);
+    properties.put(AvroRandomDataGenerator.MAP_LENGTH_PROP, BenchmarkConstants.MAP_SIZE);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(DeepReuseBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  @SuppressWarnings("unchecked")
+  public void prepare() throws Exception {
+    Schema schema = Schema.parse(SCHEMA);
+    GenericData.Record generatedRecord =
+        (GenericData.Record) new AvroRandomDataGenerator(schema, random).generate(properties);
+    serializedBytes = new AvroGenericSerializer(schema).serialize(generatedRecord);
+
+    FastSerdeCache cache = FastSerdeCache.getDefaultInstance();
+    fastDeserializer = (FastDeserializer<GenericRecord>) cache.buildFastGenericDeserializer(schema, schema);
+    deepReuseDeserializer = (FastDeserializer<GenericRecord>) cache.buildDeepReuseGenericDeserializer(schema, schema);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testFastAvroDeserializationWithoutReuse(Blackhole bh) throws Exception {
+    BinaryDecoder decoder = null;
+    for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+      decoder = AvroCompatibilityHelper.newBinaryDecoder(serializedBytes, 0, serializedBytes.length, decoder);
+      bh.consume(fastDeserializer.deserialize(null, decoder));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testFastAvroDeserializationWithReuse(Blackhole bh) throws Exception {
+    GenericRecord record = null;
+    BinaryDecoder decoder = null;
+    for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+      decoder = AvroCompatibilityHelper.newBinaryDecoder(serializedBytes, 0, serializedBytes.length, decoder);
+      record = fastDeserializer.deserialize(record, decoder);
+      bh.consume(record);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testFastAvroDeserializationWithDeepReuse(Blackhole bh) throws Exception {
+    BinaryDecoder decoder = null;
+    for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+      decoder = AvroCompatibilityHelper.newBinaryDecoder(serializedBytes, 0, serializedBytes.length, decoder);
+      GenericRecord record = deepReuseDeserializer.deserialize(null, decoder);
+      bh.consume(record);
+      deepReuseDeserializer.release(record);
+    }
+  }
+}
@@ -0,0 +1,148 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.generated.avro.BenchmarkSchema;
+import com.linkedin.avro.fastserde.generator.AvroRandomDataGenerator;
+import com.linkedin.avro.fastserde.micro.benchmark.AvroGenericSerializer;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that compares the decoding speed of the generic deserializers built by the javac based backend and by
+ * the plan based backend, see {@link FastDeserializerBackend}, with the {@link GenericDatumReader} of Avro as
+ * baseline, the previous record being passed as reuse. It runs with the schema of {@link BenchmarkSchema}, and with a
+ * wide record nesting records, unions, arrays, maps and enums.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ *
+ * You also can test by your own AVRO schema by replacing the contents in
+ *   avro-util/avro-fastserde/src/test/avro/benchmarkSchema.avsc
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+public class FastDeserializerBackendBenchmark {
+  private static final int NUMBER_OF_OPERATIONS = 10_000;
+  private static final String NESTED_SCHEMA = "{\"type\": \"record\", \"name\": \"NestedRecord\","
+      + " \"namespace\": \"com.linkedin.avro.fastserde.benchmark\", \"fields\": ["
+      + "{\"name\": \"id\", \"type\": \"long\"},"
+      + "{\"name\": \"count\", \"type\": \"int\"},"
+      + "{\"name\": \"score\", \"type\": \"double\"},"
+      + "{\"name\": \"ratio\", \"type\": \"float\"},"
+      + "{\"name\": \"flag\", \"type\": \"boolean\"},"
+      + "{\"name\": \"name\", \"type\": \"string\"},"
+      + "{\"name\": \"comment\", \"type\": [\"null\", \"string\"]},"
+      + "{\"name\": \"payload\", \"type\": \"bytes\"},"
+      + "{\"name\": \"status\", \"type\": {\"type\": \"enum\", \"name\": \"Status\", \"symbols\": [\"ON\", \"OFF\"]}},"
+      + "{\"name\": \"tags\", \"type\": {\"type\": \"map\", \"values\": \"string\"}},"
+      + "{\"name\": \"values\", \"type\": {\"type\": \"array\", \"items\": \"long\"}},"
+      + "{\"name\": \"points\", \"type\": {\"type\": \"array\", \"items\": {\"type\": \"record\", \"name\": \"Point\","
+      + " \"fields\": [{\"name\": \"x\", \"type\": \"float\"}, {\"name\": \"y\", \"type\": \"float\"},"
+      + " {\"name\": \"label\", \"type\": [\"null\", \"string\"]}]}}},"
+      + "{\"name\": \"pointsByName\", \"type\": {\"type\": \"map\", \"values\": \"Point\"}},"
+      + "{\"name\": \"origin\", \"type\": [\"null\", \"Point\"]}]}";
+
+  private final Random random = new Random(42);
+  private final Map<Object, Object> properties = new HashMap<>();
+
+  @Param({"benchmark", "nested"})
+  private String schemaName;
+
+  private Schema benchmarkSchema;
+
+  private byte[] serializedBytes;
+
+  private FastDeserializer<GenericRecord> avroDeserializer;
+  private FastDeserializer<GenericRecord> javacDeserializer;
+  private FastDeserializer<GenericRecord> planDeserializer;
+
+  public FastDeserializerBackendBenchmark() {
+    properties.put(AvroRandomDataGenerator.ARRAY_LENGTH_PROP, BenchmarkConstants.ARRAY_SIZE);
+    properties.put(AvroRandomDataGenerator.STRING_LENGTH_PROP, BenchmarkConstants.STRING_SIZE);
+    properties.put(AvroRandomDataGenerator.BYTES_LENGTH_PROP, BenchmarkConstants.BYTES_SIZE);
+    properties.put(AvroRandomDataGenerator.MAP_LENGTH_PROP, BenchmarkConstants.MAP_SIZE);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(FastDeserializerBackendBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  @SuppressWarnings("unchecked")
+  public void prepare() throws Exception {
+    benchmarkSchema = "nested".equals(schemaName) ? Schema.parse(NESTED_SCHEMA) : BenchmarkSchema.SCHEMA$;
+    GenericData.Record generatedRecord =
+        (GenericData.Record) new AvroRandomDataGenerator(benchmarkSchema, random).generate(properties);
+    serializedBytes = new AvroGenericSerializer(benchmarkSchema).serialize(generatedRecord);
+
+    avroDeserializer = new FastSerdeCache.FastDeserializerWithAvroGenericImpl<>(benchmarkSchema, benchmarkSchema);
+    javacDeserializer = (FastDeserializer<GenericRecord>) new FastSerdeCache(Runnable::run, () -> null, true,
+        FastDeserializerBackend.JAVAC).buildFastGenericDeserializer(benchmarkSchema, benchmarkSchema);
+    planDeserializer = (FastDeserializer<GenericRecord>) new FastSerdeCache(Runnable::run, () -> null, true,
+        FastDeserializerBackend.PLAN).buildFastGenericDeserializer(benchmarkSchema, benchmarkSchema);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testAvroDeserialization(Blackhole bh) throws Exception {
+    testDeserialization(avroDeserializer, bh);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testJavacDeserialization(Blackhole bh) throws Exception {
+    testDeserialization(javacDeserializer, bh);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testPlanDeserialization(Blackhole bh) throws Exception {
+    testDeserialization(planDeserializer, bh);
+  }
+
+  private void testDeserialization(FastDeserializer<GenericRecord> deserializer, Blackhole bh) throws Exception {
+    GenericRecord record = null;
+    BinaryDecoder decoder = null;
+    for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+      decoder = AvroCompatibilityHelper.newBinaryDecoder(serializedBytes, 0, serializedBytes.length, decoder);
+      record = deserializer.deserialize(record, decoder);
+      bh.consume(record);
+    }
+  }
+}
@@ -0,0 +1,94 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.generated.avro.BenchmarkSchema;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that compares the latency of building a generic {@link FastDeserializer} for the given Avro Schema
+ * with the javac based backend and with the plan based backend, see {@link FastDeserializerBackend}.
+ *
+ * It also compares generating the deserializers of many schema pairs one by one with generating them through
+ * {@link FastSerdeCache#prewarmGenericDeserializers(java.util.Collection)}, which compiles them all at once.
+ *
+ * Every invocation uses a brand new {@link FastSerdeCache}, so that nothing is reused between the generations.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+public class FastDeserializerGenerationBenchmark {
+  private static final int SCHEMA_PAIR_COUNT = 16;
+
+  private final Schema benchmarkSchema = BenchmarkSchema.SCHEMA$;
+  private final List<FastSerdeCache.SchemaPair> schemaPairs = new ArrayList<>();
+
+  public FastDeserializerGenerationBenchmark() {
+    for (int i = 0; i < SCHEMA_PAIR_COUNT; i++) {
+      // a distinct record name per pair, so that every pair needs its own deserializer class
+      Schema schema = Schema.parse(benchmarkSchema.toString().replaceFirst("\"BenchmarkSchema\"", "\"BenchmarkSchema" + i + "\""));
+      schemaPairs.add(new FastSerdeCache.SchemaPair(schema, schema));
+    }
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(FastDeserializerGenerationBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Benchmark
+  public void testJavacDeserializerGeneration(Blackhole bh) {
+    FastSerdeCache cache = new FastSerdeCache(Runnable::run, () -> null, true, FastDeserializerBackend.JAVAC);
+    bh.consume(cache.buildFastGenericDeserializer(benchmarkSchema, benchmarkSchema));
+  }
+
+  @Benchmark
+  public void testPlanDeserializerGeneration(Blackhole bh) {
+    FastSerdeCache cache = new FastSerdeCache(Runnable::run, () -> null, true, FastDeserializerBackend.PLAN);
+    bh.consume(cache.buildFastGenericDeserializer(benchmarkSchema, benchmarkSchema));
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void testSerialJavacDeserializersGeneration(Blackhole bh) {
+    FastSerdeCache cache = new FastSerdeCache(Runnable::run, () -> null, true, FastDeserializerBackend.JAVAC);
+    for (FastSerdeCache.SchemaPair schemaPair : schemaPairs) {
+      bh.consume(cache.buildFastGenericDeserializer(schemaPair.getWriterSchema(), schemaPair.getReaderSchema()));
+    }
+  }
+
+  @Benchmark
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  public void testPrewarmJavacDeserializersGeneration(Blackhole bh) {
+    FastSerdeCache cache = new FastSerdeCache(Runnable::run, () -> null, true, FastDeserializerBackend.JAVAC);
+    cache.prewarmGenericDeserializers(schemaPairs);
+    bh.consume(cache);
+  }
+}
@@ -0,0 +1,151 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.generator.AvroRandomDataGenerator;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.Encoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates the performance of reading avro json, comparing the fast json deserializer, see
+ * {@link FastGenericJsonDeserializerPlanGenerator}, with {@link GenericDatumReader} on top of the compatible json
+ * decoder, the same json being read both in schema order and with its fields in reverse order.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+public class JsonDeserializationBenchmark {
+  private static final int NUMBER_OF_OPERATIONS = 1_000;
+  private static final String SCHEMA = "{\"type\": \"record\", \"name\": \"JsonRecord\","
+      + " \"namespace\": \"com.linkedin.avro.fastserde.benchmark\", \"fields\": ["
+      + "{\"name\": \"id\", \"type\": \"long\"},"
+      + "{\"name\": \"name\", \"type\": \"string\"},"
+      + "{\"name\": \"score\", \"type\": \"double\"},"
+      + "{\"name\": \"status\", \"type\": {\"type\": \"enum\", \"name\": \"Status\", \"symbols\": [\"ON\", \"OFF\"]}},"
+      + "{\"name\": \"tags\", \"type\": {\"type\": \"map\", \"values\": \"string\"}},"
+      + "{\"name\": \"points\", \"type\": {\"type\": \"array\", \"items\": {\"type\": \"record\", \"name\": \"Point\","
+      + " \"fields\": [{\"name\": \"x\", \"type\": \"float\"}, {\"name\": \"label\", \"type\": \"string\"}]}}},"
+      + "{\"name\": \"comment\", \"type\": [\"null\", \"string\"]}]}";
+
+  private final Random random = new Random(42);
+  private final Map<Object, Object> properties = new HashMap<>();
+
+  private Schema schema;
+  private String json;
+  private String reversedJson;
+
+  private FastJsonDeserializer<GenericRecord> fastDeserializer;
+  private DatumReader<GenericRecord> datumReader;
+
+  public JsonDeserializationBenchmark() {
+    properties.put(AvroRandomDataGenerator.ARRAY_LENGTH_PROP, BenchmarkConstants.ARRAY_SIZE);
+    properties.put(AvroRandomDataGenerator.STRING_LENGTH_PROP, BenchmarkConstants.STRING_SIZE);
+    properties.put(AvroRandomDataGenerator.BYTES_LENGTH_PROP, BenchmarkConstants.BYTES_SIZE);
+    properties.put(AvroRandomDataGenerator.MAP_LENGTH_PROP, BenchmarkConstants.MAP_SIZE);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(JsonDeserializationBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  @SuppressWarnings("unchecked")
+  public void prepare() throws Exception {
+    schema = Schema.parse(SCHEMA);
+    GenericRecord record = (GenericRecord) new AvroRandomDataGenerator(schema, random).generate(properties);
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newJsonEncoder(schema, outputStream, false);
+    new GenericDatumWriter<GenericRecord>(schema).write(record, encoder);
+    encoder.flush();
+    json = new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+
+    // the top-level fields in reverse order, which the compatible decoder has to buffer
+    StringBuilder reversed = new StringBuilder("{");
+    for (int i = schema.getFields().size() - 1; i >= 0; i--) {
+      Schema.Field field = schema.getFields().get(i);
+      outputStream.reset();
+      encoder = AvroCompatibilityHelper.newJsonEncoder(field.schema(), outputStream, false);
+      new GenericDatumWriter<>(field.schema()).write(record.get(field.pos()), encoder);
+      encoder.flush();
+      reversed.append('"').append(field.name()).append("\":")
+          .append(new String(outputStream.toByteArray(), StandardCharsets.UTF_8))
+          .append(i > 0 ? ',' : '}');
+    }
+    reversedJson = reversed.toString();
+
+    fastDeserializer =
+        (FastJsonDeserializer<GenericRecord>) FastSerdeCache.getDefaultInstance().getFastGenericJsonDeserializer(schema);
+    datumReader = new GenericDatumReader<>(schema);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testFastJsonDeserialization(Blackhole bh) throws Exception {
+    for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+      bh.consume(fastDeserializer.deserialize(json));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testCompatibleJsonDecoderDeserialization(Blackhole bh) throws Exception {
+    for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+      bh.consume(datumReader.read(null, AvroCompatibilityHelper.newCompatibleJsonDecoder(schema, json)));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testFastJsonDeserializationOfReorderedFields(Blackhole bh) throws Exception {
+    for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+      bh.consume(fastDeserializer.deserialize(reversedJson));
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testCompatibleJsonDecoderDeserializationOfReorderedFields(Blackhole bh) throws Exception {
+    for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+      bh.consume(datumReader.read(null, AvroCompatibilityHelper.newCompatibleJsonDecoder(schema, reversedJson)));
+    }
+  }
+}
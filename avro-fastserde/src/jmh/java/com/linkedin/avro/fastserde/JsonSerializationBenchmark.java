@@ -0,0 +1,120 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.generator.AvroRandomDataGenerator;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import com.linkedin.avroutil1.compatibility.AvroVersion;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.Encoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates the performance of writing avro json, comparing the fast json serializer, see
+ * {@link FastGenericJsonSerializerPlanGenerator}, with {@link GenericDatumWriter} on top of the compatible json encoder.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+public class JsonSerializationBenchmark {
+  private static final int NUMBER_OF_OPERATIONS = 1_000;
+  private static final String SCHEMA = "{\"type\": \"record\", \"name\": \"JsonRecord\","
+      + " \"namespace\": \"com.linkedin.avro.fastserde.benchmark\", \"fields\": ["
+      + "{\"name\": \"id\", \"type\": \"long\"},"
+      + "{\"name\": \"name\", \"type\": \"string\"},"
+      + "{\"name\": \"score\", \"type\": \"double\"},"
+      + "{\"name\": \"status\", \"type\": {\"type\": \"enum\", \"name\": \"Status\", \"symbols\": [\"ON\", \"OFF\"]}},"
+      + "{\"name\": \"tags\", \"type\": {\"type\": \"map\", \"values\": \"string\"}},"
+      + "{\"name\": \"points\", \"type\": {\"type\": \"array\", \"items\": {\"type\": \"record\", \"name\": \"Point\","
+      + " \"fields\": [{\"name\": \"x\", \"type\": \"float\"}, {\"name\": \"label\", \"type\": \"string\"}]}}},"
+      + "{\"name\": \"comment\", \"type\": [\"null\", \"string\"]}]}";
+
+  private final Random random = new Random(42);
+  private final Map<Object, Object> properties = new HashMap<>();
+
+  private Schema schema;
+  private GenericRecord record;
+
+  private FastJsonSerializer<GenericRecord> fastSerializer;
+  private DatumWriter<GenericRecord> datumWriter;
+
+  public JsonSerializationBenchmark() {
+    properties.put(AvroRandomDataGenerator.ARRAY_LENGTH_PROP, BenchmarkConstants.ARRAY_SIZE);
+    properties.put(AvroRandomDataGenerator.STRING_LENGTH_PROP, BenchmarkConstants.STRING_SIZE);
+    properties.put(AvroRandomDataGenerator.BYTES_LENGTH_PROP, BenchmarkConstants.BYTES_SIZE);
+    properties.put(AvroRandomDataGenerator.MAP_LENGTH_PROP, BenchmarkConstants.MAP_SIZE);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(JsonSerializationBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  @SuppressWarnings("unchecked")
+  public void prepare() throws Exception {
+    schema = Schema.parse(SCHEMA);
+    record = (GenericRecord) new AvroRandomDataGenerator(schema, random).generate(properties);
+
+    fastSerializer = (FastJsonSerializer<GenericRecord>) FastSerdeCache.getDefaultInstance().buildFastGenericJsonSerializer(schema);
+    datumWriter = new GenericDatumWriter<>(schema);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testFastJsonSerialization(Blackhole bh) throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+      outputStream.reset();
+      fastSerializer.serialize(record, outputStream);
+      bh.consume(outputStream);
+    }
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testCompatibleJsonEncoderSerialization(Blackhole bh) throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+      outputStream.reset();
+      Encoder encoder = AvroCompatibilityHelper.newJsonEncoder(schema, outputStream, false, AvroVersion.latest());
+      datumWriter.write(record, encoder);
+      encoder.flush();
+      bh.consume(outputStream);
+    }
+  }
+}
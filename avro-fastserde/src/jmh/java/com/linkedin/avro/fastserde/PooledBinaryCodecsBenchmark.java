@@ -0,0 +1,138 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.generator.AvroRandomDataGenerator;
+import com.linkedin.avro.fastserde.micro.benchmark.AvroGenericSerializer;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import com.linkedin.avroutil1.compatibility.PooledBinaryCodecs;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates the allocations per message of the codecs created for each message, compared to the
+ * per-thread codecs borrowed with {@link AvroCompatibilityHelper#borrowPooledBinaryDecoder(byte[])},
+ * {@link AvroCompatibilityHelper#borrowPooledBinaryDecoder(java.io.InputStream)} and
+ * {@link AvroCompatibilityHelper#borrowPooledBinaryEncoder(java.io.OutputStream)}, run with the GC profiler.
+ *
+ * Records are reused and the output stream is reset, so that gc.alloc.rate.norm is mostly made of the codecs and
+ * their buffers, and of the strings of the record.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+public class PooledBinaryCodecsBenchmark {
+  private static final String SCHEMA = "{\"type\": \"record\", \"name\": \"PooledCodecsRecord\","
+      + " \"namespace\": \"com.linkedin.avro.fastserde.benchmark\", \"fields\": ["
+      + "{\"name\": \"id\", \"type\": \"long\"},"
+      + "{\"name\": \"name\", \"type\": \"string\"},"
+      + "{\"name\": \"score\", \"type\": \"double\"}]}";
+
+  private final Random random = new Random(42);
+  private final Map<Object, Object> properties = new HashMap<>();
+  private final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+  private byte[] serializedBytes;
+  private GenericRecord record;
+  private FastDeserializer<GenericRecord> deserializer;
+  private FastSerializer<GenericRecord> serializer;
+
+  public PooledBinaryCodecsBenchmark() {
+    properties.put(AvroRandomDataGenerator.STRING_LENGTH_PROP, BenchmarkConstants.STRING_SIZE);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(PooledBinaryCodecsBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  @SuppressWarnings("unchecked")
+  public void prepare() throws Exception {
+    Schema schema = Schema.parse(SCHEMA);
+    GenericRecord generatedRecord = (GenericRecord) new AvroRandomDataGenerator(schema, random).generate(properties);
+    serializedBytes = new AvroGenericSerializer(schema).serialize(generatedRecord);
+
+    FastSerdeCache cache = FastSerdeCache.getDefaultInstance();
+    deserializer = (FastDeserializer<GenericRecord>) cache.buildFastGenericDeserializer(schema, schema);
+    serializer = (FastSerializer<GenericRecord>) cache.buildFastGenericSerializer(schema);
+    record = deserializer.deserialize(AvroCompatibilityHelper.newBinaryDecoder(serializedBytes));
+  }
+
+  @Benchmark
+  public GenericRecord testDecodeArrayWithNewDecoder() throws Exception {
+    return record = deserializer.deserialize(record,
+        AvroCompatibilityHelper.newBinaryDecoder(serializedBytes, 0, serializedBytes.length, null));
+  }
+
+  @Benchmark
+  public GenericRecord testDecodeArrayWithPooledDecoder() throws Exception {
+    try (PooledBinaryCodecs.BorrowedDecoder decoder = AvroCompatibilityHelper.borrowPooledBinaryDecoder(serializedBytes)) {
+      return record = deserializer.deserialize(record, decoder.getDecoder());
+    }
+  }
+
+  @Benchmark
+  public GenericRecord testDecodeStreamWithNewDecoder() throws Exception {
+    return record = deserializer.deserialize(record,
+        AvroCompatibilityHelper.newBinaryDecoder(new ByteArrayInputStream(serializedBytes)));
+  }
+
+  @Benchmark
+  public GenericRecord testDecodeStreamWithPooledDecoder() throws Exception {
+    try (PooledBinaryCodecs.BorrowedDecoder decoder =
+        AvroCompatibilityHelper.borrowPooledBinaryDecoder(new ByteArrayInputStream(serializedBytes))) {
+      return record = deserializer.deserialize(record, decoder.getDecoder());
+    }
+  }
+
+  @Benchmark
+  public int testEncodeWithNewEncoder() throws Exception {
+    output.reset();
+    BinaryEncoder encoder = AvroCompatibilityHelper.newBinaryEncoder(output);
+    serializer.serialize(record, encoder);
+    encoder.flush();
+    return output.size();
+  }
+
+  @Benchmark
+  public int testEncodeWithPooledEncoder() throws Exception {
+    output.reset();
+    try (PooledBinaryCodecs.BorrowedEncoder encoder = AvroCompatibilityHelper.borrowPooledBinaryEncoder(output)) {
+      serializer.serialize(record, encoder.getEncoder());
+    }
+    return output.size();
+  }
+}
@@ -0,0 +1,173 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.generator.AvroRandomDataGenerator;
+import com.linkedin.avro.fastserde.micro.benchmark.AvroGenericSerializer;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DatumReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates the performance of reading a few fields out of wide records, with a reader schema
+ * dropping most of the fields, which are then skipped, compared to reading all of them.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+public class ProjectionBenchmark {
+  private static final int NUMBER_OF_OPERATIONS = 10_000;
+  private static final int NUMBER_OF_FIELDS = 200;
+  private static final int NUMBER_OF_PROJECTED_FIELDS = 4;
+
+  private final Random random = new Random(42);
+  private final Map<Object, Object> properties = new HashMap<>();
+
+  private Schema writerSchema;
+  private Schema readerSchema;
+  private byte[] serializedBytes;
+
+  private DatumReader<GenericRecord> fullFastDeserializer;
+  private DatumReader<GenericRecord> projectedFastDeserializer;
+  private DatumReader<GenericRecord> projectedDeserializer;
+
+  public ProjectionBenchmark() {
+    properties.put(AvroRandomDataGenerator.ARRAY_LENGTH_PROP, BenchmarkConstants.ARRAY_SIZE);
+    properties.put(AvroRandomDataGenerator.STRING_LENGTH_PROP, BenchmarkConstants.STRING_SIZE);
+    properties.put(AvroRandomDataGenerator.BYTES_LENGTH_PROP, BenchmarkConstants.BYTES_SIZE);
+    properties.put(AvroRandomDataGenerator.MAP_LENGTH_PROP, BenchmarkConstants.MAP_SIZE);
+  }
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(ProjectionBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+
+  /**
+   * @return a record whose fields cycle through numeric arrays, string maps, strings and small nested records
+   */
+  private static Schema wideSchema(int fieldCount) {
+    Schema point = Schema.parse("{\"type\": \"record\", \"name\": \"point\", \"fields\": ["
+        + "{\"name\": \"x\", \"type\": \"float\"}, {\"name\": \"y\", \"type\": \"double\"}]}");
+    List<Schema.Field> fields = new ArrayList<>(fieldCount);
+    for (int i = 0; i < fieldCount; i++) {
+      Schema fieldSchema;
+      switch (i % 5) {
+        case 0:
+          fieldSchema = Schema.create(Schema.Type.INT);
+          break;
+        case 1:
+          fieldSchema = Schema.createArray(Schema.create(Schema.Type.DOUBLE));
+          break;
+        case 2:
+          fieldSchema = Schema.createMap(Schema.create(Schema.Type.STRING));
+          break;
+        case 3:
+          fieldSchema = Schema.createArray(point);
+          break;
+        default:
+          fieldSchema = Schema.create(Schema.Type.STRING);
+      }
+      fields.add(AvroCompatibilityHelper.createSchemaField("field" + i, fieldSchema, null, null));
+    }
+    Schema schema = Schema.createRecord("WideRecord", null, "com.linkedin.avro.fastserde.benchmark", false);
+    schema.setFields(fields);
+    return schema;
+  }
+
+  private static Schema projection(Schema schema, int fieldCount) {
+    List<Schema.Field> fields = new ArrayList<>(fieldCount);
+    int step = schema.getFields().size() / fieldCount;
+    for (int i = 0; i < fieldCount; i++) {
+      Schema.Field field = schema.getFields().get(i * step);
+      fields.add(AvroCompatibilityHelper.createSchemaField(field.name(), field.schema(), null, null));
+    }
+    Schema projection = Schema.createRecord(schema.getName(), null, schema.getNamespace(), false);
+    projection.setFields(fields);
+    return projection;
+  }
+
+  @Setup(Level.Trial)
+  public void prepare() throws Exception {
+    writerSchema = wideSchema(NUMBER_OF_FIELDS);
+    readerSchema = projection(writerSchema, NUMBER_OF_PROJECTED_FIELDS);
+
+    GenericData.Record generatedRecord =
+        (GenericData.Record) new AvroRandomDataGenerator(writerSchema, random).generate(properties);
+    serializedBytes = new AvroGenericSerializer(writerSchema).serialize(generatedRecord);
+
+    // generate the fast deserializers upfront, so that warm-up iterations don't measure the slow path
+    FastSerdeCache cache = FastSerdeCache.getDefaultInstance();
+    cache.getFastGenericDeserializer(writerSchema, writerSchema);
+    cache.getFastGenericDeserializer(writerSchema, readerSchema);
+
+    fullFastDeserializer = new FastGenericDatumReader<>(writerSchema, writerSchema, cache);
+    projectedFastDeserializer = new FastGenericDatumReader<>(writerSchema, readerSchema, cache);
+    projectedDeserializer = new GenericDatumReader<>(writerSchema, readerSchema);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testFastAvroFullDeserialization(Blackhole bh) throws Exception {
+    deserialize(fullFastDeserializer, bh);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testFastAvroProjectedDeserialization(Blackhole bh) throws Exception {
+    deserialize(projectedFastDeserializer, bh);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testAvroProjectedDeserialization(Blackhole bh) throws Exception {
+    deserialize(projectedDeserializer, bh);
+  }
+
+  private void deserialize(DatumReader<GenericRecord> datumReader, Blackhole bh) throws Exception {
+    GenericRecord record = null;
+    BinaryDecoder decoder = null;
+    for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+      decoder = AvroCompatibilityHelper.newBinaryDecoder(serializedBytes, 0, serializedBytes.length, decoder);
+      record = datumReader.read(record, decoder);
+      bh.consume(record);
+    }
+  }
+}
@@ -0,0 +1,131 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates the performance of serializing generic records with a field holding a wide union of
+ * records, the values being spread over all the branches, so that the cost of finding the branch of each value shows.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+public class WideUnionSerializationBenchmark {
+  private static final int NUMBER_OF_OPERATIONS = 10_000;
+  private static final int NUMBER_OF_BRANCHES = 20;
+  private static final String NAMESPACE = "com.linkedin.avro.fastserde.benchmark";
+
+  private Schema schema;
+  private GenericRecord[] records;
+
+  private DatumWriter<GenericRecord> fastSerializer;
+  private DatumWriter<GenericRecord> serializer;
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(WideUnionSerializationBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+
+  /**
+   * @return a record with a single field, a union of null and of as many distinct small records as requested
+   */
+  private static Schema wideUnionSchema(int branchCount) {
+    List<Schema> branches = new ArrayList<>(branchCount + 1);
+    branches.add(Schema.create(Schema.Type.NULL));
+    for (int i = 0; i < branchCount; i++) {
+      Schema branch = Schema.createRecord("Branch" + i, null, NAMESPACE, false);
+      branch.setFields(Collections.singletonList(
+          AvroCompatibilityHelper.createSchemaField("id", Schema.create(Schema.Type.INT), null, null)));
+      branches.add(branch);
+    }
+    Schema schema = Schema.createRecord("WideUnionRecord", null, NAMESPACE, false);
+    schema.setFields(Collections.singletonList(
+        AvroCompatibilityHelper.createSchemaField("union", Schema.createUnion(branches), null, null)));
+    return schema;
+  }
+
+  @Setup(Level.Trial)
+  public void prepare() throws Exception {
+    schema = wideUnionSchema(NUMBER_OF_BRANCHES);
+    Schema unionSchema = schema.getField("union").schema();
+
+    records = new GenericRecord[NUMBER_OF_BRANCHES];
+    for (int i = 0; i < NUMBER_OF_BRANCHES; i++) {
+      GenericData.Record branch = new GenericData.Record(unionSchema.getTypes().get(i + 1));
+      branch.put("id", i);
+      GenericData.Record record = new GenericData.Record(schema);
+      record.put("union", branch);
+      records[i] = record;
+    }
+
+    // generate the fast serializer upfront, so that warm-up iterations don't measure the slow path
+    FastSerdeCache cache = FastSerdeCache.getDefaultInstance();
+    cache.getFastGenericSerializer(schema);
+
+    fastSerializer = new FastGenericDatumWriter<>(schema, cache);
+    serializer = new GenericDatumWriter<>(schema);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testFastAvroSerialization(Blackhole bh) throws Exception {
+    serialize(fastSerializer, bh);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testAvroSerialization(Blackhole bh) throws Exception {
+    serialize(serializer, bh);
+  }
+
+  private void serialize(DatumWriter<GenericRecord> datumWriter, Blackhole bh) throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    BinaryEncoder encoder = null;
+    for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+      outputStream.reset();
+      encoder = AvroCompatibilityHelper.newBinaryEncoder(outputStream, true, encoder);
+      datumWriter.write(records[i % NUMBER_OF_BRANCHES], encoder);
+      encoder.flush();
+      bh.consume(outputStream);
+    }
+  }
+}
@@ -10,6 +10,7 @@ import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericArray;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
 
 
 /**
@@ -32,7 +33,7 @@ import org.apache.avro.io.Decoder;
  *   after the first get access of the array so that sub-sequent array access are fast. For reuse case, we try to reuse
  *   the existing ByteBuffers as long as their capacity can hold the array.
  *
- *   TODO: Provide arrays for other primitive types.
+ *   See {@link ByteBufferBackedPrimitiveDoubleList} for doubles, the other primitive types being variable-length encoded.
  */
 public class ByteBufferBackedPrimitiveFloatList extends AbstractList<Float>
     implements GenericArray<Float>, Comparable<GenericArray<Float>>, PrimitiveFloatList {
@@ -116,6 +117,31 @@ public class ByteBufferBackedPrimitiveFloatList extends AbstractList<Float>
     list.size = totalSize;
   }
 
+  /**
+   * Writes the items of a float array, after {@link Encoder#setItemCount(long)}. The elements of a
+   * {@link ByteBufferBackedPrimitiveFloatList} which weren't decoded are written as is, with one {@link Encoder#writeFixed(byte[], int, int)}
+   * per block they were read from, when the encoder allows it, see {@link Utils#isPlainBinaryEncoder(Encoder)}.
+   *
+   * @param list list to write the elements of
+   * @param out {@link Encoder} to write the list to
+   * @throws IOException on io errors
+   */
+  public static void writePrimitiveFloatArray(PrimitiveFloatList list, Encoder out) throws IOException {
+    int size = list.size();
+    if (!Utils.isPlainBinaryEncoder(out)) {
+      for (int i = 0; i < size; i++) {
+        out.startItem();
+        out.writeFloat(list.getPrimitive(i));
+      }
+    } else if (list instanceof ByteBufferBackedPrimitiveFloatList && !((ByteBufferBackedPrimitiveFloatList) list).isCached) {
+      ((ByteBufferBackedPrimitiveFloatList) list).byteBuffer.writeTo(out);
+    } else {
+      for (int i = 0; i < size; i++) {
+        out.writeFloat(list.getPrimitive(i));
+      }
+    }
+  }
+
   /**
      * @param expected {@link Schema} to inspect
      * @return true if the {@code expected} SCHEMA is of the right type to decode as a {@link ByteBufferBackedPrimitiveFloatList}
@@ -0,0 +1,332 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * Binary {@link Encoder} writing straight into {@link ByteBuffer} segments acquired from a
+ * {@link ByteBufferSegmentPool}, heap or direct, instead of an {@link OutputStream}, to which the encoded bytes can
+ * still be copied with {@link #writeTo(OutputStream)}. The encoded bytes are exposed as a gather array, to be written
+ * to a {@link java.nio.channels.GatheringByteChannel} such as a {@link java.nio.channels.SocketChannel} or a
+ * {@link java.nio.channels.FileChannel} without copying them, after which the segments are recycled:
+ * <pre>
+ *   ByteBufferSegmentEncoder encoder = new ByteBufferSegmentEncoder(pool);
+ *   datumWriter.write(record, encoder);
+ *   ByteBuffer[] segments = encoder.getSegments();
+ *   long remaining = encoder.size();
+ *   while (remaining > 0) {
+ *     remaining -= channel.write(segments);
+ *   }
+ *   encoder.release();
+ * </pre>
+ *
+ * The encoding is the one of the binary encoders of Avro, and the encoder counts as one for
+ * {@link Utils#isPlainBinaryEncoder(Encoder)}, so that {@link FastGenericDatumWriter} and
+ * {@link FastSpecificDatumWriter} write primitive arrays to it in bulk.
+ *
+ * Bytes values of at least {@code minReferencedBytes} bytes, given as {@link ByteBuffer}s, are not copied: a view of
+ * them becomes a segment of its own, so those buffers must not be modified until the segments are written.
+ *
+ * Not thread-safe.
+ */
+public class ByteBufferSegmentEncoder extends Encoder {
+  private final ByteBufferSegmentPool pool;
+  private final int minReferencedBytes;
+  /** segments acquired from the pool, to be released */
+  private final List<ByteBuffer> acquiredSegments = new ArrayList<>();
+  /** views of the encoded bytes before the ones of the current segment */
+  private final List<ByteBuffer> completedViews = new ArrayList<>();
+  private long completedSize;
+  private ByteBuffer current;
+  /** position in the current segment of the first byte not in a completed view */
+  private int currentStart;
+
+  /**
+   * Creates an encoder copying all the values into the segments.
+   *
+   * @param pool pool to acquire segments from
+   */
+  public ByteBufferSegmentEncoder(ByteBufferSegmentPool pool) {
+    this(pool, Integer.MAX_VALUE);
+  }
+
+  /**
+   * @param pool pool to acquire segments from
+   * @param minReferencedBytes minimum size of the {@link ByteBuffer} bytes values referenced instead of being copied,
+   *                           see the class documentation
+   */
+  public ByteBufferSegmentEncoder(ByteBufferSegmentPool pool, int minReferencedBytes) {
+    if (minReferencedBytes < 1) {
+      throw new IllegalArgumentException("minReferencedBytes must be positive, got: " + minReferencedBytes);
+    }
+    this.pool = pool;
+    this.minReferencedBytes = minReferencedBytes;
+  }
+
+  /**
+   * @return new views of the bytes encoded so far, in order, each positioned at its first byte, which stay valid
+   *         until {@link #release()}
+   */
+  public ByteBuffer[] getSegments() {
+    int completedCount = completedViews.size();
+    boolean hasPendingBytes = current != null && current.position() > currentStart;
+    ByteBuffer[] segments = new ByteBuffer[hasPendingBytes ? completedCount + 1 : completedCount];
+    for (int i = 0; i < completedCount; i++) {
+      segments[i] = completedViews.get(i).duplicate();
+    }
+    if (hasPendingBytes) {
+      segments[completedCount] = view(current, currentStart, current.position());
+    }
+    return segments;
+  }
+
+  /**
+   * @return number of bytes encoded so far
+   */
+  public long size() {
+    return completedSize + (current == null ? 0 : current.position() - currentStart);
+  }
+
+  /**
+   * Copies the bytes encoded so far to a stream, for callers which can't gather write the segments. Heap segments are
+   * written as is, direct ones through an intermediate array.
+   *
+   * @param out stream to write the encoded bytes to, which is neither flushed nor closed
+   * @throws IOException if the stream can't be written
+   */
+  public void writeTo(OutputStream out) throws IOException {
+    byte[] chunk = null;
+    for (ByteBuffer segment : getSegments()) {
+      if (segment.hasArray()) {
+        out.write(segment.array(), segment.arrayOffset() + segment.position(), segment.remaining());
+        continue;
+      }
+      while (segment.hasRemaining()) {
+        if (chunk == null) {
+          chunk = new byte[(int) Math.min(size(), 8192)];
+        }
+        int length = Math.min(segment.remaining(), chunk.length);
+        segment.get(chunk, 0, length);
+        out.write(chunk, 0, length);
+      }
+    }
+  }
+
+  /**
+   * Gives the segments back to the pool, leaving the encoder empty and ready to encode again. The views returned by
+   * {@link #getSegments()} must not be used anymore.
+   */
+  public void release() {
+    for (ByteBuffer segment : acquiredSegments) {
+      pool.release(segment);
+    }
+    acquiredSegments.clear();
+    completedViews.clear();
+    completedSize = 0;
+    current = null;
+    currentStart = 0;
+  }
+
+  private static ByteBuffer view(ByteBuffer segment, int start, int end) {
+    ByteBuffer view = segment.duplicate();
+    view.limit(end);
+    view.position(start);
+    return view;
+  }
+
+  private void completeCurrentView() {
+    if (current != null && current.position() > currentStart) {
+      completedViews.add(view(current, currentStart, current.position()));
+      completedSize += current.position() - currentStart;
+      currentStart = current.position();
+    }
+  }
+
+  private void nextSegment() {
+    completeCurrentView();
+    current = pool.acquire();
+    acquiredSegments.add(current);
+    currentStart = 0;
+  }
+
+  /**
+   * Makes room for the given number of bytes, at most 16, in the current segment.
+   */
+  private void ensureRemaining(int length) {
+    if (current == null || current.remaining() < length) {
+      nextSegment();
+    }
+  }
+
+  /**
+   * Declared by {@link Encoder} up to avro 1.4 to redirect the output to another stream. Encoders of this class aren't
+   * backed by a stream, so the bytes encoded so far are written to the given one, see {@link #writeTo(OutputStream)},
+   * then the segments are released, see {@link #release()}.
+   *
+   * @param out stream to write the encoded bytes to
+   * @throws IOException if the stream can't be written
+   */
+  public void init(OutputStream out) throws IOException {
+    writeTo(out);
+    release();
+  }
+
+  @Override
+  public void flush() {
+  }
+
+  @Override
+  public void writeNull() {
+  }
+
+  @Override
+  public void writeBoolean(boolean b) {
+    ensureRemaining(1);
+    current.put(b ? (byte) 1 : (byte) 0);
+  }
+
+  @Override
+  public void writeInt(int n) {
+    ensureRemaining(5);
+    int zigZag = (n << 1) ^ (n >> 31);
+    while ((zigZag & ~0x7F) != 0) {
+      current.put((byte) ((zigZag & 0x7F) | 0x80));
+      zigZag >>>= 7;
+    }
+    current.put((byte) zigZag);
+  }
+
+  @Override
+  public void writeLong(long n) {
+    ensureRemaining(10);
+    long zigZag = (n << 1) ^ (n >> 63);
+    while ((zigZag & ~0x7FL) != 0) {
+      current.put((byte) ((zigZag & 0x7F) | 0x80));
+      zigZag >>>= 7;
+    }
+    current.put((byte) zigZag);
+  }
+
+  @Override
+  public void writeFloat(float f) {
+    ensureRemaining(4);
+    current.putFloat(f);
+  }
+
+  @Override
+  public void writeDouble(double d) {
+    ensureRemaining(8);
+    current.putDouble(d);
+  }
+
+  @Override
+  public void writeString(Utf8 utf8) {
+    writeBytes(utf8.getBytes(), 0, Utils.getUtf8ByteLength(utf8));
+  }
+
+  @Override
+  public void writeString(String string) {
+    if (string.isEmpty()) {
+      writeInt(0);
+      return;
+    }
+    byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+    writeBytes(bytes, 0, bytes.length);
+  }
+
+  @Override
+  public void writeBytes(ByteBuffer bytes) {
+    writeInt(bytes.remaining());
+    writeFixed(bytes);
+  }
+
+  @Override
+  public void writeBytes(byte[] bytes, int start, int len) {
+    writeInt(len);
+    writeFixed(bytes, start, len);
+  }
+
+  @Override
+  public void writeFixed(byte[] bytes, int start, int len) {
+    while (len > 0) {
+      if (current == null || !current.hasRemaining()) {
+        nextSegment();
+      }
+      int length = Math.min(len, current.remaining());
+      current.put(bytes, start, length);
+      start += length;
+      len -= length;
+    }
+  }
+
+  /**
+   * Writes the remaining bytes of the buffer, without moving its position, see the class documentation for the
+   * buffers which are referenced rather than copied. Only declared by {@link Encoder} since avro 1.7, hence not
+   * annotated as an override.
+   */
+  public void writeFixed(ByteBuffer bytes) {
+    int length = bytes.remaining();
+    if (length >= minReferencedBytes) {
+      completeCurrentView();
+      completedViews.add(bytes.slice());
+      completedSize += length;
+      return;
+    }
+    ByteBuffer source = bytes.duplicate();
+    int limit = source.limit();
+    while (source.hasRemaining()) {
+      if (current == null || !current.hasRemaining()) {
+        nextSegment();
+      }
+      source.limit(source.position() + Math.min(source.remaining(), current.remaining()));
+      current.put(source);
+      source.limit(limit);
+    }
+  }
+
+  @Override
+  public void writeEnum(int e) {
+    writeInt(e);
+  }
+
+  @Override
+  public void writeArrayStart() {
+  }
+
+  @Override
+  public void setItemCount(long itemCount) {
+    if (itemCount > 0) {
+      writeLong(itemCount);
+    }
+  }
+
+  @Override
+  public void startItem() {
+  }
+
+  @Override
+  public void writeArrayEnd() {
+    writeInt(0);
+  }
+
+  @Override
+  public void writeMapStart() {
+  }
+
+  @Override
+  public void writeMapEnd() {
+    writeInt(0);
+  }
+
+  @Override
+  public void writeIndex(int unionIndex) {
+    writeInt(unionIndex);
+  }
+}
@@ -0,0 +1,81 @@
+package com.linkedin.avro.fastserde;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.concurrent.ArrayBlockingQueue;
+
+
+/**
+ * Thread-safe pool of fixed-size {@link ByteBuffer} segments, heap or direct, written into by
+ * {@link ByteBufferSegmentEncoder}s. At most {@code maxPooledSegments} released segments are kept, segments acquired
+ * while the pool is empty being allocated.
+ */
+public class ByteBufferSegmentPool {
+  public static final int DEFAULT_SEGMENT_SIZE = 8192;
+  public static final int DEFAULT_MAX_POOLED_SEGMENTS = 1024;
+
+  private final int segmentSize;
+  private final boolean direct;
+  private final ArrayBlockingQueue<ByteBuffer> segments;
+
+  public ByteBufferSegmentPool(boolean direct) {
+    this(DEFAULT_SEGMENT_SIZE, direct, DEFAULT_MAX_POOLED_SEGMENTS);
+  }
+
+  /**
+   * @param segmentSize capacity of the segments, at least 16 bytes
+   * @param direct true to allocate direct segments, false for heap ones
+   * @param maxPooledSegments maximum number of released segments kept by the pool
+   */
+  public ByteBufferSegmentPool(int segmentSize, boolean direct, int maxPooledSegments) {
+    if (segmentSize < 16) {
+      throw new IllegalArgumentException("segmentSize must be at least 16, got: " + segmentSize);
+    }
+    if (maxPooledSegments < 1) {
+      throw new IllegalArgumentException("maxPooledSegments must be positive, got: " + maxPooledSegments);
+    }
+    this.segmentSize = segmentSize;
+    this.direct = direct;
+    this.segments = new ArrayBlockingQueue<>(maxPooledSegments);
+  }
+
+  /**
+   * @return an empty little-endian segment, owned by the caller until released
+   */
+  public ByteBuffer acquire() {
+    ByteBuffer segment = segments.poll();
+    if (segment == null) {
+      segment = direct ? ByteBuffer.allocateDirect(segmentSize) : ByteBuffer.allocate(segmentSize);
+      segment.order(ByteOrder.LITTLE_ENDIAN);
+    }
+    return segment;
+  }
+
+  /**
+   * Gives a segment back to the pool. It must not be used anymore by the caller, nor by views of it.
+   *
+   * @param segment segment returned by {@link #acquire()}, other buffers being ignored
+   */
+  public void release(ByteBuffer segment) {
+    if (segment.capacity() == segmentSize && segment.isDirect() == direct && !segment.isReadOnly()) {
+      segment.clear();
+      segment.order(ByteOrder.LITTLE_ENDIAN);
+      segments.offer(segment);
+    }
+  }
+
+  public int getSegmentSize() {
+    return segmentSize;
+  }
+
+  public boolean isDirect() {
+    return direct;
+  }
+
+  /**
+   * @return number of released segments currently kept by the pool
+   */
+  public int getPooledSegmentCount() {
+    return segments.size();
+  }
+}
@@ -1,10 +1,12 @@
 package com.linkedin.avro.fastserde;
 
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import org.apache.avro.io.Encoder;
 
 
 public class CompositeByteBuffer {
@@ -22,12 +24,18 @@ public class CompositeByteBuffer {
     if (byteBuffers.size() > index && byteBuffers.get(index).capacity() >= size) {
       byteBuffer = byteBuffers.get(index);
       byteBuffer.clear();
+      // a reused buffer may be larger than needed, only its first bytes hold elements
+      byteBuffer.limit(size);
     } else {
       byteBuffer = ByteBuffer.allocate((int)size).order(ByteOrder.LITTLE_ENDIAN);
     }
     if (index < byteBuffers.size()) {
       byteBuffers.set(index, byteBuffer);
     } else {
+      if (byteBuffers == Collections.<ByteBuffer>emptyList()) {
+        // lists created for the List interface usage only get ByteBuffers once reused for decoding
+        byteBuffers = new ArrayList<>(1);
+      }
       byteBuffers.add(byteBuffer);
     }
     return byteBuffer;
@@ -44,21 +52,39 @@ public class CompositeByteBuffer {
   }
 
   public float getElement(int i) {
-    int index = i * 4;
+    int offset = i * Float.BYTES;
     // most common case:
     if (byteBufferCount == 1) {
-      return byteBuffers.get(0).getFloat(index);
+      return byteBuffers.get(0).getFloat(offset);
+    }
+    int k = 0;
+    // find which byteBuffer holds the i-th item, and the offset of the item in it
+    while (offset >= byteBuffers.get(k).limit()) {
+      offset -= byteBuffers.get(k++).limit();
     }
+    return byteBuffers.get(k).getFloat(offset);
+  }
 
-    int k = 0, size = 0;
-    // find which byteBuffer holds the i-th item
-    while (index >= size) {
-      size += byteBuffers.get(k++).limit();
+  public double getDoubleElement(int i) {
+    int offset = i * Double.BYTES;
+    if (byteBufferCount == 1) {
+      return byteBuffers.get(0).getDouble(offset);
+    }
+    int k = 0;
+    while (offset >= byteBuffers.get(k).limit()) {
+      offset -= byteBuffers.get(k++).limit();
+    }
+    return byteBuffers.get(k).getDouble(offset);
+  }
+
+  /**
+   * Writes the bytes held by the buffers as is, one {@link Encoder#writeFixed(byte[], int, int)} per buffer.
+   */
+  public void writeTo(Encoder out) throws IOException {
+    for (int i = 0; i < byteBufferCount; i++) {
+      ByteBuffer byteBuffer = byteBuffers.get(i);
+      out.writeFixed(byteBuffer.array(), byteBuffer.arrayOffset(), byteBuffer.limit());
     }
-    k--;
-    // find the index on the byte buffer
-    int j = i - (size - byteBuffers.get(k).limit());
-    return byteBuffers.get(k).getFloat(j);
   }
 
   public void setArray(float[] array) {
@@ -70,4 +96,14 @@ public class CompositeByteBuffer {
       }
     }
   }
+
+  public void setArray(double[] array) {
+    int k = 0;
+    for (int i = 0; i < byteBufferCount; i++) {
+      ByteBuffer byteBuffer = byteBuffers.get(i);
+      for (int j = 0; j < byteBuffer.limit(); j += Double.BYTES) {
+        array[k++] = byteBuffer.getDouble(j);
+      }
+    }
+  }
 }
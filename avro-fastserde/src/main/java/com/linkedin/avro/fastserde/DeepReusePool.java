@@ -0,0 +1,124 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * State of a fast deserializer generated in deep reuse mode, which recycles whole object graphs across calls instead
+ * of only the object passed as reuse:
+ * <ul>
+ *   <li>objects handed back through {@link FastDeserializer#release(Object)} are pooled, and read into by the next
+ *   calls which aren't given any object to reuse, along with the records, lists, maps, {@link Utf8} and
+ *   {@link java.nio.ByteBuffer} they hold,</li>
+ *   <li>maps are read into in place, the value of each key being reused for the same key, and their {@link Utf8} keys
+ *   are interned, so that reading the same keys again allocates nothing,</li>
+ *   <li>generic enum symbols are canonical, one instance per symbol.</li>
+ * </ul>
+ *
+ * Not thread-safe, like the deserializer holding it.
+ */
+public final class DeepReusePool {
+  static final int MAX_RELEASED_OBJECTS = 32;
+  static final int MAX_INTERNED_KEYS = 4096;
+
+  private final ArrayDeque<Object> releasedObjects = new ArrayDeque<>();
+  private final Map<Utf8, Utf8> internedKeys = new HashMap<>();
+  /** Keys read into the maps being deserialized, the ones of nested maps stacked after those of enclosing maps */
+  private final List<Object> readKeys = new ArrayList<>();
+  private final Map<Schema, GenericData.EnumSymbol[]> enumSymbols = new IdentityHashMap<>();
+  private Utf8 scratchKey = new Utf8();
+
+  /**
+   * Gives an object, and everything it holds, back to the pool. It must not be used anymore by the caller.
+   *
+   * @param released object returned by the deserializer holding this pool
+   */
+  public void release(Object released) {
+    if (released != null && releasedObjects.size() < MAX_RELEASED_OBJECTS) {
+      releasedObjects.push(released);
+    }
+  }
+
+  /**
+   * To be called at the start of each deserialization.
+   *
+   * @param reuse object given to the deserializer to reuse
+   * @return the given object if any, otherwise an object previously released, or null if none
+   */
+  public Object reuseOrReleased(Object reuse) {
+    // left over by a deserialization which failed midway
+    readKeys.clear();
+    return reuse != null ? reuse : releasedObjects.poll();
+  }
+
+  /**
+   * To be called before reading the keys of a map, see {@link #removeUnreadKeys(Map, int)}.
+   *
+   * @return mark of the keys read so far
+   */
+  public int markKeys() {
+    return readKeys.size();
+  }
+
+  /**
+   * Reads a map key, returning the same {@link Utf8} instance as the previous times it was read, so that putting it
+   * again into the map it was read into before doesn't allocate anything.
+   */
+  public Utf8 readMapKey(Decoder decoder) throws IOException {
+    scratchKey = decoder.readString(scratchKey);
+    Utf8 key = internedKeys.get(scratchKey);
+    if (key == null) {
+      // copied, the scratch key being read into next time
+      key = new Utf8(Arrays.copyOf(scratchKey.getBytes(), Utils.getUtf8ByteLength(scratchKey)));
+      if (internedKeys.size() < MAX_INTERNED_KEYS) {
+        internedKeys.put(key, key);
+      }
+    }
+    readKeys.add(key);
+    return key;
+  }
+
+  /**
+   * Removes from a map read into in place the entries which weren't read this time.
+   *
+   * @param map map which was read into
+   * @param mark value returned by {@link #markKeys()} before reading the map
+   */
+  public void removeUnreadKeys(Map<?, ?> map, int mark) {
+    if (map.size() != readKeys.size() - mark) {
+      map.keySet().retainAll(new HashSet<>(readKeys.subList(mark, readKeys.size())));
+    }
+    for (int i = readKeys.size() - 1; i >= mark; i--) {
+      readKeys.remove(i);
+    }
+  }
+
+  /**
+   * @return the canonical symbol of the given generic enum
+   */
+  public GenericData.EnumSymbol enumSymbol(Schema enumSchema, int index) {
+    GenericData.EnumSymbol[] symbols = enumSymbols.get(enumSchema);
+    if (symbols == null) {
+      List<String> symbolNames = enumSchema.getEnumSymbols();
+      symbols = new GenericData.EnumSymbol[symbolNames.size()];
+      for (int i = 0; i < symbols.length; i++) {
+        symbols[i] = AvroCompatibilityHelper.newEnumSymbol(enumSchema, symbolNames.get(i));
+      }
+      enumSymbols.put(enumSchema, symbols);
+    }
+    return symbols[index];
+  }
+}
@@ -0,0 +1,116 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+
+/**
+ * Layout of Avro object container files, shared by {@link FastDataFileReader} and {@link FastDataFileWriter}: a header
+ * made of {@link #MAGIC}, a metadata map and a sync marker, followed by blocks of records, each one made of its record
+ * count, its size in bytes, its records encoded with the codec of the file, and the sync marker.
+ *
+ * Only the "null" and "deflate" codecs, which need no other library than the JDK, are supported.
+ */
+final class FastDataFileFormat {
+  static final byte[] MAGIC = {'O', 'b', 'j', 1};
+  static final int SYNC_SIZE = 16;
+  static final int DEFAULT_SYNC_INTERVAL = 64000;
+
+  static final String SCHEMA = "avro.schema";
+  static final String CODEC = "avro.codec";
+  static final String NULL_CODEC = "null";
+  static final String DEFLATE_CODEC = "deflate";
+
+  private FastDataFileFormat() {
+  }
+
+  static String checkCodec(String codec) {
+    if (!NULL_CODEC.equals(codec) && !DEFLATE_CODEC.equals(codec)) {
+      throw new UnsupportedOperationException("Unsupported codec: " + codec + ", only " + NULL_CODEC + " and "
+          + DEFLATE_CODEC + " are supported");
+    }
+    return codec;
+  }
+
+  /**
+   * @param data raw deflate compressed bytes, as written by the "deflate" codec
+   * @param length number of bytes to inflate from the start of data
+   * @return the inflated bytes, from the start of the returned array, which may be longer
+   * @throws IOException if the data is corrupted or truncated, or needs a preset dictionary
+   */
+  static byte[] inflate(byte[] data, int length) throws IOException {
+    Inflater inflater = new Inflater(true);
+    try {
+      inflater.setInput(data, 0, length);
+      byte[] inflated = new byte[Math.max(length * 4, 64)];
+      int size = 0;
+      while (!inflater.finished()) {
+        if (size == inflated.length) {
+          inflated = Arrays.copyOf(inflated, inflated.length * 2);
+        }
+        int inflatedSize = inflater.inflate(inflated, size, inflated.length - size);
+        if (inflatedSize == 0 && inflater.needsDictionary()) {
+          throw new IOException("Corrupted deflate block, a preset dictionary is needed");
+        }
+        if (inflatedSize == 0 && inflater.needsInput()) {
+          throw new IOException("Truncated deflate block");
+        }
+        size += inflatedSize;
+      }
+      return inflated;
+    } catch (DataFormatException e) {
+      throw new IOException("Corrupted deflate block", e);
+    } finally {
+      inflater.end();
+    }
+  }
+
+  /**
+   * Reads of zig-zag varint encoded longs and of raw bytes from a byte array, for the parts of the file which are
+   * parsed before any decoder is set up.
+   */
+  static final class ByteArrayCursor {
+    private final byte[] bytes;
+    private final int limit;
+    private int position;
+
+    ByteArrayCursor(byte[] bytes, int limit) {
+      this.bytes = bytes;
+      this.limit = limit;
+    }
+
+    int position() {
+      return position;
+    }
+
+    long readLong() throws IOException {
+      long value = 0;
+      for (int shift = 0; shift < 64; shift += 7) {
+        if (position == limit) {
+          throw new EOFException();
+        }
+        int b = bytes[position++] & 0xff;
+        value |= (long) (b & 0x7f) << shift;
+        if (b < 0x80) {
+          return (value >>> 1) ^ -(value & 1);
+        }
+      }
+      throw new IOException("Invalid long encoding");
+    }
+
+    byte[] readBytes(long length) throws IOException {
+      if (length < 0) {
+        throw new IOException("Malformed data. Length is negative: " + length);
+      }
+      if (length > limit - position) {
+        throw new EOFException();
+      }
+      byte[] result = Arrays.copyOfRange(bytes, position, position + (int) length);
+      position += (int) length;
+      return result;
+    }
+  }
+}
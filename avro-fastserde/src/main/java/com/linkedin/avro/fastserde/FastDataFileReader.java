@@ -0,0 +1,317 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.Closeable;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.io.DatumReader;
+import org.apache.avro.io.Decoder;
+
+
+/**
+ * Reader of Avro object container files, decompressing and decoding blocks in parallel, while still returning the
+ * records in the order of the file.
+ *
+ * The file is read with positional reads of a {@link FileChannel}: the calling thread only reads the few bytes giving
+ * the record count and size of each block, and each block is then read, decompressed and decoded by a worker, at most
+ * {@code maxBlocksInFlight} blocks ahead of the records being returned.
+ *
+ * The {@link DatumReader}, typically a {@link FastGenericDatumReader} or a {@link FastSpecificDatumReader}, is given
+ * the writer schema of the file through {@link DatumReader#setSchema(Schema)}, then shared by the workers, so its
+ * {@link DatumReader#read(Object, Decoder)} must be thread-safe, as the ones of the fast datum readers are. For
+ * instance:
+ * <pre>
+ *   try (FastDataFileReader&lt;GenericRecord&gt; reader =
+ *       new FastDataFileReader&lt;&gt;(file, new FastGenericDatumReader&lt;&gt;(null, readerSchema))) {
+ *     for (GenericRecord record : reader) {
+ *       ...
+ *     }
+ *   }
+ * </pre>
+ *
+ * Only the "null" and "deflate" codecs are supported.
+ */
+public class FastDataFileReader<D> implements Iterator<D>, Iterable<D>, Closeable {
+  private static final int HEADER_READ_SIZE = 8192;
+  /** record count and size of a block, as two longs of at most 10 bytes each */
+  private static final int BLOCK_HEADER_MAX_SIZE = 20;
+
+  private final FileChannel channel;
+  private final long fileSize;
+  private final DatumReader<D> datumReader;
+  private final Executor executor;
+  /** executor created by this reader, to be shut down on close */
+  private final ExecutorService ownExecutor;
+  private final int maxBlocksInFlight;
+
+  private final Schema schema;
+  private final Map<String, byte[]> metadata;
+  private final String codec;
+  private final byte[] sync;
+
+  private long nextBlockPosition;
+  private final Deque<Future<List<D>>> pendingBlocks = new ArrayDeque<>();
+  private List<D> block = Collections.emptyList();
+  private int blockIndex;
+
+  /**
+   * Creates a reader decoding blocks on as many daemon threads as there are available processors.
+   *
+   * @param file file to read
+   * @param datumReader reader of the records, see the class documentation
+   * @throws IOException if the file can't be opened, or its header is malformed
+   */
+  public FastDataFileReader(File file, DatumReader<D> datumReader) throws IOException {
+    this(file, datumReader, null, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * @param file file to read
+   * @param datumReader reader of the records, see the class documentation
+   * @param executor executor to decode blocks with, or null for this reader to use its own daemon threads, as many
+   *                 as {@code parallelism}
+   * @param parallelism number of blocks decoded at the same time, the reader reading at most twice as many blocks
+   *                    ahead of the records it returns
+   * @throws IOException if the file can't be opened, or its header is malformed
+   */
+  public FastDataFileReader(File file, DatumReader<D> datumReader, Executor executor, int parallelism)
+      throws IOException {
+    if (parallelism < 1) {
+      throw new IllegalArgumentException("parallelism must be positive, got: " + parallelism);
+    }
+    this.channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+    try {
+      this.fileSize = channel.size();
+      this.metadata = new HashMap<>();
+      FastDataFileFormat.ByteArrayCursor header = readHeader();
+      this.sync = header.readBytes(FastDataFileFormat.SYNC_SIZE);
+      this.nextBlockPosition = header.position();
+      byte[] schemaBytes = metadata.get(FastDataFileFormat.SCHEMA);
+      if (schemaBytes == null) {
+        throw new IOException("No schema in the header of " + file);
+      }
+      this.schema = AvroCompatibilityHelper.parse(new String(schemaBytes, StandardCharsets.UTF_8));
+      byte[] codecBytes = metadata.get(FastDataFileFormat.CODEC);
+      this.codec = FastDataFileFormat.checkCodec(
+          codecBytes == null ? FastDataFileFormat.NULL_CODEC : new String(codecBytes, StandardCharsets.UTF_8));
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+    this.datumReader = datumReader;
+    datumReader.setSchema(schema);
+    this.ownExecutor = executor == null ? newExecutor(parallelism) : null;
+    this.executor = executor == null ? ownExecutor : executor;
+    this.maxBlocksInFlight = parallelism * 2;
+  }
+
+  private static ExecutorService newExecutor(int threadCount) {
+    return Executors.newFixedThreadPool(threadCount, new ThreadFactory() {
+      private final AtomicInteger threadNumber = new AtomicInteger(1);
+
+      @Override
+      public Thread newThread(Runnable runnable) {
+        Thread thread = new Thread(runnable);
+        thread.setDaemon(true);
+        thread.setName("avro-fastserde-data-file-reader-thread-" + threadNumber.getAndIncrement());
+        return thread;
+      }
+    });
+  }
+
+  /**
+   * Parses the magic bytes and the metadata of the header, reading more of the file while the header doesn't fit.
+   *
+   * @return cursor positioned at the sync marker ending the header
+   */
+  private FastDataFileFormat.ByteArrayCursor readHeader() throws IOException {
+    int readSize = HEADER_READ_SIZE;
+    while (true) {
+      byte[] bytes = new byte[(int) Math.min(fileSize, readSize)];
+      int length = readFully(bytes, 0, bytes.length, 0);
+      FastDataFileFormat.ByteArrayCursor cursor = new FastDataFileFormat.ByteArrayCursor(bytes, length);
+      try {
+        if (!Arrays.equals(cursor.readBytes(FastDataFileFormat.MAGIC.length), FastDataFileFormat.MAGIC)) {
+          throw new IOException("Not an Avro data file");
+        }
+        metadata.clear();
+        for (long count = cursor.readLong(); count != 0; count = cursor.readLong()) {
+          if (count < 0) {
+            // followed by the size in bytes of the block
+            count = -count;
+            cursor.readLong();
+          }
+          for (long i = 0; i < count; i++) {
+            String key = new String(cursor.readBytes(cursor.readLong()), StandardCharsets.UTF_8);
+            metadata.put(key, cursor.readBytes(cursor.readLong()));
+          }
+        }
+        if (cursor.position() + FastDataFileFormat.SYNC_SIZE > length) {
+          throw new EOFException();
+        }
+        return cursor;
+      } catch (EOFException e) {
+        if (length == fileSize) {
+          throw new IOException("Truncated header", e);
+        }
+        readSize *= 4;
+      }
+    }
+  }
+
+  /**
+   * @return the number of bytes read, which is only less than {@code length} at the end of the file
+   */
+  private int readFully(byte[] bytes, int offset, int length, long position) throws IOException {
+    ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+    while (buffer.hasRemaining()) {
+      if (channel.read(buffer, position + buffer.position() - offset) < 0) {
+        break;
+      }
+    }
+    return buffer.position() - offset;
+  }
+
+  /**
+   * @return the writer schema of the file
+   */
+  public Schema getSchema() {
+    return schema;
+  }
+
+  /**
+   * @param key metadata key
+   * @return the value of the metadata of the header, or null if it isn't set
+   */
+  public byte[] getMeta(String key) {
+    return metadata.get(key);
+  }
+
+  /**
+   * @param key metadata key
+   * @return the value of the metadata of the header as an UTF-8 string, or null if it isn't set
+   */
+  public String getMetaString(String key) {
+    byte[] value = metadata.get(key);
+    return value == null ? null : new String(value, StandardCharsets.UTF_8);
+  }
+
+  @Override
+  public Iterator<D> iterator() {
+    return this;
+  }
+
+  @Override
+  public boolean hasNext() {
+    try {
+      while (blockIndex == block.size()) {
+        submitBlocks();
+        Future<List<D>> nextBlock = pendingBlocks.poll();
+        if (nextBlock == null) {
+          return false;
+        }
+        block = nextBlock.get();
+        blockIndex = 0;
+      }
+      return true;
+    } catch (ExecutionException e) {
+      throw new AvroRuntimeException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new AvroRuntimeException(e);
+    } catch (IOException e) {
+      throw new AvroRuntimeException(e);
+    }
+  }
+
+  @Override
+  public D next() {
+    if (!hasNext()) {
+      throw new NoSuchElementException();
+    }
+    return block.get(blockIndex++);
+  }
+
+  /**
+   * Submits the reads of the next blocks, until {@link #maxBlocksInFlight} blocks are pending.
+   */
+  private void submitBlocks() throws IOException {
+    byte[] blockHeader = new byte[BLOCK_HEADER_MAX_SIZE];
+    while (pendingBlocks.size() < maxBlocksInFlight && nextBlockPosition < fileSize) {
+      int length = readFully(blockHeader, 0, blockHeader.length, nextBlockPosition);
+      FastDataFileFormat.ByteArrayCursor cursor = new FastDataFileFormat.ByteArrayCursor(blockHeader, length);
+      long count = cursor.readLong();
+      long size = cursor.readLong();
+      long dataPosition = nextBlockPosition + cursor.position();
+      if (count < 0 || count > Integer.MAX_VALUE || size < 0 || size > Integer.MAX_VALUE - FastDataFileFormat.SYNC_SIZE
+          || size + FastDataFileFormat.SYNC_SIZE > fileSize - dataPosition) {
+        throw new IOException("Invalid block of " + count + " records and " + size + " bytes at position "
+            + nextBlockPosition + " of a file of " + fileSize + " bytes");
+      }
+      FutureTask<List<D>> task = new FutureTask<>(() -> readBlock(dataPosition, (int) size, (int) count));
+      executor.execute(task);
+      pendingBlocks.add(task);
+      nextBlockPosition = dataPosition + size + FastDataFileFormat.SYNC_SIZE;
+    }
+  }
+
+  /**
+   * Reads, decompresses and decodes a block, run by the workers.
+   */
+  private List<D> readBlock(long position, int size, int count) throws IOException {
+    byte[] bytes = new byte[size + FastDataFileFormat.SYNC_SIZE];
+    if (readFully(bytes, 0, bytes.length, position) < bytes.length) {
+      throw new EOFException("Truncated block at position " + position);
+    }
+    if (!Arrays.equals(Arrays.copyOfRange(bytes, size, bytes.length), sync)) {
+      throw new IOException("Invalid sync at position " + (position + size));
+    }
+    byte[] data = FastDataFileFormat.DEFLATE_CODEC.equals(codec) ? FastDataFileFormat.inflate(bytes, size) : bytes;
+    // trailing bytes, e.g. the sync marker, are left unread
+    Decoder decoder = AvroCompatibilityHelper.newBoundedMemoryDecoder(data);
+    // the count comes from the file, records of empty schemas taking no byte, so the list grows past the block size
+    // only as records are actually decoded
+    List<D> records = new ArrayList<>(Math.min(count, data.length + 1));
+    for (int i = 0; i < count; i++) {
+      records.add(datumReader.read(null, decoder));
+    }
+    return records;
+  }
+
+  @Override
+  public void close() throws IOException {
+    for (Future<List<D>> pendingBlock : pendingBlocks) {
+      pendingBlock.cancel(false);
+    }
+    pendingBlocks.clear();
+    if (ownExecutor != null) {
+      ownExecutor.shutdownNow();
+    }
+    channel.close();
+  }
+}
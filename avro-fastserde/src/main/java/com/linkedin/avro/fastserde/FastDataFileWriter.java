@@ -0,0 +1,270 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.zip.Deflater;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumWriter;
+
+
+/**
+ * Writer of Avro object container files, readable by {@link FastDataFileReader} as well as by the data file readers of
+ * Avro, records being written by a {@link DatumWriter}, typically a {@link FastGenericDatumWriter} or a
+ * {@link FastSpecificDatumWriter}.
+ *
+ * Records are buffered into a block, which is compressed and written once it holds at least the sync interval worth
+ * of bytes. Only the "null" and "deflate" codecs are supported.
+ */
+public class FastDataFileWriter<D> implements Closeable, Flushable {
+  private final DatumWriter<D> datumWriter;
+  private final Map<String, byte[]> metadata = new LinkedHashMap<>();
+  private String codec = FastDataFileFormat.NULL_CODEC;
+  private int deflateLevel = Deflater.DEFAULT_COMPRESSION;
+  private int syncInterval = FastDataFileFormat.DEFAULT_SYNC_INTERVAL;
+
+  private OutputStream out;
+  private BinaryEncoder fileEncoder;
+  private byte[] sync;
+  private final BlockBuffer blockBuffer = new BlockBuffer();
+  private BinaryEncoder blockEncoder;
+  private int blockCount;
+  private Deflater deflater;
+  private BlockBuffer deflatedBuffer;
+
+  public FastDataFileWriter(DatumWriter<D> datumWriter) {
+    this.datumWriter = datumWriter;
+  }
+
+  /**
+   * @param codec "null" or "deflate"
+   * @return this writer
+   */
+  public FastDataFileWriter<D> setCodec(String codec) {
+    assertNotOpen();
+    this.codec = FastDataFileFormat.checkCodec(codec);
+    return this;
+  }
+
+  /**
+   * @param deflateLevel compression level of the "deflate" codec, from 0 to 9, or -1 for the default level
+   * @return this writer
+   */
+  public FastDataFileWriter<D> setDeflateLevel(int deflateLevel) {
+    assertNotOpen();
+    if (deflateLevel < Deflater.DEFAULT_COMPRESSION || deflateLevel > Deflater.BEST_COMPRESSION) {
+      throw new IllegalArgumentException("Invalid deflate level: " + deflateLevel);
+    }
+    this.deflateLevel = deflateLevel;
+    return this;
+  }
+
+  /**
+   * @param syncInterval approximate number of uncompressed bytes of the blocks, 64000 by default
+   * @return this writer
+   */
+  public FastDataFileWriter<D> setSyncInterval(int syncInterval) {
+    if (syncInterval < 32 || syncInterval > (1 << 30)) {
+      throw new IllegalArgumentException("Invalid sync interval: " + syncInterval);
+    }
+    this.syncInterval = syncInterval;
+    return this;
+  }
+
+  public FastDataFileWriter<D> setMeta(String key, byte[] value) {
+    assertNotOpen();
+    if (key.startsWith("avro.")) {
+      throw new AvroRuntimeException("Cannot set reserved meta key: " + key);
+    }
+    metadata.put(key, value);
+    return this;
+  }
+
+  public FastDataFileWriter<D> setMeta(String key, String value) {
+    return setMeta(key, value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public FastDataFileWriter<D> create(Schema schema, File file) throws IOException {
+    return create(schema, new FileOutputStream(file));
+  }
+
+  /**
+   * Writes the header of the file, the stream being closed by {@link #close()}.
+   *
+   * @param schema schema of the records
+   * @param outputStream stream to write the file to
+   * @return this writer
+   * @throws IOException on io errors
+   */
+  public FastDataFileWriter<D> create(Schema schema, OutputStream outputStream) throws IOException {
+    assertNotOpen();
+    datumWriter.setSchema(schema);
+    out = new BufferedOutputStream(outputStream);
+    fileEncoder = AvroCompatibilityHelper.newBinaryEncoder(out, true, null);
+    blockEncoder = AvroCompatibilityHelper.newBinaryEncoder(blockBuffer, true, null);
+    if (FastDataFileFormat.DEFLATE_CODEC.equals(codec)) {
+      deflater = new Deflater(deflateLevel, true);
+      deflatedBuffer = new BlockBuffer();
+    }
+    UUID uuid = UUID.randomUUID();
+    sync = ByteBuffer.allocate(FastDataFileFormat.SYNC_SIZE)
+        .putLong(uuid.getMostSignificantBits())
+        .putLong(uuid.getLeastSignificantBits())
+        .array();
+
+    Map<String, byte[]> header = new LinkedHashMap<>();
+    header.put(FastDataFileFormat.SCHEMA, schema.toString().getBytes(StandardCharsets.UTF_8));
+    header.put(FastDataFileFormat.CODEC, codec.getBytes(StandardCharsets.UTF_8));
+    header.putAll(metadata);
+    fileEncoder.writeFixed(FastDataFileFormat.MAGIC);
+    fileEncoder.writeMapStart();
+    fileEncoder.setItemCount(header.size());
+    for (Map.Entry<String, byte[]> entry : header.entrySet()) {
+      fileEncoder.startItem();
+      fileEncoder.writeString(entry.getKey());
+      fileEncoder.writeBytes(entry.getValue());
+    }
+    fileEncoder.writeMapEnd();
+    fileEncoder.writeFixed(sync);
+    fileEncoder.flush();
+    return this;
+  }
+
+  private void assertNotOpen() {
+    if (out != null) {
+      throw new AvroRuntimeException("already open");
+    }
+  }
+
+  private void assertOpen() {
+    if (out == null) {
+      throw new AvroRuntimeException("not open");
+    }
+  }
+
+  /**
+   * Appends a record to the current block, which is left as it was if the record can't be written.
+   *
+   * @param datum record to append
+   * @throws IOException on io errors
+   */
+  public void append(D datum) throws IOException {
+    assertOpen();
+    int blockSize = blockBuffer.size();
+    try {
+      datumWriter.write(datum, blockEncoder);
+      blockEncoder.flush();
+    } catch (IOException | RuntimeException e) {
+      // drops the part of the record buffered by the encoder, then the part already in the block
+      blockEncoder.flush();
+      blockBuffer.truncate(blockSize);
+      throw e;
+    }
+    blockCount++;
+    if (blockBuffer.size() >= syncInterval) {
+      writeBlock();
+    }
+  }
+
+  /**
+   * Ends the current block, if any.
+   *
+   * @throws IOException on io errors
+   */
+  public void sync() throws IOException {
+    assertOpen();
+    writeBlock();
+  }
+
+  private void writeBlock() throws IOException {
+    if (blockCount == 0) {
+      return;
+    }
+    byte[] data = blockBuffer.buffer();
+    int size = blockBuffer.size();
+    if (deflater != null) {
+      deflater.reset();
+      deflater.setInput(data, 0, size);
+      deflater.finish();
+      deflatedBuffer.reset();
+      deflatedBuffer.ensureCapacity(size + 64);
+      while (!deflater.finished()) {
+        deflatedBuffer.ensureCapacity(deflatedBuffer.size() + 1);
+        deflatedBuffer.deflate(deflater);
+      }
+      data = deflatedBuffer.buffer();
+      size = deflatedBuffer.size();
+    }
+    fileEncoder.writeLong(blockCount);
+    fileEncoder.writeLong(size);
+    fileEncoder.writeFixed(data, 0, size);
+    fileEncoder.writeFixed(sync);
+    blockBuffer.reset();
+    blockCount = 0;
+  }
+
+  /**
+   * Ends the current block and flushes the file.
+   *
+   * @throws IOException on io errors
+   */
+  @Override
+  public void flush() throws IOException {
+    sync();
+    fileEncoder.flush();
+    out.flush();
+  }
+
+  @Override
+  public void close() throws IOException {
+    if (out == null) {
+      return;
+    }
+    try {
+      flush();
+    } finally {
+      if (deflater != null) {
+        deflater.end();
+      }
+      out.close();
+      out = null;
+    }
+  }
+
+  /**
+   * {@link ByteArrayOutputStream} giving access to its buffer, to write it without copying it.
+   */
+  private static final class BlockBuffer extends ByteArrayOutputStream {
+    byte[] buffer() {
+      return buf;
+    }
+
+    void ensureCapacity(int capacity) {
+      if (buf.length < capacity) {
+        buf = Arrays.copyOf(buf, Math.max(capacity, buf.length * 2));
+      }
+    }
+
+    void truncate(int size) {
+      count = size;
+    }
+
+    void deflate(Deflater deflater) {
+      count += deflater.deflate(buf, count, buf.length - count);
+    }
+  }
+}
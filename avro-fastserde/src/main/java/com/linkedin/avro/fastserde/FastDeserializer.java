@@ -1,6 +1,10 @@
 package com.linkedin.avro.fastserde;
 
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.Decoder;
 
 
@@ -11,4 +15,81 @@ public interface FastDeserializer<T> {
   }
 
   T deserialize(T reuse, Decoder d) throws IOException;
+
+  /**
+   * Decodes a batch of binary encoded records, framed in one array, with a single decoder reconfigured for each
+   * record. The deserializers generated by this library override this method with a loop calling their own
+   * {@link #deserialize(Object, Decoder)}, so that its call site sees a single deserializer class.
+   *
+   * @param data array holding the encoded records
+   * @param offsets offset in data of each record
+   * @param lengths length in bytes of each record
+   * @param count number of records to decode
+   * @param records list receiving the records: its first elements are passed as reuse, and replaced by the decoded
+   *                records, which are appended past its size
+   * @throws IOException on io errors
+   */
+  default void deserializeBatch(byte[] data, int[] offsets, int[] lengths, int count, List<T> records)
+      throws IOException {
+    BinaryDecoder decoder = null;
+    int reusableCount = Math.min(count, records.size());
+    for (int i = 0; i < count; i++) {
+      decoder = AvroCompatibilityHelper.newBinaryDecoder(data, offsets[i], lengths[i], decoder);
+      if (i < reusableCount) {
+        records.set(i, deserialize(records.get(i), decoder));
+      } else {
+        records.add(deserialize(null, decoder));
+      }
+    }
+  }
+
+  /**
+   * Same as {@link #deserializeBatch(byte[], int[], int[], int, List)}, the offsets being absolute indexes in the
+   * buffer, whose position and limit are left unchanged. The records of direct or read-only buffers are decoded in
+   * place, see {@link AvroCompatibilityHelper#newBinaryDecoder(ByteBuffer, Decoder)}.
+   *
+   * @param buffer buffer holding the encoded records
+   * @param offsets index in buffer of each record
+   * @param lengths length in bytes of each record
+   * @param count number of records to decode
+   * @param records list receiving the records, see {@link #deserializeBatch(byte[], int[], int[], int, List)}
+   * @throws IOException on io errors
+   */
+  default void deserializeBatch(ByteBuffer buffer, int[] offsets, int[] lengths, int count, List<T> records)
+      throws IOException {
+    if (buffer.hasArray() && buffer.arrayOffset() == 0) {
+      deserializeBatch(buffer.array(), offsets, lengths, count, records);
+    } else if (buffer.hasArray()) {
+      int[] arrayOffsets = new int[count];
+      for (int i = 0; i < count; i++) {
+        arrayOffsets[i] = buffer.arrayOffset() + offsets[i];
+      }
+      deserializeBatch(buffer.array(), arrayOffsets, lengths, count, records);
+    } else {
+      ByteBuffer view = buffer.duplicate();
+      Decoder decoder = null;
+      int reusableCount = Math.min(count, records.size());
+      for (int i = 0; i < count; i++) {
+        view.clear();
+        view.position(offsets[i]);
+        view.limit(offsets[i] + lengths[i]);
+        decoder = AvroCompatibilityHelper.newBinaryDecoder(view, decoder);
+        if (i < reusableCount) {
+          records.set(i, deserialize(records.get(i), decoder));
+        } else {
+          records.add(deserialize(null, decoder));
+        }
+      }
+    }
+  }
+
+  /**
+   * Gives back an object returned by this deserializer, which the caller won't use anymore, nor anything it holds, so
+   * that it can be recycled by the next calls. Only deserializers generated in deep reuse mode pool the released
+   * objects, see {@link DeepReusePool}, the others ignore them.
+   *
+   * @param released object returned by this deserializer
+   */
+  default void release(T released) {
+  }
 }
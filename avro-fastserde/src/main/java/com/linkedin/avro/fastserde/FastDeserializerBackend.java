@@ -0,0 +1,18 @@
+package com.linkedin.avro.fastserde;
+
+/**
+ * Backend used by {@link FastSerdeCache} to build generic {@link FastDeserializer}s.
+ */
+public enum FastDeserializerBackend {
+  /**
+   * Java source is generated for each schema pair and compiled with javac, see {@link FastGenericDeserializerGenerator}.
+   * Fastest at runtime, but needs a JDK and takes hundreds of milliseconds per schema pair.
+   */
+  JAVAC,
+  /**
+   * Schema pair is resolved into a plan of pre-compiled reading steps, see {@link FastGenericDeserializerPlanGenerator}.
+   * Takes well under a millisecond per schema pair and works with a plain JRE. Decodes nested records somewhat slower
+   * than {@link #JAVAC}, while still much faster than the readers of Avro, see FastDeserializerBackendBenchmark.
+   */
+  PLAN
+}
@@ -1,8 +1,15 @@
 package com.linkedin.avro.fastserde;
 
+import com.linkedin.avro.api.PrimitiveBooleanList;
+import com.linkedin.avro.api.PrimitiveDoubleList;
 import com.linkedin.avro.api.PrimitiveFloatList;
+import com.linkedin.avro.api.PrimitiveIntList;
+import com.linkedin.avro.api.PrimitiveLongList;
 import com.linkedin.avro.fastserde.backport.ResolvingGrammarGenerator;
 import com.linkedin.avro.fastserde.backport.Symbol;
+import com.linkedin.avro.fastserde.primitive.PrimitiveBooleanArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveIntArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveLongArrayList;
 import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
 import com.sun.codemodel.JArray;
 import com.sun.codemodel.JBlock;
@@ -17,6 +24,7 @@ import com.sun.codemodel.JForLoop;
 import com.sun.codemodel.JInvocation;
 import com.sun.codemodel.JMethod;
 import com.sun.codemodel.JMod;
+import com.sun.codemodel.JOp;
 import com.sun.codemodel.JPackage;
 import com.sun.codemodel.JStatement;
 import com.sun.codemodel.JTryBlock;
@@ -44,6 +52,7 @@ import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericFixed;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.Decoder;
 import org.apache.avro.util.Utf8;
 import org.apache.commons.lang3.StringUtils;
@@ -55,6 +64,7 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
   private static final Logger LOGGER = LoggerFactory.getLogger(FastDeserializerGenerator.class);
   private static final String DECODER = "decoder";
   private static final String VAR_NAME_FOR_REUSE = "reuse";
+  private static final String REUSE_POOL = "reusePool";
   private static int FIELDS_PER_POPULATION_METHOD = 100;
 
   /**
@@ -70,14 +80,64 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
   private Map<String, JMethod> deserializeMethodMap = new HashMap<>();
   private Map<String, JMethod> skipMethodMap = new HashMap<>();
   private Map<JMethod, Set<Class<? extends Exception>>> exceptionFromMethodMap = new HashMap<>();
+  /**
+   * Whether the generated deserializer recycles whole object graphs through a {@link DeepReusePool}, which makes its
+   * instances stateful, so that they can't be shared between threads.
+   */
+  private final boolean deepReuse;
+  /**
+   * Whether the generated deserializer reads strings and bytes as views over the decoded array, see
+   * {@link ZeroCopyDecoding}, strings being then typed as {@link CharSequence} rather than {@link Utf8}.
+   */
+  private final boolean zeroCopy;
 
   FastDeserializerGenerator(boolean useGenericTypes, Schema writer, Schema reader, File destination,
       ClassLoader classLoader, String compileClassPath) {
-    super(useGenericTypes, writer, reader, destination, classLoader, compileClassPath);
+    this(useGenericTypes, writer, reader, destination, classLoader, compileClassPath, false);
+  }
+
+  FastDeserializerGenerator(boolean useGenericTypes, Schema writer, Schema reader, File destination,
+      ClassLoader classLoader, String compileClassPath, boolean deepReuse) {
+    this(useGenericTypes, writer, reader, destination, classLoader, compileClassPath, deepReuse, false);
+  }
+
+  FastDeserializerGenerator(boolean useGenericTypes, Schema writer, Schema reader, File destination,
+      ClassLoader classLoader, String compileClassPath, boolean deepReuse, boolean zeroCopy) {
+    super(useGenericTypes, writer, reader, destination, classLoader, compileClassPath,
+        zeroCopy ? CharSequence.class : Utf8.class);
+    if (zeroCopy && (deepReuse || !useGenericTypes)) {
+      throw new FastDeserializerGeneratorException("Zero-copy mode is only available for generic deserializers");
+    }
+    this.deepReuse = deepReuse;
+    this.zeroCopy = zeroCopy;
   }
 
   public FastDeserializer<T> generateDeserializer() {
-    String className = getClassName(writer, reader, useGenericTypes ? "Generic" : "Specific");
+    String className = defineDeserializerClass();
+    try {
+      Class<FastDeserializer<T>> clazz = compileClass(className);
+      return newDeserializer(clazz);
+    } catch (Exception e) {
+      throw new FastDeserializerGeneratorException(e);
+    }
+  }
+
+  /**
+   * @param clazz compiled deserializer class
+   * @return a new instance of the given deserializer class for the reader schema of this generator
+   */
+  @SuppressWarnings("unchecked")
+  FastDeserializer<T> newDeserializer(Class<?> clazz) throws ReflectiveOperationException {
+    return (FastDeserializer<T>) clazz.getConstructor(Schema.class).newInstance(reader);
+  }
+
+  /**
+   * Defines the deserializer class in the code model, without compiling it.
+   *
+   * @return simple name of the deserializer class
+   */
+  String defineDeserializerClass() {
+    String className = getClassName(writer, reader, getDescription(useGenericTypes, deepReuse, zeroCopy));
     JPackage classPackage = codeModel._package(generatedPackageName);
 
     try {
@@ -113,6 +173,17 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
 
       JBlock topLevelDeserializeBlock = new JBlock();
 
+      if (deepReuse) {
+        generatedClass.field(JMod.PRIVATE | JMod.FINAL, DeepReusePool.class, REUSE_POOL,
+            JExpr._new(codeModel.ref(DeepReusePool.class)));
+        topLevelDeserializeBlock.assign(JExpr.ref(VAR_NAME_FOR_REUSE), JExpr.cast(readerSchemaClass,
+            JExpr.direct(REUSE_POOL).invoke("reuseOrReleased").arg(JExpr.direct(VAR_NAME_FOR_REUSE))));
+
+        JMethod releaseMethod = generatedClass.method(JMod.PUBLIC, codeModel.VOID, "release");
+        JVar releasedParam = releaseMethod.param(readerSchemaClass, "released");
+        releaseMethod.body().invoke(JExpr.direct(REUSE_POOL), "release").arg(releasedParam);
+      }
+
       final Supplier<JExpression> reuseSupplier = () -> JExpr.direct(VAR_NAME_FOR_REUSE);
       switch (aliasedWriterSchema.getType()) {
         case RECORD:
@@ -148,9 +219,8 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
       deserializeMethod._throws(codeModel.ref(IOException.class));
       deserializeMethod.param(readerSchemaClass, VAR_NAME_FOR_REUSE);
       deserializeMethod.param(Decoder.class, DECODER);
-
-      Class<FastDeserializer<T>> clazz = compileClass(className, schemaAssistant.getUsedFullyQualifiedClassNameSet());
-      return clazz.getConstructor(Schema.class).newInstance(reader);
+      defineDeserializeBatchMethod(readerSchemaClass, deserializeMethod);
+      return className;
     } catch (JClassAlreadyExistsException e) {
       throw new FastDeserializerGeneratorException("Class: " + className + " already exists");
     } catch (Exception e) {
@@ -158,6 +228,46 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
     }
   }
 
+  /**
+   * Overrides {@link FastDeserializer#deserializeBatch(byte[], int[], int[], int, List)} with the same loop, so that
+   * the calls to the deserialize method have a single receiver class.
+   */
+  private void defineDeserializeBatchMethod(JClass readerSchemaClass, JMethod deserializeMethod) {
+    JMethod batchMethod = generatedClass.method(JMod.PUBLIC, codeModel.VOID, "deserializeBatch");
+    JVar dataParam = batchMethod.param(byte[].class, "data");
+    JVar offsetsParam = batchMethod.param(int[].class, "offsets");
+    JVar lengthsParam = batchMethod.param(int[].class, "lengths");
+    JVar countParam = batchMethod.param(codeModel.INT, "count");
+    JVar recordsParam = batchMethod.param(codeModel.ref(List.class).narrow(readerSchemaClass), "records");
+    batchMethod._throws(codeModel.ref(IOException.class));
+
+    JBlock body = batchMethod.body();
+    JVar decoderVar = body.decl(codeModel.ref(BinaryDecoder.class), "batchDecoder", JExpr._null());
+    JVar reusableCountVar = body.decl(codeModel.INT, "reusableCount",
+        codeModel.ref(Math.class).staticInvoke("min").arg(countParam).arg(recordsParam.invoke("size")));
+    JForLoop forLoop = body._for();
+    JVar counter = forLoop.init(codeModel.INT, "i", JExpr.lit(0));
+    forLoop.test(counter.lt(countParam));
+    forLoop.update(counter.incr());
+    JBlock forBody = forLoop.body();
+    forBody.assign(decoderVar, codeModel.ref(AvroCompatibilityHelper.class).staticInvoke("newBinaryDecoder")
+        .arg(dataParam)
+        .arg(offsetsParam.component(counter))
+        .arg(lengthsParam.component(counter))
+        .arg(decoderVar));
+    JConditional ifReusable = forBody._if(counter.lt(reusableCountVar));
+    ifReusable._then().invoke(recordsParam, "set").arg(counter)
+        .arg(JExpr.invoke(deserializeMethod).arg(recordsParam.invoke("get").arg(counter)).arg(decoderVar));
+    ifReusable._else().invoke(recordsParam, "add").arg(JExpr.invoke(deserializeMethod).arg(JExpr._null()).arg(decoderVar));
+  }
+
+  /**
+   * @return description of the deserializer class, part of its name
+   */
+  static String getDescription(boolean useGenericTypes, boolean deepReuse, boolean zeroCopy) {
+    return (useGenericTypes ? "Generic" : "Specific") + (deepReuse ? "DeepReuse" : "") + (zeroCopy ? "ZeroCopy" : "");
+  }
+
   private void processComplexType(JVar fieldSchemaVar, String name, Schema schema, Schema readerFieldSchema,
       JBlock methodBody, FieldAction action, BiConsumer<JBlock, JExpression> putExpressionIntoParent,
       Supplier<JExpression> reuseSupplier) {
@@ -209,6 +319,13 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
 
     ListIterator<Symbol> actionIterator = actionIterator(recordAction);
 
+    int fixedEncodedSize = SchemaAssistant.getFixedEncodedSize(recordWriterSchema);
+    if (!recordAction.getShouldRead() && fixedEncodedSize >= 0) {
+      // only made of fixed-size fields, so skipped at once
+      parentBody.directStatement(DECODER + ".skipFixed(" + fixedEncodedSize + ");");
+      return;
+    }
+
     if (methodAlreadyDefined(recordWriterSchema, recordReaderSchema, recordAction.getShouldRead())) {
       JMethod method = getMethod(recordWriterSchema, recordReaderSchema, recordAction.getShouldRead());
       updateActualExceptions(method);
@@ -283,7 +400,8 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
         JInvocation finalNewRecordInvocation = newRecord;
         JClass finalRecordClass = recordClass;
         ifCodeGen(methodBody,
-            reuseVar.ne(JExpr._null()),
+            // in deep reuse mode, the reused value of a map or the released object may be of any other type
+            deepReuse ? reuseVar._instanceof(finalRecordClass) : reuseVar.ne(JExpr._null()),
             thenBlock -> thenBlock.assign(result, JExpr.cast(finalRecordClass, reuseVar)),
             elseBlock -> elseBlock.assign(result, finalNewRecordInvocation)
         );
@@ -560,6 +678,10 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
 
       if (Schema.Type.NULL.equals(optionSchema.getType())) {
         thenBlock.directStatement(DECODER + ".readNull();");
+        if (deepReuse && action.getShouldRead()) {
+          // otherwise the value read into the reused record, map or list last time would be left there
+          putValueIntoParent.accept(thenBlock, JExpr._null());
+        }
         continue;
       }
 
@@ -654,14 +776,13 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
       action =
           FieldAction.fromValues(arraySchema.getElementType().getType(), action.getShouldRead(), valuesActionSymbol);
     } else {
-      action = FieldAction.fromValues(arraySchema.getElementType().getType(), false, EMPTY_SYMBOL);
+      skipArrayOrMap(name, arraySchema, parentBody);
+      return;
     }
 
     final JVar arrayVar = action.getShouldRead() ? declareValueVar(name, readerArraySchema, parentBody, true, false, true) : null;
     /**
      * Special optimization for float array by leveraging {@link ByteBufferBackedPrimitiveFloatList}.
-     *
-     * TODO: Handle other primitive element types here.
      */
     if (action.getShouldRead() && arraySchema.getElementType().getType().equals(Schema.Type.FLOAT)) {
       JClass primitiveFloatList = codeModel.ref(ByteBufferBackedPrimitiveFloatList.class);
@@ -675,10 +796,61 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
       return;
     }
 
+    /**
+     * Same for the other primitive element types, when not promoted: doubles are lazily decoded from a
+     * {@link ByteBufferBackedPrimitiveDoubleList}, the others are decoded block by block into the primitive array.
+     */
+    if (action.getShouldRead() && arraySchema.getElementType().getType().equals(readerArraySchema.getElementType().getType())) {
+      Class<?> primitiveListClass = null;
+      Class<?> primitiveListInterface = null;
+      String readMethod = null;
+      switch (arraySchema.getElementType().getType()) {
+        case DOUBLE:
+          primitiveListClass = ByteBufferBackedPrimitiveDoubleList.class;
+          readMethod = "readPrimitiveDoubleArray";
+          primitiveListInterface = PrimitiveDoubleList.class;
+          break;
+        case INT:
+          primitiveListClass = PrimitiveIntArrayList.class;
+          readMethod = "readPrimitiveIntArray";
+          primitiveListInterface = PrimitiveIntList.class;
+          break;
+        case LONG:
+          primitiveListClass = PrimitiveLongArrayList.class;
+          readMethod = "readPrimitiveLongArray";
+          primitiveListInterface = PrimitiveLongList.class;
+          break;
+        case BOOLEAN:
+          primitiveListClass = PrimitiveBooleanArrayList.class;
+          readMethod = "readPrimitiveBooleanArray";
+          primitiveListInterface = PrimitiveBooleanList.class;
+          break;
+        default: // no-op
+      }
+      if (primitiveListClass != null) {
+        JExpression readPrimitiveArrayInvocation = codeModel.ref(primitiveListClass).staticInvoke(readMethod)
+            .arg(reuseSupplier.get()).arg(JExpr.direct(DECODER));
+
+        parentBody.assign(arrayVar, JExpr.cast(codeModel.ref(primitiveListInterface), readPrimitiveArrayInvocation));
+        putArrayIntoParent.accept(parentBody, arrayVar);
+        return;
+      }
+    }
+
     JVar chunkLen =
         parentBody.decl(codeModel.LONG, getUniqueName("chunkLen"), JExpr.direct(DECODER + ".readArrayStart()"));
 
     final FieldAction finalAction = action;
+    /**
+     * In deep reuse mode, the elements of the reused list are overwritten one by one, each being reused for the element
+     * read at the same position, since {@link List#clear()} drops them with some implementations, e.g. the
+     * {@link org.apache.avro.generic.GenericData.Array} of recent Avro versions, so that {@link GenericArray#peek()}
+     * finds nothing to reuse.
+     */
+    final boolean readsArrayInPlace =
+        deepReuse && finalAction.getShouldRead() && SchemaAssistant.isCapableOfReuse(arraySchema.getElementType());
+    final JVar arrayIndex = readsArrayInPlace
+        ? parentBody.decl(codeModel.INT, getUniqueName(name + "ArrayIndex"), JExpr.lit(0)) : null;
 
     final Supplier<JExpression> finalReuseSupplier = potentiallyCacheInvocation(reuseSupplier, parentBody, "oldArray");
     if (finalAction.getShouldRead()) {
@@ -699,7 +871,9 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
       /** N.B.: Need to use the erasure because instanceof does not support generic types */
       ifCodeGen(parentBody, finalReuseSupplier.get()._instanceof(abstractErasedArrayClass), then2 -> {
         then2.assign(arrayVar, JExpr.cast(abstractErasedArrayClass, finalReuseSupplier.get()));
-        then2.invoke(arrayVar, "clear");
+        if (!readsArrayInPlace) {
+          then2.invoke(arrayVar, "clear");
+        }
       }, else2 -> {
         else2.assign(arrayVar, finalNewArrayExp);
       });
@@ -720,7 +894,16 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
       String addMethod = SchemaAssistant.isPrimitive(arraySchema.getElementType())
           ? "addPrimitive"
           : "add";
-      putValueInArray = (block, expression) -> block.invoke(arrayVar, addMethod).arg(expression);
+      if (readsArrayInPlace) {
+        putValueInArray = (block, expression) -> {
+          ifCodeGen(block, arrayIndex.lt(arrayVar.invoke("size")),
+              thenBlock -> thenBlock.invoke(arrayVar, "set").arg(arrayIndex).arg(expression),
+              elseBlock -> elseBlock.invoke(arrayVar, addMethod).arg(expression));
+          block.assignPlus(arrayIndex, JExpr.lit(1));
+        };
+      } else {
+        putValueInArray = (block, expression) -> block.invoke(arrayVar, addMethod).arg(expression);
+      }
       if (useGenericTypes) {
         elementSchemaVar = declareSchemaVar(readerArraySchema.getElementType(), name + "ArrayElemSchema",
             arraySchemaVar.invoke("getElementType"));
@@ -728,7 +911,11 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
     }
 
     Supplier<JExpression> elementReuseSupplier = null;
-    if (SchemaAssistant.isCapableOfReuse(arraySchema.getElementType())) {
+    if (readsArrayInPlace) {
+      JVar elementReuseVar = forBody.decl(codeModel.ref(Object.class), getUniqueName(name + "ArrayElementReuseVar"),
+          JOp.cond(arrayIndex.lt(arrayVar.invoke("size")), arrayVar.invoke("get").arg(arrayIndex), JExpr._null()));
+      elementReuseSupplier = () -> elementReuseVar;
+    } else if (SchemaAssistant.isCapableOfReuse(arraySchema.getElementType())) {
       // Define element reuse variable here (but only for mutable types)
       JVar elementReuseVar = forBody.decl(codeModel.ref(Object.class), getUniqueName(name + "ArrayElementReuseVar"), JExpr._null());
       ifCodeGen(forBody, finalReuseSupplier.get()._instanceof(codeModel.ref(GenericArray.class)), then2 -> {
@@ -752,11 +939,52 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
     }
     whileLoopToIterateOnBlocks.body().assign(chunkLen, JExpr.direct(DECODER + ".arrayNext()"));
 
+    if (readsArrayInPlace) {
+      // drops the elements left over from the longer list read last time
+      parentBody._while(arrayVar.invoke("size").gt(arrayIndex)).body()
+          .invoke(arrayVar, "remove").arg(arrayVar.invoke("size").minus(JExpr.lit(1)));
+    }
     if (action.getShouldRead()) {
       putArrayIntoParent.accept(parentBody, arrayVar);
     }
   }
 
+  /**
+   * Skips an array or a map in bulk: {@link Decoder#skipArray()} and {@link Decoder#skipMap()} jump over the blocks
+   * which the writer prefixed with their size in bytes, and only return the item count of the other blocks, whose
+   * items are then skipped one by one, or all at once when they have a fixed size.
+   */
+  private void skipArrayOrMap(String name, Schema containerSchema, JBlock parentBody) {
+    boolean isMap = Schema.Type.MAP.equals(containerSchema.getType());
+    Schema itemSchema = isMap ? containerSchema.getValueType() : containerSchema.getElementType();
+    String skipInvocation = DECODER + (isMap ? ".skipMap()" : ".skipArray()");
+
+    JVar chunkLen = parentBody.decl(codeModel.LONG, getUniqueName("chunkLen"), JExpr.direct(skipInvocation));
+    JWhileLoop whileLoopToIterateOnBlocks = parentBody._while(chunkLen.gt(JExpr.lit(0)));
+    int fixedEncodedSize = SchemaAssistant.getFixedEncodedSize(itemSchema);
+    if (!isMap && fixedEncodedSize >= 0) {
+      whileLoopToIterateOnBlocks.body().invoke(JExpr.direct(DECODER), "skipFixed")
+          .arg(JExpr.cast(codeModel.INT, chunkLen.mul(JExpr.lit(fixedEncodedSize))));
+    } else {
+      JForLoop forLoop = whileLoopToIterateOnBlocks.body()._for();
+      JVar counter = forLoop.init(codeModel.INT, getUniqueName("counter"), JExpr.lit(0));
+      forLoop.test(counter.lt(chunkLen));
+      forLoop.update(counter.incr());
+      JBlock forBody = forLoop.body();
+      if (isMap) {
+        forBody.directStatement(DECODER + ".skipString();");
+      }
+      FieldAction itemAction = FieldAction.fromValues(itemSchema.getType(), false, EMPTY_SYMBOL);
+      if (SchemaAssistant.isComplexType(itemSchema)) {
+        processComplexType(null, name + (isMap ? "Value" : "Elem"), itemSchema, null, forBody, itemAction, null,
+            EMPTY_SUPPLIER);
+      } else {
+        processSimpleType(itemSchema, null, forBody, itemAction, null, EMPTY_SUPPLIER);
+      }
+    }
+    whileLoopToIterateOnBlocks.body().assign(chunkLen, JExpr.direct(skipInvocation));
+  }
+
   /**
    * Return a JExpression, which will read a string from decoder and construct a stringable object.
    *
@@ -808,7 +1036,15 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
 
       action = FieldAction.fromValues(mapSchema.getValueType().getType(), action.getShouldRead(), valuesActionSymbol);
     } else {
-      action = FieldAction.fromValues(mapSchema.getValueType().getType(), false, EMPTY_SYMBOL);
+      skipArrayOrMap(name, mapSchema, parentBody);
+      return;
+    }
+
+    if (deepReuse && !SchemaAssistant.hasStringableKey(mapSchema)
+        && !codeModel.ref(String.class).equals(schemaAssistant.findStringClass(readerMapSchema))) {
+      processMapInPlace(mapSchemaVar, name, mapSchema, readerMapSchema, parentBody, action, putMapIntoParent,
+          reuseSupplier);
+      return;
     }
 
     final JVar mapVar = action.getShouldRead() ? declareValueVar(name, readerMapSchema, parentBody) : null;
@@ -889,6 +1125,61 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
     }
   }
 
+  /**
+   * Deep reuse flavour of {@link #processMap}, for maps with {@link Utf8} keys: the map to reuse is read into in place,
+   * the value of each key being reused for the same key, and the keys which aren't read again are removed at the end.
+   */
+  private void processMapInPlace(JVar mapSchemaVar, final String name, final Schema mapSchema,
+      final Schema readerMapSchema, JBlock parentBody, FieldAction action,
+      BiConsumer<JBlock, JExpression> putMapIntoParent, Supplier<JExpression> reuseSupplier) {
+    final JVar mapVar = declareValueVar(name, readerMapSchema, parentBody);
+    JVar reuse = declareValueVar(name + "Reuse", readerMapSchema, parentBody);
+    final Supplier<JExpression> finalReuseSupplier = potentiallyCacheInvocation(reuseSupplier, parentBody, "oldMap");
+    ifCodeGen(parentBody,
+        finalReuseSupplier.get()._instanceof(codeModel.ref(Map.class)),
+        thenBlock -> thenBlock.assign(reuse, JExpr.cast(codeModel.ref(Map.class), finalReuseSupplier.get())));
+
+    JVar chunkLen =
+        parentBody.decl(codeModel.LONG, getUniqueName("chunkLen"), JExpr.direct(DECODER + ".readMapStart()"));
+    ifCodeGen(parentBody,
+        reuse.ne(JExpr._null()),
+        thenBlock -> thenBlock.assign(mapVar, reuse),
+        elseBlock -> elseBlock.assign(mapVar, JExpr._new(schemaAssistant.classFromSchema(readerMapSchema, false))
+            .arg(JExpr.cast(codeModel.INT, chunkLen.mul(JExpr.lit(4)).plus(JExpr.lit(2)).div(JExpr.lit(3)))))
+    );
+    JVar keysMark = parentBody.decl(codeModel.INT, getUniqueName("keysMark"),
+        JExpr.direct(REUSE_POOL).invoke("markKeys"));
+
+    JDoLoop doLoop = parentBody._if(chunkLen.gt(JExpr.lit(0)))._then()._do(chunkLen.gt(JExpr.lit(0)));
+    JForLoop forLoop = doLoop.body()._for();
+    JVar counter = forLoop.init(codeModel.INT, getUniqueName("counter"), JExpr.lit(0));
+    forLoop.test(counter.lt(chunkLen));
+    forLoop.update(counter.incr());
+    JBlock forBody = forLoop.body();
+
+    JVar key = forBody.decl(schemaAssistant.findStringClass(readerMapSchema), getUniqueName("key"),
+        JExpr.direct(REUSE_POOL).invoke("readMapKey").arg(JExpr.direct(DECODER)));
+    JVar mapValueSchemaVar = null;
+    if (useGenericTypes) {
+      mapValueSchemaVar =
+          declareSchemaVar(readerMapSchema.getValueType(), name + "MapValueSchema", mapSchemaVar.invoke("getValueType"));
+    }
+
+    BiConsumer<JBlock, JExpression> putValueInMap = (block, expression) -> block.invoke(mapVar, "put").arg(key).arg(expression);
+    Supplier<JExpression> valueReuseSupplier = () -> mapVar.invoke("get").arg(key);
+    if (SchemaAssistant.isComplexType(mapSchema.getValueType())) {
+      processComplexType(mapValueSchemaVar, name + "Value", mapSchema.getValueType(), readerMapSchema.getValueType(),
+          forBody, action, putValueInMap, valueReuseSupplier);
+    } else {
+      processSimpleType(mapSchema.getValueType(), readerMapSchema.getValueType(), forBody, action, putValueInMap,
+          valueReuseSupplier);
+    }
+    doLoop.body().assign(chunkLen, JExpr.direct(DECODER + ".mapNext()"));
+
+    parentBody.invoke(JExpr.direct(REUSE_POOL), "removeUnreadKeys").arg(mapVar).arg(keysMark);
+    putMapIntoParent.accept(parentBody, mapVar);
+  }
+
   private void processFixed(final Schema schema, JBlock body, FieldAction action,
       BiConsumer<JBlock, JExpression> putFixedIntoParent, Supplier<JExpression> reuseSupplier) {
     if (action.getShouldRead()) {
@@ -966,7 +1257,7 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
       JExpression enumValueExpr = JExpr.direct(DECODER + ".readEnum()");
 
       if (enumOrderCorrect) {
-        newEnum = schemaAssistant.getEnumValueByIndex(schema, enumValueExpr, getSchemaExpr(schema));
+        newEnum = getEnumValueByIndex(schema, enumValueExpr);
       } else {
 
         /**
@@ -1009,7 +1300,7 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
          */
         JConditional ifBlock = body._if(lookupResult._instanceof(codeModel.ref(Integer.class)));
         JExpression ithValResult =
-            schemaAssistant.getEnumValueByIndex(schema, JExpr.cast(codeModel.ref(Integer.class), lookupResult), getSchemaExpr(schema));
+            getEnumValueByIndex(schema, JExpr.cast(codeModel.ref(Integer.class), lookupResult));
         ifBlock._then().assign((JVar) newEnum, ithValResult);
         /**
          * Unknown enum in reader schema.
@@ -1028,10 +1319,22 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
     }
   }
 
+  private JExpression getEnumValueByIndex(Schema schema, JExpression indexExpr) {
+    if (deepReuse && useGenericTypes && schemaVarMap.containsKey(Utils.getSchemaFingerprint(schema))) {
+      // generic enum symbols are immutable, so the same ones are handed out again and again
+      return JExpr.direct(REUSE_POOL).invoke("enumSymbol").arg(getSchemaExpr(schema)).arg(indexExpr);
+    }
+    return schemaAssistant.getEnumValueByIndex(schema, indexExpr, getSchemaExpr(schema));
+  }
+
   private void processBytes(JBlock body, FieldAction action, BiConsumer<JBlock, JExpression> putValueIntoParent,
       Supplier<JExpression> reuseSupplier) {
     if (action.getShouldRead()) {
-      if (reuseSupplier.get().equals(JExpr._null())) {
+      if (zeroCopy) {
+        // wraps the decoded array, so there's no buffer to read into
+        putValueIntoParent.accept(body,
+            codeModel.ref(ZeroCopyDecoding.class).staticInvoke("readBytes").arg(JExpr.direct(DECODER)));
+      } else if (reuseSupplier.get().equals(JExpr._null())) {
         putValueIntoParent.accept(body, JExpr.invoke(JExpr.direct(DECODER), "readBytes").arg(JExpr.direct("null")));
       } else {
         final Supplier<JExpression> finalReuseSupplier = potentiallyCacheInvocation(reuseSupplier, body, "oldBytes");
@@ -1052,7 +1355,11 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
       BiConsumer<JBlock, JExpression> putValueIntoParent, Supplier<JExpression> reuseSupplier) {
     if (action.getShouldRead()) {
       JClass stringClass = schemaAssistant.findStringClass(schema);
-      if (stringClass.equals(codeModel.ref(Utf8.class))) {
+      if (zeroCopy && stringClass.equals(codeModel.ref(CharSequence.class))) {
+        JExpression reuseExpression = reuseSupplier.equals(EMPTY_SUPPLIER) ? JExpr._null() : reuseSupplier.get();
+        putValueIntoParent.accept(body, codeModel.ref(ZeroCopyDecoding.class).staticInvoke("readString")
+            .arg(reuseExpression).arg(JExpr.direct(DECODER)));
+      } else if (stringClass.equals(codeModel.ref(Utf8.class))) {
         if (reuseSupplier.equals(EMPTY_SUPPLIER)) {
           putValueIntoParent.accept(body, JExpr.invoke(JExpr.direct(DECODER), "readString").arg(JExpr._null()));
         } else {
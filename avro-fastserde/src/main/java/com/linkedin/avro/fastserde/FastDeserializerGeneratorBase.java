@@ -20,7 +20,12 @@ public abstract class FastDeserializerGeneratorBase<T> extends FastSerdeBase {
 
   FastDeserializerGeneratorBase(boolean useGenericTypes, Schema writer, Schema reader, File destination, ClassLoader classLoader,
       String compileClassPath) {
-    super("deserialization", useGenericTypes, Utf8.class, destination, classLoader, compileClassPath, false);
+    this(useGenericTypes, writer, reader, destination, classLoader, compileClassPath, Utf8.class);
+  }
+
+  FastDeserializerGeneratorBase(boolean useGenericTypes, Schema writer, Schema reader, File destination, ClassLoader classLoader,
+      String compileClassPath, Class defaultStringClass) {
+    super("deserialization", useGenericTypes, defaultStringClass, destination, classLoader, compileClassPath, false);
     this.writer = writer;
     this.reader = reader;
   }
@@ -36,8 +41,9 @@ public abstract class FastDeserializerGeneratorBase<T> extends FastSerdeBase {
   }
 
   public static String getClassName(Schema writerSchema, Schema readerSchema, String description) {
-    Long writerSchemaId = Math.abs(Utils.getSchemaFingerprint(writerSchema));
-    Long readerSchemaId = Math.abs(Utils.getSchemaFingerprint(readerSchema));
+    // unsigned rather than absolute fingerprints, as the latter would collide for opposite fingerprints
+    String writerSchemaId = Long.toUnsignedString(Utils.getSchemaFingerprint(writerSchema));
+    String readerSchemaId = Long.toUnsignedString(Utils.getSchemaFingerprint(readerSchema));
     String typeName = SchemaAssistant.getTypeName(readerSchema);
     return typeName + SEP + description + "Deserializer" + SEP + writerSchemaId + SEP + readerSchemaId;
   }
@@ -8,6 +8,16 @@ public final class FastGenericDeserializerGenerator<T> extends FastDeserializerG
 
   FastGenericDeserializerGenerator(Schema writer, Schema reader, File destination, ClassLoader classLoader,
       String compileClassPath) {
-    super(true, writer, reader, destination, classLoader, compileClassPath);
+    this(writer, reader, destination, classLoader, compileClassPath, false);
+  }
+
+  FastGenericDeserializerGenerator(Schema writer, Schema reader, File destination, ClassLoader classLoader,
+      String compileClassPath, boolean deepReuse) {
+    this(writer, reader, destination, classLoader, compileClassPath, deepReuse, false);
+  }
+
+  FastGenericDeserializerGenerator(Schema writer, Schema reader, File destination, ClassLoader classLoader,
+      String compileClassPath, boolean deepReuse, boolean zeroCopy) {
+    super(true, writer, reader, destination, classLoader, compileClassPath, deepReuse, zeroCopy);
   }
 }
@@ -0,0 +1,747 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.primitive.PrimitiveBooleanArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveDoubleArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveIntArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveLongArrayList;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import org.apache.avro.AvroTypeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericArray;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * Generic deserializer generator which doesn't go through java source code and javac at all.
+ *
+ * Instead of emitting a class, the writer and reader schemas are resolved once into a tree of small pre-compiled
+ * reading and skipping steps, which is then walked for every record. Building such a plan takes well under a
+ * millisecond even for big schemas and only needs a JRE, at the cost of some virtual dispatch per value compared
+ * to the classes produced by {@link FastGenericDeserializerGenerator}. The produced values are the same as the ones
+ * of the javac based deserializers: {@link GenericData.Record}, primitive lists, {@link Utf8} (or {@link String}
+ * when requested via {@link SchemaAssistant#STRING_PROP}), etc.
+ *
+ * @param <T> type of the top-level deserialized value
+ */
+@SuppressWarnings("unchecked")
+public final class FastGenericDeserializerPlanGenerator<T> {
+  private final Schema writer;
+  private final Schema reader;
+
+  /**
+   * Plans of records, kept by identity of writer and then reader schema, so that recursive schemas are able to
+   * refer to the plan which is still being built.
+   */
+  private final Map<Schema, Map<Schema, RecordReader>> recordReaders = new IdentityHashMap<>();
+  private final Map<Schema, RecordSkipper> recordSkippers = new IdentityHashMap<>();
+
+  FastGenericDeserializerPlanGenerator(Schema writer, Schema reader) {
+    this.writer = writer;
+    this.reader = reader;
+  }
+
+  public FastDeserializer<T> generateDeserializer() {
+    Schema aliasedWriterSchema = writer;
+    /**
+     * {@link Schema.applyAliases} is not working correctly in avro-1.4 since there is a bug in this function:
+     * {@literal Schema#getFieldAlias}.
+     **/
+    if (!Utils.isAvro14()) {
+      aliasedWriterSchema = Schema.applyAliases(writer, reader);
+    }
+
+    switch (aliasedWriterSchema.getType()) {
+      case RECORD:
+      case ARRAY:
+      case MAP:
+        break;
+      default:
+        throw new FastDeserializerGeneratorException(
+            "Incorrect top-level writer schema: " + aliasedWriterSchema.getType());
+    }
+
+    try {
+      return new PlanDeserializer<>(resolve(aliasedWriterSchema, reader));
+    } catch (FastDeserializerGeneratorException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new FastDeserializerGeneratorException(e);
+    }
+  }
+
+  private ValueReader resolve(Schema writerSchema, Schema readerSchema) {
+    Schema.Type writerType = writerSchema.getType();
+    Schema.Type readerType = readerSchema.getType();
+
+    if (Schema.Type.UNION.equals(writerType)) {
+      return resolveWriterUnion(writerSchema, readerSchema);
+    }
+    if (Schema.Type.UNION.equals(readerType)) {
+      int branch = findReaderUnionBranch(writerSchema, readerSchema);
+      if (branch < 0) {
+        throw new FastDeserializerGeneratorException(
+            "Found " + writerSchema + ", expecting " + readerSchema.getTypes().toString());
+      }
+      return resolve(writerSchema, readerSchema.getTypes().get(branch));
+    }
+
+    switch (writerType) {
+      case RECORD:
+        assertSameType(writerSchema, readerSchema);
+        return resolveRecord(writerSchema, readerSchema);
+      case ARRAY:
+        assertSameType(writerSchema, readerSchema);
+        return resolveArray(writerSchema, readerSchema);
+      case MAP:
+        assertSameType(writerSchema, readerSchema);
+        return resolveMap(writerSchema, readerSchema);
+      case ENUM:
+        assertSameType(writerSchema, readerSchema);
+        return resolveEnum(writerSchema, readerSchema);
+      case FIXED:
+        assertSameType(writerSchema, readerSchema);
+        if (writerSchema.getFixedSize() != readerSchema.getFixedSize()) {
+          throw new FastDeserializerGeneratorException(
+              "Fixed size mismatch for: " + readerSchema.getFullName() + ", writer: " + writerSchema.getFixedSize()
+                  + ", reader: " + readerSchema.getFixedSize());
+        }
+        return fixedReader(readerSchema);
+      default:
+        return resolvePrimitive(writerSchema, readerSchema);
+    }
+  }
+
+  private ValueReader resolveWriterUnion(Schema writerUnionSchema, Schema readerSchema) {
+    List<Schema> writerOptions = writerUnionSchema.getTypes();
+    ValueReader[] optionReaders = new ValueReader[writerOptions.size()];
+    for (int i = 0; i < optionReaders.length; i++) {
+      Schema optionSchema = writerOptions.get(i);
+      if (Schema.Type.UNION.equals(optionSchema.getType())) {
+        throw new FastDeserializerGeneratorException("Union cannot be sub-type of union!");
+      }
+      try {
+        optionReaders[i] = resolve(optionSchema, readerSchema);
+      } catch (FastDeserializerGeneratorException e) {
+        // Only fail if such branch is actually found in the data, the same as vanilla Avro does
+        String message = e.getMessage();
+        optionReaders[i] = (reuse, decoder) -> {
+          throw new AvroTypeException(message);
+        };
+      }
+    }
+    return (reuse, decoder) -> {
+      int unionIndex = decoder.readIndex();
+      if (unionIndex < 0 || unionIndex >= optionReaders.length) {
+        throw new RuntimeException("Illegal union index: " + unionIndex);
+      }
+      return optionReaders[unionIndex].read(reuse, decoder);
+    };
+  }
+
+  /**
+   * The reader's union could be re-ordered, so this looks for the branch matching the given writer schema.
+   * Named types are disambiguated via their full name (including aliases), and if there is no exact match
+   * the first branch the writer type could be promoted to is picked.
+   */
+  private static int findReaderUnionBranch(Schema writerSchema, Schema readerUnionSchema) {
+    List<Schema> readerOptions = readerUnionSchema.getTypes();
+    String writerFullName = AvroCompatibilityHelper.getSchemaFullName(writerSchema);
+    for (int i = 0; i < readerOptions.size(); i++) {
+      Schema potentialReaderSchema = readerOptions.get(i);
+      if (potentialReaderSchema.getType().equals(writerSchema.getType()) && (
+          !SchemaAssistant.isNamedType(potentialReaderSchema)
+              || AvroCompatibilityHelper.getSchemaFullName(potentialReaderSchema).equals(writerFullName)
+              || potentialReaderSchema.getAliases().contains(writerFullName))) {
+        return i;
+      }
+    }
+    for (int i = 0; i < readerOptions.size(); i++) {
+      if (isPromotable(writerSchema.getType(), readerOptions.get(i).getType())) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isPromotable(Schema.Type writerType, Schema.Type readerType) {
+    switch (writerType) {
+      case INT:
+        return Schema.Type.LONG.equals(readerType) || Schema.Type.FLOAT.equals(readerType) || Schema.Type.DOUBLE.equals(
+            readerType);
+      case LONG:
+        return Schema.Type.FLOAT.equals(readerType) || Schema.Type.DOUBLE.equals(readerType);
+      case FLOAT:
+        return Schema.Type.DOUBLE.equals(readerType);
+      case STRING:
+        return Schema.Type.BYTES.equals(readerType);
+      case BYTES:
+        return Schema.Type.STRING.equals(readerType);
+      default:
+        return false;
+    }
+  }
+
+  private static void assertSameType(Schema writerSchema, Schema readerSchema) {
+    if (!writerSchema.getType().equals(readerSchema.getType())) {
+      throw new FastDeserializerGeneratorException("Found " + writerSchema + ", expecting " + readerSchema);
+    }
+  }
+
+  private ValueReader resolveRecord(Schema recordWriterSchema, Schema recordReaderSchema) {
+    Map<Schema, RecordReader> readersForWriter =
+        recordReaders.computeIfAbsent(recordWriterSchema, k -> new IdentityHashMap<>());
+    RecordReader recordReader = readersForWriter.get(recordReaderSchema);
+    if (recordReader != null) {
+      return recordReader;
+    }
+    recordReader = new RecordReader(recordReaderSchema);
+    readersForWriter.put(recordReaderSchema, recordReader);
+    try {
+      populateRecordReader(recordReader, recordWriterSchema, recordReaderSchema);
+    } catch (RuntimeException e) {
+      // don't leave a half-built plan behind for other union branches to pick up
+      readersForWriter.remove(recordReaderSchema);
+      throw e;
+    }
+    return recordReader;
+  }
+
+  private void populateRecordReader(RecordReader recordReader, Schema recordWriterSchema, Schema recordReaderSchema) {
+    List<Schema.Field> writerFields = recordWriterSchema.getFields();
+    int[] positions = new int[writerFields.size()];
+    ValueReader[] fieldReaders = new ValueReader[writerFields.size()];
+    ValueSkipper[] fieldSkippers = new ValueSkipper[writerFields.size()];
+    for (int i = 0; i < writerFields.size(); i++) {
+      Schema.Field writerField = writerFields.get(i);
+      Schema.Field readerField = recordReaderSchema.getField(writerField.name());
+      if (readerField == null) {
+        positions[i] = -1;
+        fieldSkippers[i] = skipper(writerField.schema());
+      } else {
+        positions[i] = readerField.pos();
+        fieldReaders[i] = resolve(writerField.schema(), readerField.schema());
+      }
+    }
+
+    // Handle default values
+    List<Integer> defaultPositions = new ArrayList<>();
+    List<Supplier<Object>> defaultValues = new ArrayList<>();
+    for (Schema.Field readerField : recordReaderSchema.getFields()) {
+      if (recordWriterSchema.getField(readerField.name()) == null) {
+        if (!AvroCompatibilityHelper.fieldHasDefault(readerField)) {
+          throw new FastDeserializerGeneratorException(
+              "Found " + AvroCompatibilityHelper.getSchemaFullName(recordWriterSchema) + ", expecting "
+                  + AvroCompatibilityHelper.getSchemaFullName(recordReaderSchema) + ", missing required field "
+                  + readerField.name());
+        }
+        defaultPositions.add(readerField.pos());
+        defaultValues.add(
+            defaultValue(readerField.schema(), AvroCompatibilityHelper.getGenericDefaultValue(readerField)));
+      }
+    }
+
+    recordReader.positions = positions;
+    recordReader.fieldReaders = fieldReaders;
+    recordReader.fieldSkippers = fieldSkippers;
+    recordReader.defaultPositions = defaultPositions.stream().mapToInt(Integer::intValue).toArray();
+    recordReader.defaultValues = defaultValues.toArray(new Supplier[0]);
+  }
+
+  private ValueReader resolveArray(Schema arrayWriterSchema, Schema arrayReaderSchema) {
+    Schema writerElementSchema = arrayWriterSchema.getElementType();
+    Schema readerElementSchema = arrayReaderSchema.getElementType();
+    Schema.Type writerElementType = writerElementSchema.getType();
+    Schema.Type readerElementType = readerElementSchema.getType();
+
+    /**
+     * Special optimization for float array by leveraging {@link ByteBufferBackedPrimitiveFloatList}.
+     */
+    if (Schema.Type.FLOAT.equals(writerElementType) && Schema.Type.FLOAT.equals(readerElementType)) {
+      return ByteBufferBackedPrimitiveFloatList::readPrimitiveFloatArray;
+    }
+
+    if (writerElementType.equals(readerElementType)) {
+      switch (readerElementType) {
+        case INT:
+          return PrimitiveIntArrayList::readPrimitiveIntArray;
+        case LONG:
+          return PrimitiveLongArrayList::readPrimitiveLongArray;
+        case DOUBLE:
+          return ByteBufferBackedPrimitiveDoubleList::readPrimitiveDoubleArray;
+        case BOOLEAN:
+          return PrimitiveBooleanArrayList::readPrimitiveBooleanArray;
+        default:
+          // handled below
+      }
+    }
+
+    ValueReader elementReader = resolve(writerElementSchema, readerElementSchema);
+    Supplier<List<Object>> newList = newListSupplier(arrayReaderSchema);
+    boolean elementCapableOfReuse = SchemaAssistant.isCapableOfReuse(writerElementSchema);
+    return (reuse, decoder) -> {
+      long chunkLen = decoder.readArrayStart();
+      List<Object> array;
+      if (reuse instanceof List) {
+        array = (List<Object>) reuse;
+        array.clear();
+      } else {
+        array = newList.get();
+      }
+      for (; chunkLen > 0; chunkLen = decoder.arrayNext()) {
+        for (int counter = 0; counter < chunkLen; counter++) {
+          Object elementReuse = null;
+          if (elementCapableOfReuse && reuse instanceof GenericArray) {
+            elementReuse = ((GenericArray) reuse).peek();
+          }
+          array.add(elementReader.read(elementReuse, decoder));
+        }
+      }
+      return array;
+    };
+  }
+
+  /**
+   * Arrays of primitives promoted to another primitive type still end up in the corresponding primitive list.
+   */
+  private static Supplier<List<Object>> newListSupplier(Schema arrayReaderSchema) {
+    switch (arrayReaderSchema.getElementType().getType()) {
+      case INT:
+        return () -> (List) new PrimitiveIntArrayList();
+      case LONG:
+        return () -> (List) new PrimitiveLongArrayList();
+      case DOUBLE:
+        return () -> (List) new PrimitiveDoubleArrayList();
+      case BOOLEAN:
+        return () -> (List) new PrimitiveBooleanArrayList();
+      case FLOAT:
+        return () -> (List) new ByteBufferBackedPrimitiveFloatList(0);
+      default:
+        return () -> new GenericData.Array<>(0, arrayReaderSchema);
+    }
+  }
+
+  private ValueReader resolveMap(Schema mapWriterSchema, Schema mapReaderSchema) {
+    ValueReader valueReader = resolve(mapWriterSchema.getValueType(), mapReaderSchema.getValueType());
+    boolean javaStringKeys = usesJavaStrings(mapReaderSchema);
+    return (reuse, decoder) -> {
+      long chunkLen = decoder.readMapStart();
+      Map<Object, Object> map;
+      if (chunkLen > 0) {
+        if (reuse instanceof Map) {
+          map = (Map<Object, Object>) reuse;
+          map.clear();
+        } else {
+          // Pure integer arithmetic equivalent of (int) Math.ceil(expectedSize / 0.75).
+          map = new HashMap<>((int) ((chunkLen * 4 + 2) / 3));
+        }
+        do {
+          for (int counter = 0; counter < chunkLen; counter++) {
+            Object key = javaStringKeys ? readJavaString(decoder) : decoder.readString(null);
+            map.put(key, valueReader.read(null, decoder));
+          }
+          chunkLen = decoder.mapNext();
+        } while (chunkLen > 0);
+      } else {
+        map = new HashMap<>(0);
+      }
+      return map;
+    };
+  }
+
+  private ValueReader resolveEnum(Schema enumWriterSchema, Schema enumReaderSchema) {
+    List<String> writerSymbols = enumWriterSchema.getEnumSymbols();
+    List<String> readerSymbols = enumReaderSchema.getEnumSymbols();
+    String readerDefault = Utils.isAbleToSupportEnumDefault() ? AvroCompatibilityHelper.getEnumDefault(enumReaderSchema) : null;
+
+    /**
+     * Enum symbols are immutable, so a single instance of each reader symbol is handed out over and over again,
+     * and writer symbols unknown to the reader are mapped to the reader default, if any.
+     */
+    Object[] adjustments = new Object[writerSymbols.size()];
+    for (int i = 0; i < adjustments.length; i++) {
+      String symbol = writerSymbols.get(i);
+      if (readerSymbols.contains(symbol)) {
+        adjustments[i] = AvroCompatibilityHelper.newEnumSymbol(enumReaderSchema, symbol);
+      } else if (readerDefault != null) {
+        adjustments[i] = AvroCompatibilityHelper.newEnumSymbol(enumReaderSchema, readerDefault);
+      } else {
+        adjustments[i] = new AvroTypeException(enumReaderSchema.getFullName() + ": No match for " + symbol);
+      }
+    }
+    return (reuse, decoder) -> {
+      int enumIndex = decoder.readEnum();
+      if (enumIndex < 0 || enumIndex >= adjustments.length) {
+        throw new RuntimeException("Illegal enum index for '" + enumReaderSchema.getFullName() + "': " + enumIndex);
+      }
+      Object enumValue = adjustments[enumIndex];
+      if (enumValue instanceof AvroTypeException) {
+        throw (AvroTypeException) enumValue;
+      }
+      return enumValue;
+    };
+  }
+
+  private static ValueReader fixedReader(Schema fixedSchema) {
+    int fixedSize = fixedSchema.getFixedSize();
+    return (reuse, decoder) -> {
+      byte[] fixedBuffer;
+      if (reuse instanceof GenericFixed && ((GenericFixed) reuse).bytes().length == fixedSize) {
+        fixedBuffer = ((GenericFixed) reuse).bytes();
+      } else {
+        fixedBuffer = new byte[fixedSize];
+      }
+      decoder.readFixed(fixedBuffer);
+      return AvroCompatibilityHelper.newFixed(fixedSchema, fixedBuffer);
+    };
+  }
+
+  private static ValueReader resolvePrimitive(Schema writerSchema, Schema readerSchema) {
+    Schema.Type writerType = writerSchema.getType();
+    Schema.Type readerType = readerSchema.getType();
+    if (!writerType.equals(readerType) && !isPromotable(writerType, readerType)) {
+      throw new FastDeserializerGeneratorException("Found " + writerSchema + ", expecting " + readerSchema);
+    }
+
+    switch (writerType) {
+      case NULL:
+        return (reuse, decoder) -> {
+          decoder.readNull();
+          return null;
+        };
+      case BOOLEAN:
+        return (reuse, decoder) -> decoder.readBoolean();
+      case INT:
+        switch (readerType) {
+          case LONG:
+            return (reuse, decoder) -> (long) decoder.readInt();
+          case FLOAT:
+            return (reuse, decoder) -> (float) decoder.readInt();
+          case DOUBLE:
+            return (reuse, decoder) -> (double) decoder.readInt();
+          default:
+            return (reuse, decoder) -> decoder.readInt();
+        }
+      case LONG:
+        switch (readerType) {
+          case FLOAT:
+            return (reuse, decoder) -> (float) decoder.readLong();
+          case DOUBLE:
+            return (reuse, decoder) -> (double) decoder.readLong();
+          default:
+            return (reuse, decoder) -> decoder.readLong();
+        }
+      case FLOAT:
+        if (Schema.Type.DOUBLE.equals(readerType)) {
+          return (reuse, decoder) -> (double) decoder.readFloat();
+        }
+        return (reuse, decoder) -> decoder.readFloat();
+      case DOUBLE:
+        return (reuse, decoder) -> decoder.readDouble();
+      case STRING:
+        if (Schema.Type.BYTES.equals(readerType)) {
+          return (reuse, decoder) -> ByteBuffer.wrap(
+              decoder.readString(null).toString().getBytes(StandardCharsets.UTF_8));
+        }
+        // to preserve reader string specific options use reader schema
+        if (usesJavaStrings(readerSchema)) {
+          return (reuse, decoder) -> readJavaString(decoder);
+        }
+        return (reuse, decoder) -> decoder.readString(reuse instanceof Utf8 ? (Utf8) reuse : null);
+      case BYTES:
+        if (Schema.Type.STRING.equals(readerType)) {
+          boolean javaStrings = usesJavaStrings(readerSchema);
+          return (reuse, decoder) -> {
+            ByteBuffer bytes = decoder.readBytes(null);
+            byte[] content = new byte[bytes.remaining()];
+            bytes.get(content);
+            return javaStrings ? new String(content, StandardCharsets.UTF_8) : new Utf8(content);
+          };
+        }
+        return (reuse, decoder) -> decoder.readBytes(reuse instanceof ByteBuffer ? (ByteBuffer) reuse : null);
+      default:
+        throw new FastDeserializerGeneratorException("Unsupported primitive schema of type: " + writerType);
+    }
+  }
+
+  private ValueSkipper skipper(Schema writerSchema) {
+    int fixedEncodedSize = SchemaAssistant.getFixedEncodedSize(writerSchema);
+    switch (writerSchema.getType()) {
+      case RECORD:
+        if (fixedEncodedSize >= 0) {
+          // only made of fixed-size fields, so skipped at once
+          return decoder -> decoder.skipFixed(fixedEncodedSize);
+        }
+        RecordSkipper recordSkipper = recordSkippers.get(writerSchema);
+        if (recordSkipper == null) {
+          recordSkipper = new RecordSkipper();
+          recordSkippers.put(writerSchema, recordSkipper);
+          List<Schema.Field> fields = writerSchema.getFields();
+          ValueSkipper[] fieldSkippers = new ValueSkipper[fields.size()];
+          for (int i = 0; i < fieldSkippers.length; i++) {
+            fieldSkippers[i] = skipper(fields.get(i).schema());
+          }
+          recordSkipper.fieldSkippers = fieldSkippers;
+        }
+        return recordSkipper;
+      case ARRAY:
+        int elementSize = SchemaAssistant.getFixedEncodedSize(writerSchema.getElementType());
+        if (elementSize >= 0) {
+          return decoder -> {
+            for (long chunkLen = decoder.skipArray(); chunkLen > 0; chunkLen = decoder.skipArray()) {
+              decoder.skipFixed((int) (chunkLen * elementSize));
+            }
+          };
+        }
+        ValueSkipper elementSkipper = skipper(writerSchema.getElementType());
+        return decoder -> {
+          for (long chunkLen = decoder.skipArray(); chunkLen > 0; chunkLen = decoder.skipArray()) {
+            for (long counter = 0; counter < chunkLen; counter++) {
+              elementSkipper.skip(decoder);
+            }
+          }
+        };
+      case MAP:
+        ValueSkipper valueSkipper = skipper(writerSchema.getValueType());
+        return decoder -> {
+          for (long chunkLen = decoder.skipMap(); chunkLen > 0; chunkLen = decoder.skipMap()) {
+            for (long counter = 0; counter < chunkLen; counter++) {
+              decoder.skipString();
+              valueSkipper.skip(decoder);
+            }
+          }
+        };
+      case UNION:
+        List<Schema> options = writerSchema.getTypes();
+        ValueSkipper[] optionSkippers = new ValueSkipper[options.size()];
+        for (int i = 0; i < optionSkippers.length; i++) {
+          optionSkippers[i] = skipper(options.get(i));
+        }
+        return decoder -> optionSkippers[decoder.readIndex()].skip(decoder);
+      case ENUM:
+        return Decoder::readEnum;
+      case FIXED:
+        return decoder -> decoder.skipFixed(fixedEncodedSize);
+      case STRING:
+        return Decoder::skipString;
+      case BYTES:
+        return Decoder::skipBytes;
+      case INT:
+        return Decoder::readInt;
+      case LONG:
+        return Decoder::readLong;
+      case FLOAT:
+        return Decoder::readFloat;
+      case DOUBLE:
+        return Decoder::readDouble;
+      case BOOLEAN:
+        return Decoder::readBoolean;
+      case NULL:
+        return Decoder::readNull;
+      default:
+        throw new FastDeserializerGeneratorException("Unsupported schema of type: " + writerSchema.getType());
+    }
+  }
+
+  /**
+   * Builds a supplier of the given default value. Mutable values are re-created for every record, the same
+   * way the javac based deserializers instantiate them in the generated code.
+   */
+  private static Supplier<Object> defaultValue(Schema schema, Object defaultValue) {
+    // The default value of union is of the first defined type
+    if (Schema.Type.UNION.equals(schema.getType())) {
+      schema = schema.getTypes().get(0);
+    }
+    Schema valueSchema = schema;
+    switch (valueSchema.getType()) {
+      case NULL:
+        return () -> null;
+      case RECORD:
+        GenericRecord defaultValueRecord = (GenericRecord) defaultValue;
+        List<Schema.Field> fields = valueSchema.getFields();
+        List<Supplier<Object>> fieldValues = new ArrayList<>(fields.size());
+        for (Schema.Field subField : fields) {
+          fieldValues.add(defaultValue(subField.schema(), defaultValueRecord.get(subField.name())));
+        }
+        return () -> {
+          GenericData.Record record = new GenericData.Record(valueSchema);
+          for (int i = 0; i < fieldValues.size(); i++) {
+            record.put(fields.get(i).pos(), fieldValues.get(i).get());
+          }
+          return record;
+        };
+      case ARRAY:
+        List<Supplier<Object>> elementValues = new ArrayList<>();
+        for (Object arrayElementValue : (List<Object>) defaultValue) {
+          elementValues.add(defaultValue(valueSchema.getElementType(), arrayElementValue));
+        }
+        return () -> {
+          GenericData.Array<Object> array = new GenericData.Array<>(elementValues.size(), valueSchema);
+          for (Supplier<Object> elementValue : elementValues) {
+            array.add(elementValue.get());
+          }
+          return array;
+        };
+      case MAP:
+        boolean javaStringKeys = usesJavaStrings(valueSchema);
+        Map<String, Supplier<Object>> entryValues = new HashMap<>();
+        for (Map.Entry<CharSequence, Object> mapEntry : ((Map<CharSequence, Object>) defaultValue).entrySet()) {
+          entryValues.put(mapEntry.getKey().toString(), defaultValue(valueSchema.getValueType(), mapEntry.getValue()));
+        }
+        return () -> {
+          Map<Object, Object> map = new HashMap<>();
+          entryValues.forEach((key, value) -> map.put(javaStringKeys ? key : new Utf8(key), value.get()));
+          return map;
+        };
+      case ENUM:
+        Object enumValue = AvroCompatibilityHelper.newEnumSymbol(valueSchema, defaultValue.toString());
+        return () -> enumValue;
+      case FIXED:
+        byte[] fixedBytes = ((GenericFixed) defaultValue).bytes();
+        return () -> AvroCompatibilityHelper.newFixed(valueSchema, fixedBytes.clone());
+      case BYTES:
+        ByteBuffer defaultBytes = (ByteBuffer) defaultValue;
+        byte[] bytes = new byte[defaultBytes.remaining()];
+        defaultBytes.duplicate().get(bytes);
+        return () -> ByteBuffer.wrap(bytes.clone());
+      case STRING:
+        String defaultString = defaultValue.toString();
+        if (usesJavaStrings(valueSchema)) {
+          return () -> defaultString;
+        }
+        return () -> new Utf8(defaultString);
+      case INT:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+      case BOOLEAN:
+        return () -> defaultValue;
+      default:
+        throw new FastDeserializerGeneratorException("Incorrect schema type in default value!");
+    }
+  }
+
+  /**
+   * @see SchemaAssistant#findStringClass(Schema)
+   */
+  private static boolean usesJavaStrings(Schema schema) {
+    return Utils.isAbleToSupportJavaStrings() && SchemaAssistant.STRING_TYPE_STRING.equals(
+        schema.getProp(SchemaAssistant.STRING_PROP));
+  }
+
+  /**
+   * Decoder#readString(), more GC-efficient than going through {@link Utf8}, looked up at runtime since it is not
+   * available in Avro 1.4 and 1.5, which this class is compiled against too.
+   */
+  private static final MethodHandle READ_STRING = findReadString();
+
+  private static MethodHandle findReadString() {
+    if (!Utils.isAbleToSupportJavaStrings()) {
+      return null;
+    }
+    try {
+      return MethodHandles.publicLookup().findVirtual(Decoder.class, "readString", MethodType.methodType(String.class));
+    } catch (NoSuchMethodException | IllegalAccessException e) {
+      return null;
+    }
+  }
+
+  private static String readJavaString(Decoder decoder) throws IOException {
+    if (READ_STRING == null) {
+      return decoder.readString(null).toString();
+    }
+    try {
+      return (String) READ_STRING.invokeExact(decoder);
+    } catch (IOException | RuntimeException | Error e) {
+      throw e;
+    } catch (Throwable e) {
+      throw new IOException(e);
+    }
+  }
+
+  @FunctionalInterface
+  private interface ValueReader {
+    Object read(Object reuse, Decoder decoder) throws IOException;
+  }
+
+  @FunctionalInterface
+  private interface ValueSkipper {
+    void skip(Decoder decoder) throws IOException;
+  }
+
+  private static final class RecordReader implements ValueReader {
+    private final Schema recordSchema;
+    private int[] positions;
+    private ValueReader[] fieldReaders;
+    private ValueSkipper[] fieldSkippers;
+    private int[] defaultPositions;
+    private Supplier<Object>[] defaultValues;
+
+    private RecordReader(Schema recordSchema) {
+      this.recordSchema = recordSchema;
+    }
+
+    @Override
+    public Object read(Object reuse, Decoder decoder) throws IOException {
+      IndexedRecord record;
+      // Reference comparison of the schemas is enough here and it is much cheaper than comparing their content
+      if (reuse instanceof IndexedRecord && ((IndexedRecord) reuse).getSchema() == recordSchema) {
+        record = (IndexedRecord) reuse;
+      } else {
+        record = new GenericData.Record(recordSchema);
+      }
+      for (int i = 0; i < positions.length; i++) {
+        int position = positions[i];
+        if (position < 0) {
+          fieldSkippers[i].skip(decoder);
+        } else {
+          record.put(position, fieldReaders[i].read(record.get(position), decoder));
+        }
+      }
+      for (int i = 0; i < defaultPositions.length; i++) {
+        record.put(defaultPositions[i], defaultValues[i].get());
+      }
+      return record;
+    }
+  }
+
+  private static final class RecordSkipper implements ValueSkipper {
+    private ValueSkipper[] fieldSkippers;
+
+    @Override
+    public void skip(Decoder decoder) throws IOException {
+      for (ValueSkipper fieldSkipper : fieldSkippers) {
+        fieldSkipper.skip(decoder);
+      }
+    }
+  }
+
+  private static final class PlanDeserializer<T> implements FastDeserializer<T> {
+    private final ValueReader root;
+
+    private PlanDeserializer(ValueReader root) {
+      this.root = root;
+    }
+
+    @Override
+    public T deserialize(T reuse, Decoder d) throws IOException {
+      return (T) root.read(reuse, d);
+    }
+  }
+}
@@ -0,0 +1,465 @@
+package com.linkedin.avro.fastserde;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.AvroTypeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericArray;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * Generic deserializer generator for avro json, the format read by the {@code CompatibleJsonDecoder} of each
+ * helper-impl module, see {@link AvroCompatibilityHelper#newCompatibleJsonDecoder(Schema, String)}.
+ *
+ * Those decoders drive the json tokens through the parsing grammar of the schema, one symbol at a time, and buffer
+ * every field which isn't in schema order until it is asked for. Here the schema is resolved once into a tree of small
+ * reading steps, the same way as {@link FastGenericDeserializerPlanGenerator} does for the binary encoding, which
+ * then read the tokens straight from the {@link JsonParser}: field names are looked up in a table of the record
+ * fields, so that fields in any order are read into the record directly, without buffering any token.
+ *
+ * The quirks of the compatible decoders are kept:
+ * <ul>
+ *   <li>union branches are labeled either by their full name or, for the json written by avro 1.4, by their
+ *   simple name, and null is a plain json null,</li>
+ *   <li>fields are matched by name or alias, in any order, and all of them must be present, defaults aren't used,</li>
+ *   <li>fields unknown to the schema fail the record, unless they come after all the fields of the schema
+ *   (AVRO-2034) or the record is the top-level one, whose end the compatible decoders never check,</li>
+ *   <li>bytes and fixed are strings of ISO-8859-1 characters, and any json number is accepted for any numeric type.</li>
+ * </ul>
+ * The produced values are the ones of {@link org.apache.avro.generic.GenericDatumReader}: {@link GenericData.Record},
+ * {@link GenericData.Array}, {@link Utf8} (or {@link String} when requested via {@link SchemaAssistant#STRING_PROP}),
+ * etc.
+ *
+ * @param <T> type of the top-level deserialized value
+ */
+@SuppressWarnings("unchecked")
+public final class FastGenericJsonDeserializerPlanGenerator<T> {
+  /** Shared with the json serializers, neither the parsers nor the generators close the streams they are given */
+  static final JsonFactory JSON_FACTORY = new JsonFactory().configure(JsonParser.Feature.AUTO_CLOSE_SOURCE, false)
+      .configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+
+  private final Schema schema;
+
+  /** Plans of records, kept by identity of schema, so that recursive schemas are able to refer to them */
+  private final Map<Schema, RecordReader> recordReaders = new IdentityHashMap<>();
+
+  FastGenericJsonDeserializerPlanGenerator(Schema schema) {
+    this.schema = schema;
+  }
+
+  public FastJsonDeserializer<T> generateDeserializer() {
+    try {
+      ValueReader resolved = resolve(schema);
+      ValueReader root = resolved instanceof RecordReader ? ((RecordReader) resolved).topLevelReader() : resolved;
+      return (reuse, parser) -> {
+        if (parser.currentToken() == null) {
+          parser.nextToken();
+        }
+        return (T) root.read(reuse, parser);
+      };
+    } catch (FastDeserializerGeneratorException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new FastDeserializerGeneratorException(e);
+    }
+  }
+
+  private ValueReader resolve(Schema valueSchema) {
+    switch (valueSchema.getType()) {
+      case RECORD:
+        return resolveRecord(valueSchema);
+      case UNION:
+        return resolveUnion(valueSchema);
+      case ARRAY:
+        return resolveArray(valueSchema);
+      case MAP:
+        return resolveMap(valueSchema);
+      case ENUM:
+        return resolveEnum(valueSchema);
+      case FIXED:
+        return fixedReader(valueSchema);
+      default:
+        return resolvePrimitive(valueSchema);
+    }
+  }
+
+  private ValueReader resolveRecord(Schema recordSchema) {
+    RecordReader recordReader = recordReaders.get(recordSchema);
+    if (recordReader == null) {
+      recordReader = new RecordReader(recordSchema);
+      recordReaders.put(recordSchema, recordReader);
+      List<Schema.Field> fields = recordSchema.getFields();
+      ValueReader[] fieldReaders = new ValueReader[fields.size()];
+      String[] fieldNames = new String[fields.size()];
+      Map<String, Integer> fieldPositions = new HashMap<>();
+      for (Schema.Field field : fields) {
+        fieldReaders[field.pos()] = resolve(field.schema());
+        // interned, as the field names produced by the parser are, so that fields in schema order are matched by reference
+        fieldNames[field.pos()] = field.name().intern();
+        fieldPositions.put(field.name(), field.pos());
+      }
+      for (Schema.Field field : fields) {
+        for (String alias : Utils.getFieldAliases(field)) {
+          fieldPositions.putIfAbsent(alias, field.pos());
+        }
+      }
+      recordReader.fieldReaders = fieldReaders;
+      recordReader.fieldNames = fieldNames;
+      recordReader.fieldPositions = fieldPositions;
+    }
+    return recordReader;
+  }
+
+  private ValueReader resolveUnion(Schema unionSchema) {
+    List<Schema> branches = unionSchema.getTypes();
+    Map<String, Integer> branchesBySimpleName = new HashMap<>();
+    Map<String, Integer> branchesByFullName = new HashMap<>();
+    ValueReader[] branchReaders = new ValueReader[branches.size()];
+    for (int i = 0; i < branchReaders.length; i++) {
+      Schema branch = branches.get(i);
+      if (Schema.Type.UNION.equals(branch.getType())) {
+        throw new FastDeserializerGeneratorException("Union cannot be sub-type of union!");
+      }
+      branchReaders[i] = resolve(branch);
+      branchesBySimpleName.putIfAbsent(branch.getName(), i);
+      branchesByFullName.putIfAbsent(AvroCompatibilityHelper.getSchemaFullName(branch), i);
+    }
+    Integer nullBranch = branchesBySimpleName.get("null");
+    return (reuse, parser) -> {
+      JsonToken token = parser.currentToken();
+      if (token == JsonToken.VALUE_NULL) {
+        if (nullBranch == null) {
+          throw new AvroTypeException("Unknown union branch null");
+        }
+        return branchReaders[nullBranch].read(reuse, parser);
+      }
+      if (token != JsonToken.START_OBJECT || parser.nextToken() != JsonToken.FIELD_NAME) {
+        throw error("start-union", parser);
+      }
+      String label = parser.getCurrentName();
+      // labels without a namespace are the ones written by avro-1.4
+      Integer branch = label.indexOf('.') < 0 ? branchesBySimpleName.get(label) : branchesByFullName.get(label);
+      if (branch == null) {
+        throw new AvroTypeException("Unknown union branch " + label);
+      }
+      parser.nextToken();
+      Object value = branchReaders[branch].read(reuse, parser);
+      skipToEndObject(parser);
+      return value;
+    };
+  }
+
+  private ValueReader resolveArray(Schema arraySchema) {
+    ValueReader elementReader = resolve(arraySchema.getElementType());
+    boolean elementCapableOfReuse = SchemaAssistant.isCapableOfReuse(arraySchema.getElementType());
+    return (reuse, parser) -> {
+      if (parser.currentToken() != JsonToken.START_ARRAY) {
+        throw error("array-start", parser);
+      }
+      List<Object> array;
+      if (reuse instanceof List) {
+        array = (List<Object>) reuse;
+        array.clear();
+      } else {
+        array = new GenericData.Array<>(0, arraySchema);
+      }
+      for (JsonToken token = parser.nextToken(); token != JsonToken.END_ARRAY; token = parser.currentToken()) {
+        Object elementReuse = null;
+        if (elementCapableOfReuse && array instanceof GenericArray) {
+          elementReuse = ((GenericArray) array).peek();
+        }
+        array.add(elementReader.read(elementReuse, parser));
+      }
+      parser.nextToken();
+      return array;
+    };
+  }
+
+  private ValueReader resolveMap(Schema mapSchema) {
+    ValueReader valueReader = resolve(mapSchema.getValueType());
+    boolean javaStringKeys = usesJavaStrings(mapSchema);
+    return (reuse, parser) -> {
+      if (parser.currentToken() != JsonToken.START_OBJECT) {
+        throw error("map-start", parser);
+      }
+      Map<Object, Object> map;
+      if (reuse instanceof Map) {
+        map = (Map<Object, Object>) reuse;
+        map.clear();
+      } else {
+        map = new HashMap<>();
+      }
+      JsonToken token = parser.nextToken();
+      while (token == JsonToken.FIELD_NAME) {
+        String key = parser.getCurrentName();
+        parser.nextToken();
+        map.put(javaStringKeys ? key : new Utf8(key), valueReader.read(null, parser));
+        token = parser.currentToken();
+      }
+      if (token != JsonToken.END_OBJECT) {
+        throw error("map-end", parser);
+      }
+      parser.nextToken();
+      return map;
+    };
+  }
+
+  private static ValueReader resolveEnum(Schema enumSchema) {
+    // Enum symbols are immutable, so a single instance of each symbol is handed out over and over again
+    Map<String, Object> symbols = new HashMap<>();
+    for (String symbol : enumSchema.getEnumSymbols()) {
+      symbols.put(symbol, AvroCompatibilityHelper.newEnumSymbol(enumSchema, symbol));
+    }
+    return (reuse, parser) -> {
+      if (parser.currentToken() != JsonToken.VALUE_STRING) {
+        throw error("enum", parser);
+      }
+      Object symbol = symbols.get(parser.getText());
+      if (symbol == null) {
+        throw new AvroTypeException("Unknown symbol in enum " + parser.getText());
+      }
+      parser.nextToken();
+      return symbol;
+    };
+  }
+
+  private static ValueReader fixedReader(Schema fixedSchema) {
+    int fixedSize = fixedSchema.getFixedSize();
+    return (reuse, parser) -> {
+      if (parser.currentToken() != JsonToken.VALUE_STRING) {
+        throw error("fixed", parser);
+      }
+      byte[] bytes = parser.getText().getBytes(StandardCharsets.ISO_8859_1);
+      if (bytes.length != fixedSize) {
+        throw new AvroTypeException("Expected fixed length " + fixedSize + ", but got" + bytes.length);
+      }
+      parser.nextToken();
+      if (reuse instanceof GenericFixed && ((GenericFixed) reuse).bytes().length == fixedSize) {
+        System.arraycopy(bytes, 0, ((GenericFixed) reuse).bytes(), 0, fixedSize);
+        return reuse;
+      }
+      return AvroCompatibilityHelper.newFixed(fixedSchema, bytes);
+    };
+  }
+
+  private static ValueReader resolvePrimitive(Schema primitiveSchema) {
+    switch (primitiveSchema.getType()) {
+      case NULL:
+        return (reuse, parser) -> {
+          if (parser.currentToken() != JsonToken.VALUE_NULL) {
+            throw error("null", parser);
+          }
+          parser.nextToken();
+          return null;
+        };
+      case BOOLEAN:
+        return (reuse, parser) -> {
+          JsonToken token = parser.currentToken();
+          if (token != JsonToken.VALUE_TRUE && token != JsonToken.VALUE_FALSE) {
+            throw error("boolean", parser);
+          }
+          parser.nextToken();
+          return token == JsonToken.VALUE_TRUE;
+        };
+      case INT:
+        return (reuse, parser) -> {
+          checkNumeric("int", parser);
+          int value = parser.getIntValue();
+          parser.nextToken();
+          return value;
+        };
+      case LONG:
+        return (reuse, parser) -> {
+          checkNumeric("long", parser);
+          long value = parser.getLongValue();
+          parser.nextToken();
+          return value;
+        };
+      case FLOAT:
+        return (reuse, parser) -> {
+          checkNumeric("float", parser);
+          float value = parser.getFloatValue();
+          parser.nextToken();
+          return value;
+        };
+      case DOUBLE:
+        return (reuse, parser) -> {
+          checkNumeric("double", parser);
+          double value = parser.getDoubleValue();
+          parser.nextToken();
+          return value;
+        };
+      case STRING:
+        boolean javaStrings = usesJavaStrings(primitiveSchema);
+        return (reuse, parser) -> {
+          if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            throw error("string", parser);
+          }
+          String value = parser.getText();
+          parser.nextToken();
+          return javaStrings ? value : new Utf8(value);
+        };
+      case BYTES:
+        return (reuse, parser) -> {
+          if (parser.currentToken() != JsonToken.VALUE_STRING) {
+            throw error("bytes", parser);
+          }
+          byte[] bytes = parser.getText().getBytes(StandardCharsets.ISO_8859_1);
+          parser.nextToken();
+          return ByteBuffer.wrap(bytes);
+        };
+      default:
+        throw new FastDeserializerGeneratorException("Unsupported primitive schema of type: " + primitiveSchema.getType());
+    }
+  }
+
+  private static void checkNumeric(String type, JsonParser parser) {
+    JsonToken token = parser.currentToken();
+    if (token == null || !token.isNumeric()) {
+      throw error(type, parser);
+    }
+  }
+
+  /**
+   * Moves past the end of the current object, skipping whatever the object still holds.
+   */
+  private static void skipToEndObject(JsonParser parser) throws IOException {
+    for (JsonToken token = parser.currentToken(); token != JsonToken.END_OBJECT; token = parser.nextToken()) {
+      if (token == null) {
+        throw error("end-object", parser);
+      }
+      if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+        parser.skipChildren();
+      }
+    }
+    parser.nextToken();
+  }
+
+  private static AvroTypeException error(String type, JsonParser parser) {
+    return new AvroTypeException("Expected " + type + ". Got " + parser.currentToken());
+  }
+
+  /**
+   * @see SchemaAssistant#findStringClass(Schema)
+   */
+  private static boolean usesJavaStrings(Schema schema) {
+    return Utils.isAbleToSupportJavaStrings() && SchemaAssistant.STRING_TYPE_STRING.equals(
+        schema.getProp(SchemaAssistant.STRING_PROP));
+  }
+
+  /**
+   * Each reader starts on the first token of its value, and leaves the parser on the token following the value.
+   */
+  @FunctionalInterface
+  private interface ValueReader {
+    Object read(Object reuse, JsonParser parser) throws IOException;
+  }
+
+  private static final class RecordReader implements ValueReader {
+    private final Schema recordSchema;
+    private final boolean unknownFieldsAllowed;
+    private ValueReader[] fieldReaders;
+    private String[] fieldNames;
+    private Map<String, Integer> fieldPositions;
+
+    private RecordReader(Schema recordSchema) {
+      this(recordSchema, false);
+    }
+
+    private RecordReader(Schema recordSchema, boolean unknownFieldsAllowed) {
+      this.recordSchema = recordSchema;
+      this.unknownFieldsAllowed = unknownFieldsAllowed;
+    }
+
+    /**
+     * @return the same plan, reading the top-level record, which tolerates unknown fields anywhere
+     */
+    private RecordReader topLevelReader() {
+      RecordReader topLevelReader = new RecordReader(recordSchema, true);
+      topLevelReader.fieldReaders = fieldReaders;
+      topLevelReader.fieldNames = fieldNames;
+      topLevelReader.fieldPositions = fieldPositions;
+      return topLevelReader;
+    }
+
+    @Override
+    public Object read(Object reuse, JsonParser parser) throws IOException {
+      if (parser.currentToken() != JsonToken.START_OBJECT) {
+        throw error("record-start", parser);
+      }
+      IndexedRecord record;
+      // Reference comparison of the schemas is enough here and it is much cheaper than comparing their content
+      if (reuse instanceof IndexedRecord && ((IndexedRecord) reuse).getSchema() == recordSchema) {
+        record = (IndexedRecord) reuse;
+      } else {
+        record = new GenericData.Record(recordSchema);
+      }
+
+      int fieldCount = fieldReaders.length;
+      boolean[] readFields = new boolean[fieldCount];
+      int readFieldCount = 0;
+      List<String> unknownFields = null;
+      JsonToken token = parser.nextToken();
+      while (token == JsonToken.FIELD_NAME) {
+        String name = parser.getCurrentName();
+        token = parser.nextToken();
+        int position;
+        if (readFieldCount < fieldCount && name == fieldNames[readFieldCount]) {
+          // fast path, the field next in schema order
+          position = readFieldCount;
+        } else {
+          Integer found = fieldPositions.get(name);
+          position = found == null ? -1 : found;
+        }
+        if (position >= 0 && !readFields[position]) {
+          record.put(position, fieldReaders[position].read(record.get(position), parser));
+          readFields[position] = true;
+          readFieldCount++;
+          token = parser.currentToken();
+          continue;
+        }
+        // the compatible decoders only tolerate unknown fields after all the fields of the schema
+        if (readFieldCount < fieldCount && !unknownFieldsAllowed) {
+          if (unknownFields == null) {
+            unknownFields = new ArrayList<>();
+          }
+          unknownFields.add(name);
+        }
+        if (token == JsonToken.START_OBJECT || token == JsonToken.START_ARRAY) {
+          parser.skipChildren();
+        }
+        token = parser.nextToken();
+      }
+      if (token != JsonToken.END_OBJECT) {
+        throw error("record-end", parser);
+      }
+      if (readFieldCount < fieldCount) {
+        for (int i = 0; i < fieldCount; i++) {
+          if (!readFields[i]) {
+            throw new AvroTypeException("Expected field name not found: " + fieldNames[i]);
+          }
+        }
+      }
+      if (unknownFields != null) {
+        throw new AvroTypeException("Expected Unknown fields: " + unknownFields + ". Got " + JsonToken.END_OBJECT);
+      }
+      parser.nextToken();
+      return record;
+    }
+  }
+}
@@ -0,0 +1,288 @@
+package com.linkedin.avro.fastserde;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.json.UTF8JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import com.linkedin.avroutil1.compatibility.AvroVersion;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.AvroTypeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericContainer;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * Generic serializer generator for avro json, the format written by the {@code CompatibleJsonEncoder} of each
+ * helper-impl module, see {@link AvroCompatibilityHelper#newJsonEncoder(Schema, OutputStream, boolean, AvroVersion)}.
+ *
+ * Those encoders check every value written against the parsing grammar of the schema, pushing and popping symbols as
+ * they go. Here the schema is resolved once into a tree of small writing steps, the same way as
+ * {@link FastGenericJsonDeserializerPlanGenerator} does for reading, which write straight to a {@link JsonGenerator}:
+ * field names, union labels and enum symbols are pre-serialized once, and {@link Utf8} strings are copied as they are
+ * to the generators writing UTF-8 bytes.
+ *
+ * The output is the one of the compatible encoders: union branches other than null are wrapped in an object labeled by
+ * the full name of the branch, or by its simple name in the json format of avro 1.4, bytes and fixed are strings of
+ * ISO-8859-1 characters.
+ *
+ * @param <T> type of the top-level serialized value
+ */
+@SuppressWarnings("unchecked")
+public final class FastGenericJsonSerializerPlanGenerator<T> {
+  private static final String LINE_SEPARATOR = System.getProperty("line.separator");
+
+  private final Schema schema;
+  private final boolean useFullNames;
+
+  /** Plans of records, kept by identity of schema, so that recursive schemas are able to refer to them */
+  private final Map<Schema, RecordWriter> recordWriters = new IdentityHashMap<>();
+
+  FastGenericJsonSerializerPlanGenerator(Schema schema) {
+    this(schema, AvroVersion.latest());
+  }
+
+  /**
+   * @param schema schema of the values to write
+   * @param jsonFormat version of avro whose json format is written, union labels being simple names up to avro 1.4
+   */
+  FastGenericJsonSerializerPlanGenerator(Schema schema, AvroVersion jsonFormat) {
+    this.schema = schema;
+    this.useFullNames = jsonFormat == null || jsonFormat.laterThan(AvroVersion.AVRO_1_4);
+  }
+
+  /**
+   * @return a generator writing to the given stream the same way as the json encoders, one value per line
+   */
+  public static JsonGenerator newJsonGenerator(OutputStream out) throws IOException {
+    JsonGenerator generator = FastGenericJsonDeserializerPlanGenerator.JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+    MinimalPrettyPrinter prettyPrinter = new MinimalPrettyPrinter();
+    prettyPrinter.setRootValueSeparator(LINE_SEPARATOR);
+    generator.setPrettyPrinter(prettyPrinter);
+    return generator;
+  }
+
+  public FastJsonSerializer<T> generateSerializer() {
+    try {
+      ValueWriter root = resolve(schema);
+      return (data, generator) -> root.write(data, generator);
+    } catch (FastSerdeGeneratorException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException(e);
+    }
+  }
+
+  private ValueWriter resolve(Schema valueSchema) {
+    switch (valueSchema.getType()) {
+      case RECORD:
+        return resolveRecord(valueSchema);
+      case UNION:
+        return resolveUnion(valueSchema);
+      case ARRAY:
+        return resolveArray(valueSchema);
+      case MAP:
+        return resolveMap(valueSchema);
+      case ENUM:
+        return resolveEnum(valueSchema);
+      case FIXED:
+        return fixedWriter(valueSchema);
+      default:
+        return resolvePrimitive(valueSchema);
+    }
+  }
+
+  private ValueWriter resolveRecord(Schema recordSchema) {
+    RecordWriter recordWriter = recordWriters.get(recordSchema);
+    if (recordWriter == null) {
+      recordWriter = new RecordWriter();
+      recordWriters.put(recordSchema, recordWriter);
+      List<Schema.Field> fields = recordSchema.getFields();
+      SerializableString[] fieldNames = new SerializableString[fields.size()];
+      ValueWriter[] fieldWriters = new ValueWriter[fields.size()];
+      for (int i = 0; i < fieldWriters.length; i++) {
+        Schema.Field field = fields.get(i);
+        fieldNames[i] = new SerializedString(field.name());
+        fieldWriters[i] = resolve(field.schema());
+      }
+      recordWriter.fieldNames = fieldNames;
+      recordWriter.fieldWriters = fieldWriters;
+    }
+    return recordWriter;
+  }
+
+  private ValueWriter resolveUnion(Schema unionSchema) {
+    List<Schema> branches = unionSchema.getTypes();
+    SerializableString[] labels = new SerializableString[branches.size()];
+    ValueWriter[] branchWriters = new ValueWriter[branches.size()];
+    String[] namedBranchFullNames = new String[branches.size()];
+    int namedBranchCount = 0;
+    int nullBranch = -1;
+    for (int i = 0; i < branchWriters.length; i++) {
+      Schema branch = branches.get(i);
+      if (Schema.Type.UNION.equals(branch.getType())) {
+        throw new FastSerdeGeneratorException("Union cannot be sub-type of union!");
+      }
+      if (Schema.Type.NULL.equals(branch.getType()) && nullBranch < 0) {
+        nullBranch = i;
+      }
+      if (SchemaAssistant.isNamedType(branch)) {
+        namedBranchFullNames[i] = AvroCompatibilityHelper.getSchemaFullName(branch);
+        namedBranchCount++;
+      }
+      labels[i] = new SerializedString(useFullNames ? AvroCompatibilityHelper.getSchemaFullName(branch) : branch.getName());
+      branchWriters[i] = resolve(branch);
+    }
+    // the same threshold as the generated binary serializers, below which finding the branch by name isn't worth it
+    UnionBranchIndex branchIndex = namedBranchCount >= 3 ? new UnionBranchIndex(namedBranchFullNames) : null;
+    int nullBranchIndex = nullBranch;
+    return (value, generator) -> {
+      int branch;
+      if (value == null) {
+        branch = nullBranchIndex;
+      } else if (branchIndex != null && value instanceof GenericContainer) {
+        branch = branchIndex.indexOf(((GenericContainer) value).getSchema());
+      } else {
+        branch = GenericData.get().resolveUnion(unionSchema, value);
+      }
+      if (branch < 0) {
+        throw new AvroTypeException("Not in union " + unionSchema + ": " + value);
+      }
+      if (branch == nullBranchIndex) {
+        generator.writeNull();
+        return;
+      }
+      generator.writeStartObject();
+      generator.writeFieldName(labels[branch]);
+      branchWriters[branch].write(value, generator);
+      generator.writeEndObject();
+    };
+  }
+
+  private ValueWriter resolveArray(Schema arraySchema) {
+    ValueWriter elementWriter = resolve(arraySchema.getElementType());
+    return (value, generator) -> {
+      List<Object> array = (List<Object>) value;
+      generator.writeStartArray();
+      for (int i = 0, size = array.size(); i < size; i++) {
+        elementWriter.write(array.get(i), generator);
+      }
+      generator.writeEndArray();
+    };
+  }
+
+  private ValueWriter resolveMap(Schema mapSchema) {
+    ValueWriter valueWriter = resolve(mapSchema.getValueType());
+    return (value, generator) -> {
+      generator.writeStartObject();
+      for (Map.Entry<Object, Object> entry : ((Map<Object, Object>) value).entrySet()) {
+        generator.writeFieldName(entry.getKey().toString());
+        valueWriter.write(entry.getValue(), generator);
+      }
+      generator.writeEndObject();
+    };
+  }
+
+  private static ValueWriter resolveEnum(Schema enumSchema) {
+    Map<String, SerializableString> symbols = new HashMap<>();
+    for (String symbol : enumSchema.getEnumSymbols()) {
+      symbols.put(symbol, new SerializedString(symbol));
+    }
+    return (value, generator) -> {
+      SerializableString symbol = symbols.get(value.toString());
+      if (symbol == null) {
+        throw new AvroTypeException("Not an enum: " + value + " for schema: " + enumSchema);
+      }
+      generator.writeString(symbol);
+    };
+  }
+
+  private static ValueWriter fixedWriter(Schema fixedSchema) {
+    int fixedSize = fixedSchema.getFixedSize();
+    return (value, generator) -> {
+      byte[] bytes = ((GenericFixed) value).bytes();
+      if (bytes.length != fixedSize) {
+        throw new AvroTypeException(
+            "Incorrect length for fixed binary: expected " + fixedSize + " but received " + bytes.length + " bytes.");
+      }
+      generator.writeString(new String(bytes, StandardCharsets.ISO_8859_1));
+    };
+  }
+
+  private static ValueWriter resolvePrimitive(Schema primitiveSchema) {
+    switch (primitiveSchema.getType()) {
+      case NULL:
+        return (value, generator) -> generator.writeNull();
+      case BOOLEAN:
+        return (value, generator) -> generator.writeBoolean((Boolean) value);
+      case INT:
+        return (value, generator) -> generator.writeNumber(((Number) value).intValue());
+      case LONG:
+        return (value, generator) -> generator.writeNumber(((Number) value).longValue());
+      case FLOAT:
+        return (value, generator) -> generator.writeNumber(((Number) value).floatValue());
+      case DOUBLE:
+        return (value, generator) -> generator.writeNumber(((Number) value).doubleValue());
+      case STRING:
+        return FastGenericJsonSerializerPlanGenerator::writeString;
+      case BYTES:
+        return (value, generator) -> {
+          ByteBuffer bytes = (ByteBuffer) value;
+          if (bytes.hasArray()) {
+            generator.writeString(new String(bytes.array(), bytes.arrayOffset() + bytes.position(), bytes.remaining(),
+                StandardCharsets.ISO_8859_1));
+          } else {
+            byte[] content = new byte[bytes.remaining()];
+            bytes.duplicate().get(content);
+            generator.writeString(new String(content, StandardCharsets.ISO_8859_1));
+          }
+        };
+      default:
+        throw new FastSerdeGeneratorException("Unsupported primitive schema of type: " + primitiveSchema.getType());
+    }
+  }
+
+  private static void writeString(Object value, JsonGenerator generator) throws IOException {
+    // Utf8 already holds the encoded bytes, which only need escaping when the output is UTF-8 as well
+    if (value instanceof Utf8 && generator instanceof UTF8JsonGenerator) {
+      Utf8 utf8 = (Utf8) value;
+      generator.writeUTF8String(utf8.getBytes(), 0, Utils.getUtf8ByteLength(utf8));
+    } else {
+      generator.writeString(value.toString());
+    }
+  }
+
+  @FunctionalInterface
+  private interface ValueWriter {
+    void write(Object value, JsonGenerator generator) throws IOException;
+  }
+
+  private static final class RecordWriter implements ValueWriter {
+    private SerializableString[] fieldNames;
+    private ValueWriter[] fieldWriters;
+
+    @Override
+    public void write(Object value, JsonGenerator generator) throws IOException {
+      IndexedRecord record = (IndexedRecord) value;
+      generator.writeStartObject();
+      for (int i = 0; i < fieldWriters.length; i++) {
+        generator.writeFieldName(fieldNames[i]);
+        fieldWriters[i].write(record.get(i), generator);
+      }
+      generator.writeEndObject();
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.linkedin.avro.fastserde;
+
+import com.fasterxml.jackson.core.JsonParser;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+/**
+ * Counterpart of {@link FastDeserializer} for avro json, as read by
+ * {@link com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper#newCompatibleJsonDecoder(org.apache.avro.Schema, InputStream)},
+ * see {@link FastGenericJsonDeserializerPlanGenerator}.
+ * It needs jackson-core 2 on the classpath, which avro 1.9 and later depend on but avro-fastserde doesn't bring, so
+ * that the binary serializers and deserializers don't force it on users of older avro versions.
+ *
+ * @param <T> type of the top-level deserialized value
+ */
+public interface FastJsonDeserializer<T> {
+
+  default T deserialize(String json) throws IOException {
+    return deserialize(null, json);
+  }
+
+  default T deserialize(T reuse, String json) throws IOException {
+    try (JsonParser parser = FastGenericJsonDeserializerPlanGenerator.JSON_FACTORY.createParser(json)) {
+      return deserialize(reuse, parser);
+    }
+  }
+
+  default T deserialize(T reuse, InputStream in) throws IOException {
+    try (JsonParser parser = FastGenericJsonDeserializerPlanGenerator.JSON_FACTORY.createParser(in)) {
+      return deserialize(reuse, parser);
+    }
+  }
+
+  /**
+   * Reads the next value of the given parser, which is left on the token following it, so that values written one
+   * after the other in the same stream can be read by calling this again.
+   *
+   * @param reuse value to read into, if possible
+   * @param parser parser positioned on the first token of the value, or not started yet
+   * @return the deserialized value
+   */
+  T deserialize(T reuse, JsonParser parser) throws IOException;
+}
@@ -0,0 +1,34 @@
+package com.linkedin.avro.fastserde;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import java.io.IOException;
+import java.io.OutputStream;
+
+
+/**
+ * Counterpart of {@link FastSerializer} for avro json, as written by
+ * {@link com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper#newJsonEncoder(org.apache.avro.Schema, OutputStream, boolean, com.linkedin.avroutil1.compatibility.AvroVersion)},
+ * see {@link FastGenericJsonSerializerPlanGenerator}.
+ * It needs jackson-core 2 on the classpath, which avro 1.9 and later depend on but avro-fastserde doesn't bring, so
+ * that the binary serializers and deserializers don't force it on users of older avro versions.
+ *
+ * @param <T> type of the top-level serialized value
+ */
+public interface FastJsonSerializer<T> {
+
+  default void serialize(T data, OutputStream out) throws IOException {
+    try (JsonGenerator generator = FastGenericJsonSerializerPlanGenerator.newJsonGenerator(out)) {
+      serialize(data, generator);
+    }
+  }
+
+  /**
+   * Writes the given value as the next value of the given generator, values written one after the other being
+   * separated by a line separator when the generator comes from
+   * {@link FastGenericJsonSerializerPlanGenerator#newJsonGenerator(OutputStream)}, like the json encoders do.
+   *
+   * @param data value to write
+   * @param generator generator to write to, which isn't flushed
+   */
+  void serialize(T data, JsonGenerator generator) throws IOException;
+}
@@ -0,0 +1,192 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Ahead-of-time generator of fast serializers and deserializers, meant to be run at build time.
+ *
+ * The registered serializers and deserializers are generated and compiled exactly as {@link FastSerdeCache} would do
+ * at runtime, but the resulting class files are written to an output directory together with an index, see
+ * {@link #INDEX_RESOURCE}. Once the output directory is packaged in the application, every {@link FastSerdeCache}
+ * discovers the index from the classpath and loads the precompiled classes instead of generating them.
+ *
+ * It can be invoked from Gradle with a {@code JavaExec} task, whose classpath must contain avro-fastserde, the Avro
+ * version used at runtime and the {@link org.apache.avro.specific.SpecificRecord} classes, if any:
+ * <pre>
+ *   task generateFastSerdeClasses(type: JavaExec) {
+ *     classpath = sourceSets.main.runtimeClasspath
+ *     main = 'com.linkedin.avro.fastserde.FastSerdeAotGenerator'
+ *     args "$buildDir/fastserde", 'generic:src/main/avro/Foo.avsc', 'specific:com.acme.Bar'
+ *   }
+ * </pre>
+ * Each argument following the output directory is one of:
+ * <ul>
+ *   <li>{@code generic:<schema file>} for the generic serializer and deserializer of the schema</li>
+ *   <li>{@code generic:<writer schema file>,<reader schema file>} for the generic deserializer of the pair</li>
+ *   <li>{@code specific:<record class>} for the specific serializer and deserializer of the record class</li>
+ *   <li>{@code specific:<writer schema file>,<record class>} for the specific deserializer of the pair</li>
+ * </ul>
+ */
+public final class FastSerdeAotGenerator {
+  private static final Logger LOGGER = LoggerFactory.getLogger(FastSerdeAotGenerator.class);
+
+  /**
+   * Classpath resource listing the fully qualified names of the precompiled classes, one per line.
+   */
+  public static final String INDEX_RESOURCE = "META-INF/avro-fastserde/precompiled-classes.index";
+
+  private final File outputDir;
+  private final String compileClassPath;
+  private final FastSerdeClassLoader classLoader = new FastSerdeClassLoader(FastSerdeAotGenerator.class.getClassLoader());
+  private final Set<String> generatedClassNames = new TreeSet<>();
+
+  /**
+   * @param outputDir directory receiving the compiled classes and the index
+   * @param compileClassPath classpath used to compile the generated classes
+   */
+  public FastSerdeAotGenerator(File outputDir, String compileClassPath) {
+    this.outputDir = outputDir;
+    this.compileClassPath = compileClassPath;
+  }
+
+  public static void main(String[] args) throws Exception {
+    if (args.length < 2) {
+      throw new IllegalArgumentException("Usage: FastSerdeAotGenerator <output dir> <generic:...|specific:...>...");
+    }
+    String compileClassPath = System.getProperty(FastSerdeCache.CLASSPATH, System.getProperty("java.class.path"));
+    FastSerdeAotGenerator generator = new FastSerdeAotGenerator(new File(args[0]), compileClassPath);
+    for (String spec : Arrays.asList(args).subList(1, args.length)) {
+      generator.add(spec);
+    }
+    generator.writeIndex();
+  }
+
+  private void add(String spec) throws IOException, ReflectiveOperationException {
+    int separator = spec.indexOf(':');
+    String kind = separator < 0 ? "" : spec.substring(0, separator);
+    String[] sources = spec.substring(separator + 1).split(",");
+    if (sources.length > 2 || !("generic".equals(kind) || "specific".equals(kind))) {
+      throw new IllegalArgumentException("Unrecognized argument: " + spec);
+    }
+    if ("generic".equals(kind)) {
+      Schema writerSchema = parseSchemaFile(sources[0]);
+      if (sources.length == 1) {
+        addGenericSerializer(writerSchema);
+        addGenericDeserializer(writerSchema, writerSchema);
+      } else {
+        addGenericDeserializer(writerSchema, parseSchemaFile(sources[1]));
+      }
+    } else {
+      if (sources.length == 1) {
+        Schema schema = getSpecificSchema(sources[0]);
+        addSpecificSerializer(schema);
+        addSpecificDeserializer(schema, schema);
+      } else {
+        addSpecificDeserializer(parseSchemaFile(sources[0]), getSpecificSchema(sources[1]));
+      }
+    }
+  }
+
+  public void addGenericDeserializer(Schema writerSchema, Schema readerSchema) throws IOException {
+    FastGenericDeserializerGenerator<?> generator =
+        new FastGenericDeserializerGenerator<>(writerSchema, readerSchema, outputDir, classLoader, compileClassPath);
+    generator.generateDeserializer();
+    writeClasses(generator);
+  }
+
+  public void addSpecificDeserializer(Schema writerSchema, Schema readerSchema) throws IOException {
+    FastSpecificDeserializerGenerator<?> generator =
+        new FastSpecificDeserializerGenerator<>(writerSchema, readerSchema, outputDir, classLoader, compileClassPath);
+    generator.generateDeserializer();
+    writeClasses(generator);
+  }
+
+  public void addGenericSerializer(Schema schema) throws IOException {
+    checkSerializerSupport();
+    FastGenericSerializerGenerator<?> generator =
+        new FastGenericSerializerGenerator<>(schema, outputDir, classLoader, compileClassPath);
+    generator.generateSerializer();
+    writeClasses(generator);
+  }
+
+  public void addSpecificSerializer(Schema schema) throws IOException {
+    checkSerializerSupport();
+    FastSpecificSerializerGenerator<?> generator =
+        new FastSpecificSerializerGenerator<>(schema, outputDir, classLoader, compileClassPath);
+    generator.generateSerializer();
+    writeClasses(generator);
+  }
+
+  /**
+   * Writes the index of all the classes generated so far, merged with the entries of an already existing index,
+   * so that the output directory can be filled by several runs.
+   */
+  public void writeIndex() throws IOException {
+    File index = new File(outputDir, INDEX_RESOURCE);
+    Set<String> indexedClassNames = new TreeSet<>(generatedClassNames);
+    if (index.isFile()) {
+      indexedClassNames.addAll(readIndex(Files.readAllLines(index.toPath(), StandardCharsets.UTF_8)));
+    }
+    List<String> lines = new ArrayList<>();
+    lines.add("# avro-fastserde precompiled classes, generated by " + FastSerdeAotGenerator.class.getName());
+    lines.addAll(indexedClassNames);
+    Files.createDirectories(index.getParentFile().toPath());
+    Files.write(index.toPath(), lines, StandardCharsets.UTF_8);
+    LOGGER.info("Wrote index of {} precompiled classes to: {}", indexedClassNames.size(), index);
+  }
+
+  /**
+   * @param lines content of an index
+   * @return the fully qualified names of the classes listed by the index
+   */
+  static List<String> readIndex(List<String> lines) {
+    List<String> classNames = new ArrayList<>(lines.size());
+    for (String line : lines) {
+      String className = line.trim();
+      if (!className.isEmpty() && !className.startsWith("#")) {
+        classNames.add(className);
+      }
+    }
+    return classNames;
+  }
+
+  private void writeClasses(FastSerdeBase generator) throws IOException {
+    for (Map.Entry<String, byte[]> compiledClass : generator.getCompiledClasses().entrySet()) {
+      File classFile = new File(outputDir, compiledClass.getKey().replace('.', File.separatorChar) + ".class");
+      Files.createDirectories(classFile.getParentFile().toPath());
+      Files.write(classFile.toPath(), compiledClass.getValue());
+      if (!compiledClass.getKey().contains("$")) {
+        generatedClassNames.add(compiledClass.getKey());
+      }
+    }
+  }
+
+  private static void checkSerializerSupport() {
+    if (!Utils.isSupportedAvroVersionsForSerializer()) {
+      throw new FastSerdeGeneratorException("FastSerializer is only supported in following Avro versions: "
+          + Utils.getAvroVersionsSupportedForSerializer());
+    }
+  }
+
+  private static Schema parseSchemaFile(String path) throws IOException {
+    return AvroCompatibilityHelper.parse(new String(Files.readAllBytes(new File(path).toPath()), StandardCharsets.UTF_8));
+  }
+
+  private static Schema getSpecificSchema(String className) throws ReflectiveOperationException {
+    return (Schema) Class.forName(className).getField("SCHEMA$").get(null);
+  }
+}
@@ -1,20 +1,34 @@
 package com.linkedin.avro.fastserde;
 
 import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import com.sun.codemodel.CodeWriter;
 import com.sun.codemodel.JBlock;
 import com.sun.codemodel.JCodeModel;
 import com.sun.codemodel.JConditional;
 import com.sun.codemodel.JDefinedClass;
 import com.sun.codemodel.JExpr;
 import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JPackage;
 import com.sun.codemodel.JVar;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
+import javax.tools.DiagnosticCollector;
 import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
 import javax.tools.ToolProvider;
 import org.apache.avro.Schema;
 import org.apache.commons.lang3.StringUtils;
@@ -46,6 +60,7 @@ public abstract class FastSerdeBase {
   protected final ClassLoader classLoader;
   protected final String compileClassPath;
   protected JDefinedClass generatedClass;
+  private Map<String, byte[]> compiledClasses = Collections.emptyMap();
 
   public FastSerdeBase(String description, boolean useGenericTypes, Class defaultStringClass, File destination, ClassLoader classLoader,
       String compileClassPath, boolean isForSerializer) {
@@ -54,10 +69,22 @@ public abstract class FastSerdeBase {
     this.destination = destination;
     this.classLoader = classLoader;
     this.compileClassPath = (null == compileClassPath ? "" : compileClassPath);
-    this.generatedPackageName = GENERATED_PACKAGE_NAME_PREFIX + description + "." + AvroCompatibilityHelper.getRuntimeAvroVersion().name();
+    this.generatedPackageName = getGeneratedPackageName(description);
     this.generatedSourcesPath = generateSourcePathFromPackageName(generatedPackageName);
   }
 
+  static String getGeneratedPackageName(String description) {
+    return GENERATED_PACKAGE_NAME_PREFIX + description + "." + AvroCompatibilityHelper.getRuntimeAvroVersion().name();
+  }
+
+  /**
+   * @return bytecode of the classes compiled in memory by this generator, keyed by fully qualified class name,
+   *         empty if the compilation went through the file system
+   */
+  Map<String, byte[]> getCompiledClasses() {
+    return compiledClasses;
+  }
+
   /**
    * A function to generate unique names, such as those of variables and functions, within the scope
    * of the this class instance (i.e. per serializer of a given schema or deserializer of a given
@@ -100,51 +127,172 @@ public abstract class FastSerdeBase {
     }
   }
 
+  /**
+   * Compiles the generated class and loads it with {@link #classLoader}.
+   *
+   * When {@link #classLoader} is a {@link FastSerdeClassLoader}, the whole compilation happens in memory and
+   * {@link #destination} is not used, otherwise the source is written to {@link #destination} and the compiled class
+   * is expected to be loadable from there.
+   */
   @SuppressWarnings("unchecked")
-  protected Class compileClass(final String className, Set<String> knownUsedFullyQualifiedClassNameSet)
+  protected Class compileClass(final String className) throws IOException, ClassNotFoundException {
+    return compileClasses(Collections.singletonList(this), Collections.singletonList(className)).get(0);
+  }
+
+  /**
+   * Compiles the classes defined by the given generators with a single javac invocation, so that the start-up and the
+   * warm-up of javac are paid once for the whole batch rather than once per class. Every class is then loaded with
+   * the {@link #classLoader} of its generator, exactly as {@link #compileClass(String)} would do.
+   *
+   * @param generators generators whose class has been defined but not compiled yet, sharing the same compile classpath
+   *                   and either all compiling in memory or all compiling through the file system
+   * @param classNames simple names of the classes defined by the generators, in the same order
+   * @return the compiled classes, in the same order as the generators
+   */
+  static List<Class<?>> compileClasses(List<? extends FastSerdeBase> generators, List<String> classNames)
       throws IOException, ClassNotFoundException {
-    codeModel.build(destination);
+    boolean inMemory = generators.get(0).classLoader instanceof FastSerdeClassLoader;
+    String compileClassPath = generators.get(0).compileClassPath;
+    List<String> fullClassNames = new ArrayList<>(generators.size());
+    List<JavaFileObject> sourceFiles = new ArrayList<>(generators.size());
+    List<String> filePaths = new ArrayList<>(generators.size());
+    for (int i = 0; i < generators.size(); i++) {
+      FastSerdeBase generator = generators.get(i);
+      String className = classNames.get(i);
+      String fullClassName = generator.generatedPackageName + "." + className;
+      Set<String> knownUsedFullyQualifiedClassNameSet = generator.schemaAssistant.getUsedFullyQualifiedClassNameSet();
+      fullClassNames.add(fullClassName);
+      if (inMemory) {
+        String source = generator.buildSourceInMemory(className);
+        compileClassPath =
+            Utils.inferCompileDependencies(compileClassPath, new StringReader(source), knownUsedFullyQualifiedClassNameSet);
+        sourceFiles.add(InMemoryJavaFileManager.newSourceFile(fullClassName, source));
+      } else {
+        generator.codeModel.build(generator.destination);
+        String filePath = generator.destination.getAbsolutePath() + generator.generatedSourcesPath + className + ".java";
+        compileClassPath = Utils.inferCompileDependencies(compileClassPath, filePath, knownUsedFullyQualifiedClassNameSet);
+        filePaths.add(filePath);
+      }
+    }
 
-    String filePath = destination.getAbsolutePath() + generatedSourcesPath + className + ".java";
+    JavaCompiler compiler = getJavaCompiler();
+    /*
+     * Disable sharedNameTable in runtime complication
+     *
+     * The SharedNameTable was introduced to speed up Java complication by using soft references
+     * to avoid re-allocations. However, in fast-avro runtime compilation, sharedNameTable brings
+     * severe Memory and GC issue. When fast-avro needed to process a large number of different
+     * schemas, SharedNameTable objects will consume huge memory and cannot be freed.
+     *
+     * SharedNameTable should be disabled for runtime compilation by "-XDuseUnsharedTable" config.
+     * The memory issue by SharedNameTable does not exist in Java 11 (tested JDK-11_0_5-zulu
+     * and JDK-11_0_5-zing_19_12_100_0_1), thus the change can be reverted in java 11.
+     * Keeping this config also does not bring any downgrade.
+     *
+     */
+    List<String> options = Arrays.asList("-cp", compileClassPath, "-XDuseUnsharedTable");
+    if (inMemory) {
+      compileInMemory(compiler, options, generators, fullClassNames, sourceFiles);
+    } else {
+      compileFiles(compiler, options, fullClassNames, filePaths);
+    }
 
-    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-    if (null == compiler) {
-      /**
-       * If the above function returns null, it is very likely that the env setting: "JAVA_HOME" is not being setup properly.
-       */
-      throw new FastSerdeGeneratorException("Couldn't locate java compiler at runtime, please double check your env "
-          + "setting for 'JAVA_HOME', and here is the value for 'System.getProperty(\"java.home\")': " + System.getProperty("java.home"));
+    List<Class<?>> classes = new ArrayList<>(generators.size());
+    for (int i = 0; i < generators.size(); i++) {
+      classes.add(generators.get(i).classLoader.loadClass(fullClassNames.get(i)));
     }
-    String compileClassPathForCurrentFile = Utils.inferCompileDependencies(compileClassPath, filePath, knownUsedFullyQualifiedClassNameSet);
+    return classes;
+  }
+
+  /**
+   * Compiles without any disk round trip: the sources are compiled through an {@link InMemoryJavaFileManager} and the
+   * resulting bytecode is handed over to the {@link FastSerdeClassLoader} of each generator.
+   */
+  private static void compileInMemory(JavaCompiler compiler, List<String> options, List<? extends FastSerdeBase> generators,
+      List<String> fullClassNames, List<JavaFileObject> sourceFiles) {
+    DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+    boolean compileResult;
+    try (InMemoryJavaFileManager fileManager = new InMemoryJavaFileManager(
+        compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8))) {
+      LOGGER.info("Starting in-memory compilation for the generated classes: {} ", fullClassNames);
+      LOGGER.debug("The inferred compile class path for classes: {} : {}", fullClassNames, options.get(1));
+      compileResult = Boolean.TRUE.equals(compiler.getTask(null, fileManager, diagnostics, options, null, sourceFiles).call());
+      if (compileResult) {
+        Map<String, byte[]> compiledClasses = fileManager.getCompiledClasses();
+        for (int i = 0; i < generators.size(); i++) {
+          FastSerdeBase generator = generators.get(i);
+          String fullClassName = fullClassNames.get(i);
+          generator.compiledClasses = new HashMap<>();
+          compiledClasses.forEach((className, bytecode) -> {
+            if (className.equals(fullClassName) || className.startsWith(fullClassName + "$")) {
+              generator.compiledClasses.put(className, bytecode);
+              ((FastSerdeClassLoader) generator.classLoader).addClass(className, bytecode);
+            }
+          });
+        }
+      }
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException("Unable to compile:" + fullClassNames + " in memory", e);
+    }
+
+    if (!compileResult) {
+      throw new FastSerdeGeneratorException("Unable to compile:" + fullClassNames + " in memory: " + diagnostics.getDiagnostics());
+    } else {
+      LOGGER.info("Successfully compiled classes {} in memory", fullClassNames);
+    }
+  }
+
+  private static void compileFiles(JavaCompiler compiler, List<String> options, List<String> fullClassNames,
+      List<String> filePaths) {
+    List<String> arguments = new ArrayList<>(options);
+    arguments.addAll(filePaths);
     int compileResult;
     try {
-      /*
-       * Disable sharedNameTable in runtime complication
-       *
-       * The SharedNameTable was introduced to speed up Java complication by using soft references
-       * to avoid re-allocations. However, in fast-avro runtime compilation, sharedNameTable brings
-       * severe Memory and GC issue. When fast-avro needed to process a large number of different
-       * schemas, SharedNameTable objects will consume huge memory and cannot be freed.
-       *
-       * SharedNameTable should be disabled for runtime compilation by "-XDuseUnsharedTable" config.
-       * The memory issue by SharedNameTable does not exist in Java 11 (tested JDK-11_0_5-zulu
-       * and JDK-11_0_5-zing_19_12_100_0_1), thus the change can be reverted in java 11.
-       * Keeping this config also does not bring any downgrade.
-       *
-       */
-      LOGGER.info("Starting compilation for the generated source file: {} ", filePath);
-      LOGGER.debug("The inferred compile class path for file: {} : {}", filePath, compileClassPathForCurrentFile);
-      compileResult = compiler.run(null, null, null, "-cp", compileClassPathForCurrentFile, filePath, "-XDuseUnsharedTable");
+      LOGGER.info("Starting compilation for the generated source files: {} ", filePaths);
+      LOGGER.debug("The inferred compile class path for files: {} : {}", filePaths, options.get(1));
+      compileResult = compiler.run(null, null, null, arguments.toArray(new String[0]));
     } catch (Exception e) {
-      throw new FastSerdeGeneratorException("Unable to compile:" + className + " from source file: " + filePath, e);
+      throw new FastSerdeGeneratorException("Unable to compile:" + fullClassNames + " from source files: " + filePaths, e);
     }
 
     if (compileResult != 0) {
-      throw new FastSerdeGeneratorException("Unable to compile:" + className + " from source file: " + filePath);
+      throw new FastSerdeGeneratorException("Unable to compile:" + fullClassNames + " from source files: " + filePaths);
     } else {
-      LOGGER.info("Successfully compiled class {} defined at source file: {}", className, filePath);
+      LOGGER.info("Successfully compiled classes {} defined at source files: {}", fullClassNames, filePaths);
     }
+  }
 
-    return classLoader.loadClass(generatedPackageName + "." + className);
+  private String buildSourceInMemory(final String className) throws IOException {
+    ByteArrayOutputStream sourceStream = new ByteArrayOutputStream();
+    codeModel.build(new CodeWriter() {
+      {
+        encoding = StandardCharsets.UTF_8.name();
+      }
+
+      @Override
+      public OutputStream openBinary(JPackage pkg, String fileName) {
+        if (!(className + ".java").equals(fileName)) {
+          throw new FastSerdeGeneratorException("Unexpected generated file: " + fileName + " for class: " + className);
+        }
+        return sourceStream;
+      }
+
+      @Override
+      public void close() {
+      }
+    });
+    return new String(sourceStream.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static JavaCompiler getJavaCompiler() {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (null == compiler) {
+      /**
+       * If the above function returns null, it is very likely that the env setting: "JAVA_HOME" is not being setup properly.
+       */
+      throw new FastSerdeGeneratorException("Couldn't locate java compiler at runtime, please double check your env "
+          + "setting for 'JAVA_HOME', and here is the value for 'System.getProperty(\"java.home\")': " + System.getProperty("java.home"));
+    }
+    return compiler;
   }
 }
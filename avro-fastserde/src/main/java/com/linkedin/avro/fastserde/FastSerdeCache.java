@@ -3,22 +3,48 @@ package com.linkedin.avro.fastserde;
 import static com.linkedin.avro.fastserde.Utils.getSchemaFingerprint;
 import static com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper.getSchemaFullName;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import com.linkedin.avroutil1.compatibility.AvroVersion;
+import com.linkedin.avroutil1.compatibility.EvictingConcurrentHashMap;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.StringWriter;
 import java.lang.reflect.ParameterizedType;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.apache.avro.Schema;
 import org.apache.avro.generic.ColdGenericDatumReader;
@@ -44,20 +70,31 @@ public final class FastSerdeCache {
 
   public static final String CLASSPATH = "avro.fast.serde.classpath";
   public static final String CLASSPATH_SUPPLIER = "avro.fast.serde.classpath.supplier";
+  public static final String IN_MEMORY_COMPILATION = "avro.fast.serde.compile.in.memory";
+  public static final String DESERIALIZER_BACKEND = "avro.fast.serde.deserializer.backend";
+  public static final String PERSISTENT_CLASS_CACHE_DIR = "avro.fast.serde.class.cache.dir";
+  public static final String MAX_CACHE_ENTRIES = "avro.fast.serde.cache.max.entries";
+  public static final String MAX_CACHE_WEIGHT = "avro.fast.serde.cache.max.weight";
+  public static final String CLASS_LOADER_STRATEGY = "avro.fast.serde.class.loader.strategy";
 
   private static final Logger LOGGER = LoggerFactory.getLogger(FastSerdeCache.class);
 
   private static volatile FastSerdeCache _INSTANCE;
 
-  private final Map<String, FastDeserializer<?>> fastSpecificRecordDeserializersCache =
-      new FastAvroConcurrentHashMap<>();
-  private final Map<String, FastDeserializer<?>> fastGenericRecordDeserializersCache =
-      new FastAvroConcurrentHashMap<>();
+  private final EvictingConcurrentHashMap<SchemaFingerprintKey, FastDeserializer<?>> fastSpecificRecordDeserializersCache;
+  private final EvictingConcurrentHashMap<SchemaFingerprintKey, FastDeserializer<?>> fastGenericRecordDeserializersCache;
 
-  private final Map<String, FastSerializer<?>> fastSpecificRecordSerializersCache =
-      new FastAvroConcurrentHashMap<>();
-  private final Map<String, FastSerializer<?>> fastGenericRecordSerializersCache =
-      new FastAvroConcurrentHashMap<>();
+  private final EvictingConcurrentHashMap<SchemaFingerprintKey, FastSerializer<?>> fastSpecificRecordSerializersCache;
+  private final EvictingConcurrentHashMap<SchemaFingerprintKey, FastSerializer<?>> fastGenericRecordSerializersCache;
+
+  /** Classes of the deep reuse deserializers, by class name, each caller getting its own instance */
+  private final EvictingConcurrentHashMap<String, Class<?>> deepReuseDeserializerClasses;
+
+  /** Zero-copy deserializers, built synchronously by the first lookup as they have no fallback */
+  private final EvictingConcurrentHashMap<SchemaFingerprintKey, FastDeserializer<?>> zeroCopyGenericDeserializersCache;
+
+  private final EvictingConcurrentHashMap<SchemaFingerprintKey, FastJsonDeserializer<?>> fastGenericJsonDeserializersCache;
+  private final EvictingConcurrentHashMap<SchemaFingerprintKey, FastJsonSerializer<?>> fastGenericJsonSerializersCache;
 
   private Executor executor;
 
@@ -66,6 +103,18 @@ public final class FastSerdeCache {
 
   private Optional<String> compileClassPath;
 
+  private final FastDeserializerBackend deserializerBackend;
+
+  private PersistentClassCache persistentClassCache;
+
+  private final FastSerdeClassLoaderStrategy classLoaderStrategy;
+  private final int classLoaderBatchSize;
+  private ClassLoader batchClassLoader;
+  private int batchClassLoaderSize;
+
+  private final ClassLoader precompiledClassLoader;
+  private final Set<String> precompiledClassNames;
+
   /**
    *
    * @param compileClassPathSupplier
@@ -103,33 +152,154 @@ public final class FastSerdeCache {
     this.compileClassPath = Optional.ofNullable(compileClassPath);
   }
 
+  /**
+   *
+   * @param executorService
+   *            customized {@link Executor} used by serializer/deserializer compile threads
+   * @param compileClassPathSupplier
+   *            custom classpath {@link Supplier}
+   * @param inMemoryCompilation
+   *            whether the generated classes should be compiled and loaded entirely in memory, without writing
+   *            any source or class file to a temporary directory
+   */
+  public FastSerdeCache(Executor executorService, Supplier<String> compileClassPathSupplier, boolean inMemoryCompilation) {
+    this(executorService, compileClassPathSupplier, inMemoryCompilation, FastDeserializerBackend.JAVAC);
+  }
+
+  /**
+   *
+   * @param executorService
+   *            customized {@link Executor} used by serializer/deserializer compile threads
+   * @param compileClassPathSupplier
+   *            custom classpath {@link Supplier}
+   * @param inMemoryCompilation
+   *            whether the generated classes should be compiled and loaded entirely in memory, without writing
+   *            any source or class file to a temporary directory
+   * @param deserializerBackend
+   *            {@link FastDeserializerBackend} used to build generic deserializers
+   */
+  public FastSerdeCache(Executor executorService, Supplier<String> compileClassPathSupplier, boolean inMemoryCompilation,
+      FastDeserializerBackend deserializerBackend) {
+    this(builder().setExecutor(executorService)
+        .setCompileClassPathSupplier(compileClassPathSupplier)
+        .setInMemoryCompilation(inMemoryCompilation)
+        .setDeserializerBackend(deserializerBackend));
+  }
+
   /**
    *
    * @param executorService
    *            customized {@link Executor} used by serializer/deserializer compile threads
    */
   public FastSerdeCache(Executor executorService) {
-    this.executor = executorService != null ? executorService : getDefaultExecutor();
+    this(builder().setExecutor(executorService));
+  }
 
-    try {
-      Path classesPath = Files.createTempDirectory("generated");
-      classesDir = classesPath.toFile();
-      classLoader =
-          URLClassLoader.newInstance(new URL[]{classesDir.toURI().toURL()}, FastSerdeCache.class.getClassLoader());
-    } catch (IOException e) {
-      throw new RuntimeException(e);
+  private FastSerdeCache(Builder builder) {
+    this.executor = builder.executor != null ? builder.executor : getDefaultExecutor();
+    this.deserializerBackend = builder.deserializerBackend;
+    this.classLoaderBatchSize = builder.classLoaderBatchSize;
+
+    this.fastSpecificRecordDeserializersCache = newCacheMap(builder);
+    this.fastGenericRecordDeserializersCache = newCacheMap(builder);
+    this.fastSpecificRecordSerializersCache = newCacheMap(builder);
+    this.fastGenericRecordSerializersCache = newCacheMap(builder);
+    this.zeroCopyGenericDeserializersCache = newCacheMap(builder);
+    this.fastGenericJsonDeserializersCache = newCacheMap(builder);
+    this.fastGenericJsonSerializersCache = newCacheMap(builder);
+    this.deepReuseDeserializerClasses = new EvictingConcurrentHashMap<>(builder.maxCacheEntries,
+        builder.maxCacheWeight, FastSerdeCache::estimateMetaspaceWeight);
+
+    if (builder.persistentClassCacheDir != null) {
+      try {
+        persistentClassCache = new PersistentClassCache(builder.persistentClassCacheDir);
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
     }
 
-    this.compileClassPath = Optional.empty();
+    // persisted classes are handed over as bytecode and the weight of bounded caches is estimated from the bytecode
+    // defined in memory, so both need the in-memory class loader
+    if (builder.inMemoryCompilation || persistentClassCache != null || fastGenericRecordDeserializersCache.isBounded()) {
+      classLoader = new FastSerdeClassLoader(FastSerdeCache.class.getClassLoader());
+    } else {
+      try {
+        Path classesPath = Files.createTempDirectory("generated");
+        classesDir = classesPath.toFile();
+        classLoader =
+            URLClassLoader.newInstance(new URL[]{classesDir.toURI().toURL()}, FastSerdeCache.class.getClassLoader());
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+
+    this.compileClassPath = Optional.ofNullable(builder.compileClassPath);
+
+    if (builder.classLoaderStrategy != null) {
+      this.classLoaderStrategy = builder.classLoaderStrategy;
+    } else {
+      this.classLoaderStrategy = fastGenericRecordDeserializersCache.isBounded()
+          ? FastSerdeClassLoaderStrategy.PER_SCHEMA_PAIR : FastSerdeClassLoaderStrategy.SHARED;
+    }
+
+    this.precompiledClassLoader = builder.precompiledClassLoader != null ? builder.precompiledClassLoader
+        : Optional.ofNullable(Thread.currentThread().getContextClassLoader()).orElse(FastSerdeCache.class.getClassLoader());
+    this.precompiledClassNames = loadPrecompiledClassNames(precompiledClassLoader);
   }
 
   private FastSerdeCache() {
     this((Executor) null);
   }
 
+  private static <V> EvictingConcurrentHashMap<SchemaFingerprintKey, V> newCacheMap(Builder builder) {
+    return new EvictingConcurrentHashMap<>(builder.maxCacheEntries, builder.maxCacheWeight,
+        FastSerdeCache::estimateMetaspaceWeight);
+  }
+
+  /**
+   * Only the classes defined by their own {@link FastSerdeClassLoader} can be unloaded once evicted, so only those
+   * are accounted for.
+   */
+  private static long estimateMetaspaceWeight(Object serde) {
+    return estimateMetaspaceWeight(serde.getClass());
+  }
+
+  private static long estimateMetaspaceWeight(Class<?> serdeClass) {
+    ClassLoader serdeClassLoader = serdeClass.getClassLoader();
+    return serdeClassLoader instanceof FastSerdeClassLoader
+        ? ((FastSerdeClassLoader) serdeClassLoader).getDefinedBytecodeSize(serdeClass.getName()) : 0;
+  }
+
+  /**
+   * @return the constant of the given enum named by the system property, matched case-insensitively, or the default
+   *         value if the property isn't set, or doesn't name any constant, which is logged
+   */
+  static <E extends Enum<E>> E getEnumProperty(String property, Class<E> enumClass, E defaultValue) {
+    String name = System.getProperty(property);
+    if (name == null) {
+      return defaultValue;
+    }
+    for (E constant : enumClass.getEnumConstants()) {
+      if (constant.name().equalsIgnoreCase(name.trim())) {
+        return constant;
+      }
+    }
+    LOGGER.warn("unknown value of the " + property + " system property: " + name + ", expected one of "
+        + Arrays.toString(enumClass.getEnumConstants()) + ", using the default instead");
+    return defaultValue;
+  }
+
   /**
    * Gets default {@link FastSerdeCache} instance. Default instance classpath can be customized via
-   * {@value #CLASSPATH} or {@value #CLASSPATH_SUPPLIER} system properties.
+   * {@value #CLASSPATH} or {@value #CLASSPATH_SUPPLIER} system properties, and in-memory compilation
+   * can be turned on via the {@value #IN_MEMORY_COMPILATION} system property. The backend used for generic
+   * deserializers can be picked via the {@value #DESERIALIZER_BACKEND} system property, see {@link FastDeserializerBackend},
+   * and compiled classes are persisted across restarts in the directory given by the {@value #PERSISTENT_CLASS_CACHE_DIR}
+   * system property, if any. The caches can be bounded via the {@value #MAX_CACHE_ENTRIES} and {@value #MAX_CACHE_WEIGHT}
+   * system properties, see {@link Builder#setMaxCacheEntries(long)} and {@link Builder#setMaxCacheWeight(long)}.
+   * The grouping of generated classes into class loaders can be picked via the {@value #CLASS_LOADER_STRATEGY} system
+   * property, see {@link FastSerdeClassLoaderStrategy}. Classes generated ahead of time by {@link FastSerdeAotGenerator}
+   * are always picked up from the classpath.
    *
    * @return default {@link FastSerdeCache} instance
    */
@@ -139,6 +309,18 @@ public final class FastSerdeCache {
         if (_INSTANCE == null) {
           String classPath = System.getProperty(CLASSPATH);
           String classpathSupplierClassName = System.getProperty(CLASSPATH_SUPPLIER);
+          String persistentClassCacheDir = System.getProperty(PERSISTENT_CLASS_CACHE_DIR);
+          Builder builder = builder().setInMemoryCompilation(Boolean.getBoolean(IN_MEMORY_COMPILATION))
+              .setDeserializerBackend(
+                  getEnumProperty(DESERIALIZER_BACKEND, FastDeserializerBackend.class, FastDeserializerBackend.JAVAC))
+              .setPersistentClassCacheDir(persistentClassCacheDir != null ? new File(persistentClassCacheDir) : null)
+              .setMaxCacheEntries(Long.getLong(MAX_CACHE_ENTRIES, Long.MAX_VALUE))
+              .setMaxCacheWeight(Long.getLong(MAX_CACHE_WEIGHT, Long.MAX_VALUE));
+          FastSerdeClassLoaderStrategy classLoaderStrategy =
+              getEnumProperty(CLASS_LOADER_STRATEGY, FastSerdeClassLoaderStrategy.class, null);
+          if (classLoaderStrategy != null) {
+            builder.setClassLoaderStrategy(classLoaderStrategy);
+          }
           if (classpathSupplierClassName != null) {
             Supplier<String> classpathSupplier = null;
             try {
@@ -154,9 +336,9 @@ public final class FastSerdeCache {
             } catch (ReflectiveOperationException e) {
               LOGGER.warn("unable to instantiate classpath supplier: " + classpathSupplierClassName, e);
             }
-            _INSTANCE = new FastSerdeCache(classpathSupplier);
+            _INSTANCE = builder.setCompileClassPathSupplier(classpathSupplier).build();
           } else if (classPath != null) {
-            _INSTANCE = new FastSerdeCache(classPath);
+            _INSTANCE = builder.setCompileClassPath(classPath).build();
           } else {
             // Infer class path if no classpath specified.
             classPath = System.getProperty("java.class.path");
@@ -175,7 +357,7 @@ public final class FastSerdeCache {
             } catch (ClassNotFoundException e) {
               throw new RuntimeException("Failed to find class: " + avroSchemaClassName);
             }
-            _INSTANCE = new FastSerdeCache(classPath);
+            _INSTANCE = builder.setCompileClassPath(classPath).build();
           }
         }
       }
@@ -208,14 +390,18 @@ public final class FastSerdeCache {
    * @return specific-class aware avro {@link FastDeserializer}
    */
   public FastDeserializer<?> getFastSpecificDeserializer(Schema writerSchema, Schema readerSchema) {
-    String schemaKey = getSchemaKey(writerSchema, readerSchema);
-    FastDeserializer<?> deserializer = fastSpecificRecordDeserializersCache.get(schemaKey);
+    FastDeserializer<?> deserializer = fastSpecificRecordDeserializersCache.get(SchemaFingerprintKey.probe(writerSchema, readerSchema));
 
     if (deserializer == null) {
+      SchemaFingerprintKey schemaKey = new SchemaFingerprintKey(writerSchema, readerSchema);
       AtomicBoolean status = new AtomicBoolean(false);
       deserializer = fastSpecificRecordDeserializersCache.computeIfAbsent(
           schemaKey,
           k -> {
+            FastDeserializer<?> precompiledDeserializer = loadPrecompiledDeserializer(writerSchema, readerSchema, "Specific");
+            if (precompiledDeserializer != null) {
+              return precompiledDeserializer;
+            }
             status.set(true);
             return new FastDeserializerWithAvroSpecificImpl<>(writerSchema, readerSchema);
           });
@@ -239,14 +425,18 @@ public final class FastSerdeCache {
    * @return generic-class aware avro {@link FastDeserializer}
    */
   public FastDeserializer<?> getFastGenericDeserializer(Schema writerSchema, Schema readerSchema) {
-    String schemaKey = getSchemaKey(writerSchema, readerSchema);
-    FastDeserializer<?> deserializer = fastGenericRecordDeserializersCache.get(schemaKey);
+    FastDeserializer<?> deserializer = fastGenericRecordDeserializersCache.get(SchemaFingerprintKey.probe(writerSchema, readerSchema));
 
     if (deserializer == null) {
+      SchemaFingerprintKey schemaKey = new SchemaFingerprintKey(writerSchema, readerSchema);
       AtomicBoolean status = new AtomicBoolean(false);
       deserializer = fastGenericRecordDeserializersCache.computeIfAbsent(
           schemaKey,
           k -> {
+            FastDeserializer<?> precompiledDeserializer = loadPrecompiledDeserializer(writerSchema, readerSchema, "Generic");
+            if (precompiledDeserializer != null) {
+              return precompiledDeserializer;
+            }
             status.set(true);
             return new FastDeserializerWithAvroGenericImpl<>(writerSchema, readerSchema);
           });
@@ -267,14 +457,18 @@ public final class FastSerdeCache {
    * @return specific-class aware avro {@link FastSerializer}
    */
   public FastSerializer<?> getFastSpecificSerializer(Schema schema) {
-    String schemaKey = getSchemaKey(schema, schema);
-    FastSerializer<?> serializer = fastSpecificRecordSerializersCache.get(schemaKey);
+    FastSerializer<?> serializer = fastSpecificRecordSerializersCache.get(SchemaFingerprintKey.probe(schema, schema));
 
     if (serializer == null) {
+      SchemaFingerprintKey schemaKey = new SchemaFingerprintKey(schema, schema);
       AtomicBoolean status = new AtomicBoolean(false);
       serializer = fastSpecificRecordSerializersCache.computeIfAbsent(
           schemaKey,
           k -> {
+            FastSerializer<?> precompiledSerializer = loadPrecompiledSerializer(schema, "Specific");
+            if (precompiledSerializer != null) {
+              return precompiledSerializer;
+            }
             status.set(true);
             return new FastSerializerWithAvroSpecificImpl<>(schema);
           });
@@ -296,14 +490,18 @@ public final class FastSerdeCache {
    * @return generic-class aware avro {@link FastSerializer}
    */
   public FastSerializer<?> getFastGenericSerializer(Schema schema) {
-    String schemaKey = getSchemaKey(schema, schema);
-    FastSerializer<?> serializer = fastGenericRecordSerializersCache.get(schemaKey);
+    FastSerializer<?> serializer = fastGenericRecordSerializersCache.get(SchemaFingerprintKey.probe(schema, schema));
 
     if (serializer == null) {
+      SchemaFingerprintKey schemaKey = new SchemaFingerprintKey(schema, schema);
       AtomicBoolean status = new AtomicBoolean(false);
       serializer = fastGenericRecordSerializersCache.computeIfAbsent(
           schemaKey,
           k -> {
+            FastSerializer<?> precompiledSerializer = loadPrecompiledSerializer(schema, "Generic");
+            if (precompiledSerializer != null) {
+              return precompiledSerializer;
+            }
             status.set(true);
             return new FastSerializerWithAvroGenericImpl<>(schema);
           });
@@ -342,8 +540,8 @@ public final class FastSerdeCache {
   }
 
   private CompletableFuture<FastDeserializer<?>> getFastDeserializerAsync(Schema writerSchema, Schema readerSchema,
-      Map<String, FastDeserializer<?>> fastDeserializerCache, Supplier<FastDeserializer<?>> fastDeserializerSupplier) {
-    String schemaKey = getSchemaKey(writerSchema, readerSchema);
+      EvictingConcurrentHashMap<SchemaFingerprintKey, FastDeserializer<?>> fastDeserializerCache, Supplier<FastDeserializer<?>> fastDeserializerSupplier) {
+    SchemaFingerprintKey schemaKey = new SchemaFingerprintKey(writerSchema, readerSchema);
     FastDeserializer<?> deserializer = fastDeserializerCache.get(schemaKey);
     return deserializer != null && isFastDeserializer(deserializer) ? CompletableFuture.completedFuture(deserializer)
         : CompletableFuture.supplyAsync(fastDeserializerSupplier, executor)
@@ -353,9 +551,221 @@ public final class FastSerdeCache {
             });
   }
 
-  private static String getSchemaKey(Schema writerSchema, Schema readerSchema) {
-    return String.valueOf(Math.abs(getSchemaFingerprint(writerSchema))) + Math.abs(
-        getSchemaFingerprint(readerSchema));
+  /**
+   * Generates the generic {@link FastDeserializer}s of all the given schema pairs which aren't fast yet, compiling them
+   * with a single javac invocation, which is much cheaper than compiling them one by one, e.g. when warming up the many
+   * historical writer schemas of a topic. Blocks until all the deserializers are in the cache, schema pairs which can't
+   * be compiled together are generated one by one instead.
+   *
+   * @param schemaPairs writer and reader schemas of the deserializers to generate
+   */
+  public void prewarmGenericDeserializers(Collection<SchemaPair> schemaPairs) {
+    prewarmDeserializers(schemaPairs, fastGenericRecordDeserializersCache, true, new ConcurrentHashMap<>());
+  }
+
+  /**
+   * Same as {@link #prewarmGenericDeserializers(Collection)}, for specific {@link FastDeserializer}s.
+   *
+   * @param schemaPairs writer and reader schemas of the deserializers to generate
+   */
+  public void prewarmSpecificDeserializers(Collection<SchemaPair> schemaPairs) {
+    prewarmDeserializers(schemaPairs, fastSpecificRecordDeserializersCache, false, new ConcurrentHashMap<>());
+  }
+
+  /**
+   * Generates the generic {@link FastDeserializer}s of all the given schema pairs like
+   * {@link #prewarmGenericDeserializers(Collection)} does, but on the executor of this cache, blocking until either all
+   * of them are installed or the timeout expires, e.g. so that a service only reports itself ready once its first
+   * requests won't go through the slow path. Generation goes on in the background after a timeout.
+   *
+   * @param schemaPairs writer and reader schemas of the deserializers to generate
+   * @param timeout maximum time to wait for
+   * @param unit unit of the timeout
+   * @return which schema pairs didn't go fast, and why
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public FastSerdeWarmUpResult warmUpGenericDeserializers(Collection<SchemaPair> schemaPairs, long timeout,
+      TimeUnit unit) throws InterruptedException {
+    return warmUpDeserializers(schemaPairs, fastGenericRecordDeserializersCache, true, timeout, unit);
+  }
+
+  /**
+   * Same as {@link #warmUpGenericDeserializers(Collection, long, TimeUnit)}, for specific {@link FastDeserializer}s.
+   * {@link SchemaPair#forSpecificRecord(Class)} gives the schema pair of a generated specific record class.
+   *
+   * @param schemaPairs writer and reader schemas of the deserializers to generate
+   * @param timeout maximum time to wait for
+   * @param unit unit of the timeout
+   * @return which schema pairs didn't go fast, and why
+   * @throws InterruptedException if interrupted while waiting
+   */
+  public FastSerdeWarmUpResult warmUpSpecificDeserializers(Collection<SchemaPair> schemaPairs, long timeout,
+      TimeUnit unit) throws InterruptedException {
+    return warmUpDeserializers(schemaPairs, fastSpecificRecordDeserializersCache, false, timeout, unit);
+  }
+
+  private FastSerdeWarmUpResult warmUpDeserializers(Collection<SchemaPair> schemaPairs,
+      EvictingConcurrentHashMap<SchemaFingerprintKey, FastDeserializer<?>> fastDeserializerCache, boolean generic, long timeout,
+      TimeUnit unit) throws InterruptedException {
+    Map<SchemaPair, Throwable> failures = new ConcurrentHashMap<>();
+    CompletableFuture<Void> warmUp = CompletableFuture.runAsync(
+        () -> prewarmDeserializers(schemaPairs, fastDeserializerCache, generic, failures), executor);
+    boolean timedOut = false;
+    try {
+      warmUp.get(timeout, unit);
+    } catch (TimeoutException e) {
+      timedOut = true;
+    } catch (ExecutionException e) {
+      LOGGER.warn("Unable to warm up {} {} FastDeserializers", schemaPairs.size(), generic ? "generic" : "specific",
+          e.getCause());
+    }
+
+    Map<SchemaPair, Throwable> notFastSchemaPairs = new LinkedHashMap<>();
+    for (SchemaPair schemaPair : schemaPairs) {
+      Throwable failure = failures.get(schemaPair);
+      if (failure == null) {
+        FastDeserializer<?> deserializer = fastDeserializerCache.get(
+            SchemaFingerprintKey.probe(schemaPair.getWriterSchema(), schemaPair.getReaderSchema()));
+        if (deserializer == null || !isFastDeserializer(deserializer) || deserializer instanceof RegularAvroDeserializer) {
+          failure = timedOut ? new TimeoutException("Not generated within " + timeout + " " + unit)
+              : new IllegalStateException("Generation failed on a previous attempt");
+        }
+      }
+      if (failure != null) {
+        notFastSchemaPairs.put(schemaPair, failure);
+      }
+    }
+    return new FastSerdeWarmUpResult(notFastSchemaPairs, timedOut);
+  }
+
+  private void prewarmDeserializers(Collection<SchemaPair> schemaPairs,
+      EvictingConcurrentHashMap<SchemaFingerprintKey, FastDeserializer<?>> fastDeserializerCache, boolean generic,
+      Map<SchemaPair, Throwable> failures) {
+    String description = generic ? "Generic" : "Specific";
+    Map<SchemaFingerprintKey, SchemaPair> pendingSchemaPairs = new LinkedHashMap<>();
+    for (SchemaPair schemaPair : schemaPairs) {
+      SchemaFingerprintKey schemaKey = new SchemaFingerprintKey(schemaPair.getWriterSchema(), schemaPair.getReaderSchema());
+      FastDeserializer<?> deserializer = fastDeserializerCache.get(schemaKey);
+      if (deserializer == null || !isFastDeserializer(deserializer)) {
+        pendingSchemaPairs.putIfAbsent(schemaKey, schemaPair);
+      }
+    }
+
+    List<SchemaFingerprintKey> schemaKeys = new ArrayList<>();
+    List<FastDeserializerGenerator<?>> generators = new ArrayList<>();
+    List<String> classNames = new ArrayList<>();
+    List<String> schemasHashes = new ArrayList<>();
+    for (Map.Entry<SchemaFingerprintKey, SchemaPair> pendingSchemaPair : pendingSchemaPairs.entrySet()) {
+      Schema writerSchema = pendingSchemaPair.getValue().getWriterSchema();
+      Schema readerSchema = pendingSchemaPair.getValue().getReaderSchema();
+      FastDeserializer<?> deserializer = loadPrecompiledDeserializer(writerSchema, readerSchema, description);
+      if (deserializer == null && generic && FastDeserializerBackend.PLAN.equals(deserializerBackend)) {
+        deserializer = buildDeserializer(pendingSchemaPair.getValue(), true, failures);
+      }
+      String schemasHash = hashPersistedSchemas(!generic, writerSchema, readerSchema);
+      if (deserializer == null) {
+        deserializer = loadPersistedDeserializer(
+            FastDeserializerGeneratorBase.getClassName(writerSchema, readerSchema, description), schemasHash,
+            readerSchema);
+      }
+      if (deserializer != null) {
+        fastDeserializerCache.put(pendingSchemaPair.getKey(), deserializer);
+        continue;
+      }
+
+      FastDeserializerGenerator<?> generator = generic
+          ? new FastGenericDeserializerGenerator<>(writerSchema, readerSchema, classesDir, getGenerationClassLoader(),
+              compileClassPath.orElse(null))
+          : new FastSpecificDeserializerGenerator<>(writerSchema, readerSchema, classesDir, getGenerationClassLoader(),
+              compileClassPath.orElse(null));
+      try {
+        classNames.add(generator.defineDeserializerClass());
+        schemasHashes.add(schemasHash);
+        generators.add(generator);
+        schemaKeys.add(pendingSchemaPair.getKey());
+      } catch (FastDeserializerGeneratorException e) {
+        LOGGER.warn("Deserializer generation exception when generating {} FastDeserializer for writer schema: "
+            + "[\n{}\n] and reader schema: [\n{}\n]", description.toLowerCase(), writerSchema.toString(true),
+            readerSchema.toString(true), e);
+        failures.put(pendingSchemaPair.getValue(), e);
+        fastDeserializerCache.put(pendingSchemaPair.getKey(), generic ? newRegularGenericDeserializer(writerSchema, readerSchema)
+            : newRegularSpecificDeserializer(writerSchema, readerSchema));
+      }
+    }
+    if (generators.isEmpty()) {
+      return;
+    }
+
+    List<Class<?>> classes;
+    try {
+      classes = FastSerdeBase.compileClasses(generators, classNames);
+      LOGGER.info("Generated classes dir: {} and generation of {} {} FastDeserializers is done in a single compilation",
+          classesDir, generators.size(), description.toLowerCase());
+    } catch (Exception e) {
+      LOGGER.warn("Unable to compile {} {} FastDeserializers at once, generating them one by one", generators.size(),
+          description.toLowerCase(), e);
+      classes = Collections.nCopies(generators.size(), null);
+    }
+    for (int i = 0; i < generators.size(); i++) {
+      SchemaPair schemaPair = pendingSchemaPairs.get(schemaKeys.get(i));
+      FastDeserializer<?> deserializer = null;
+      if (classes.get(i) != null) {
+        try {
+          deserializer = generators.get(i).newDeserializer(classes.get(i));
+          persistCompiledClasses(classNames.get(i), schemasHashes.get(i), generators.get(i));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+          LOGGER.warn("Deserializer class instantiation exception", e);
+        }
+      }
+      if (deserializer == null) {
+        deserializer = buildDeserializer(schemaPair, generic, failures);
+      }
+      fastDeserializerCache.put(schemaKeys.get(i), deserializer);
+    }
+  }
+
+  /**
+   * Generates a fast deserializer like {@link #buildGenericDeserializer(Schema, Schema)} and
+   * {@link #buildSpecificDeserializer(Schema, Schema)} do, recording why into the given failures when falling back to
+   * the regular Avro one.
+   */
+  private FastDeserializer<?> buildDeserializer(SchemaPair schemaPair, boolean generic,
+      Map<SchemaPair, Throwable> failures) {
+    Schema writerSchema = schemaPair.getWriterSchema();
+    Schema readerSchema = schemaPair.getReaderSchema();
+    try {
+      return generic ? buildFastGenericDeserializer(writerSchema, readerSchema)
+          : buildFastSpecificDeserializer(writerSchema, readerSchema);
+    } catch (Exception e) {
+      LOGGER.warn("Deserializer generation exception when generating {} FastDeserializer for writer schema: "
+          + "[\n{}\n] and reader schema: [\n{}\n]", generic ? "generic" : "specific", writerSchema.toString(true),
+          readerSchema.toString(true), e);
+      failures.put(schemaPair, e);
+      return generic ? newRegularGenericDeserializer(writerSchema, readerSchema)
+          : newRegularSpecificDeserializer(writerSchema, readerSchema);
+    }
+  }
+
+  /**
+   * @return statistics of all the serializers and deserializers held by this cache, including the zero-copy ones and
+   *         the classes of the deep reuse deserializers
+   */
+  public FastSerdeCacheStats getStats() {
+    long entryCount = 0;
+    long weight = 0;
+    long hitCount = 0;
+    long missCount = 0;
+    long evictionCount = 0;
+    for (EvictingConcurrentHashMap<?, ?> cacheMap : Arrays.asList(fastSpecificRecordDeserializersCache,
+        fastGenericRecordDeserializersCache, fastSpecificRecordSerializersCache, fastGenericRecordSerializersCache,
+        zeroCopyGenericDeserializersCache, fastGenericJsonDeserializersCache, fastGenericJsonSerializersCache, deepReuseDeserializerClasses)) {
+      entryCount += cacheMap.size();
+      weight += cacheMap.getWeight();
+      hitCount += cacheMap.getHitCount();
+      missCount += cacheMap.getMissCount();
+      evictionCount += cacheMap.getEvictionCount();
+    }
+    return new FastSerdeCacheStats(entryCount, weight, hitCount, missCount, evictionCount);
   }
 
   /**
@@ -367,10 +777,22 @@ public final class FastSerdeCache {
    * @return a fast deserializer
    */
   public FastDeserializer<?> buildFastSpecificDeserializer(Schema writerSchema, Schema readerSchema) {
+    FastDeserializer<?> fastDeserializer = loadPrecompiledDeserializer(writerSchema, readerSchema, "Specific");
+    if (fastDeserializer != null) {
+      return fastDeserializer;
+    }
+    String className = FastDeserializerGeneratorBase.getClassName(writerSchema, readerSchema, "Specific");
+    String schemasHash = hashPersistedSchemas(true, writerSchema, readerSchema);
+    fastDeserializer = loadPersistedDeserializer(className, schemasHash, readerSchema);
+    if (fastDeserializer != null) {
+      return fastDeserializer;
+    }
+
     FastSpecificDeserializerGenerator<?> generator =
-        new FastSpecificDeserializerGenerator<>(writerSchema, readerSchema, classesDir, classLoader,
+        new FastSpecificDeserializerGenerator<>(writerSchema, readerSchema, classesDir, getGenerationClassLoader(),
             compileClassPath.orElse(null));
-    FastDeserializer<?> fastDeserializer = generator.generateDeserializer();
+    fastDeserializer = generator.generateDeserializer();
+    persistCompiledClasses(className, schemasHash, generator);
 
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Generated classes dir: {} and generation of specific FastDeserializer is done for writer schema of type: {} with fingerprint: {}"
@@ -386,6 +808,116 @@ public final class FastSerdeCache {
     return fastDeserializer;
   }
 
+  /**
+   * Generates if needed and returns the generic avro json {@link FastJsonDeserializer} of the given schema. Like
+   * {@link #getFastGenericDeserializer(Schema, Schema)}, a regular json deserializer is returned until the fast one is
+   * built asynchronously.
+   *
+   * @param schema {@link Schema} the json was written with
+   * @return generic avro json {@link FastJsonDeserializer}
+   */
+  public FastJsonDeserializer<?> getFastGenericJsonDeserializer(Schema schema) {
+    FastJsonDeserializer<?> deserializer = fastGenericJsonDeserializersCache.get(SchemaFingerprintKey.probe(schema, schema));
+
+    if (deserializer == null) {
+      SchemaFingerprintKey schemaKey = new SchemaFingerprintKey(schema, schema);
+      AtomicBoolean status = new AtomicBoolean(false);
+      deserializer = fastGenericJsonDeserializersCache.computeIfAbsent(
+          schemaKey,
+          k -> {
+            status.set(true);
+            return new FastJsonDeserializerWithAvroGenericImpl<>(schema);
+          });
+
+      if (status.get()) {
+        CompletableFuture.supplyAsync(() -> buildGenericJsonDeserializer(schema), executor)
+            .thenAccept(d -> fastGenericJsonDeserializersCache.put(schemaKey, d));
+      }
+    }
+
+    return deserializer;
+  }
+
+  /**
+   * Builds a generic avro json deserializer, see {@link FastGenericJsonDeserializerPlanGenerator}.
+   *
+   * @param schema {@link Schema} the json was written with
+   * @return a fast json deserializer
+   * @throws FastDeserializerGeneratorException if the deserializer can't be built
+   */
+  public FastJsonDeserializer<?> buildFastGenericJsonDeserializer(Schema schema) {
+    FastJsonDeserializer<?> deserializer = new FastGenericJsonDeserializerPlanGenerator<>(schema).generateDeserializer();
+    LOGGER.info("Generation of generic FastJsonDeserializer is done for schema of type: {} with fingerprint: {}",
+        getSchemaFullName(schema), getSchemaFingerprint(schema));
+    return deserializer;
+  }
+
+  private FastJsonDeserializer<?> buildGenericJsonDeserializer(Schema schema) {
+    try {
+      return buildFastGenericJsonDeserializer(schema);
+    } catch (Exception e) {
+      LOGGER.warn("Json deserializer generation exception when generating generic FastJsonDeserializer for schema: [\n{}\n]",
+          schema.toString(true), e);
+    }
+
+    return new FastJsonDeserializerWithAvroGenericImpl<>(schema);
+  }
+
+  /**
+   * Generates if needed and returns the generic avro json {@link FastJsonSerializer} of the given schema. Like
+   * {@link #getFastGenericSerializer(Schema)}, a regular json serializer is returned until the fast one is built
+   * asynchronously.
+   *
+   * @param schema {@link Schema} of data to write
+   * @return generic avro json {@link FastJsonSerializer}
+   */
+  public FastJsonSerializer<?> getFastGenericJsonSerializer(Schema schema) {
+    FastJsonSerializer<?> serializer = fastGenericJsonSerializersCache.get(SchemaFingerprintKey.probe(schema, schema));
+
+    if (serializer == null) {
+      SchemaFingerprintKey schemaKey = new SchemaFingerprintKey(schema, schema);
+      AtomicBoolean status = new AtomicBoolean(false);
+      serializer = fastGenericJsonSerializersCache.computeIfAbsent(
+          schemaKey,
+          k -> {
+            status.set(true);
+            return new FastJsonSerializerWithAvroGenericImpl<>(schema);
+          });
+
+      if (status.get()) {
+        CompletableFuture.supplyAsync(() -> buildGenericJsonSerializer(schema), executor)
+            .thenAccept(s -> fastGenericJsonSerializersCache.put(schemaKey, s));
+      }
+    }
+
+    return serializer;
+  }
+
+  /**
+   * Builds a generic avro json serializer, see {@link FastGenericJsonSerializerPlanGenerator}.
+   *
+   * @param schema {@link Schema} of data to write
+   * @return a fast json serializer
+   * @throws FastSerdeGeneratorException if the serializer can't be built
+   */
+  public FastJsonSerializer<?> buildFastGenericJsonSerializer(Schema schema) {
+    FastJsonSerializer<?> serializer = new FastGenericJsonSerializerPlanGenerator<>(schema).generateSerializer();
+    LOGGER.info("Generation of generic FastJsonSerializer is done for schema of type: {} with fingerprint: {}",
+        getSchemaFullName(schema), getSchemaFingerprint(schema));
+    return serializer;
+  }
+
+  private FastJsonSerializer<?> buildGenericJsonSerializer(Schema schema) {
+    try {
+      return buildFastGenericJsonSerializer(schema);
+    } catch (Exception e) {
+      LOGGER.warn("Json serializer generation exception when generating generic FastJsonSerializer for schema: [\n{}\n]",
+          schema.toString(true), e);
+    }
+
+    return new FastJsonSerializerWithAvroGenericImpl<>(schema);
+  }
+
   /**
    * This function is used to generate a fast generic deserializer, and it will fail back to use
    * {@link SpecificDatumReader} if anything wrong happens.
@@ -403,14 +935,11 @@ public final class FastSerdeCache {
       LOGGER.warn("Deserializer class instantiation exception", e);
     }
 
-    return new FastDeserializer<Object>() {
-      private DatumReader datumReader = new SpecificDatumReader<>(writerSchema, readerSchema);
+    return newRegularSpecificDeserializer(writerSchema, readerSchema);
+  }
 
-      @Override
-      public Object deserialize(Object reuse, Decoder d) throws IOException {
-        return datumReader.read(reuse, d);
-      }
-    };
+  private static FastDeserializer<?> newRegularSpecificDeserializer(Schema writerSchema, Schema readerSchema) {
+    return new RegularAvroDeserializer(new SpecificDatumReader<>(writerSchema, readerSchema));
   }
 
   /**
@@ -422,11 +951,26 @@ public final class FastSerdeCache {
    * @return a fast deserializer
    */
   public FastDeserializer<?> buildFastGenericDeserializer(Schema writerSchema, Schema readerSchema) {
-    FastGenericDeserializerGenerator<?> generator =
-        new FastGenericDeserializerGenerator<>(writerSchema, readerSchema, classesDir, classLoader,
-            compileClassPath.orElse(null));
+    FastDeserializer<?> fastDeserializer = loadPrecompiledDeserializer(writerSchema, readerSchema, "Generic");
+    if (fastDeserializer != null) {
+      return fastDeserializer;
+    }
+    if (FastDeserializerBackend.PLAN.equals(deserializerBackend)) {
+      fastDeserializer = new FastGenericDeserializerPlanGenerator<>(writerSchema, readerSchema).generateDeserializer();
+    } else {
+      String className = FastDeserializerGeneratorBase.getClassName(writerSchema, readerSchema, "Generic");
+      String schemasHash = hashPersistedSchemas(false, writerSchema, readerSchema);
+      fastDeserializer = loadPersistedDeserializer(className, schemasHash, readerSchema);
+      if (fastDeserializer != null) {
+        return fastDeserializer;
+      }
 
-    FastDeserializer<?> fastDeserializer = generator.generateDeserializer();
+      FastGenericDeserializerGenerator<?> generator =
+          new FastGenericDeserializerGenerator<>(writerSchema, readerSchema, classesDir, getGenerationClassLoader(),
+              compileClassPath.orElse(null));
+      fastDeserializer = generator.generateDeserializer();
+      persistCompiledClasses(className, schemasHash, generator);
+    }
 
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Generated classes dir: {} and generation of generic FastDeserializer is done for writer schema of type: {} with fingerprint: {}"
@@ -442,6 +986,93 @@ public final class FastSerdeCache {
     return fastDeserializer;
   }
 
+  /**
+   * Generates a fast generic deserializer in deep reuse mode, which recycles the whole object graphs it returns, see
+   * {@link DeepReusePool}. Unlike the ones of this cache, such a deserializer is stateful, so a new instance is
+   * returned by each call, to be used by a single thread, the class being only generated by the first call.
+   *
+   * @param writerSchema writer schema
+   * @param readerSchema reader schema
+   * @return a new deep reuse fast deserializer
+   * @throws FastDeserializerGeneratorException if the deserializer can't be generated
+   */
+  public FastDeserializer<?> buildDeepReuseGenericDeserializer(Schema writerSchema, Schema readerSchema) {
+    return buildDeepReuseDeserializer(writerSchema, readerSchema, true);
+  }
+
+  /**
+   * Specific counterpart of {@link #buildDeepReuseGenericDeserializer(Schema, Schema)}.
+   *
+   * @param writerSchema writer schema
+   * @param readerSchema reader schema
+   * @return a new deep reuse fast deserializer
+   * @throws FastDeserializerGeneratorException if the deserializer can't be generated
+   */
+  public FastDeserializer<?> buildDeepReuseSpecificDeserializer(Schema writerSchema, Schema readerSchema) {
+    return buildDeepReuseDeserializer(writerSchema, readerSchema, false);
+  }
+
+  private FastDeserializer<?> buildDeepReuseDeserializer(Schema writerSchema, Schema readerSchema, boolean generic) {
+    String className = FastDeserializerGeneratorBase.getClassName(writerSchema, readerSchema,
+        FastDeserializerGenerator.getDescription(generic, true, false));
+    Class<?> deserializerClass = deepReuseDeserializerClasses.get(className);
+    if (deserializerClass != null) {
+      try {
+        return (FastDeserializer<?>) deserializerClass.getConstructor(Schema.class).newInstance(readerSchema);
+      } catch (ReflectiveOperationException e) {
+        throw new FastDeserializerGeneratorException(e);
+      }
+    }
+
+    FastDeserializerGenerator<?> generator = generic
+        ? new FastGenericDeserializerGenerator<>(writerSchema, readerSchema, classesDir, getGenerationClassLoader(),
+            compileClassPath.orElse(null), true)
+        : new FastSpecificDeserializerGenerator<>(writerSchema, readerSchema, classesDir, getGenerationClassLoader(),
+            compileClassPath.orElse(null), true);
+    FastDeserializer<?> fastDeserializer = generator.generateDeserializer();
+    deepReuseDeserializerClasses.put(className, fastDeserializer.getClass());
+    LOGGER.info("Generated classes dir: {} and generation of {} deep reuse FastDeserializer is done for writer schema "
+            + "of type: {} with fingerprint: {} and reader schema of type: {} with fingerprint: {}", classesDir,
+        generic ? "generic" : "specific", getSchemaFullName(writerSchema), getSchemaFingerprint(writerSchema),
+        getSchemaFullName(readerSchema), getSchemaFingerprint(readerSchema));
+    return fastDeserializer;
+  }
+
+  /**
+   * Returns a fast generic deserializer in zero-copy mode, which doesn't copy strings and bytes out of the decoded
+   * array: strings are {@link Utf8View}s over it, and bytes {@link java.nio.ByteBuffer}s wrapping it, see
+   * {@link ZeroCopyDecoding}. Only the decoders implementing
+   * {@link com.linkedin.avroutil1.compatibility.ZeroCopyDecoder}, e.g. the ones returned by
+   * {@link com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper#newBoundedMemoryDecoder(byte[])}, are read
+   * from without copies, so the decoded array must not be modified while the records are in use. Map keys and fixed
+   * values are still copied.
+   *
+   * The deserializer is generated by the first call, then shared by the following ones. Concurrent first calls may
+   * each generate it, the first one to be cached being kept.
+   *
+   * @param writerSchema writer schema
+   * @param readerSchema reader schema
+   * @return a zero-copy fast deserializer
+   * @throws FastDeserializerGeneratorException if the deserializer can't be generated
+   */
+  public FastDeserializer<?> buildZeroCopyGenericDeserializer(Schema writerSchema, Schema readerSchema) {
+    FastDeserializer<?> deserializer =
+        zeroCopyGenericDeserializersCache.get(SchemaFingerprintKey.probe(writerSchema, readerSchema));
+    if (deserializer == null) {
+      // generated outside of the map, so that javac doesn't hold the lock of the bin of the key
+      FastDeserializer<?> fastDeserializer = new FastGenericDeserializerGenerator<>(writerSchema, readerSchema,
+          classesDir, getGenerationClassLoader(), compileClassPath.orElse(null), false, true)
+          .generateDeserializer();
+      LOGGER.info("Generated classes dir: {} and generation of zero-copy FastDeserializer is done for writer "
+              + "schema of type: {} with fingerprint: {} and reader schema of type: {} with fingerprint: {}",
+          classesDir, getSchemaFullName(writerSchema), getSchemaFingerprint(writerSchema),
+          getSchemaFullName(readerSchema), getSchemaFingerprint(readerSchema));
+      deserializer = zeroCopyGenericDeserializersCache.computeIfAbsent(
+          new SchemaFingerprintKey(writerSchema, readerSchema), k -> fastDeserializer);
+    }
+    return deserializer;
+  }
+
   /**
    * This function is used to generate a fast generic deserializer, and it will fail back to use
    * {@link GenericDatumReader} if anything wrong happens.
@@ -460,14 +1091,11 @@ public final class FastSerdeCache {
       LOGGER.warn("Deserializer class instantiation exception:" + e);
     }
 
-    return new FastDeserializer<Object>() {
-      private DatumReader datumReader = new GenericDatumReader<>(writerSchema, readerSchema);
+    return newRegularGenericDeserializer(writerSchema, readerSchema);
+  }
 
-      @Override
-      public Object deserialize(Object reuse, Decoder d) throws IOException {
-        return datumReader.read(reuse, d);
-      }
-    };
+  private static FastDeserializer<?> newRegularGenericDeserializer(Schema writerSchema, Schema readerSchema) {
+    return new RegularAvroDeserializer(new GenericDatumReader<>(writerSchema, readerSchema));
   }
 
   public FastSerializer<?> buildFastSpecificSerializer(Schema schema) {
@@ -476,8 +1104,19 @@ public final class FastSerdeCache {
       throw new FastDeserializerGeneratorException("Specific FastSerializer is only supported in following Avro versions: " +
           Utils.getAvroVersionsSupportedForSerializer());
     }
+    FastSerializer<?> fastSerializer = loadPrecompiledSerializer(schema, "Specific");
+    if (fastSerializer != null) {
+      return fastSerializer;
+    }
+    String className = FastSerializerGenerator.getClassName(schema, "Specific");
+    String schemasHash = hashPersistedSchemas(true, schema);
+    fastSerializer = loadPersistedSerializer(className, schemasHash);
+    if (fastSerializer != null) {
+      return fastSerializer;
+    }
+
     FastSpecificSerializerGenerator<?> generator =
-        new FastSpecificSerializerGenerator<>(schema, classesDir, classLoader, compileClassPath.orElse(null));
+        new FastSpecificSerializerGenerator<>(schema, classesDir, getGenerationClassLoader(), compileClassPath.orElse(null));
 
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Generated classes dir: {} and generation of specific FastSerializer is done for schema of type: {}" +
@@ -488,7 +1127,9 @@ public final class FastSerdeCache {
               " and fingerprint: {}", classesDir, getSchemaFullName(schema), getSchemaFingerprint(schema));
     }
 
-    return generator.generateSerializer();
+    fastSerializer = generator.generateSerializer();
+    persistCompiledClasses(className, schemasHash, generator);
+    return fastSerializer;
   }
 
   private FastSerializer<?> buildSpecificSerializer(Schema schema) {
@@ -520,8 +1161,19 @@ public final class FastSerdeCache {
       throw new FastDeserializerGeneratorException("Generic FastSerializer is only supported in following avro versions:"
           + Utils.getAvroVersionsSupportedForSerializer());
     }
+    FastSerializer<?> fastSerializer = loadPrecompiledSerializer(schema, "Generic");
+    if (fastSerializer != null) {
+      return fastSerializer;
+    }
+    String className = FastSerializerGenerator.getClassName(schema, "Generic");
+    String schemasHash = hashPersistedSchemas(false, schema);
+    fastSerializer = loadPersistedSerializer(className, schemasHash);
+    if (fastSerializer != null) {
+      return fastSerializer;
+    }
+
     FastGenericSerializerGenerator<?> generator =
-        new FastGenericSerializerGenerator<>(schema, classesDir, classLoader, compileClassPath.orElse(null));
+        new FastGenericSerializerGenerator<>(schema, classesDir, getGenerationClassLoader(), compileClassPath.orElse(null));
 
     if (LOGGER.isDebugEnabled()) {
       LOGGER.debug("Generated classes dir: {} and generation of generic FastSerializer is done for schema of type: {}" +
@@ -532,7 +1184,9 @@ public final class FastSerdeCache {
               " and fingerprint: {}", classesDir, getSchemaFullName(schema), getSchemaFingerprint(schema));
     }
 
-    return generator.generateSerializer();
+    fastSerializer = generator.generateSerializer();
+    persistCompiledClasses(className, schemasHash, generator);
+    return fastSerializer;
   }
 
   private FastSerializer<?> buildGenericSerializer(Schema schema) {
@@ -558,6 +1212,191 @@ public final class FastSerdeCache {
     };
   }
 
+  /**
+   * @return fully qualified names of the classes listed by all the {@value FastSerdeAotGenerator#INDEX_RESOURCE}
+   *         resources visible to the given {@link ClassLoader}
+   */
+  private static Set<String> loadPrecompiledClassNames(ClassLoader classLoader) {
+    Set<String> classNames = new HashSet<>();
+    try {
+      Enumeration<URL> indexes = classLoader.getResources(FastSerdeAotGenerator.INDEX_RESOURCE);
+      while (indexes.hasMoreElements()) {
+        URL index = indexes.nextElement();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+          classNames.addAll(FastSerdeAotGenerator.readIndex(reader.lines().collect(Collectors.toList())));
+        }
+        LOGGER.info("Registered precompiled classes listed by: {}", index);
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Unable to read the indexes of precompiled classes, they will be generated at runtime", e);
+    }
+    return classNames.isEmpty() ? Collections.emptySet() : classNames;
+  }
+
+  /**
+   * Loads a class generated ahead of time by {@link FastSerdeAotGenerator}.
+   *
+   * @return the loaded class, or null if the class isn't listed by any index or can't be loaded
+   */
+  private Class<?> loadPrecompiledClass(String description, String className) {
+    String fullClassName = FastSerdeBase.getGeneratedPackageName(description) + "." + className;
+    if (!precompiledClassNames.contains(fullClassName)) {
+      return null;
+    }
+    try {
+      return Class.forName(fullClassName, true, precompiledClassLoader);
+    } catch (ClassNotFoundException | LinkageError e) {
+      LOGGER.warn("Unable to load precompiled class: {}, it will be generated", fullClassName, e);
+      return null;
+    }
+  }
+
+  private FastDeserializer<?> loadPrecompiledDeserializer(Schema writerSchema, Schema readerSchema, String description) {
+    if (precompiledClassNames.isEmpty()) {
+      return null;
+    }
+    String className = FastDeserializerGeneratorBase.getClassName(writerSchema, readerSchema, description);
+    Class<?> precompiledClass = loadPrecompiledClass("deserialization", className);
+    if (precompiledClass == null) {
+      return null;
+    }
+    try {
+      return (FastDeserializer<?>) precompiledClass.getConstructor(Schema.class).newInstance(readerSchema);
+    } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+      LOGGER.warn("Unable to instantiate precompiled class: {}, it will be generated", className, e);
+      return null;
+    }
+  }
+
+  private FastSerializer<?> loadPrecompiledSerializer(Schema schema, String description) {
+    if (precompiledClassNames.isEmpty()) {
+      return null;
+    }
+    String className = FastSerializerGenerator.getClassName(schema, description);
+    Class<?> precompiledClass = loadPrecompiledClass("serialization", className);
+    if (precompiledClass == null) {
+      return null;
+    }
+    try {
+      return (FastSerializer<?>) precompiledClass.getConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+      LOGGER.warn("Unable to instantiate precompiled class: {}, it will be generated", className, e);
+      return null;
+    }
+  }
+
+  /**
+   * Loads a generated class persisted by a previous run. Every entry is defined in its own child of
+   * {@link #classLoader}, so that an entry failing to load or to link doesn't prevent its regeneration.
+   *
+   * @return the loaded class, or null if there is no usable persisted entry
+   */
+  private Class<?> loadPersistedClass(String description, String className, String schemasHash) {
+    if (persistentClassCache == null) {
+      return null;
+    }
+    Map<String, byte[]> classes = persistentClassCache.load(className, schemasHash);
+    if (classes == null) {
+      return null;
+    }
+    FastSerdeClassLoader entryClassLoader = new FastSerdeClassLoader(classLoader);
+    classes.forEach(entryClassLoader::addClass);
+    try {
+      Class<?> persistedClass =
+          entryClassLoader.loadClass(FastSerdeBase.getGeneratedPackageName(description) + "." + className);
+      LOGGER.info("Loaded persisted class: {} from: {}", className, persistentClassCache.getEntriesDir());
+      return persistedClass;
+    } catch (ClassNotFoundException | LinkageError e) {
+      LOGGER.warn("Unable to load persisted class: {}, it will be regenerated", className, e);
+      persistentClassCache.evict(className);
+      return null;
+    }
+  }
+
+  private FastDeserializer<?> loadPersistedDeserializer(String className, String schemasHash, Schema readerSchema) {
+    Class<?> persistedClass = loadPersistedClass("deserialization", className, schemasHash);
+    if (persistedClass == null) {
+      return null;
+    }
+    try {
+      return (FastDeserializer<?>) persistedClass.getConstructor(Schema.class).newInstance(readerSchema);
+    } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+      LOGGER.warn("Unable to instantiate persisted class: {}, it will be regenerated", className, e);
+      persistentClassCache.evict(className);
+      return null;
+    }
+  }
+
+  private FastSerializer<?> loadPersistedSerializer(String className, String schemasHash) {
+    Class<?> persistedClass = loadPersistedClass("serialization", className, schemasHash);
+    if (persistedClass == null) {
+      return null;
+    }
+    try {
+      return (FastSerializer<?>) persistedClass.getConstructor().newInstance();
+    } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+      LOGGER.warn("Unable to instantiate persisted class: {}, it will be regenerated", className, e);
+      persistentClassCache.evict(className);
+      return null;
+    }
+  }
+
+  private void persistCompiledClasses(String className, String schemasHash, FastSerdeBase generator) {
+    if (persistentClassCache != null && !generator.getCompiledClasses().isEmpty()) {
+      persistentClassCache.store(className, schemasHash, generator.getCompiledClasses());
+    }
+  }
+
+  /**
+   * @param specific whether the classes are generated for specific records, whose classes are then hashed too
+   * @return hash of the schemas identifying the persisted classes generated for them, or null if classes aren't
+   *         persisted, see {@link PersistentClassCache#hashSchemas(ClassLoader, Schema...)}
+   */
+  String hashPersistedSchemas(boolean specific, Schema... schemas) {
+    if (persistentClassCache == null) {
+      return null;
+    }
+    return PersistentClassCache.hashSchemas(specific ? classLoader : null, schemas);
+  }
+
+  /**
+   * @return the {@link ClassLoader} the next generated class should be defined in, according to the
+   *         {@link FastSerdeClassLoaderStrategy} of this cache
+   */
+  private ClassLoader getGenerationClassLoader() {
+    switch (classLoaderStrategy) {
+      case PER_SCHEMA_PAIR:
+        return newGenerationClassLoader();
+      case PER_BATCH:
+        synchronized (this) {
+          if (batchClassLoader == null || batchClassLoaderSize >= classLoaderBatchSize) {
+            batchClassLoader = newGenerationClassLoader();
+            batchClassLoaderSize = 0;
+          }
+          batchClassLoaderSize++;
+          return batchClassLoader;
+        }
+      default:
+        return classLoader;
+    }
+  }
+
+  /**
+   * Creates a disposable {@link ClassLoader}, which doesn't share any generated class with {@link #classLoader}:
+   * a child {@link FastSerdeClassLoader} for in-memory compilation, or a new {@link URLClassLoader} rooted at
+   * {@link #classesDir} otherwise.
+   */
+  private ClassLoader newGenerationClassLoader() {
+    if (classesDir == null) {
+      return new FastSerdeClassLoader(classLoader);
+    }
+    try {
+      return URLClassLoader.newInstance(new URL[]{classesDir.toURI().toURL()}, FastSerdeCache.class.getClassLoader());
+    } catch (IOException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
   private Executor getDefaultExecutor() {
     return Executors.newFixedThreadPool(2, new ThreadFactory() {
       private final AtomicInteger threadNumber = new AtomicInteger(1);
@@ -572,6 +1411,209 @@ public final class FastSerdeCache {
     });
   }
 
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  /**
+   * Builder of {@link FastSerdeCache} instances, for the settings which are not covered by the constructors.
+   */
+  public static final class Builder {
+    private Executor executor;
+    private String compileClassPath;
+    private boolean inMemoryCompilation;
+    private FastDeserializerBackend deserializerBackend = FastDeserializerBackend.JAVAC;
+    private File persistentClassCacheDir;
+    private ClassLoader precompiledClassLoader;
+    private long maxCacheEntries = Long.MAX_VALUE;
+    private long maxCacheWeight = Long.MAX_VALUE;
+    private FastSerdeClassLoaderStrategy classLoaderStrategy;
+    private int classLoaderBatchSize = 16;
+
+    private Builder() {
+    }
+
+    /**
+     * @param executor {@link Executor} used by serializer/deserializer compile threads, a default one is used if null
+     * @return this builder
+     */
+    public Builder setExecutor(Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * @param compileClassPath custom classpath used to compile the generated classes
+     * @return this builder
+     */
+    public Builder setCompileClassPath(String compileClassPath) {
+      this.compileClassPath = compileClassPath;
+      return this;
+    }
+
+    /**
+     * @param compileClassPathSupplier custom classpath {@link Supplier}, invoked right away
+     * @return this builder
+     */
+    public Builder setCompileClassPathSupplier(Supplier<String> compileClassPathSupplier) {
+      return setCompileClassPath(compileClassPathSupplier != null ? compileClassPathSupplier.get() : null);
+    }
+
+    /**
+     * @param inMemoryCompilation whether the generated classes should be compiled and loaded entirely in memory,
+     *                            without writing any source or class file to a temporary directory
+     * @return this builder
+     */
+    public Builder setInMemoryCompilation(boolean inMemoryCompilation) {
+      this.inMemoryCompilation = inMemoryCompilation;
+      return this;
+    }
+
+    /**
+     * @param deserializerBackend {@link FastDeserializerBackend} used to build generic deserializers
+     * @return this builder
+     */
+    public Builder setDeserializerBackend(FastDeserializerBackend deserializerBackend) {
+      this.deserializerBackend = deserializerBackend != null ? deserializerBackend : FastDeserializerBackend.JAVAC;
+      return this;
+    }
+
+    /**
+     * @param persistentClassCacheDir directory where the compiled classes are persisted, so that later instances,
+     *                                including the ones of later JVMs, load them instead of generating them again.
+     *                                Implies in-memory compilation. Null disables persistence.
+     * @return this builder
+     */
+    public Builder setPersistentClassCacheDir(File persistentClassCacheDir) {
+      this.persistentClassCacheDir = persistentClassCacheDir;
+      return this;
+    }
+
+    /**
+     * @param precompiledClassLoader {@link ClassLoader} used to discover and load the classes generated ahead of time
+     *                               by {@link FastSerdeAotGenerator}, the context class loader is used if null
+     * @return this builder
+     */
+    public Builder setPrecompiledClassLoader(ClassLoader precompiledClassLoader) {
+      this.precompiledClassLoader = precompiledClassLoader;
+      return this;
+    }
+
+    /**
+     * Bounds each of the caches of serializers and deserializers held by the built instance, see
+     * {@link FastSerdeCache#getStats()}, the least recently used entries being evicted first. Implies in-memory
+     * compilation.
+     * The Metaspace of the evicted entries is reclaimed according to {@link #setClassLoaderStrategy}.
+     *
+     * @param maxCacheEntries maximum number of entries per cache
+     * @return this builder
+     */
+    public Builder setMaxCacheEntries(long maxCacheEntries) {
+      this.maxCacheEntries = maxCacheEntries;
+      return this;
+    }
+
+    /**
+     * Bounds each of the caches of serializers and deserializers held by the built instance, see
+     * {@link FastSerdeCache#getStats()}, by the estimated Metaspace weight of their generated classes, see
+     * {@link FastSerdeCacheStats#getWeight()}, the least recently used entries being evicted first. Implies in-memory
+     * compilation.
+     *
+     * @param maxCacheWeight maximum weight, in bytes of bytecode, per cache
+     * @return this builder
+     */
+    public Builder setMaxCacheWeight(long maxCacheWeight) {
+      this.maxCacheWeight = maxCacheWeight;
+      return this;
+    }
+
+    /**
+     * @param classLoaderStrategy {@link FastSerdeClassLoaderStrategy} grouping the generated classes into class loaders,
+     *                            defaults to {@link FastSerdeClassLoaderStrategy#PER_SCHEMA_PAIR} for bounded caches
+     *                            and to {@link FastSerdeClassLoaderStrategy#SHARED} otherwise
+     * @return this builder
+     */
+    public Builder setClassLoaderStrategy(FastSerdeClassLoaderStrategy classLoaderStrategy) {
+      this.classLoaderStrategy = classLoaderStrategy;
+      return this;
+    }
+
+    /**
+     * @param classLoaderBatchSize number of generated classes per class loader with
+     *                             {@link FastSerdeClassLoaderStrategy#PER_BATCH}
+     * @return this builder
+     */
+    public Builder setClassLoaderBatchSize(int classLoaderBatchSize) {
+      if (classLoaderBatchSize <= 0) {
+        throw new IllegalArgumentException("Class loader batch size must be positive, got: " + classLoaderBatchSize);
+      }
+      this.classLoaderBatchSize = classLoaderBatchSize;
+      return this;
+    }
+
+    public FastSerdeCache build() {
+      return new FastSerdeCache(this);
+    }
+  }
+
+  /**
+   * Writer and reader schemas of a {@link FastDeserializer}.
+   */
+  public static final class SchemaPair {
+    private final Schema writerSchema;
+    private final Schema readerSchema;
+
+    public SchemaPair(Schema writerSchema, Schema readerSchema) {
+      this.writerSchema = Objects.requireNonNull(writerSchema, "writerSchema");
+      this.readerSchema = Objects.requireNonNull(readerSchema, "readerSchema");
+    }
+
+    /**
+     * @param recordClass generated specific record class
+     * @return schema pair reading data written with the schema of the given class into instances of it
+     */
+    public static SchemaPair forSpecificRecord(Class<?> recordClass) {
+      Schema schema;
+      try {
+        schema = (Schema) recordClass.getField("SCHEMA$").get(null);
+      } catch (ReflectiveOperationException e) {
+        throw new IllegalArgumentException("Not a generated specific record class: " + recordClass.getName(), e);
+      }
+      return new SchemaPair(schema, schema);
+    }
+
+    public Schema getWriterSchema() {
+      return writerSchema;
+    }
+
+    public Schema getReaderSchema() {
+      return readerSchema;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (o == null || getClass() != o.getClass()) {
+        return false;
+      }
+      SchemaPair that = (SchemaPair) o;
+      return writerSchema.equals(that.writerSchema) && readerSchema.equals(that.readerSchema);
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(writerSchema, readerSchema);
+    }
+
+    @Override
+    public String toString() {
+      return "SchemaPair{writerSchema=" + getSchemaFullName(writerSchema) + ", readerSchema="
+          + getSchemaFullName(readerSchema) + "}";
+    }
+  }
+
   public static class FastDeserializerWithAvroSpecificImpl<V> implements FastDeserializer<V> {
     private final SpecificDatumReader<V> datumReader;
 
@@ -598,6 +1640,22 @@ public final class FastSerdeCache {
     }
   }
 
+  /**
+   * Deserializer used for good once a fast one couldn't be generated, so that generation isn't attempted again.
+   */
+  private static final class RegularAvroDeserializer implements FastDeserializer<Object> {
+    private final DatumReader<Object> datumReader;
+
+    private RegularAvroDeserializer(DatumReader<Object> datumReader) {
+      this.datumReader = datumReader;
+    }
+
+    @Override
+    public Object deserialize(Object reuse, Decoder d) throws IOException {
+      return datumReader.read(reuse, d);
+    }
+  }
+
   public static class FastSerializerWithAvroSpecificImpl<V> implements FastSerializer<V> {
     private final SpecificDatumWriter<V> datumWriter;
 
@@ -623,4 +1681,63 @@ public final class FastSerdeCache {
       datumWriter.write(data, e);
     }
   }
+
+  /**
+   * Regular avro json deserializer, going through {@link GenericDatumReader} and the compatible json decoder, values
+   * read from a {@link JsonParser} being copied out of it first.
+   */
+  public static class FastJsonDeserializerWithAvroGenericImpl<V> implements FastJsonDeserializer<V> {
+    private final Schema schema;
+    private final DatumReader<V> datumReader;
+
+    public FastJsonDeserializerWithAvroGenericImpl(Schema schema) {
+      this.schema = schema;
+      this.datumReader = new GenericDatumReader<>(schema);
+    }
+
+    @Override
+    public V deserialize(V reuse, String json) throws IOException {
+      return datumReader.read(reuse, AvroCompatibilityHelper.newCompatibleJsonDecoder(schema, json));
+    }
+
+    @Override
+    public V deserialize(V reuse, JsonParser parser) throws IOException {
+      if (parser.currentToken() == null) {
+        parser.nextToken();
+      }
+      StringWriter json = new StringWriter();
+      try (JsonGenerator generator = FastGenericJsonDeserializerPlanGenerator.JSON_FACTORY.createGenerator(json)) {
+        generator.copyCurrentStructure(parser);
+      }
+      parser.nextToken();
+      return deserialize(reuse, json.toString());
+    }
+  }
+
+  /**
+   * Regular avro json serializer, going through {@link GenericDatumWriter} and the compatible json encoder.
+   */
+  public static class FastJsonSerializerWithAvroGenericImpl<V> implements FastJsonSerializer<V> {
+    private final Schema schema;
+    private final DatumWriter<V> datumWriter;
+
+    public FastJsonSerializerWithAvroGenericImpl(Schema schema) {
+      this.schema = schema;
+      this.datumWriter = new GenericDatumWriter<>(schema);
+    }
+
+    @Override
+    public void serialize(V data, OutputStream out) throws IOException {
+      Encoder encoder = AvroCompatibilityHelper.newJsonEncoder(schema, out, false, AvroVersion.latest());
+      datumWriter.write(data, encoder);
+      encoder.flush();
+    }
+
+    @Override
+    public void serialize(V data, JsonGenerator generator) throws IOException {
+      ByteArrayOutputStream out = new ByteArrayOutputStream();
+      serialize(data, out);
+      generator.writeRawValue(new String(out.toByteArray(), StandardCharsets.UTF_8));
+    }
+  }
 }
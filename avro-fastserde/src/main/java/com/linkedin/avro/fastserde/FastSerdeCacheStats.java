@@ -0,0 +1,53 @@
+package com.linkedin.avro.fastserde;
+
+/**
+ * Point in time statistics of the serializers and deserializers held by a {@link FastSerdeCache}.
+ */
+public final class FastSerdeCacheStats {
+  private final long entryCount;
+  private final long weight;
+  private final long hitCount;
+  private final long missCount;
+  private final long evictionCount;
+
+  FastSerdeCacheStats(long entryCount, long weight, long hitCount, long missCount, long evictionCount) {
+    this.entryCount = entryCount;
+    this.weight = weight;
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.evictionCount = evictionCount;
+  }
+
+  /**
+   * @return number of cached serializers and deserializers, fast or not yet
+   */
+  public long getEntryCount() {
+    return entryCount;
+  }
+
+  /**
+   * @return estimated Metaspace weight of the cached entries, as the size in bytes of the bytecode of the generated
+   *         classes which can be unloaded once evicted
+   */
+  public long getWeight() {
+    return weight;
+  }
+
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  public long getMissCount() {
+    return missCount;
+  }
+
+  public long getEvictionCount() {
+    return evictionCount;
+  }
+
+  @Override
+  public String toString() {
+    return "FastSerdeCacheStats{entryCount=" + entryCount + ", weight=" + weight + ", hitCount=" + hitCount
+        + ", missCount=" + missCount + ", evictionCount=" + evictionCount + "}";
+  }
+}
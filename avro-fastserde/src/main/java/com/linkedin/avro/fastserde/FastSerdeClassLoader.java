@@ -0,0 +1,59 @@
+package com.linkedin.avro.fastserde;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * {@link ClassLoader} which defines the generated serializer/deserializer classes directly from their bytecode,
+ * so that classes compiled in memory never need to be written to disk before being loaded.
+ *
+ * The bytecode of a class is registered via {@link #addClass(String, byte[])} and it is only turned into a
+ * {@link Class} the first time it is requested, after which the bytecode itself is released.
+ */
+public class FastSerdeClassLoader extends ClassLoader {
+  static {
+    registerAsParallelCapable();
+  }
+
+  private final Map<String, byte[]> pendingClasses = new ConcurrentHashMap<>();
+  private final Map<String, Integer> definedClassSizes = new ConcurrentHashMap<>();
+
+  public FastSerdeClassLoader(ClassLoader parent) {
+    super(parent);
+  }
+
+  /**
+   * @param className fully qualified name of the class
+   * @param bytecode content of the compiled class file
+   */
+  public void addClass(String className, byte[] bytecode) {
+    pendingClasses.put(className, bytecode);
+  }
+
+  @Override
+  protected Class<?> findClass(String name) throws ClassNotFoundException {
+    byte[] bytecode = pendingClasses.remove(name);
+    if (bytecode == null) {
+      throw new ClassNotFoundException(name);
+    }
+    Class<?> definedClass = defineClass(name, bytecode, 0, bytecode.length);
+    definedClassSizes.put(name, bytecode.length);
+    return definedClass;
+  }
+
+  /**
+   * @param className fully qualified name of a class defined by this class loader
+   * @return size of the bytecode of the given class and of its nested classes, as an estimate of their Metaspace
+   *         footprint
+   */
+  public long getDefinedBytecodeSize(String className) {
+    long size = 0;
+    for (Map.Entry<String, Integer> definedClass : definedClassSizes.entrySet()) {
+      if (definedClass.getKey().equals(className) || definedClass.getKey().startsWith(className + "$")) {
+        size += definedClass.getValue();
+      }
+    }
+    return size;
+  }
+}
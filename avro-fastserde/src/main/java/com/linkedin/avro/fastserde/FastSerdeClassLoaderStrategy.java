@@ -0,0 +1,24 @@
+package com.linkedin.avro.fastserde;
+
+/**
+ * How {@link FastSerdeCache} groups the generated classes into class loaders. A class can only be unloaded, and its
+ * Metaspace reclaimed, once none of the classes of its class loader are referenced anymore.
+ */
+public enum FastSerdeClassLoaderStrategy {
+  /**
+   * All the generated classes share a single class loader, which lives as long as the {@link FastSerdeCache}, so
+   * none of them can ever be unloaded.
+   */
+  SHARED,
+  /**
+   * Every generated class gets its own class loader, so that each evicted or replaced serializer or deserializer
+   * can be unloaded on its own.
+   */
+  PER_SCHEMA_PAIR,
+  /**
+   * Generated classes are grouped into class loaders of a bounded number of classes, see
+   * {@link FastSerdeCache.Builder#setClassLoaderBatchSize(int)}, which can be unloaded once all their classes have
+   * been evicted or replaced. A trade-off between the per class loader overhead and the unloading granularity.
+   */
+  PER_BATCH
+}
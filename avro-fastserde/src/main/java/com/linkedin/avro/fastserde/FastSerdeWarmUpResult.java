@@ -0,0 +1,55 @@
+package com.linkedin.avro.fastserde;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeoutException;
+
+
+/**
+ * Outcome of a warm-up of a {@link FastSerdeCache}, see
+ * {@link FastSerdeCache#warmUpGenericDeserializers(java.util.Collection, long, java.util.concurrent.TimeUnit)}.
+ */
+public final class FastSerdeWarmUpResult {
+  private final Map<FastSerdeCache.SchemaPair, Throwable> failures;
+  private final boolean timedOut;
+
+  FastSerdeWarmUpResult(Map<FastSerdeCache.SchemaPair, Throwable> failures, boolean timedOut) {
+    this.failures = Collections.unmodifiableMap(failures);
+    this.timedOut = timedOut;
+  }
+
+  /**
+   * @return whether all the schema pairs went fast
+   */
+  public boolean isSuccessful() {
+    return failures.isEmpty();
+  }
+
+  /**
+   * @return whether the warm-up didn't complete in time, the schema pairs which weren't generated yet failing with a
+   *         {@link TimeoutException}
+   */
+  public boolean isTimedOut() {
+    return timedOut;
+  }
+
+  /**
+   * @return schema pairs which didn't go fast
+   */
+  public Set<FastSerdeCache.SchemaPair> getFailedSchemaPairs() {
+    return failures.keySet();
+  }
+
+  /**
+   * @return schema pairs which didn't go fast, with the reason why
+   */
+  public Map<FastSerdeCache.SchemaPair, Throwable> getFailures() {
+    return failures;
+  }
+
+  @Override
+  public String toString() {
+    return "FastSerdeWarmUpResult{failedSchemaPairs=" + failures.keySet() + ", timedOut=" + timedOut + "}";
+  }
+}
@@ -1,5 +1,8 @@
 package com.linkedin.avro.fastserde;
 
+import com.linkedin.avro.api.PrimitiveIntList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveIntArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveLongArrayList;
 import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
 import com.sun.codemodel.JBlock;
 import com.sun.codemodel.JClass;
@@ -9,16 +12,21 @@ import com.sun.codemodel.JExpr;
 import com.sun.codemodel.JExpression;
 import com.sun.codemodel.JForEach;
 import com.sun.codemodel.JForLoop;
+import com.sun.codemodel.JInvocation;
 import com.sun.codemodel.JMethod;
 import com.sun.codemodel.JMod;
+import com.sun.codemodel.JOp;
 import com.sun.codemodel.JPackage;
+import com.sun.codemodel.JSwitch;
 import com.sun.codemodel.JVar;
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericContainer;
 import org.apache.avro.io.Encoder;
 import org.apache.avro.util.Utf8;
 import org.apache.commons.lang3.StringUtils;
@@ -27,6 +35,11 @@ import org.apache.commons.lang3.StringUtils;
 public class FastSerializerGenerator<T> extends FastSerdeBase {
 
   private static final String ENCODER = "encoder";
+  /**
+   * Minimum number of named branches for a generic union to be dispatched with a {@link UnionBranchIndex}, narrower
+   * unions, such as the common optional records, being cheaper to check branch by branch.
+   */
+  private static final int MIN_INDEXED_UNION_BRANCHES = 3;
   protected final Schema schema;
 
   private final Map<String, JMethod> serializeMethodMap = new HashMap<>();
@@ -44,12 +57,37 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
   }
 
   public static String getClassName(Schema schema, String description) {
-    Long schemaId = Math.abs(Utils.getSchemaFingerprint(schema));
+    // unsigned rather than absolute fingerprints, as the latter would collide for opposite fingerprints
+    String schemaId = Long.toUnsignedString(Utils.getSchemaFingerprint(schema));
     String typeName = SchemaAssistant.getTypeName(schema);
     return typeName + SEP + description + "Serializer" + SEP + schemaId;
   }
 
   public FastSerializer<T> generateSerializer() {
+    final String className = defineSerializerClass();
+    try {
+      final Class<FastSerializer<T>> clazz = compileClass(className);
+      return newSerializer(clazz);
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException(e);
+    }
+  }
+
+  /**
+   * @param clazz compiled serializer class
+   * @return a new instance of the given serializer class
+   */
+  @SuppressWarnings("unchecked")
+  FastSerializer<T> newSerializer(Class<?> clazz) throws ReflectiveOperationException {
+    return (FastSerializer<T>) clazz.newInstance();
+  }
+
+  /**
+   * Defines the serializer class in the code model, without compiling it.
+   *
+   * @return simple name of the serializer class
+   */
+  String defineSerializerClass() {
     final String className = getClassName(schema, useGenericTypes ? "Generic" : "Specific");
     final JPackage classPackage = codeModel._package(generatedPackageName);
 
@@ -79,9 +117,7 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
 
       serializeMethod.param(codeModel.ref(Encoder.class), ENCODER);
       serializeMethod._throws(codeModel.ref(IOException.class));
-
-      final Class<FastSerializer<T>> clazz = compileClass(className, schemaAssistant.getUsedFullyQualifiedClassNameSet());
-      return clazz.newInstance();
+      return className;
     } catch (JClassAlreadyExistsException e) {
       throw new FastSerdeGeneratorException("Class: " + className + " already exists");
     } catch (Exception e) {
@@ -169,7 +205,12 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
         ifCodeGen(else1, primitiveListCondition, then2 -> {
           final JVar primitiveList = declareValueVar("primitiveList", arraySchema, then2, true, false, true);
           then2.assign(primitiveList, JExpr.cast(primitiveListInterface, arrayExpr));
-          processArrayElementLoop(arraySchema, arrayClass, primitiveList, then2, "getPrimitive");
+          JInvocation writePrimitiveArrayInvocation = writePrimitiveArrayInvocation(arraySchema.getElementType());
+          if (writePrimitiveArrayInvocation != null) {
+            then2.add(writePrimitiveArrayInvocation.arg(primitiveList).arg(JExpr.direct(ENCODER)));
+          } else {
+            processArrayElementLoop(arraySchema, arrayClass, primitiveList, then2, "getPrimitive");
+          }
         }, else2 -> {
           processArrayElementLoop(arraySchema, arrayClass, arrayExpr, else2, "get");
         });
@@ -180,6 +221,28 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
     body.invoke(JExpr.direct(ENCODER), "writeArrayEnd");
   }
 
+  /**
+   * Floats and doubles not decoded yet by {@link ByteBufferBackedPrimitiveFloatList} and
+   * {@link ByteBufferBackedPrimitiveDoubleList} are written in bulk as is, ints and longs in a loop over the primitive
+   * array, see {@link PrimitiveIntArrayList#writePrimitiveIntArray(PrimitiveIntList, Encoder)}.
+   *
+   * @return invocation writing the items of a primitive list, or null if they are written one by one
+   */
+  private JInvocation writePrimitiveArrayInvocation(Schema elementSchema) {
+    switch (elementSchema.getType()) {
+      case FLOAT:
+        return codeModel.ref(ByteBufferBackedPrimitiveFloatList.class).staticInvoke("writePrimitiveFloatArray");
+      case DOUBLE:
+        return codeModel.ref(ByteBufferBackedPrimitiveDoubleList.class).staticInvoke("writePrimitiveDoubleArray");
+      case INT:
+        return codeModel.ref(PrimitiveIntArrayList.class).staticInvoke("writePrimitiveIntArray");
+      case LONG:
+        return codeModel.ref(PrimitiveLongArrayList.class).staticInvoke("writePrimitiveLongArray");
+      default:
+        return null;
+    }
+  }
+
   private void processArrayElementLoop(final Schema arraySchema, final JClass arrayClass, JExpression arrayExpr, JBlock body, String getMethodName) {
     final JForLoop forLoop = body._for();
     final JVar counter = forLoop.init(codeModel.INT, getUniqueName("counter"), JExpr.lit(0));
@@ -269,6 +332,38 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
   private void processUnion(final Schema unionSchema, JExpression unionExpr, JBlock body) {
     JConditional ifBlock = null;
 
+    /**
+     * In generic mode, wide unions of named types find the branch of the value through a {@link UnionBranchIndex}
+     * and a switch, instead of checking the full name of every branch in turn.
+     */
+    int indexedBranchCount = 0;
+    String[] branchFullNames = new String[unionSchema.getTypes().size()];
+    if (useGenericTypes) {
+      for (int i = 0; i < branchFullNames.length; i++) {
+        Schema schemaOption = unionSchema.getTypes().get(i);
+        if (SchemaAssistant.isNamedTypeWithSchema(schemaOption)) {
+          branchFullNames[i] = AvroCompatibilityHelper.getSchemaFullName(schemaOption);
+          indexedBranchCount++;
+        }
+      }
+    }
+    JVar branchIndexVar = null;
+    if (indexedBranchCount >= MIN_INDEXED_UNION_BRANCHES) {
+      JInvocation newUnionBranchIndex = JExpr._new(codeModel.ref(UnionBranchIndex.class));
+      for (String branchFullName : branchFullNames) {
+        newUnionBranchIndex.arg(branchFullName != null ? JExpr.lit(branchFullName) : JExpr._null());
+      }
+      JVar unionBranchIndex = generatedClass.field(JMod.PRIVATE | JMod.FINAL, UnionBranchIndex.class,
+          getUniqueName("unionBranchIndex"), newUnionBranchIndex);
+      JClass genericContainerClass = codeModel.ref(GenericContainer.class);
+      branchIndexVar = body.decl(codeModel.INT, getUniqueName("unionBranch"),
+          JOp.cond(unionExpr._instanceof(genericContainerClass),
+              unionBranchIndex.invoke("indexOf").arg(JExpr.invoke(JExpr.cast(genericContainerClass, unionExpr), "getSchema")),
+              JExpr.lit(-1)));
+    } else {
+      Arrays.fill(branchFullNames, null);
+    }
+
     for (Schema schemaOption : unionSchema.getTypes()) {
       if (Schema.Type.NULL.equals(schemaOption.getType())) {
         /**
@@ -285,6 +380,13 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
       }
     }
 
+    JSwitch branchSwitch = null;
+    if (branchIndexVar != null) {
+      JExpression condition = branchIndexVar.gte(JExpr.lit(0));
+      ifBlock = ifBlock != null ? ifBlock._elseif(condition) : body._if(condition);
+      branchSwitch = ifBlock._then()._switch(branchIndexVar);
+    }
+
     for (Schema schemaOption : unionSchema.getTypes()) {
       if (Schema.Type.NULL.equals(schemaOption.getType())) {
         /**
@@ -296,6 +398,18 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
 
       JClass optionClass = schemaAssistant.classFromSchema(schemaOption);
       JClass rawOptionClass = schemaAssistant.classFromSchema(schemaOption, true, true);
+      int branchIndex = getIndexNamedForUnion(unionSchema, schemaOption);
+      if (branchFullNames[branchIndex] != null) {
+        JBlock caseBlock = branchSwitch._case(JExpr.lit(branchIndex)).body();
+        caseBlock.invoke(JExpr.direct(ENCODER), "writeIndex").arg(JExpr.lit(branchIndex));
+        if (SchemaAssistant.isComplexType(schemaOption)) {
+          processComplexType(schemaOption, JExpr.cast(optionClass, unionExpr), caseBlock);
+        } else {
+          processSimpleType(schemaOption, unionExpr, caseBlock);
+        }
+        caseBlock._break();
+        continue;
+      }
       JExpression condition;
       /**
        * In Avro-1.4, neither GenericEnumSymbol or GenericFixed has associated schema, so we don't expect to see
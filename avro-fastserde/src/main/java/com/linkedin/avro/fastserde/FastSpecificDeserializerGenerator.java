@@ -8,6 +8,11 @@ public final class FastSpecificDeserializerGenerator<T> extends FastDeserializer
 
   FastSpecificDeserializerGenerator(Schema writer, Schema reader, File destination, ClassLoader classLoader,
       String compileClassPath) {
-    super(false, writer, reader, destination, classLoader, compileClassPath);
+    this(writer, reader, destination, classLoader, compileClassPath, false);
+  }
+
+  FastSpecificDeserializerGenerator(Schema writer, Schema reader, File destination, ClassLoader classLoader,
+      String compileClassPath, boolean deepReuse) {
+    super(false, writer, reader, destination, classLoader, compileClassPath, deepReuse);
   }
 }
@@ -0,0 +1,71 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.HashMap;
+import java.util.Map;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.StandardLocation;
+
+
+/**
+ * {@link javax.tools.JavaFileManager} keeping both the generated sources and the compiled classes in byte arrays.
+ *
+ * Dependencies are still resolved by the wrapped {@link StandardJavaFileManager} from the compile classpath,
+ * only the class files produced by the compilation are captured in memory.
+ */
+class InMemoryJavaFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+  private final Map<String, ByteArrayOutputStream> compiledClasses = new HashMap<>();
+
+  InMemoryJavaFileManager(StandardJavaFileManager fileManager) {
+    super(fileManager);
+  }
+
+  /**
+   * @param className fully qualified name of the class defined by the given source
+   * @param source java source code
+   * @return a {@link JavaFileObject} serving the given source to the compiler
+   */
+  static JavaFileObject newSourceFile(String className, String source) {
+    return new SimpleJavaFileObject(toUri(className, JavaFileObject.Kind.SOURCE), JavaFileObject.Kind.SOURCE) {
+      @Override
+      public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+        return source;
+      }
+    };
+  }
+
+  @Override
+  public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+      FileObject sibling) {
+    if (!StandardLocation.CLASS_OUTPUT.equals(location) || !JavaFileObject.Kind.CLASS.equals(kind)) {
+      throw new FastSerdeGeneratorException("Unexpected output: " + className + " of kind: " + kind + " at: " + location);
+    }
+    return new SimpleJavaFileObject(toUri(className, kind), kind) {
+      @Override
+      public OutputStream openOutputStream() {
+        ByteArrayOutputStream bytecode = new ByteArrayOutputStream();
+        compiledClasses.put(className, bytecode);
+        return bytecode;
+      }
+    };
+  }
+
+  /**
+   * @return bytecode of all the classes compiled so far, keyed by fully qualified class name
+   */
+  Map<String, byte[]> getCompiledClasses() {
+    Map<String, byte[]> result = new HashMap<>(compiledClasses.size());
+    compiledClasses.forEach((className, bytecode) -> result.put(className, bytecode.toByteArray()));
+    return result;
+  }
+
+  private static URI toUri(String className, JavaFileObject.Kind kind) {
+    return URI.create("mem:///" + className.replace('.', '/') + kind.extension);
+  }
+}
@@ -0,0 +1,306 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import org.apache.avro.Schema;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Durable store of the bytecode of generated classes, so that a new JVM can load the serializers and deserializers
+ * compiled by a previous one instead of generating and compiling them again.
+ *
+ * Entries are kept in a sub-directory per runtime {@link com.linkedin.avroutil1.compatibility.AvroVersion} and
+ * version hash of the avro-fastserde code, see {@link #getGeneratorVersionHash()}, and named after the generated class.
+ * Since class names only carry the parsing fingerprints of the schemas, which ignore properties such as
+ * {@code avro.java.string} and {@code java-class} as well as defaults, each entry also records a hash of the schemas
+ * it was generated for, see {@link #hashSchemas(ClassLoader, Schema...)}. A change of Avro version, of the
+ * avro-fastserde code, of the schemas or of their specific classes therefore simply results in cache misses. Every
+ * entry is checksummed and any entry which can't be read back or doesn't match is deleted, so that the caller
+ * regenerates it.
+ */
+final class PersistentClassCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(PersistentClassCache.class);
+
+  private static final int MAGIC = 0xFA57C1A5;
+  private static final int FORMAT_VERSION = 2;
+  private static final String ENTRY_SUFFIX = ".classes";
+
+  private static volatile String generatorVersionHash;
+
+  private final File entriesDir;
+  private final String avroVersion;
+  private final String generatorHash;
+
+  PersistentClassCache(File directory) throws IOException {
+    this.avroVersion = AvroCompatibilityHelper.getRuntimeAvroVersion().name();
+    this.generatorHash = getGeneratorVersionHash();
+    this.entriesDir = new File(new File(directory, avroVersion), generatorHash);
+    Files.createDirectories(entriesDir.toPath());
+  }
+
+  File getEntriesDir() {
+    return entriesDir;
+  }
+
+  /**
+   * @param className simple name of the generated class
+   * @param schemasHash hash of the schemas the class is generated for, see {@link #hashSchemas(ClassLoader, Schema...)}
+   * @return bytecode of the persisted classes keyed by fully qualified class name, or null if there is no usable entry
+   */
+  Map<String, byte[]> load(String className, String schemasHash) {
+    File entry = entryFile(className);
+    if (!entry.isFile()) {
+      return null;
+    }
+    try (DataInputStream in = new DataInputStream(Files.newInputStream(entry.toPath()))) {
+      if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+        throw new IOException("Unrecognized header");
+      }
+      if (!avroVersion.equals(in.readUTF()) || !generatorHash.equals(in.readUTF())) {
+        throw new IOException("Version mismatch");
+      }
+      if (!schemasHash.equals(in.readUTF())) {
+        LOGGER.info("Discarding persisted classes generated for other schemas: {}", entry);
+        evict(className);
+        return null;
+      }
+      CRC32 checksum = new CRC32();
+      int classCount = in.readInt();
+      Map<String, byte[]> classes = new HashMap<>(classCount);
+      for (int i = 0; i < classCount; i++) {
+        String name = in.readUTF();
+        byte[] bytecode = new byte[in.readInt()];
+        in.readFully(bytecode);
+        checksum.update(name.getBytes(StandardCharsets.UTF_8));
+        checksum.update(bytecode);
+        classes.put(name, bytecode);
+      }
+      if (in.readLong() != checksum.getValue()) {
+        throw new IOException("Checksum mismatch");
+      }
+      return classes;
+    } catch (IOException | RuntimeException e) {
+      LOGGER.warn("Discarding unreadable persisted classes: {}", entry, e);
+      evict(className);
+      return null;
+    }
+  }
+
+  /**
+   * Persists the given classes, entries are written to a temporary file first and then moved in place,
+   * so that concurrent readers never observe a partially written entry.
+   *
+   * @param className simple name of the generated class
+   * @param schemasHash hash of the schemas the class is generated for, see {@link #hashSchemas(ClassLoader, Schema...)}
+   * @param classes bytecode of the classes keyed by fully qualified class name
+   */
+  void store(String className, String schemasHash, Map<String, byte[]> classes) {
+    ByteArrayOutputStream content = new ByteArrayOutputStream();
+    CRC32 checksum = new CRC32();
+    try (DataOutputStream out = new DataOutputStream(content)) {
+      out.writeInt(MAGIC);
+      out.writeInt(FORMAT_VERSION);
+      out.writeUTF(avroVersion);
+      out.writeUTF(generatorHash);
+      out.writeUTF(schemasHash);
+      out.writeInt(classes.size());
+      for (Map.Entry<String, byte[]> compiledClass : classes.entrySet()) {
+        out.writeUTF(compiledClass.getKey());
+        out.writeInt(compiledClass.getValue().length);
+        out.write(compiledClass.getValue());
+        checksum.update(compiledClass.getKey().getBytes(StandardCharsets.UTF_8));
+        checksum.update(compiledClass.getValue());
+      }
+      out.writeLong(checksum.getValue());
+    } catch (IOException e) {
+      throw new FastSerdeGeneratorException("Unable to serialize classes for: " + className, e);
+    }
+
+    Path tempFile = null;
+    try {
+      tempFile = Files.createTempFile(entriesDir.toPath(), className, ".tmp");
+      Files.write(tempFile, content.toByteArray());
+      try {
+        Files.move(tempFile, entryFile(className).toPath(), StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException e) {
+        Files.move(tempFile, entryFile(className).toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      LOGGER.warn("Unable to persist classes for: {} in: {}", className, entriesDir, e);
+      if (tempFile != null) {
+        tempFile.toFile().delete();
+      }
+    }
+  }
+
+  void evict(String className) {
+    try {
+      Files.deleteIfExists(entryFile(className).toPath());
+    } catch (IOException e) {
+      LOGGER.warn("Unable to delete persisted classes for: {} in: {}", className, entriesDir, e);
+    }
+  }
+
+  private File entryFile(String className) {
+    return new File(entriesDir, className + ENTRY_SUFFIX);
+  }
+
+  /**
+   * @param specificClassLoader class loader of the specific classes of the schemas, null for generic classes
+   * @param schemas schemas the classes are generated for
+   * @return hash of the full json of the schemas, including the properties and defaults which the generated code
+   *         depends on, and of the bytecode of the specific classes of their named types, if any
+   */
+  static String hashSchemas(ClassLoader specificClassLoader, Schema... schemas) {
+    MessageDigest digest = newDigest();
+    Set<String> namedTypes = new LinkedHashSet<>();
+    for (Schema schema : schemas) {
+      digest.update(schema.toString().getBytes(StandardCharsets.UTF_8));
+      collectNamedTypes(schema, namedTypes);
+    }
+    if (specificClassLoader != null) {
+      for (String namedType : namedTypes) {
+        digest.update(namedType.getBytes(StandardCharsets.UTF_8));
+        try (InputStream in = specificClassLoader.getResourceAsStream(namedType.replace('.', '/') + ".class")) {
+          if (in != null) {
+            update(digest, in);
+          }
+        } catch (IOException e) {
+          throw new FastSerdeGeneratorException("Unable to read the specific class of: " + namedType, e);
+        }
+      }
+    }
+    return toHex(digest.digest());
+  }
+
+  private static void collectNamedTypes(Schema schema, Set<String> namedTypes) {
+    switch (schema.getType()) {
+      case RECORD:
+        if (namedTypes.add(AvroCompatibilityHelper.getSchemaFullName(schema))) {
+          for (Schema.Field field : schema.getFields()) {
+            collectNamedTypes(field.schema(), namedTypes);
+          }
+        }
+        break;
+      case ENUM:
+      case FIXED:
+        namedTypes.add(AvroCompatibilityHelper.getSchemaFullName(schema));
+        break;
+      case ARRAY:
+        collectNamedTypes(schema.getElementType(), namedTypes);
+        break;
+      case MAP:
+        collectNamedTypes(schema.getValueType(), namedTypes);
+        break;
+      case UNION:
+        for (Schema type : schema.getTypes()) {
+          collectNamedTypes(type, namedTypes);
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  /**
+   * The generated classes link against many classes of avro-fastserde besides the generators, such as the primitive
+   * lists, {@link DeepReusePool} or {@link Utils}, so the hash covers the whole code source of avro-fastserde: the jar
+   * holding it, or every class file of the directory holding it. Should the code source be unavailable, the hash is
+   * random, so that classes persisted by other JVMs are never reused.
+   *
+   * @return hash of the code of avro-fastserde, identifying the version of the generated code
+   */
+  static String getGeneratorVersionHash() {
+    if (generatorVersionHash == null) {
+      synchronized (PersistentClassCache.class) {
+        if (generatorVersionHash == null) {
+          generatorVersionHash = computeGeneratorVersionHash();
+        }
+      }
+    }
+    return generatorVersionHash;
+  }
+
+  private static String computeGeneratorVersionHash() {
+    CodeSource codeSource = PersistentClassCache.class.getProtectionDomain().getCodeSource();
+    URL location = codeSource == null ? null : codeSource.getLocation();
+    try {
+      if (location != null) {
+        Path codePath = new File(location.toURI()).toPath();
+        MessageDigest digest = newDigest();
+        if (Files.isDirectory(codePath)) {
+          List<Path> classFiles;
+          try (Stream<Path> paths = Files.walk(codePath)) {
+            classFiles = paths.filter(path -> path.toString().endsWith(".class")).sorted().collect(Collectors.toList());
+          }
+          for (Path classFile : classFiles) {
+            digest.update(codePath.relativize(classFile).toString().getBytes(StandardCharsets.UTF_8));
+            try (InputStream in = Files.newInputStream(classFile)) {
+              update(digest, in);
+            }
+          }
+          return toHex(digest.digest());
+        } else if (Files.isRegularFile(codePath)) {
+          try (InputStream in = Files.newInputStream(codePath)) {
+            update(digest, in);
+          }
+          return toHex(digest.digest());
+        }
+      }
+    } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+      LOGGER.warn("Unable to hash the code source of avro-fastserde: {}", location, e);
+    }
+    LOGGER.warn("No readable code source for avro-fastserde: {}, classes persisted by other JVMs won't be reused",
+        location);
+    return toHex(newDigest().digest(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8)));
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new FastSerdeGeneratorException("SHA-256 isn't available", e);
+    }
+  }
+
+  private static void update(MessageDigest digest, InputStream in) throws IOException {
+    byte[] buffer = new byte[8192];
+    for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+      digest.update(buffer, 0, read);
+    }
+  }
+
+  private static String toHex(byte[] hash) {
+    StringBuilder hex = new StringBuilder();
+    for (byte b : Arrays.copyOf(hash, 8)) {
+      hex.append(String.format("%02x", b));
+    }
+    return hex.toString();
+  }
+}
@@ -109,6 +109,38 @@ public class SchemaAssistant {
     }
   }
 
+  /**
+   * @param schema of the data type in question
+   * @return the size in bytes of every encoded value of that data type, or -1 if it depends on the value, e.g. for
+   *         varints, strings, containers and unions
+   */
+  public static int getFixedEncodedSize(Schema schema) {
+    switch (schema.getType()) {
+      case NULL:
+        return 0;
+      case BOOLEAN:
+        return 1;
+      case FLOAT:
+        return Float.BYTES;
+      case DOUBLE:
+        return Double.BYTES;
+      case FIXED:
+        return schema.getFixedSize();
+      case RECORD:
+        int size = 0;
+        for (Schema.Field field : schema.getFields()) {
+          int fieldSize = getFixedEncodedSize(field.schema());
+          if (fieldSize < 0) {
+            return -1;
+          }
+          size += fieldSize;
+        }
+        return size;
+      default:
+        return -1;
+    }
+  }
+
   /**
    * Determines if a data type is capable of reuse
    *
@@ -299,7 +331,7 @@ public class SchemaAssistant {
             case BOOLEAN: klass = abstractType ? PrimitiveBooleanList.class : PrimitiveBooleanArrayList.class; break;
             case DOUBLE: klass = abstractType ? PrimitiveDoubleList.class : PrimitiveDoubleArrayList.class; break;
             /**
-             * N.B.: FLOAT will get superseded in
+             * N.B.: FLOAT, and DOUBLE when not promoted, will get superseded in
              * {@link FastDeserializerGenerator#processArray(JVar, String, Schema, Schema, JBlock, FastDeserializerGeneratorBase.FieldAction, BiConsumer, Supplier)}
              */
             case FLOAT: klass = abstractType ? PrimitiveFloatList.class : PrimitiveFloatArrayList.class; break;
@@ -478,6 +510,9 @@ public class SchemaAssistant {
   public JExpression getStringableValue(Schema schema, JExpression stringExpr) {
     if (isStringable(schema)) {
       return JExpr._new(classFromSchema(schema)).arg(stringExpr);
+    } else if (defaultStringType().equals(codeModel.ref(CharSequence.class))) {
+      // an interface, e.g. for zero-copy deserializers, see FastDeserializerGenerator
+      return JExpr._new(codeModel.ref(Utf8.class)).arg(stringExpr);
     } else {
       return JExpr._new(defaultStringType()).arg(stringExpr);
     }
@@ -0,0 +1,73 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.SchemaFingerprintCache;
+import java.lang.ref.WeakReference;
+import org.apache.avro.Schema;
+
+
+/**
+ * Key of the {@link FastSerdeCache} entries, made of the full 64-bit fingerprints of the writer and reader schemas,
+ * so that two schema pairs can only collide if their schemas do.
+ *
+ * Lookups go through a per-thread probe, see {@link #probe(Schema, Schema)}, so that the hot path doesn't allocate.
+ * Probes must never be stored in a map, only instances created by the constructors can. The probe also remembers the
+ * last schemas it was set to, so that looking up the same {@link Schema} instances again doesn't even need to go
+ * through {@link Utils#getSchemaFingerprint(Schema)}. Those schemas are held weakly, so that the probes of long-lived
+ * threads don't prevent them from being garbage collected.
+ */
+final class SchemaFingerprintKey {
+  private static final ThreadLocal<SchemaFingerprintKey> PROBES = ThreadLocal.withInitial(() -> new SchemaFingerprintKey(0, 0));
+  private static final WeakReference<Schema> NO_SCHEMA = new WeakReference<>(null);
+
+  private long writerFingerprint;
+  private long readerFingerprint;
+  private WeakReference<Schema> lastWriterSchema = NO_SCHEMA;
+  private WeakReference<Schema> lastReaderSchema = NO_SCHEMA;
+
+  SchemaFingerprintKey(Schema writerSchema, Schema readerSchema) {
+    this(Utils.getSchemaFingerprint(writerSchema), Utils.getSchemaFingerprint(readerSchema));
+  }
+
+  SchemaFingerprintKey(long writerFingerprint, long readerFingerprint) {
+    this.writerFingerprint = writerFingerprint;
+    this.readerFingerprint = readerFingerprint;
+  }
+
+  /**
+   * @return the probe of the current thread, set to the given schemas, only valid until the next call on this thread
+   */
+  static SchemaFingerprintKey probe(Schema writerSchema, Schema readerSchema) {
+    SchemaFingerprintKey probe = PROBES.get();
+    if (probe.lastWriterSchema.get() != writerSchema) {
+      probe.writerFingerprint = Utils.getSchemaFingerprint(writerSchema);
+      probe.lastWriterSchema = new WeakReference<>(writerSchema);
+    }
+    if (probe.lastReaderSchema.get() != readerSchema) {
+      probe.readerFingerprint = Utils.getSchemaFingerprint(readerSchema);
+      probe.lastReaderSchema = writerSchema == readerSchema ? probe.lastWriterSchema : new WeakReference<>(readerSchema);
+    }
+    return probe;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof SchemaFingerprintKey)) {
+      return false;
+    }
+    SchemaFingerprintKey that = (SchemaFingerprintKey) o;
+    return writerFingerprint == that.writerFingerprint && readerFingerprint == that.readerFingerprint;
+  }
+
+  @Override
+  public int hashCode() {
+    return SchemaFingerprintCache.pairHashCode(writerFingerprint, readerFingerprint);
+  }
+
+  @Override
+  public String toString() {
+    return Long.toUnsignedString(writerFingerprint) + "_" + Long.toUnsignedString(readerFingerprint);
+  }
+}
@@ -0,0 +1,55 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import org.apache.avro.Schema;
+
+
+/**
+ * Used by the generated generic serializers to find which branch of a union a named value, i.e. a record, an enum or
+ * a fixed, belongs to in constant time, whatever the width of the union.
+ *
+ * Branches are matched by full name, like the chains of checks of narrow unions, and the {@link Schema} instances
+ * already looked up are remembered, so that values sharing their schema instance, the common case, only cost an
+ * identity lookup.
+ */
+public final class UnionBranchIndex {
+  private static final int MAX_KNOWN_SCHEMAS = 256;
+
+  private final Map<String, Integer> branchesByFullName = new HashMap<>();
+  /** Never mutated once published, replaced by a copy to remember another schema */
+  private volatile Map<Schema, Integer> knownSchemas = new IdentityHashMap<>();
+
+  /**
+   * @param branchFullNames full name of each branch of the union, in order, null for the branches which aren't
+   *                        looked up through this index
+   */
+  public UnionBranchIndex(String... branchFullNames) {
+    for (int i = 0; i < branchFullNames.length; i++) {
+      if (branchFullNames[i] != null) {
+        branchesByFullName.put(branchFullNames[i], i);
+      }
+    }
+  }
+
+  /**
+   * @param schema schema of the value to write
+   * @return index of the branch of the union with the same full name, or -1 if none
+   */
+  public int indexOf(Schema schema) {
+    Integer index = knownSchemas.get(schema);
+    if (index == null) {
+      index = branchesByFullName.getOrDefault(AvroCompatibilityHelper.getSchemaFullName(schema), -1);
+      Map<Schema, Integer> currentKnownSchemas = knownSchemas;
+      if (currentKnownSchemas.size() < MAX_KNOWN_SCHEMAS) {
+        // concurrent lookups may lose each other's schemas, which will just be looked up by name again
+        Map<Schema, Integer> newKnownSchemas = new IdentityHashMap<>(currentKnownSchemas);
+        newKnownSchemas.put(schema, index);
+        knownSchemas = newKnownSchemas;
+      }
+    }
+    return index;
+  }
+}
@@ -0,0 +1,126 @@
+package com.linkedin.avro.fastserde;
+
+import java.nio.charset.StandardCharsets;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * A string read by a zero-copy deserializer, see {@link ZeroCopyDecoding}: a view over the UTF-8 bytes of the string
+ * in the array it was decoded from, only decoded into a {@link String} when accessed as a {@link CharSequence}, the
+ * result being cached.
+ *
+ * As with {@link Utf8}, whose hash code it shares, instances are only equal to other instances, though
+ * {@link org.apache.avro.generic.GenericData} compares and hashes them like any other string. Views must not outlive
+ * the changes of the array they point into.
+ */
+public final class Utf8View implements CharSequence, Comparable<Utf8View> {
+  private byte[] array;
+  private int offset;
+  private int length;
+  private String string;
+
+  public Utf8View(byte[] array, int offset, int length) {
+    set(array, offset, length);
+  }
+
+  /**
+   * Points this view to other bytes, for reuse.
+   */
+  void set(byte[] array, int offset, int length) {
+    this.array = array;
+    this.offset = offset;
+    this.length = length;
+    this.string = null;
+  }
+
+  /**
+   * @return the array holding the bytes of the string, from {@link #getOffset()} and for {@link #getByteLength()} bytes
+   */
+  public byte[] getArray() {
+    return array;
+  }
+
+  public int getOffset() {
+    return offset;
+  }
+
+  public int getByteLength() {
+    return length;
+  }
+
+  /**
+   * @return a copy of the string as a {@link Utf8}, which doesn't depend on the viewed array anymore
+   */
+  public Utf8 toUtf8() {
+    byte[] bytes = new byte[length];
+    System.arraycopy(array, offset, bytes, 0, length);
+    return new Utf8(bytes);
+  }
+
+  @Override
+  public int length() {
+    return toString().length();
+  }
+
+  @Override
+  public char charAt(int index) {
+    return toString().charAt(index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return toString().subSequence(start, end);
+  }
+
+  @Override
+  public String toString() {
+    if (string == null) {
+      string = new String(array, offset, length, StandardCharsets.UTF_8);
+    }
+    return string;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof Utf8View)) {
+      return false;
+    }
+    Utf8View that = (Utf8View) o;
+    if (length != that.length) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (array[offset + i] != that.array[that.offset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public int hashCode() {
+    int hash = 0;
+    for (int i = offset, end = offset + length; i < end; i++) {
+      hash = hash * 31 + array[i];
+    }
+    return hash;
+  }
+
+  /**
+   * Compares the UTF-8 bytes as unsigned bytes, the same way as {@link Utf8#compareTo(Utf8)}.
+   */
+  @Override
+  public int compareTo(Utf8View that) {
+    int commonLength = Math.min(length, that.length);
+    for (int i = 0; i < commonLength; i++) {
+      int compare = Integer.compare(array[offset + i] & 0xff, that.array[that.offset + i] & 0xff);
+      if (compare != 0) {
+        return compare;
+      }
+    }
+    return Integer.compare(length, that.length);
+  }
+}
@@ -2,26 +2,32 @@ package com.linkedin.avro.fastserde;
 
 import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
 import com.linkedin.avroutil1.compatibility.AvroVersion;
-import com.linkedin.avroutil1.compatibility.SchemaNormalization;
+import com.linkedin.avroutil1.compatibility.SchemaFingerprintCache;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.security.CodeSource;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.apache.avro.Schema;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.BlockingBinaryEncoder;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.util.Utf8;
 
 
 public class Utils {
   private static final List<AvroVersion> AVRO_VERSIONS_SUPPORTED_FOR_DESERIALIZER = new ArrayList<>();
   private static final List<AvroVersion> AVRO_VERSIONS_SUPPORTED_FOR_SERIALIZER = new ArrayList<>();
+  /** private in all avro versions, only exposed by {@link Schema.Field#aliases()} since avro 1.6 */
+  private static final java.lang.reflect.Field FIELD_ALIASES = findFieldAliases();
 
   static {
     AVRO_VERSIONS_SUPPORTED_FOR_DESERIALIZER.add(AvroVersion.AVRO_1_4);
@@ -36,9 +42,6 @@ public class Utils {
     AVRO_VERSIONS_SUPPORTED_FOR_SERIALIZER.addAll(AVRO_VERSIONS_SUPPORTED_FOR_DESERIALIZER);
   }
 
-  // Cache the mapping between Schema and the corresponding fingerprint
-  private static final Map<Schema, Long> SCHEMA_IDS_CACHE = new ConcurrentHashMap<>();
-
   private Utils() {
   }
 
@@ -80,6 +83,52 @@ public class Utils {
     return AVRO_VERSIONS_SUPPORTED_FOR_SERIALIZER;
   }
 
+  /**
+   * @param encoder encoder writing an array
+   * @return true if {@link Encoder#startItem()} is a no-op for the encoder, as for binary encoders other than
+   *         {@link BlockingBinaryEncoder} and for {@link ByteBufferSegmentEncoder}, so that the items of arrays can be
+   *         written in bulk
+   */
+  public static boolean isPlainBinaryEncoder(Encoder encoder) {
+    return (encoder instanceof BinaryEncoder && !(encoder instanceof BlockingBinaryEncoder))
+        || encoder instanceof ByteBufferSegmentEncoder;
+  }
+
+  /**
+   * @param utf8 a string
+   * @return the number of bytes of the string, read with the deprecated {@link Utf8#getLength()} as avro 1.4 has no
+   *         {@code getByteLength()}
+   */
+  @SuppressWarnings("deprecation")
+  public static int getUtf8ByteLength(Utf8 utf8) {
+    return utf8.getLength();
+  }
+
+  /**
+   * @param field a field
+   * @return the aliases of the field, read reflectively as {@link Schema.Field#aliases()} is not available in avro 1.4
+   *         and 1.5, which this module is compiled against too
+   */
+  @SuppressWarnings("unchecked")
+  public static Set<String> getFieldAliases(Schema.Field field) {
+    try {
+      Set<String> aliases = (Set<String>) FIELD_ALIASES.get(field);
+      return aliases != null ? aliases : Collections.emptySet();
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private static java.lang.reflect.Field findFieldAliases() {
+    try {
+      java.lang.reflect.Field aliases = Schema.Field.class.getDeclaredField("aliases");
+      aliases.setAccessible(true);
+      return aliases;
+    } catch (NoSuchFieldException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
   public static String generateSourcePathFromPackageName(String packageName) {
     StringBuilder pathBuilder = new StringBuilder(File.separator);
     Arrays.stream(packageName.split("\\.")).forEach( s -> pathBuilder.append(s).append(File.separator));
@@ -87,18 +136,13 @@ public class Utils {
   }
 
   /**
-   * This function will produce a fingerprint for the provided schema.
+   * This function will produce a fingerprint for the provided schema, computed once per schema instance, see
+   * {@link SchemaFingerprintCache}.
    * @param schema a schema
    * @return fingerprint for the given schema
    */
   public static Long getSchemaFingerprint(Schema schema) {
-    Long schemaId = SCHEMA_IDS_CACHE.get(schema);
-    if (schemaId == null) {
-      schemaId = SchemaNormalization.parsingFingerprint64(schema);
-      SCHEMA_IDS_CACHE.put(schema, schemaId);
-    }
-
-    return schemaId;
+    return SchemaFingerprintCache.getDefaultInstance().parsingFingerprint64(schema);
   }
 
   private static String replaceLast(String str, char target, char replacement) {
@@ -137,11 +181,28 @@ public class Utils {
    */
   public static String inferCompileDependencies(String existingCompileClasspath, String filePath, Set<String> knownUsedFullyQualifiedClassNameSet)
       throws IOException, ClassNotFoundException {
+    try (Reader reader = new FileReader(filePath)) {
+      return inferCompileDependencies(existingCompileClasspath, reader, knownUsedFullyQualifiedClassNameSet);
+    }
+  }
+
+  /**
+   * Same as {@link #inferCompileDependencies(String, String, Set)}, but scans the given java source directly,
+   * which is useful when the source has never been written to disk.
+   * @param existingCompileClasspath existing compile classpath
+   * @param source java source to compile
+   * @param knownUsedFullyQualifiedClassNameSet: known fully qualified class name when generating the serialization/de-serialization classes
+   * @return classpath to compile given source
+   * @throws IOException on io issues
+   * @throws ClassNotFoundException on classloading issues
+   */
+  public static String inferCompileDependencies(String existingCompileClasspath, Reader source, Set<String> knownUsedFullyQualifiedClassNameSet)
+      throws IOException, ClassNotFoundException {
     Set<String> usedFullyQualifiedClassNameSet = new HashSet<>(knownUsedFullyQualifiedClassNameSet);
     Set<String> libSet = Arrays.stream(existingCompileClasspath.split(":")).collect(Collectors.toSet());
     final String importPrefix = "import ";
     // collect all the necessary dependencies for compilation
-    try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+    try (BufferedReader reader = new BufferedReader(source)) {
       String line;
       while ((line = reader.readLine()) != null) {
         if (line.startsWith(importPrefix)) {
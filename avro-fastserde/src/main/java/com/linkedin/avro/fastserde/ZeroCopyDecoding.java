@@ -0,0 +1,93 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.ZeroCopyDecoder;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * Reads of strings and bytes by the deserializers generated in zero-copy mode, see
+ * {@link FastSerdeCache#buildZeroCopyGenericDeserializer(org.apache.avro.Schema, org.apache.avro.Schema)}.
+ *
+ * When the decoder is a {@link ZeroCopyDecoder} decoding a byte array, e.g. one returned by
+ * {@link com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper#newBoundedMemoryDecoder(byte[])}, strings and
+ * bytes aren't copied out of the array: strings are {@link Utf8View}s over the array, and bytes are {@link ByteBuffer}s
+ * wrapping it. Writing into such buffers writes into the array. Other decoders are read from the regular way.
+ */
+public final class ZeroCopyDecoding {
+
+  private ZeroCopyDecoding() {
+  }
+
+  /**
+   * @param reuse previous value to reuse, either a {@link Utf8View} or a {@link Utf8}
+   * @param in decoder to read from
+   * @return a {@link Utf8View} over the decoded array, or a {@link Utf8} if the decoder doesn't decode an array
+   * @throws IOException on io errors
+   */
+  public static CharSequence readString(Object reuse, Decoder in) throws IOException {
+    if (!(in instanceof ZeroCopyDecoder)) {
+      return in.readString(reuse instanceof Utf8 ? (Utf8) reuse : null);
+    }
+    ZeroCopyDecoder decoder = (ZeroCopyDecoder) in;
+    int length = readLength(in);
+    byte[] array = decoder.getSourceArray();
+    int offset;
+    if (array != null) {
+      offset = readInPlace(decoder, length);
+    } else {
+      // decoding a stream
+      array = new byte[length];
+      offset = 0;
+      in.readFixed(array, 0, length);
+    }
+    if (reuse instanceof Utf8View) {
+      Utf8View view = (Utf8View) reuse;
+      view.set(array, offset, length);
+      return view;
+    }
+    return new Utf8View(array, offset, length);
+  }
+
+  /**
+   * @param in decoder to read from
+   * @return a {@link ByteBuffer} wrapping the decoded array, or a new one if the decoder doesn't decode an array
+   * @throws IOException on io errors
+   */
+  public static ByteBuffer readBytes(Decoder in) throws IOException {
+    if (!(in instanceof ZeroCopyDecoder)) {
+      return in.readBytes(null);
+    }
+    ZeroCopyDecoder decoder = (ZeroCopyDecoder) in;
+    int length = readLength(in);
+    byte[] array = decoder.getSourceArray();
+    if (array == null) {
+      byte[] bytes = new byte[length];
+      in.readFixed(bytes, 0, length);
+      return ByteBuffer.wrap(bytes);
+    }
+    // sliced, so that the buffer starts at position 0 like the ones of Decoder.readBytes
+    return ByteBuffer.wrap(array, readInPlace(decoder, length), length).slice();
+  }
+
+  private static int readLength(Decoder in) throws IOException {
+    int length = in.readInt();
+    if (length < 0) {
+      throw new AvroRuntimeException("Malformed data. Length is negative: " + length);
+    }
+    return length;
+  }
+
+  private static int readInPlace(ZeroCopyDecoder decoder, int length) throws IOException {
+    int offset = decoder.readInPlace(length);
+    if (offset < 0) {
+      // the whole array being buffered, the missing bytes are past its end
+      throw new EOFException();
+    }
+    return offset;
+  }
+}
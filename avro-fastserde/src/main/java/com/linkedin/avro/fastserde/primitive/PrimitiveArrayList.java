@@ -147,7 +147,8 @@ public abstract class PrimitiveArrayList<T, L, A> extends AbstractList<T>
   /**
    * A function used when appending an element to the end of the list. It increments the size as a side-effect.
    *
-   * N.B.: Since {@link #size} is private, this is the only size mutation operation allowed for child classes.
+   * N.B.: Since {@link #size} is private, this and {@link #appendSlots(int)} are the only size mutation operations
+   * allowed for child classes.
    *
    * @return the index of the appended element
    */
@@ -155,6 +156,25 @@ public abstract class PrimitiveArrayList<T, L, A> extends AbstractList<T>
     return size++;
   }
 
+  /**
+   * A function used when appending many elements at once to the end of the list, e.g. a whole block of decoded
+   * elements. It resizes the primitive array at most once, and increments the size by {@code count} as a side-effect,
+   * the caller being responsible for filling the appended slots.
+   *
+   * @param count number of elements to append
+   * @return the index of the first appended element
+   */
+  protected int appendSlots(int count) {
+    if (size + count > capacity()) {
+      A newElements = newArray(Math.max(size + count, (size * 3)/2 + 1));
+      System.arraycopy(elementsArray, 0, newElements, 0, size);
+      this.elementsArray = newElements;
+    }
+    int index = size;
+    size += count;
+    return index;
+  }
+
   /** Checks if the primitve array is at capacity, and if so, resizes it to 1.5x + 1. */
   protected void capacityCheck() {
     if (size == capacity()) {
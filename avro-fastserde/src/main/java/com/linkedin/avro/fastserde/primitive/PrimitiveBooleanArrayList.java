@@ -1,7 +1,9 @@
 package com.linkedin.avro.fastserde.primitive;
 
 import com.linkedin.avro.api.PrimitiveBooleanList;
+import java.io.IOException;
 import org.apache.avro.Schema;
+import org.apache.avro.io.Decoder;
 
 
 public class PrimitiveBooleanArrayList extends PrimitiveArrayList<Boolean, PrimitiveBooleanList, boolean[]> implements PrimitiveBooleanList {
@@ -15,6 +17,47 @@ public class PrimitiveBooleanArrayList extends PrimitiveArrayList<Boolean, Primi
     super();
   }
 
+  /**
+   * Instantiate (or re-use) and populate a {@link PrimitiveBooleanList} from a {@link Decoder}. Array blocks are decoded
+   * straight into the primitive array, which is resized at most once per block, rather than element by element
+   * through {@link #addPrimitive(boolean)}.
+   *
+   * @param old old list to reuse
+   * @param in {@link Decoder} to read new list from
+   * @return a {@link PrimitiveBooleanList} with data, possibly the old argument reused
+   * @throws IOException on io errors
+   */
+  public static Object readPrimitiveBooleanArray(Object old, Decoder in) throws IOException {
+    long chunkLen = in.readArrayStart();
+    if (old instanceof PrimitiveBooleanList && !(old instanceof PrimitiveBooleanArrayList)) {
+      // some other implementation to reuse, only its public API can be used
+      PrimitiveBooleanList array = (PrimitiveBooleanList) old;
+      array.clear();
+      for (; chunkLen > 0; chunkLen = in.arrayNext()) {
+        for (int counter = 0; counter < chunkLen; counter++) {
+          array.addPrimitive(in.readBoolean());
+        }
+      }
+      return array;
+    }
+
+    PrimitiveBooleanArrayList array;
+    if (old instanceof PrimitiveBooleanArrayList) {
+      array = (PrimitiveBooleanArrayList) old;
+      array.clear();
+    } else {
+      array = new PrimitiveBooleanArrayList((int) chunkLen);
+    }
+    for (; chunkLen > 0; chunkLen = in.arrayNext()) {
+      int index = array.appendSlots((int) chunkLen);
+      boolean[] elements = array.elementsArray;
+      for (int end = index + (int) chunkLen; index < end; index++) {
+        elements[index] = in.readBoolean();
+      }
+    }
+    return array;
+  }
+
   @Override
   public Boolean get(int index) {
     return getPrimitive(index);
@@ -2,7 +2,12 @@ package com.linkedin.avro.fastserde.primitive;
 
 import com.linkedin.avro.api.PrimitiveBooleanList;
 import com.linkedin.avro.api.PrimitiveIntList;
+import com.linkedin.avro.fastserde.Utils;
+import com.linkedin.avroutil1.compatibility.PrimitiveArrayDecoder;
+import java.io.IOException;
 import org.apache.avro.Schema;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
 
 
 public class PrimitiveIntArrayList extends PrimitiveArrayList<Integer, PrimitiveIntList, int[]> implements PrimitiveIntList {
@@ -16,6 +21,80 @@ public class PrimitiveIntArrayList extends PrimitiveArrayList<Integer, Primitive
     super();
   }
 
+  /**
+   * Instantiate (or re-use) and populate a {@link PrimitiveIntList} from a {@link Decoder}. Array blocks are decoded
+   * straight into the primitive array, which is resized at most once per block, rather than element by element
+   * through {@link #addPrimitive(int)}. Decoders implementing {@link PrimitiveArrayDecoder} decode each block in one call.
+   *
+   * @param old old list to reuse
+   * @param in {@link Decoder} to read new list from
+   * @return a {@link PrimitiveIntList} with data, possibly the old argument reused
+   * @throws IOException on io errors
+   */
+  public static Object readPrimitiveIntArray(Object old, Decoder in) throws IOException {
+    long chunkLen = in.readArrayStart();
+    if (old instanceof PrimitiveIntList && !(old instanceof PrimitiveIntArrayList)) {
+      // some other implementation to reuse, only its public API can be used
+      PrimitiveIntList array = (PrimitiveIntList) old;
+      array.clear();
+      for (; chunkLen > 0; chunkLen = in.arrayNext()) {
+        for (int counter = 0; counter < chunkLen; counter++) {
+          array.addPrimitive(in.readInt());
+        }
+      }
+      return array;
+    }
+
+    PrimitiveIntArrayList array;
+    if (old instanceof PrimitiveIntArrayList) {
+      array = (PrimitiveIntArrayList) old;
+      array.clear();
+    } else {
+      array = new PrimitiveIntArrayList((int) chunkLen);
+    }
+    PrimitiveArrayDecoder bulkDecoder = in instanceof PrimitiveArrayDecoder ? (PrimitiveArrayDecoder) in : null;
+    for (; chunkLen > 0; chunkLen = in.arrayNext()) {
+      int index = array.appendSlots((int) chunkLen);
+      int[] elements = array.elementsArray;
+      if (bulkDecoder != null) {
+        bulkDecoder.readInts(elements, index, (int) chunkLen);
+      } else {
+        for (int end = index + (int) chunkLen; index < end; index++) {
+          elements[index] = in.readInt();
+        }
+      }
+    }
+    return array;
+  }
+
+  /**
+   * Writes the items of a int array, after {@link Encoder#setItemCount(long)}, without boxing them. The elements of a
+   * {@link PrimitiveIntArrayList} are read straight from its primitive array, and {@link Encoder#startItem()} is
+   * only called when the encoder needs it, see {@link Utils#isPlainBinaryEncoder(Encoder)}.
+   *
+   * @param list list to write the elements of
+   * @param out {@link Encoder} to write the list to
+   * @throws IOException on io errors
+   */
+  public static void writePrimitiveIntArray(PrimitiveIntList list, Encoder out) throws IOException {
+    int size = list.size();
+    if (!Utils.isPlainBinaryEncoder(out)) {
+      for (int i = 0; i < size; i++) {
+        out.startItem();
+        out.writeInt(list.getPrimitive(i));
+      }
+    } else if (list instanceof PrimitiveIntArrayList) {
+      int[] elements = ((PrimitiveIntArrayList) list).elementsArray;
+      for (int i = 0; i < size; i++) {
+        out.writeInt(elements[i]);
+      }
+    } else {
+      for (int i = 0; i < size; i++) {
+        out.writeInt(list.getPrimitive(i));
+      }
+    }
+  }
+
   @Override
   public Integer get(int index) {
     return getPrimitive(index);
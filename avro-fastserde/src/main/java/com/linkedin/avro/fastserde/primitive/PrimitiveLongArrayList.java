@@ -2,7 +2,12 @@ package com.linkedin.avro.fastserde.primitive;
 
 import com.linkedin.avro.api.PrimitiveBooleanList;
 import com.linkedin.avro.api.PrimitiveLongList;
+import com.linkedin.avro.fastserde.Utils;
+import com.linkedin.avroutil1.compatibility.PrimitiveArrayDecoder;
+import java.io.IOException;
 import org.apache.avro.Schema;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
 
 
 public class PrimitiveLongArrayList extends PrimitiveArrayList<Long, PrimitiveLongList, long[]> implements PrimitiveLongList {
@@ -16,6 +21,80 @@ public class PrimitiveLongArrayList extends PrimitiveArrayList<Long, PrimitiveLo
     super();
   }
 
+  /**
+   * Instantiate (or re-use) and populate a {@link PrimitiveLongList} from a {@link Decoder}. Array blocks are decoded
+   * straight into the primitive array, which is resized at most once per block, rather than element by element
+   * through {@link #addPrimitive(long)}. Decoders implementing {@link PrimitiveArrayDecoder} decode each block in one call.
+   *
+   * @param old old list to reuse
+   * @param in {@link Decoder} to read new list from
+   * @return a {@link PrimitiveLongList} with data, possibly the old argument reused
+   * @throws IOException on io errors
+   */
+  public static Object readPrimitiveLongArray(Object old, Decoder in) throws IOException {
+    long chunkLen = in.readArrayStart();
+    if (old instanceof PrimitiveLongList && !(old instanceof PrimitiveLongArrayList)) {
+      // some other implementation to reuse, only its public API can be used
+      PrimitiveLongList array = (PrimitiveLongList) old;
+      array.clear();
+      for (; chunkLen > 0; chunkLen = in.arrayNext()) {
+        for (int counter = 0; counter < chunkLen; counter++) {
+          array.addPrimitive(in.readLong());
+        }
+      }
+      return array;
+    }
+
+    PrimitiveLongArrayList array;
+    if (old instanceof PrimitiveLongArrayList) {
+      array = (PrimitiveLongArrayList) old;
+      array.clear();
+    } else {
+      array = new PrimitiveLongArrayList((int) chunkLen);
+    }
+    PrimitiveArrayDecoder bulkDecoder = in instanceof PrimitiveArrayDecoder ? (PrimitiveArrayDecoder) in : null;
+    for (; chunkLen > 0; chunkLen = in.arrayNext()) {
+      int index = array.appendSlots((int) chunkLen);
+      long[] elements = array.elementsArray;
+      if (bulkDecoder != null) {
+        bulkDecoder.readLongs(elements, index, (int) chunkLen);
+      } else {
+        for (int end = index + (int) chunkLen; index < end; index++) {
+          elements[index] = in.readLong();
+        }
+      }
+    }
+    return array;
+  }
+
+  /**
+   * Writes the items of a long array, after {@link Encoder#setItemCount(long)}, without boxing them. The elements of a
+   * {@link PrimitiveLongArrayList} are read straight from its primitive array, and {@link Encoder#startItem()} is
+   * only called when the encoder needs it, see {@link Utils#isPlainBinaryEncoder(Encoder)}.
+   *
+   * @param list list to write the elements of
+   * @param out {@link Encoder} to write the list to
+   * @throws IOException on io errors
+   */
+  public static void writePrimitiveLongArray(PrimitiveLongList list, Encoder out) throws IOException {
+    int size = list.size();
+    if (!Utils.isPlainBinaryEncoder(out)) {
+      for (int i = 0; i < size; i++) {
+        out.startItem();
+        out.writeLong(list.getPrimitive(i));
+      }
+    } else if (list instanceof PrimitiveLongArrayList) {
+      long[] elements = ((PrimitiveLongArrayList) list).elementsArray;
+      for (int i = 0; i < size; i++) {
+        out.writeLong(elements[i]);
+      }
+    } else {
+      for (int i = 0; i < size; i++) {
+        out.writeLong(list.getPrimitive(i));
+      }
+    }
+  }
+
   @Override
   public Long get(int index) {
     return getPrimitive(index);
@@ -0,0 +1,241 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.generated.avro.TestEnum;
+import com.linkedin.avro.fastserde.generated.avro.TestRecord;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.DatumWriter;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static com.linkedin.avro.fastserde.FastSerdeTestsSupport.*;
+
+
+public class ByteBufferSegmentEncoderTest {
+
+  private FastSerdeCache cache;
+  private Schema recordSchema;
+
+  @BeforeClass(groups = {"serializationTest"})
+  public void prepare() {
+    cache = new FastSerdeCache(Runnable::run);
+    recordSchema = createRecord(
+        createPrimitiveFieldSchema("id", Schema.Type.INT),
+        createPrimitiveFieldSchema("timestamp", Schema.Type.LONG),
+        createPrimitiveFieldSchema("score", Schema.Type.DOUBLE),
+        createPrimitiveFieldSchema("ratio", Schema.Type.FLOAT),
+        createPrimitiveFieldSchema("flag", Schema.Type.BOOLEAN),
+        createPrimitiveFieldSchema("name", Schema.Type.STRING),
+        createPrimitiveUnionFieldSchema("comment", Schema.Type.STRING),
+        createPrimitiveFieldSchema("payload", Schema.Type.BYTES),
+        createArrayFieldSchema("values", Schema.create(Schema.Type.LONG)),
+        createMapFieldSchema("attributes", Schema.create(Schema.Type.STRING)),
+        createField("hash", createFixedSchema("Hash", 16)));
+    // built synchronously by the executor of the cache
+    cache.getFastGenericSerializer(recordSchema);
+  }
+
+  private GenericRecord newRecord(ByteBuffer payload) {
+    GenericData.Record record = new GenericData.Record(recordSchema);
+    record.put("id", -42);
+    record.put("timestamp", Long.MAX_VALUE);
+    record.put("score", 3.14);
+    record.put("ratio", 0.5f);
+    record.put("flag", true);
+    record.put("name", "a name longer than the smallest segments of the tests");
+    record.put("comment", null);
+    record.put("payload", payload);
+    record.put("values", Arrays.asList(0L, -1L, Long.MIN_VALUE, 1L << 40));
+    Map<String, String> attributes = new HashMap<>();
+    attributes.put("key", "value");
+    record.put("attributes", attributes);
+    byte[] hash = new byte[16];
+    Arrays.fill(hash, (byte) 7);
+    record.put("hash", new GenericData.Fixed(recordSchema.getField("hash").schema(), hash));
+    return record;
+  }
+
+  private static ByteBuffer newPayload(int size, boolean direct) {
+    ByteBuffer payload = direct ? ByteBuffer.allocateDirect(size) : ByteBuffer.allocate(size);
+    for (int i = 0; i < size; i++) {
+      payload.put((byte) i);
+    }
+    payload.flip();
+    return payload;
+  }
+
+  private static <T> byte[] encode(DatumWriter<T> writer, T datum) throws IOException {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    BinaryEncoder encoder = AvroCompatibilityHelper.newBinaryEncoder(os, true, null);
+    writer.write(datum, encoder);
+    encoder.flush();
+    return os.toByteArray();
+  }
+
+  private static byte[] concat(ByteBuffer[] segments) {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    for (ByteBuffer segment : segments) {
+      while (segment.hasRemaining()) {
+        os.write(segment.get());
+      }
+    }
+    return os.toByteArray();
+  }
+
+  @DataProvider(name = "directSegments")
+  public Object[][] directSegments() {
+    return new Object[][]{{true}, {false}};
+  }
+
+  @Test(groups = {"serializationTest"}, dataProvider = "directSegments")
+  public void shouldEncodeGenericRecordsLikeBinaryEncoder(boolean direct) throws Exception {
+    // given
+    FastGenericDatumWriter<GenericRecord> writer = new FastGenericDatumWriter<>(recordSchema, cache);
+    GenericRecord record = newRecord(newPayload(100, direct));
+    ByteBufferSegmentPool pool = new ByteBufferSegmentPool(32, direct, 64);
+    ByteBufferSegmentEncoder encoder = new ByteBufferSegmentEncoder(pool);
+
+    // when
+    writer.write(record, encoder);
+
+    // then
+    Assert.assertTrue(writer.isFastSerializerUsed());
+    byte[] expected = encode(writer, record);
+    ByteBuffer[] segments = encoder.getSegments();
+    Assert.assertTrue(segments.length > 1);
+    Assert.assertEquals(encoder.size(), expected.length);
+    Assert.assertEquals(concat(segments), expected);
+    // the views are new for each call
+    Assert.assertEquals(concat(encoder.getSegments()), expected);
+    Assert.assertEquals(((ByteBuffer) record.get("payload")).remaining(), 100);
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldEncodeSpecificRecordsLikeBinaryEncoder() throws Exception {
+    // given
+    FastSpecificDatumWriter<TestRecord> writer = new FastSpecificDatumWriter<>(TestRecord.SCHEMA$, cache);
+    TestRecord record = FastSpecificDeserializerGeneratorTest.emptyTestRecord();
+    setField(record, "testEnum", TestEnum.A);
+    ByteBufferSegmentEncoder encoder = new ByteBufferSegmentEncoder(new ByteBufferSegmentPool(64, true, 64));
+
+    // when
+    writer.write(record, encoder);
+
+    // then
+    Assert.assertEquals(concat(encoder.getSegments()), encode(writer, record));
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldReferenceLargeByteBuffersInsteadOfCopyingThem() throws Exception {
+    // given
+    FastGenericDatumWriter<GenericRecord> writer = new FastGenericDatumWriter<>(recordSchema, cache);
+    ByteBuffer payload = newPayload(1000, true);
+    GenericRecord record = newRecord(payload);
+    ByteBufferSegmentPool pool = new ByteBufferSegmentPool(64, false, 64);
+    ByteBufferSegmentEncoder encoder = new ByteBufferSegmentEncoder(pool, 512);
+
+    // when
+    writer.write(record, encoder);
+
+    // then
+    Assert.assertEquals(concat(encoder.getSegments()), encode(writer, record));
+    ByteBuffer[] segments = encoder.getSegments();
+    ByteBuffer[] referenced = Arrays.stream(segments).filter(ByteBuffer::isDirect).toArray(ByteBuffer[]::new);
+    Assert.assertEquals(referenced.length, 1);
+    Assert.assertEquals(referenced[0].remaining(), 1000);
+    // the segment shares the memory of the payload
+    payload.put(0, (byte) 99);
+    Assert.assertEquals(referenced[0].get(referenced[0].position()), 99);
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldRecycleSegmentsOnRelease() throws Exception {
+    // given
+    FastGenericDatumWriter<GenericRecord> writer = new FastGenericDatumWriter<>(recordSchema, cache);
+    GenericRecord record = newRecord(newPayload(100, false));
+    ByteBufferSegmentPool pool = new ByteBufferSegmentPool(32, true, 64);
+    ByteBufferSegmentEncoder encoder = new ByteBufferSegmentEncoder(pool);
+    writer.write(record, encoder);
+    int segmentCount = encoder.getSegments().length;
+
+    // when
+    encoder.release();
+
+    // then
+    Assert.assertEquals(encoder.size(), 0);
+    Assert.assertEquals(encoder.getSegments().length, 0);
+    Assert.assertTrue(pool.getPooledSegmentCount() >= segmentCount);
+    int pooledSegmentCount = pool.getPooledSegmentCount();
+    writer.write(record, encoder);
+    Assert.assertEquals(pool.getPooledSegmentCount(), pooledSegmentCount - segmentCount);
+    Assert.assertEquals(concat(encoder.getSegments()), encode(writer, record));
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldGatherWriteSegmentsToChannels() throws Exception {
+    // given
+    FastGenericDatumWriter<GenericRecord> writer = new FastGenericDatumWriter<>(recordSchema, cache);
+    GenericRecord record = newRecord(newPayload(5000, true));
+    ByteBufferSegmentEncoder encoder =
+        new ByteBufferSegmentEncoder(new ByteBufferSegmentPool(256, true, 64), 1024);
+    File file = File.createTempFile("segments", ".avro");
+    file.deleteOnExit();
+
+    // when
+    for (int i = 0; i < 3; i++) {
+      writer.write(record, encoder);
+    }
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE)) {
+      ByteBuffer[] segments = encoder.getSegments();
+      long remaining = encoder.size();
+      while (remaining > 0) {
+        remaining -= channel.write(segments);
+      }
+    }
+    encoder.release();
+
+    // then
+    byte[] expected = encode(writer, record);
+    byte[] written = Files.readAllBytes(file.toPath());
+    Assert.assertEquals(written.length, expected.length * 3);
+    for (int i = 0; i < 3; i++) {
+      Assert.assertEquals(Arrays.copyOfRange(written, i * expected.length, (i + 1) * expected.length), expected);
+    }
+  }
+
+  @Test(groups = {"serializationTest"}, dataProvider = "directSegments")
+  public void shouldCopySegmentsToStreams(boolean direct) throws Exception {
+    // given
+    FastGenericDatumWriter<GenericRecord> writer = new FastGenericDatumWriter<>(recordSchema, cache);
+    GenericRecord record = newRecord(newPayload(100, direct));
+    ByteBufferSegmentPool pool = new ByteBufferSegmentPool(32, direct, 64);
+    ByteBufferSegmentEncoder encoder = new ByteBufferSegmentEncoder(pool, 64);
+    writer.write(record, encoder);
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+    // when
+    encoder.writeTo(os);
+    encoder.init(os);
+
+    // then
+    byte[] expected = encode(writer, record);
+    Assert.assertEquals(os.toByteArray(), concat(new ByteBuffer[]{ByteBuffer.wrap(expected), ByteBuffer.wrap(expected)}));
+    // released by init
+    Assert.assertEquals(encoder.size(), 0);
+  }
+}
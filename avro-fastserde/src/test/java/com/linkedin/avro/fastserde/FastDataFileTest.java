@@ -0,0 +1,264 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.Deflater;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.file.CodecFactory;
+import org.apache.avro.file.DataFileReader;
+import org.apache.avro.file.DataFileWriter;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+import static com.linkedin.avro.fastserde.FastSerdeTestsSupport.*;
+
+
+public class FastDataFileTest {
+
+  private Schema recordSchema;
+  private List<GenericRecord> records;
+
+  @BeforeClass
+  public void prepare() {
+    recordSchema = createRecord(
+        createPrimitiveFieldSchema("id", Schema.Type.INT),
+        createPrimitiveFieldSchema("name", Schema.Type.STRING),
+        createArrayFieldSchema("values", Schema.create(Schema.Type.LONG)));
+    records = new ArrayList<>();
+    for (int i = 0; i < 5000; i++) {
+      GenericData.Record record = new GenericData.Record(recordSchema);
+      record.put("id", i);
+      record.put("name", "record " + i);
+      List<Long> values = new ArrayList<>();
+      for (long j = 0; j < i % 10; j++) {
+        values.add(i * j);
+      }
+      record.put("values", values);
+      records.add(record);
+    }
+  }
+
+  @DataProvider(name = "codecs")
+  public Object[][] codecs() {
+    return new Object[][]{{"null"}, {"deflate"}};
+  }
+
+  @Test(groups = {"serializationTest"}, dataProvider = "codecs")
+  public void shouldWriteFilesReadableByAvro(String codec) throws Exception {
+    // given
+    File file = File.createTempFile("fast-data-file", ".avro");
+    file.deleteOnExit();
+
+    // when
+    try (FastDataFileWriter<GenericRecord> writer =
+        new FastDataFileWriter<GenericRecord>(new FastGenericDatumWriter<>(recordSchema)).setCodec(codec)
+            .setSyncInterval(1000)
+            .setMeta("key", "value")
+            .create(recordSchema, file)) {
+      for (GenericRecord record : records) {
+        writer.append(record);
+      }
+    }
+
+    // then
+    List<GenericRecord> readRecords = new ArrayList<>();
+    try (DataFileReader<GenericRecord> reader =
+        new DataFileReader<>(file, new GenericDatumReader<GenericRecord>(recordSchema))) {
+      Assert.assertEquals(new String(reader.getMeta("key"), "UTF-8"), "value");
+      for (GenericRecord record : reader) {
+        readRecords.add(record);
+      }
+    }
+    Assert.assertEquals(readRecords, records);
+  }
+
+  @Test(groups = {"deserializationTest"}, dataProvider = "codecs")
+  public void shouldReadBlocksInParallelInOrder(String codec) throws Exception {
+    // given
+    File file = File.createTempFile("fast-data-file", ".avro");
+    file.deleteOnExit();
+    try (DataFileWriter<GenericRecord> writer = new DataFileWriter<>(new GenericDatumWriter<GenericRecord>(recordSchema))) {
+      writer.setCodec(CodecFactory.fromString(codec)).setSyncInterval(1000).setMeta("key", "value");
+      writer.create(recordSchema, file);
+      for (GenericRecord record : records) {
+        writer.append(record);
+      }
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    try {
+      // when
+      List<GenericRecord> readRecords = new ArrayList<>();
+      try (FastDataFileReader<GenericRecord> reader = new FastDataFileReader<>(file,
+          new FastGenericDatumReader<>(null, recordSchema), executor, 4)) {
+        Assert.assertEquals(reader.getSchema(), recordSchema);
+        Assert.assertEquals(reader.getMetaString("key"), "value");
+        for (GenericRecord record : reader) {
+          readRecords.add(record);
+        }
+      }
+
+      // then
+      Assert.assertEquals(readRecords, records);
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldFailOnInvalidSync() throws Exception {
+    // given
+    File file = File.createTempFile("fast-data-file", ".avro");
+    file.deleteOnExit();
+    try (FastDataFileWriter<GenericRecord> writer =
+        new FastDataFileWriter<GenericRecord>(new FastGenericDatumWriter<>(recordSchema)).create(recordSchema, file)) {
+      for (GenericRecord record : records.subList(0, 10)) {
+        writer.append(record);
+      }
+    }
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "rw")) {
+      // the last byte of the sync marker ending the only block
+      long position = randomAccessFile.length() - 1;
+      randomAccessFile.seek(position);
+      int lastByte = randomAccessFile.read();
+      randomAccessFile.seek(position);
+      randomAccessFile.write(lastByte + 1);
+    }
+
+    // when
+    try (FastDataFileReader<GenericRecord> reader =
+        new FastDataFileReader<>(file, new FastGenericDatumReader<>(null, recordSchema))) {
+      // then
+      Assert.assertThrows(AvroRuntimeException.class, reader::hasNext);
+    }
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldFailOnBlockOfTooManyRecords() throws Exception {
+    // given
+    File file = File.createTempFile("fast-data-file", ".avro");
+    file.deleteOnExit();
+    try (FastDataFileWriter<GenericRecord> writer =
+        new FastDataFileWriter<GenericRecord>(new FastGenericDatumWriter<>(recordSchema)).create(recordSchema, file)) {
+      writer.append(records.get(0));
+    }
+    byte[] sync = new byte[16];
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+      randomAccessFile.seek(randomAccessFile.length() - sync.length);
+      randomAccessFile.readFully(sync);
+    }
+    // an empty block whose record count doesn't fit an int, read as 0 records if cast to an int
+    try (FileOutputStream out = new FileOutputStream(file, true)) {
+      BinaryEncoder encoder = AvroCompatibilityHelper.newBinaryEncoder(out, false, null);
+      encoder.writeLong(1L << 32);
+      encoder.writeLong(0);
+      encoder.writeFixed(sync);
+      encoder.flush();
+    }
+
+    // when
+    try (FastDataFileReader<GenericRecord> reader =
+        new FastDataFileReader<>(file, new FastGenericDatumReader<>(null, recordSchema))) {
+      // then
+      Assert.assertThrows(AvroRuntimeException.class, reader::hasNext);
+    }
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldFailOnBlockCountingMoreRecordsThanItHolds() throws Exception {
+    // given
+    File file = File.createTempFile("fast-data-file", ".avro");
+    file.deleteOnExit();
+    try (FastDataFileWriter<GenericRecord> writer =
+        new FastDataFileWriter<GenericRecord>(new FastGenericDatumWriter<>(recordSchema)).create(recordSchema, file)) {
+      writer.append(records.get(0));
+    }
+    byte[] sync = new byte[16];
+    try (RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r")) {
+      randomAccessFile.seek(randomAccessFile.length() - sync.length);
+      randomAccessFile.readFully(sync);
+    }
+    // an empty block claiming the largest count, which must not be allocated upfront
+    try (FileOutputStream out = new FileOutputStream(file, true)) {
+      BinaryEncoder encoder = AvroCompatibilityHelper.newBinaryEncoder(out, false, null);
+      encoder.writeLong(Integer.MAX_VALUE);
+      encoder.writeLong(0);
+      encoder.writeFixed(sync);
+      encoder.flush();
+    }
+
+    // when
+    try (FastDataFileReader<GenericRecord> reader =
+        new FastDataFileReader<>(file, new FastGenericDatumReader<>(null, recordSchema))) {
+      // then
+      AvroRuntimeException e = Assert.expectThrows(AvroRuntimeException.class, () -> {
+        while (reader.hasNext()) {
+          reader.next();
+        }
+      });
+      Assert.assertFalse(e.getCause() instanceof OutOfMemoryError, String.valueOf(e.getCause()));
+    }
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldFailOnTruncatedDeflateBlock() throws Exception {
+    // given
+    byte[] data = "a deflate block, truncated before its end".getBytes(StandardCharsets.UTF_8);
+    Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    deflater.setInput(data);
+    deflater.finish();
+    byte[] deflated = new byte[data.length + 64];
+    int size = deflater.deflate(deflated);
+    deflater.end();
+
+    // when
+    Assert.assertEquals(Arrays.copyOf(FastDataFileFormat.inflate(deflated, size), data.length), data);
+    Assert.assertThrows(IOException.class, () -> FastDataFileFormat.inflate(deflated, size / 2));
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldDropRecordsWhichCannotBeWritten() throws Exception {
+    // given
+    File file = File.createTempFile("fast-data-file", ".avro");
+    file.deleteOnExit();
+    GenericData.Record invalidRecord = new GenericData.Record(recordSchema);
+    invalidRecord.put("id", 42);
+    invalidRecord.put("name", "invalid record");
+    // no values
+
+    // when
+    try (FastDataFileWriter<GenericRecord> writer =
+        new FastDataFileWriter<GenericRecord>(new FastGenericDatumWriter<>(recordSchema)).create(recordSchema, file)) {
+      writer.append(records.get(0));
+      Assert.assertThrows(() -> writer.append(invalidRecord));
+      writer.append(records.get(1));
+    }
+
+    // then
+    List<GenericRecord> readRecords = new ArrayList<>();
+    try (DataFileReader<GenericRecord> reader =
+        new DataFileReader<>(file, new GenericDatumReader<GenericRecord>(recordSchema))) {
+      for (GenericRecord record : reader) {
+        readRecords.add(record);
+      }
+    }
+    Assert.assertEquals(readRecords, records.subList(0, 2));
+  }
+}
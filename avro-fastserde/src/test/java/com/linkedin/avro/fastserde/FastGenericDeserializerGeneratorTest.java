@@ -7,6 +7,7 @@ import com.linkedin.avro.api.PrimitiveIntList;
 import com.linkedin.avro.api.PrimitiveLongList;
 import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
 import com.linkedin.avroutil1.compatibility.AvroVersion;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.Method;
@@ -17,6 +18,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Supplier;
@@ -25,8 +27,10 @@ import org.apache.avro.AvroTypeException;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
 import org.apache.avro.util.Utf8;
 import org.testng.Assert;
 import org.testng.SkipException;
@@ -46,7 +50,9 @@ public class FastGenericDeserializerGeneratorTest {
   enum Implementation {
     VANILLA_AVRO(false, FastGenericDeserializerGeneratorTest::decodeRecordSlow),
     COLD_FAST_AVRO(true, FastGenericDeserializerGeneratorTest::decodeRecordColdFast),
-    WARM_FAST_AVRO(true, FastGenericDeserializerGeneratorTest::decodeRecordWarmFast);
+    WARM_FAST_AVRO(true, FastGenericDeserializerGeneratorTest::decodeRecordWarmFast),
+    PLAN_FAST_AVRO(true, FastGenericDeserializerGeneratorTest::decodeRecordPlanFast),
+    DEEP_REUSE_FAST_AVRO(true, FastGenericDeserializerGeneratorTest::decodeRecordDeepReuseFast);
 
     boolean isFast;
     DecodeFunction decodeFunction;
@@ -70,7 +76,9 @@ public class FastGenericDeserializerGeneratorTest {
     return new Object[][]{
         {Implementation.VANILLA_AVRO},
         {Implementation.COLD_FAST_AVRO},
-        {Implementation.WARM_FAST_AVRO}
+        {Implementation.WARM_FAST_AVRO},
+        {Implementation.PLAN_FAST_AVRO},
+        {Implementation.DEEP_REUSE_FAST_AVRO}
     };
   }
 
@@ -946,6 +954,256 @@ public class FastGenericDeserializerGeneratorTest {
     Assert.assertEquals(new Utf8("def"), ((GenericRecord) record.get("subRecord")).get("test4"));
   }
 
+  @Test(groups = {"deserializationTest"}, dataProvider = "Implementation")
+  public void shouldSkipRemovedArraysAndMapsInBulk(Implementation implementation) {
+    // given
+    Schema pointSchema = createRecord("point", createPrimitiveFieldSchema("x", Schema.Type.FLOAT),
+        createPrimitiveFieldSchema("y", Schema.Type.DOUBLE));
+    Schema record1Schema = createRecord(
+        createPrimitiveFieldSchema("kept1", Schema.Type.INT),
+        createArrayFieldSchema("doubles", Schema.create(Schema.Type.DOUBLE)),
+        createArrayFieldSchema("points", pointSchema),
+        createMapFieldSchema("pointMap", pointSchema),
+        createField("point", pointSchema),
+        createArrayFieldSchema("strings", Schema.create(Schema.Type.STRING)),
+        createPrimitiveFieldSchema("kept2", Schema.Type.STRING));
+    Schema record2Schema = createRecord(
+        createPrimitiveFieldSchema("kept1", Schema.Type.INT),
+        createPrimitiveFieldSchema("kept2", Schema.Type.STRING));
+
+    GenericData.Record point = new GenericData.Record(pointSchema);
+    point.put("x", 1.0f);
+    point.put("y", 2.0);
+    Map<String, GenericRecord> pointMap = new HashMap<>();
+    pointMap.put("a", point);
+    pointMap.put("b", point);
+
+    GenericData.Record builder = new GenericData.Record(record1Schema);
+    builder.put("kept1", 42);
+    builder.put("doubles", Arrays.asList(1.0, 2.0, 3.0));
+    builder.put("points", Arrays.asList(point, point));
+    builder.put("pointMap", pointMap);
+    builder.put("point", point);
+    builder.put("strings", Arrays.asList("abc", "def"));
+    builder.put("kept2", "ghi");
+
+    // when
+    GenericRecord record = implementation.decode(record1Schema, record2Schema, genericDataAsDecoder(builder));
+
+    // then
+    Assert.assertEquals(record.get("kept1"), 42);
+    Assert.assertEquals(record.get("kept2"), new Utf8("ghi"));
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldRecycleReleasedRecordsInDeepReuseMode() throws IOException {
+    // given
+    Schema pointSchema = createRecord("point", createPrimitiveFieldSchema("x", Schema.Type.FLOAT),
+        createPrimitiveFieldSchema("y", Schema.Type.DOUBLE));
+    Schema enumSchema = createEnumSchema("testEnum", new String[]{"A", "B"});
+    Schema recordSchema = createRecord(
+        createMapFieldSchema("pointMap", pointSchema),
+        createMapFieldSchema("stringMap", Schema.create(Schema.Type.STRING)),
+        createArrayFieldSchema("points", pointSchema),
+        createField("testEnum", enumSchema),
+        createPrimitiveFieldSchema("testString", Schema.Type.STRING));
+
+    FastDeserializer<GenericRecord> deserializer =
+        new FastGenericDeserializerGenerator<GenericRecord>(recordSchema, recordSchema, tempDir, classLoader,
+            null, true).generateDeserializer();
+
+    GenericRecord first = deserializer.deserialize(genericDataAsDecoder(
+        newDeepReuseRecord(recordSchema, pointSchema, enumSchema, Arrays.asList("a", "b"), "abc")));
+    GenericRecord firstPointA = (GenericRecord) ((Map<?, ?>) first.get("pointMap")).get(new Utf8("a"));
+    Object firstMap = first.get("pointMap");
+    Object firstEnum = first.get("testEnum");
+
+    // when
+    deserializer.release(first);
+    GenericRecord second = deserializer.deserialize(genericDataAsDecoder(
+        newDeepReuseRecord(recordSchema, pointSchema, enumSchema, Arrays.asList("a", "c"), "def")));
+
+    // then
+    Assert.assertSame(second, first);
+    Map<?, ?> pointMap = (Map<?, ?>) second.get("pointMap");
+    Assert.assertSame(pointMap, firstMap);
+    Assert.assertEquals(pointMap.keySet(), new HashSet<>(Arrays.asList(new Utf8("a"), new Utf8("c"))));
+    Assert.assertSame(pointMap.get(new Utf8("a")), firstPointA);
+    Assert.assertEquals(((GenericRecord) pointMap.get(new Utf8("c"))).get("y"), 2.0);
+    Map<?, ?> stringMap = (Map<?, ?>) second.get("stringMap");
+    Assert.assertEquals(stringMap.keySet(), new HashSet<>(Arrays.asList(new Utf8("a"), new Utf8("c"))));
+    Assert.assertEquals(stringMap.get(new Utf8("c")), new Utf8("def"));
+    Assert.assertEquals(((List<?>) second.get("points")).size(), 2);
+    Assert.assertSame(second.get("testEnum"), firstEnum);
+    Assert.assertEquals(second.get("testString"), new Utf8("def"));
+
+    // a record which wasn't released isn't read into again
+    Assert.assertNotSame(deserializer.deserialize(genericDataAsDecoder(
+        newDeepReuseRecord(recordSchema, pointSchema, enumSchema, Arrays.asList("a"), "ghi"))), second);
+  }
+
+  private static GenericRecord newDeepReuseRecord(Schema recordSchema, Schema pointSchema, Schema enumSchema,
+      List<String> keys, String value) {
+    GenericData.Record point = new GenericData.Record(pointSchema);
+    point.put("x", 1.0f);
+    point.put("y", 2.0);
+    Map<String, GenericRecord> pointMap = new HashMap<>();
+    Map<String, String> stringMap = new HashMap<>();
+    for (String key : keys) {
+      pointMap.put(key, point);
+      stringMap.put(key, value);
+    }
+
+    GenericData.Record record = new GenericData.Record(recordSchema);
+    record.put("pointMap", pointMap);
+    record.put("stringMap", stringMap);
+    record.put("points", Arrays.asList(point, point));
+    record.put("testEnum", AvroCompatibilityHelper.newEnumSymbol(enumSchema, "B"));
+    record.put("testString", value);
+    return record;
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldReadStringsAndBytesInPlaceInZeroCopyMode() throws IOException {
+    // given
+    Schema subRecordSchema = createRecord("subRecord", createPrimitiveFieldSchema("subString", Schema.Type.STRING));
+    Schema writerSchema = createRecord(
+        createPrimitiveFieldSchema("testString", Schema.Type.STRING),
+        createPrimitiveFieldSchema("testBytes", Schema.Type.BYTES),
+        createPrimitiveUnionFieldSchema("unionString", Schema.Type.STRING),
+        createArrayFieldSchema("stringArray", Schema.create(Schema.Type.STRING)),
+        createMapFieldSchema("stringMap", Schema.create(Schema.Type.STRING)),
+        createField("subRecord", subRecordSchema));
+    Schema.Field defaultField = AvroCompatibilityHelper.createSchemaField("defaultString",
+        Schema.create(Schema.Type.STRING), "", "dflt");
+    List<Schema.Field> readerFields = new ArrayList<>();
+    for (Schema.Field field : writerSchema.getFields()) {
+      readerFields.add(AvroCompatibilityHelper.cloneSchemaField(field).build());
+    }
+    readerFields.add(defaultField);
+    Schema readerSchema = Schema.createRecord(writerSchema.getName(), null, writerSchema.getNamespace(), false);
+    readerSchema.setFields(readerFields);
+
+    GenericData.Record subRecord = new GenericData.Record(subRecordSchema);
+    subRecord.put("subString", "sub");
+    GenericData.Record builder = new GenericData.Record(writerSchema);
+    builder.put("testString", "abc");
+    builder.put("testBytes", ByteBuffer.wrap(new byte[]{1, 2, 3}));
+    builder.put("unionString", "union");
+    builder.put("stringArray", Arrays.asList("a", "b"));
+    builder.put("stringMap", Collections.singletonMap("key", "value"));
+    builder.put("subRecord", subRecord);
+    byte[] data = genericDataAsBytes(builder);
+
+    FastDeserializer<GenericRecord> deserializer =
+        new FastGenericDeserializerGenerator<GenericRecord>(writerSchema, readerSchema, tempDir, classLoader,
+            null, false, true).generateDeserializer();
+
+    // when
+    GenericRecord record =
+        deserializer.deserialize(AvroCompatibilityHelper.newBoundedMemoryDecoder(data));
+
+    // then
+    Utf8View testString = (Utf8View) record.get("testString");
+    Assert.assertSame(testString.getArray(), data);
+    Assert.assertEquals(testString.toString(), "abc");
+    ByteBuffer testBytes = (ByteBuffer) record.get("testBytes");
+    Assert.assertSame(testBytes.array(), data);
+    Assert.assertEquals(testBytes, ByteBuffer.wrap(new byte[]{1, 2, 3}));
+    Assert.assertEquals(record.get("unionString").toString(), "union");
+    Assert.assertEquals(((List<?>) record.get("stringArray")).get(1).toString(), "b");
+    Assert.assertEquals(((Map<?, ?>) record.get("stringMap")).get(new Utf8("key")).toString(), "value");
+    Assert.assertSame(((Utf8View) ((GenericRecord) record.get("subRecord")).get("subString")).getArray(), data);
+    Assert.assertEquals(record.get("defaultString").toString(), "dflt");
+    // views print and hash as strings in GenericData
+    GenericRecord copiedRecord = new GenericDatumReader<GenericRecord>(writerSchema, readerSchema).read(null,
+        AvroCompatibilityHelper.newBinaryDecoder(data));
+    Assert.assertEquals(record.toString(), copiedRecord.toString());
+    Assert.assertEquals(GenericData.get().hashCode(record, readerSchema),
+        GenericData.get().hashCode(copiedRecord, readerSchema));
+
+    // when reusing the record, or reading from decoders without arrays
+    GenericRecord reusedRecord =
+        deserializer.deserialize(record, AvroCompatibilityHelper.newBoundedMemoryDecoder(data));
+    GenericRecord copiedByFallback = deserializer.deserialize(AvroCompatibilityHelper.newBinaryDecoder(data));
+
+    // then
+    Assert.assertSame(reusedRecord, record);
+    Assert.assertSame(reusedRecord.get("testString"), testString);
+    Assert.assertEquals(copiedByFallback, copiedRecord);
+    Assert.assertTrue(copiedByFallback.get("testString") instanceof Utf8);
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldDeserializeBatchFramedInOneArray() throws IOException {
+    // given
+    Schema recordSchema = createRecord(
+        createPrimitiveFieldSchema("testInt", Schema.Type.INT),
+        createPrimitiveFieldSchema("testString", Schema.Type.STRING));
+    List<GenericRecord> expectedRecords = new ArrayList<>();
+    ByteArrayOutputStream frames = new ByteArrayOutputStream();
+    // a header before the first record
+    frames.write(new byte[]{-1, -1, -1});
+    int[] offsets = new int[3];
+    int[] lengths = new int[3];
+    for (int i = 0; i < 3; i++) {
+      GenericData.Record record = new GenericData.Record(recordSchema);
+      record.put("testInt", i);
+      record.put("testString", "record " + i);
+      expectedRecords.add(record);
+      byte[] bytes = genericDataAsBytes(record);
+      offsets[i] = frames.size();
+      lengths[i] = bytes.length;
+      frames.write(bytes);
+    }
+    byte[] data = frames.toByteArray();
+
+    FastDeserializer<GenericRecord> generatedDeserializer =
+        new FastGenericDeserializerGenerator<GenericRecord>(recordSchema, recordSchema, tempDir, classLoader,
+            null).generateDeserializer();
+    FastDeserializer<GenericRecord> vanillaDeserializer =
+        new FastSerdeCache.FastDeserializerWithAvroGenericImpl<>(recordSchema, recordSchema);
+
+    for (FastDeserializer<GenericRecord> deserializer : Arrays.asList(generatedDeserializer, vanillaDeserializer)) {
+      // when
+      GenericRecord reusedRecord = new GenericData.Record(recordSchema);
+      List<GenericRecord> records = new ArrayList<>(Collections.singletonList(reusedRecord));
+      deserializer.deserializeBatch(data, offsets, lengths, 3, records);
+
+      // then
+      Assert.assertEquals(records, expectedRecords);
+      Assert.assertSame(records.get(0), reusedRecord);
+
+      // when decoding from a slice of an array, and from a direct buffer positioned past its header
+      ByteBuffer slice = ByteBuffer.wrap(data, 1, data.length - 1).slice();
+      int[] sliceOffsets = Arrays.stream(offsets).map(offset -> offset - 1).toArray();
+      List<GenericRecord> sliceRecords = new ArrayList<>();
+      deserializer.deserializeBatch(slice, sliceOffsets, lengths, 3, sliceRecords);
+      ByteBuffer direct = ByteBuffer.allocateDirect(data.length);
+      direct.put(data);
+      direct.flip();
+      direct.position(offsets[0]);
+      List<GenericRecord> directRecords = new ArrayList<>();
+      deserializer.deserializeBatch(direct, offsets, lengths, 2, directRecords);
+      List<GenericRecord> readOnlyRecords = new ArrayList<>();
+      deserializer.deserializeBatch(ByteBuffer.wrap(data).asReadOnlyBuffer(), offsets, lengths, 3, readOnlyRecords);
+
+      // then
+      Assert.assertEquals(sliceRecords, expectedRecords);
+      Assert.assertEquals(directRecords, expectedRecords.subList(0, 2));
+      Assert.assertEquals(direct.position(), offsets[0]);
+      Assert.assertEquals(readOnlyRecords, expectedRecords);
+    }
+  }
+
+  private static byte[] genericDataAsBytes(GenericRecord record) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, false, null);
+    new GenericDatumWriter<GenericRecord>(record.getSchema()).write(record, encoder);
+    encoder.flush();
+    return baos.toByteArray();
+  }
+
   @Test(groups = {"deserializationTest"}, dataProvider = "Implementation")
   public void shouldReadMultipleChoiceUnion(Implementation implementation) {
     // given
@@ -1298,6 +1556,21 @@ public class FastGenericDeserializerGeneratorTest {
     return decodeRecordFast(deserializer, decoder);
   }
 
+  private static <T> T decodeRecordPlanFast(Schema writerSchema, Schema readerSchema, Decoder decoder) {
+    FastDeserializer<T> deserializer =
+        new FastGenericDeserializerPlanGenerator<T>(writerSchema, readerSchema).generateDeserializer();
+
+    return decodeRecordFast(deserializer, decoder);
+  }
+
+  private static <T> T decodeRecordDeepReuseFast(Schema writerSchema, Schema readerSchema, Decoder decoder) {
+    FastDeserializer<T> deserializer =
+        new FastGenericDeserializerGenerator<T>(writerSchema, readerSchema, tempDir, classLoader,
+            null, true).generateDeserializer();
+
+    return decodeRecordFast(deserializer, decoder);
+  }
+
   private static <T> T decodeRecordFast(FastDeserializer<T> deserializer, Decoder decoder) {
     try {
       return deserializer.deserialize(null, decoder);
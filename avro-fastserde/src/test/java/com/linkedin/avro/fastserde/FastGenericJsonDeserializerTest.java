@@ -0,0 +1,200 @@
+package com.linkedin.avro.fastserde;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import com.linkedin.avroutil1.compatibility.AvroVersion;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.avro.AvroTypeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.util.Utf8;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class FastGenericJsonDeserializerTest {
+
+  private static final String NAMESPACE = "com.linkedin.avro.fastserde.json";
+
+  private static final Schema SCHEMA = Schema.parse("{\"type\": \"record\", \"name\": \"JsonRecord\","
+      + " \"namespace\": \"" + NAMESPACE + "\", \"fields\": ["
+      + "{\"name\": \"intField\", \"type\": \"int\"},"
+      + "{\"name\": \"longField\", \"type\": \"long\"},"
+      + "{\"name\": \"floatField\", \"type\": \"float\"},"
+      + "{\"name\": \"doubleField\", \"type\": \"double\"},"
+      + "{\"name\": \"booleanField\", \"type\": \"boolean\"},"
+      + "{\"name\": \"stringField\", \"type\": \"string\", \"aliases\": [\"oldStringField\"]},"
+      + "{\"name\": \"bytesField\", \"type\": \"bytes\"},"
+      + "{\"name\": \"fixedField\", \"type\": {\"type\": \"fixed\", \"name\": \"JsonFixed\", \"size\": 3}},"
+      + "{\"name\": \"enumField\", \"type\": {\"type\": \"enum\", \"name\": \"JsonEnum\", \"symbols\": [\"A\", \"B\"]}},"
+      + "{\"name\": \"subRecords\", \"type\": {\"type\": \"array\", \"items\": {\"type\": \"record\", \"name\": \"JsonSubRecord\","
+      + " \"fields\": [{\"name\": \"name\", \"type\": \"string\"}]}}},"
+      + "{\"name\": \"intsByName\", \"type\": {\"type\": \"map\", \"values\": \"int\"}},"
+      + "{\"name\": \"union\", \"type\": [\"null\", \"JsonSubRecord\", \"string\"]}]}");
+
+  private static GenericRecord newRecord(Object union) {
+    Schema subRecordSchema = SCHEMA.getField("subRecords").schema().getElementType();
+    GenericData.Record subRecord = new GenericData.Record(subRecordSchema);
+    subRecord.put("name", new Utf8("sub"));
+    Map<Utf8, Integer> intsByName = new HashMap<>();
+    intsByName.put(new Utf8("one"), 1);
+    intsByName.put(new Utf8("two"), 2);
+
+    GenericData.Record record = new GenericData.Record(SCHEMA);
+    record.put("intField", 1);
+    record.put("longField", 2L);
+    record.put("floatField", 3.5f);
+    record.put("doubleField", 4.25d);
+    record.put("booleanField", true);
+    record.put("stringField", new Utf8("string"));
+    record.put("bytesField", ByteBuffer.wrap(new byte[]{0, 1, (byte) 0xff}));
+    record.put("fixedField", AvroCompatibilityHelper.newFixed(SCHEMA.getField("fixedField").schema(), new byte[]{1, 2, 3}));
+    record.put("enumField", AvroCompatibilityHelper.newEnumSymbol(SCHEMA.getField("enumField").schema(), "B"));
+    record.put("subRecords", new GenericData.Array<>(SCHEMA.getField("subRecords").schema(), Arrays.asList(subRecord)));
+    record.put("intsByName", intsByName);
+    record.put("union", union);
+    return record;
+  }
+
+  @DataProvider(name = "unionValues")
+  public static Object[][] unionValues() {
+    GenericData.Record subRecord = new GenericData.Record(SCHEMA.getField("subRecords").schema().getElementType());
+    subRecord.put("name", new Utf8("union"));
+    return new Object[][]{{null}, {subRecord}, {new Utf8("union")}};
+  }
+
+  private static String toJson(GenericRecord record, AvroVersion jsonFormat) throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newJsonEncoder(record.getSchema(), outputStream, false, jsonFormat);
+    new GenericDatumWriter<GenericRecord>(record.getSchema()).write(record, encoder);
+    encoder.flush();
+    return new String(outputStream.toByteArray(), "UTF-8");
+  }
+
+  private static GenericRecord readWithCompatibleJsonDecoder(String json) throws Exception {
+    return new GenericDatumReader<GenericRecord>(SCHEMA).read(null,
+        AvroCompatibilityHelper.newCompatibleJsonDecoder(SCHEMA, json));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static FastJsonDeserializer<GenericRecord> fastJsonDeserializer() {
+    return (FastJsonDeserializer<GenericRecord>) FastSerdeCache.getDefaultInstance().buildFastGenericJsonDeserializer(SCHEMA);
+  }
+
+  @Test(groups = "deserializationTest")
+  @SuppressWarnings("unchecked")
+  public void shouldReturnRegularDeserializerUntilFastOneIsBuilt() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache(Runnable::run);
+    GenericRecord first = newRecord(null);
+    GenericRecord second = newRecord(new Utf8("second"));
+    String json = toJson(first, AvroVersion.latest()) + "\n" + toJson(second, AvroVersion.latest());
+
+    FastJsonDeserializer<GenericRecord> deserializer =
+        (FastJsonDeserializer<GenericRecord>) cache.getFastGenericJsonDeserializer(SCHEMA);
+
+    Assert.assertTrue(deserializer instanceof FastSerdeCache.FastJsonDeserializerWithAvroGenericImpl);
+    try (JsonParser parser = FastGenericJsonDeserializerPlanGenerator.JSON_FACTORY.createParser(json)) {
+      Assert.assertEquals(deserializer.deserialize(null, parser), first);
+      Assert.assertEquals(deserializer.deserialize(null, parser), second);
+      Assert.assertNull(parser.currentToken());
+    }
+    // built by the executor of the cache, which runs in the calling thread
+    FastJsonDeserializer<?> fastDeserializer = cache.getFastGenericJsonDeserializer(SCHEMA);
+    Assert.assertFalse(fastDeserializer instanceof FastSerdeCache.FastJsonDeserializerWithAvroGenericImpl);
+    Assert.assertSame(cache.getFastGenericJsonDeserializer(SCHEMA), fastDeserializer);
+  }
+
+  @Test(groups = "deserializationTest", dataProvider = "unionValues")
+  public void shouldReadJsonLikeCompatibleJsonDecoder(Object union) throws Exception {
+    GenericRecord record = newRecord(union);
+    for (AvroVersion jsonFormat : new AvroVersion[]{AvroVersion.AVRO_1_4, AvroVersion.latest()}) {
+      String json = toJson(record, jsonFormat);
+
+      GenericRecord fastRecord = fastJsonDeserializer().deserialize(json);
+
+      Assert.assertEquals(fastRecord, readWithCompatibleJsonDecoder(json), json);
+      Assert.assertEquals(fastRecord, record, json);
+    }
+  }
+
+  @Test(groups = "deserializationTest")
+  public void shouldReadFieldsInAnyOrderAndByAlias() throws Exception {
+    String json = "{\"union\": {\"string\": \"union\"}, \"intsByName\": {\"one\": 1, \"two\": 2},"
+        + " \"subRecords\": [{\"name\": \"sub\"}], \"enumField\": \"B\", \"fixedField\": \"\\u0001\\u0002\\u0003\","
+        + " \"bytesField\": \"\\u0000\\u0001\\u00ff\", \"stringField\": \"string\", \"booleanField\": true,"
+        + " \"doubleField\": 4.25, \"floatField\": 3.5, \"longField\": 2, \"intField\": 1}";
+
+    GenericRecord fastRecord = fastJsonDeserializer().deserialize(json);
+
+    Assert.assertEquals(fastRecord, readWithCompatibleJsonDecoder(json));
+    Assert.assertEquals(fastRecord, newRecord(new Utf8("union")));
+
+    // the compatible decoders only match aliases of the fields in schema order
+    String aliasedJson = toJson(newRecord(null), AvroVersion.latest()).replace("\"stringField\"", "\"oldStringField\"");
+    Assert.assertEquals(fastJsonDeserializer().deserialize(aliasedJson), readWithCompatibleJsonDecoder(aliasedJson));
+    Assert.assertEquals(fastJsonDeserializer().deserialize(aliasedJson), newRecord(null));
+    String withoutIntField = aliasedJson.replace("{\"intField\":1,", "{");
+    String reorderedAliasedJson = withoutIntField.substring(0, withoutIntField.length() - 1) + ",\"intField\":1}";
+    Assert.assertEquals(fastJsonDeserializer().deserialize(reorderedAliasedJson), newRecord(null));
+  }
+
+  @Test(groups = "deserializationTest")
+  public void shouldReuseRecordAndReadConsecutiveRecords() throws Exception {
+    GenericRecord first = newRecord(null);
+    GenericRecord second = newRecord(new Utf8("second"));
+    String json = toJson(first, AvroVersion.latest()) + "\n" + toJson(second, AvroVersion.latest());
+
+    FastJsonDeserializer<GenericRecord> deserializer = fastJsonDeserializer();
+    try (JsonParser parser = FastGenericJsonDeserializerPlanGenerator.JSON_FACTORY.createParser(json)) {
+      GenericRecord firstRead = deserializer.deserialize(null, parser);
+      Assert.assertEquals(firstRead, first);
+      GenericRecord secondRead = deserializer.deserialize(firstRead, parser);
+      Assert.assertSame(secondRead, firstRead);
+      Assert.assertEquals(secondRead, second);
+      Assert.assertNull(parser.currentToken());
+    }
+  }
+
+  @Test(groups = "deserializationTest")
+  public void shouldSkipUnknownFieldsAfterAllFieldsOnly() throws Exception {
+    String json = toJson(newRecord(null), AvroVersion.latest());
+    String trailingUnknownField = json.replace("{\"name\":\"sub\"}", "{\"name\":\"sub\",\"unknown\":1}");
+    String leadingUnknownField = json.replace("{\"name\":\"sub\"}", "{\"unknown\":1,\"name\":\"sub\"}");
+    // the end of the top-level record isn't checked by the compatible decoders
+    String topLevelUnknownField = "{\"unknown\":{\"nested\":[1,2]}," + json.substring(1);
+
+    for (String validJson : Arrays.asList(trailingUnknownField, topLevelUnknownField)) {
+      Assert.assertNotEquals(validJson, json);
+      Assert.assertEquals(fastJsonDeserializer().deserialize(validJson), newRecord(null));
+      Assert.assertEquals(readWithCompatibleJsonDecoder(validJson), newRecord(null));
+    }
+
+    Assert.assertNotEquals(leadingUnknownField, json);
+    Assert.assertThrows(AvroTypeException.class, () -> fastJsonDeserializer().deserialize(leadingUnknownField));
+    Assert.assertThrows(AvroTypeException.class, () -> readWithCompatibleJsonDecoder(leadingUnknownField));
+  }
+
+  @Test(groups = "deserializationTest")
+  public void shouldFailOnInvalidJson() throws Exception {
+    String json = toJson(newRecord(null), AvroVersion.latest());
+    String missingField = json.replace("\"intField\":1,", "");
+    String unknownSymbol = json.replace("\"enumField\":\"B\"", "\"enumField\":\"C\"");
+    String wrongFixedSize = json.replace("\"fixedField\":\"\\u0001\\u0002\\u0003\"", "\"fixedField\":\"\\u0001\"");
+    String unknownBranch = json.replace("\"union\":null", "\"union\":{\"int\":1}");
+
+    for (String invalidJson : Arrays.asList(missingField, unknownSymbol, wrongFixedSize, unknownBranch)) {
+      Assert.assertNotEquals(invalidJson, json);
+      Assert.assertThrows(AvroTypeException.class, () -> fastJsonDeserializer().deserialize(invalidJson));
+      Assert.assertThrows(AvroTypeException.class, () -> readWithCompatibleJsonDecoder(invalidJson));
+    }
+  }
+}
@@ -0,0 +1,176 @@
+package com.linkedin.avro.fastserde;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import com.linkedin.avroutil1.compatibility.AvroVersion;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.apache.avro.AvroTypeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.util.Utf8;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class FastGenericJsonSerializerTest {
+
+  private static final Schema SCHEMA = Schema.parse("{\"type\": \"record\", \"name\": \"JsonRecord\","
+      + " \"namespace\": \"com.linkedin.avro.fastserde.json\", \"fields\": ["
+      + "{\"name\": \"intField\", \"type\": \"int\"},"
+      + "{\"name\": \"longField\", \"type\": \"long\"},"
+      + "{\"name\": \"floatField\", \"type\": \"float\"},"
+      + "{\"name\": \"doubleField\", \"type\": \"double\"},"
+      + "{\"name\": \"booleanField\", \"type\": \"boolean\"},"
+      + "{\"name\": \"stringField\", \"type\": \"string\"},"
+      + "{\"name\": \"bytesField\", \"type\": \"bytes\"},"
+      + "{\"name\": \"fixedField\", \"type\": {\"type\": \"fixed\", \"name\": \"JsonFixed\", \"size\": 3}},"
+      + "{\"name\": \"enumField\", \"type\": {\"type\": \"enum\", \"name\": \"JsonEnum\", \"symbols\": [\"A\", \"B\"]}},"
+      + "{\"name\": \"subRecords\", \"type\": {\"type\": \"array\", \"items\": {\"type\": \"record\", \"name\": \"JsonSubRecord\","
+      + " \"fields\": [{\"name\": \"name\", \"type\": \"string\"}]}}},"
+      + "{\"name\": \"intsByName\", \"type\": {\"type\": \"map\", \"values\": \"int\"}},"
+      + "{\"name\": \"union\", \"type\": [\"null\", \"JsonSubRecord\", \"string\"]},"
+      + "{\"name\": \"namedUnion\", \"type\": [\"null\", \"JsonSubRecord\", \"JsonEnum\", \"JsonFixed\"]}]}");
+
+  private static GenericRecord newRecord(Object union, Object namedUnion) {
+    GenericData.Record subRecord = newSubRecord("sub é\"\n");
+    Map<Utf8, Integer> intsByName = new LinkedHashMap<>();
+    intsByName.put(new Utf8("one"), 1);
+    intsByName.put(new Utf8("two"), 2);
+
+    GenericData.Record record = new GenericData.Record(SCHEMA);
+    record.put("intField", 1);
+    record.put("longField", 2L);
+    record.put("floatField", 3.5f);
+    record.put("doubleField", 4.25d);
+    record.put("booleanField", true);
+    record.put("stringField", "string");
+    record.put("bytesField", ByteBuffer.wrap(new byte[]{0, 1, (byte) 0xff}));
+    record.put("fixedField", newFixed());
+    record.put("enumField", newEnumSymbol());
+    record.put("subRecords", new GenericData.Array<>(SCHEMA.getField("subRecords").schema(), Arrays.asList(subRecord)));
+    record.put("intsByName", intsByName);
+    record.put("union", union);
+    record.put("namedUnion", namedUnion);
+    return record;
+  }
+
+  private static GenericData.Record newSubRecord(String name) {
+    GenericData.Record subRecord = new GenericData.Record(SCHEMA.getField("subRecords").schema().getElementType());
+    subRecord.put("name", new Utf8(name));
+    return subRecord;
+  }
+
+  private static Object newFixed() {
+    return AvroCompatibilityHelper.newFixed(SCHEMA.getField("fixedField").schema(), new byte[]{1, 2, 3});
+  }
+
+  private static Object newEnumSymbol() {
+    return AvroCompatibilityHelper.newEnumSymbol(SCHEMA.getField("enumField").schema(), "B");
+  }
+
+  @DataProvider(name = "unionValues")
+  public static Object[][] unionValues() {
+    return new Object[][]{
+        {null, null},
+        {newSubRecord("union"), newSubRecord("named union")},
+        {new Utf8("union"), newEnumSymbol()},
+        {"union", newFixed()}};
+  }
+
+  private static String toJsonWithEncoder(AvroVersion jsonFormat, GenericRecord... records) throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newJsonEncoder(SCHEMA, outputStream, false, jsonFormat);
+    GenericDatumWriter<GenericRecord> datumWriter = new GenericDatumWriter<>(SCHEMA);
+    for (GenericRecord record : records) {
+      datumWriter.write(record, encoder);
+    }
+    encoder.flush();
+    return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static String toJson(FastJsonSerializer<GenericRecord> serializer, GenericRecord record) throws Exception {
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    serializer.serialize(record, outputStream);
+    return new String(outputStream.toByteArray(), StandardCharsets.UTF_8);
+  }
+
+  private static FastJsonSerializer<GenericRecord> fastJsonSerializer(AvroVersion jsonFormat) {
+    return new FastGenericJsonSerializerPlanGenerator<GenericRecord>(SCHEMA, jsonFormat).generateSerializer();
+  }
+
+  @Test(groups = "serializationTest", dataProvider = "unionValues")
+  public void shouldWriteJsonLikeCompatibleJsonEncoder(Object union, Object namedUnion) throws Exception {
+    GenericRecord record = newRecord(union, namedUnion);
+    for (AvroVersion jsonFormat : new AvroVersion[]{AvroVersion.AVRO_1_4, AvroVersion.latest()}) {
+      String json = toJson(fastJsonSerializer(jsonFormat), record);
+
+      Assert.assertEquals(json, toJsonWithEncoder(jsonFormat, record));
+    }
+  }
+
+  @Test(groups = "serializationTest")
+  public void shouldRoundTripThroughFastJsonDeserializer() throws Exception {
+    GenericRecord record = newRecord(newSubRecord("union"), newFixed());
+
+    String json = toJson(fastJsonSerializer(AvroVersion.latest()), record);
+    FastJsonDeserializer<GenericRecord> deserializer =
+        new FastGenericJsonDeserializerPlanGenerator<GenericRecord>(SCHEMA).generateDeserializer();
+
+    Assert.assertEquals(deserializer.deserialize(json), record);
+  }
+
+  @Test(groups = "serializationTest")
+  public void shouldSeparateConsecutiveValuesLikeCompatibleJsonEncoder() throws Exception {
+    GenericRecord first = newRecord(null, null);
+    GenericRecord second = newRecord("second", newEnumSymbol());
+
+    ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    FastJsonSerializer<GenericRecord> serializer = fastJsonSerializer(AvroVersion.latest());
+    try (JsonGenerator generator = FastGenericJsonSerializerPlanGenerator.newJsonGenerator(outputStream)) {
+      serializer.serialize(first, generator);
+      serializer.serialize(second, generator);
+    }
+
+    Assert.assertEquals(new String(outputStream.toByteArray(), StandardCharsets.UTF_8),
+        toJsonWithEncoder(AvroVersion.latest(), first, second));
+  }
+
+  @Test(groups = "serializationTest")
+  public void shouldFailOnValuesNotMatchingSchema() {
+    GenericRecord unknownSymbol = newRecord(null, null);
+    unknownSymbol.put("enumField", "C");
+    GenericRecord wrongFixedSize = newRecord(null, null);
+    wrongFixedSize.put("fixedField", new GenericData.Fixed(SCHEMA.getField("fixedField").schema(), new byte[1]));
+
+    for (GenericRecord invalidRecord : Arrays.asList(unknownSymbol, wrongFixedSize)) {
+      Assert.assertThrows(AvroTypeException.class,
+          () -> toJson(fastJsonSerializer(AvroVersion.latest()), invalidRecord));
+    }
+  }
+
+  @Test(groups = "serializationTest")
+  @SuppressWarnings("unchecked")
+  public void shouldReplaceRegularJsonSerializerOnceBuilt() throws Exception {
+    // runs the generation of the fast serializer right away, on the calling thread
+    FastSerdeCache cache = new FastSerdeCache(Runnable::run);
+    GenericRecord record = newRecord("union", newEnumSymbol());
+
+    FastJsonSerializer<GenericRecord> regularSerializer =
+        (FastJsonSerializer<GenericRecord>) cache.getFastGenericJsonSerializer(SCHEMA);
+    FastJsonSerializer<GenericRecord> fastSerializer =
+        (FastJsonSerializer<GenericRecord>) cache.getFastGenericJsonSerializer(SCHEMA);
+
+    Assert.assertTrue(regularSerializer instanceof FastSerdeCache.FastJsonSerializerWithAvroGenericImpl);
+    Assert.assertFalse(fastSerializer instanceof FastSerdeCache.FastJsonSerializerWithAvroGenericImpl);
+    Assert.assertEquals(toJson(fastSerializer, record), toJson(regularSerializer, record));
+  }
+}
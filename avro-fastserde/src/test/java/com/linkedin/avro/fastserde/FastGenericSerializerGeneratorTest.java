@@ -1,5 +1,7 @@
 package com.linkedin.avro.fastserde;
 
+import com.linkedin.avro.api.PrimitiveDoubleList;
+import com.linkedin.avro.api.PrimitiveFloatList;
 import com.linkedin.avro.fastserde.coldstart.ColdPrimitiveBooleanList;
 import com.linkedin.avro.fastserde.coldstart.ColdPrimitiveDoubleList;
 import com.linkedin.avro.fastserde.coldstart.ColdPrimitiveFloatList;
@@ -21,6 +23,7 @@ import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericContainer;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.generic.GenericRecord;
 import org.apache.avro.io.Decoder;
 import org.apache.avro.io.DecoderFactory;
@@ -351,6 +354,57 @@ public class FastGenericSerializerGeneratorTest {
     Assert.assertEquals(1, record.get("union"));
   }
 
+  @Test(groups = {"serializationTest"})
+  public void shouldWriteWideUnionOfNamedTypes() {
+    // given
+    Schema subRecord1Schema = createRecord("subRecord1", createPrimitiveUnionFieldSchema("subField", Schema.Type.STRING));
+    Schema subRecord2Schema = createRecord("subRecord2", createPrimitiveUnionFieldSchema("subField", Schema.Type.STRING));
+    Schema subRecord3Schema = createRecord("subRecord3", createPrimitiveUnionFieldSchema("subField", Schema.Type.STRING));
+    Schema enumSchema = createEnumSchema("testEnum", new String[]{"A", "B"});
+    Schema fixedSchema = createFixedSchema("testFixed", 2);
+
+    Schema recordSchema = createRecord(createUnionFieldWithNull("union", subRecord1Schema, subRecord2Schema,
+        subRecord3Schema, enumSchema, fixedSchema, Schema.create(Schema.Type.STRING)));
+
+    // the same record, with a schema instance the serializer has never seen
+    Schema sameSubRecord3Schema = Schema.parse(subRecord3Schema.toString());
+    Object[] values = new Object[]{
+        newSubRecord(subRecord1Schema, "abc"),
+        newSubRecord(subRecord2Schema, "def"),
+        newSubRecord(subRecord3Schema, "ghi"),
+        newSubRecord(sameSubRecord3Schema, "jkl"),
+        AvroCompatibilityHelper.newEnumSymbol(enumSchema, "B"),
+        newFixed(fixedSchema, new byte[]{0x01, 0x02}),
+        "mno",
+        null};
+
+    for (Object value : values) {
+      GenericData.Record builder = new GenericData.Record(recordSchema);
+      builder.put("union", value);
+
+      // when
+      GenericRecord record = decodeRecord(recordSchema, dataAsBinaryDecoder(builder));
+
+      // then
+      Object decoded = record.get("union");
+      if (value instanceof GenericRecord) {
+        GenericRecord expected = (GenericRecord) value;
+        Assert.assertEquals(((GenericRecord) decoded).getSchema().getFullName(), expected.getSchema().getFullName());
+        Assert.assertEquals(((GenericRecord) decoded).get("subField").toString(), expected.get("subField").toString());
+      } else if (value == null) {
+        Assert.assertNull(decoded);
+      } else {
+        Assert.assertEquals(decoded.toString(), value.toString());
+      }
+    }
+  }
+
+  private static GenericData.Record newSubRecord(Schema subRecordSchema, String subField) {
+    GenericData.Record subRecord = new GenericData.Record(subRecordSchema);
+    subRecord.put("subField", subField);
+    return subRecord;
+  }
+
   @Test(groups = {"serializationTest"})
   public void shouldWriteArrayOfRecords() {
     // given
@@ -529,6 +583,70 @@ public class FastGenericSerializerGeneratorTest {
     Assert.assertTrue(primitiveApiCalled.get());
   }
 
+  @Test(groups = {"serializationTest"})
+  public void shouldWriteDecodedPrimitiveListsInBulk() throws Exception {
+    // given
+    Schema recordSchema = createRecord(
+        createArrayFieldSchema("floats", Schema.create(Schema.Type.FLOAT)),
+        createArrayFieldSchema("doubles", Schema.create(Schema.Type.DOUBLE)),
+        createArrayFieldSchema("ints", Schema.create(Schema.Type.INT)),
+        createArrayFieldSchema("longs", Schema.create(Schema.Type.LONG)));
+    // arrays of two blocks, so that the float and double lists are backed by two buffers once decoded
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    for (Schema.Field field : recordSchema.getFields()) {
+      encoder.writeArrayStart();
+      for (int block = 0; block < 2; block++) {
+        encoder.setItemCount(3);
+        for (int i = block * 3 - 2; i < block * 3 + 1; i++) {
+          switch (field.schema().getElementType().getType()) {
+            case FLOAT: encoder.writeFloat(i / 2.0f); break;
+            case DOUBLE: encoder.writeDouble(i / 2.0d); break;
+            case INT: encoder.writeInt(i * 1000); break;
+            default: encoder.writeLong(i * 1000000000000L); break;
+          }
+        }
+      }
+      encoder.writeArrayEnd();
+    }
+    encoder.flush();
+    GenericRecord record = new FastGenericDeserializerGenerator<GenericRecord>(recordSchema, recordSchema, tempDir,
+        classLoader, null).generateDeserializer()
+        .deserialize(DecoderFactory.defaultFactory().createBinaryDecoder(baos.toByteArray(), null));
+    Assert.assertTrue(record.get("floats") instanceof ByteBufferBackedPrimitiveFloatList);
+    Assert.assertTrue(record.get("doubles") instanceof ByteBufferBackedPrimitiveDoubleList);
+
+    // when
+    GenericRecord writtenRecord = decodeRecord(recordSchema, dataAsBinaryDecoder(record));
+
+    // then
+    Assert.assertEquals(writtenRecord, record);
+    Assert.assertEquals(((List<?>) writtenRecord.get("floats")).get(5), 1.5f);
+
+    // when the lists were changed, their buffers don't hold their elements anymore
+    ((PrimitiveFloatList) record.get("floats")).setPrimitive(0, 42.0f);
+    ((PrimitiveDoubleList) record.get("doubles")).setPrimitive(5, 42.0d);
+    writtenRecord = decodeRecord(recordSchema, dataAsBinaryDecoder(record));
+
+    // then
+    Assert.assertEquals(writtenRecord, record);
+    Assert.assertEquals(((List<?>) writtenRecord.get("floats")).get(0), 42.0f);
+
+    // when the encoder needs each item to be started
+    ByteArrayOutputStream fastJson = new ByteArrayOutputStream();
+    Encoder jsonEncoder = AvroCompatibilityHelper.newJsonEncoder(recordSchema, fastJson, false);
+    new FastGenericSerializerGenerator<GenericRecord>(recordSchema, tempDir, classLoader, null).generateSerializer()
+        .serialize(record, jsonEncoder);
+    jsonEncoder.flush();
+    ByteArrayOutputStream vanillaJson = new ByteArrayOutputStream();
+    jsonEncoder = AvroCompatibilityHelper.newJsonEncoder(recordSchema, vanillaJson, false);
+    new GenericDatumWriter<GenericRecord>(recordSchema).write(record, jsonEncoder);
+    jsonEncoder.flush();
+
+    // then
+    Assert.assertEquals(fastJson.toString(), vanillaJson.toString());
+  }
+
   private <E> void shouldWriteArrayOfPrimitives(Schema.Type elementType, List<E> data) {
     // given
     Schema elementSchema = Schema.create(elementType);
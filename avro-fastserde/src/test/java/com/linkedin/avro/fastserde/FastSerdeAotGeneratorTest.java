@@ -0,0 +1,68 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.generated.avro.TestRecord;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class FastSerdeAotGeneratorTest {
+
+  private static final Schema TEST_RECORD_SCHEMA = Schema.parse("{\"type\": \"record\", \"name\": \"aot_test_record\", "
+      + "\"fields\":[{\"name\": \"testInt\", \"type\": \"int\"}]}");
+
+  @Test(groups = "deserializationTest")
+  public void testPrecompiledGenericDeserializerIsUsedRightAway() throws Exception {
+    File outputDir = Files.createTempDirectory("fast-serde-aot").toFile();
+    FastSerdeAotGenerator generator = new FastSerdeAotGenerator(outputDir, System.getProperty("java.class.path"));
+    generator.addGenericDeserializer(TEST_RECORD_SCHEMA, TEST_RECORD_SCHEMA);
+    generator.writeIndex();
+
+    ClassLoader precompiledClassLoader = newClassLoader(outputDir);
+    FastSerdeCache cache = FastSerdeCache.builder().setPrecompiledClassLoader(precompiledClassLoader).build();
+    FastDeserializer<GenericRecord> deserializer =
+        (FastDeserializer<GenericRecord>) cache.getFastGenericDeserializer(TEST_RECORD_SCHEMA, TEST_RECORD_SCHEMA);
+
+    GenericData.Record record = new GenericData.Record(TEST_RECORD_SCHEMA);
+    record.put("testInt", 42);
+    Assert.assertTrue(FastSerdeCache.isFastDeserializer(deserializer));
+    Assert.assertSame(deserializer.getClass().getClassLoader(), precompiledClassLoader);
+    Assert.assertEquals(deserializer.deserialize(FastSerdeTestsSupport.genericDataAsDecoder(record)).get("testInt"), 42);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testPrecompiledSpecificSerdeFromCommandLine() throws Exception {
+    File outputDir = Files.createTempDirectory("fast-serde-aot").toFile();
+    File schemaFile = new File(outputDir, "aot_test_record.avsc");
+    Files.write(schemaFile.toPath(), TEST_RECORD_SCHEMA.toString().getBytes(StandardCharsets.UTF_8));
+
+    FastSerdeAotGenerator.main(new String[]{outputDir.getAbsolutePath(), "specific:" + TestRecord.class.getName()});
+    FastSerdeAotGenerator.main(new String[]{outputDir.getAbsolutePath(), "generic:" + schemaFile.getAbsolutePath()});
+
+    List<String> indexedClassNames = FastSerdeAotGenerator.readIndex(
+        Files.readAllLines(new File(outputDir, FastSerdeAotGenerator.INDEX_RESOURCE).toPath(), StandardCharsets.UTF_8));
+    Assert.assertEquals(indexedClassNames.size(), Utils.isSupportedAvroVersionsForSerializer() ? 4 : 2);
+
+    ClassLoader precompiledClassLoader = newClassLoader(outputDir);
+    FastSerdeCache cache = FastSerdeCache.builder().setPrecompiledClassLoader(precompiledClassLoader).build();
+    FastDeserializer<?> deserializer = cache.getFastSpecificDeserializer(TestRecord.SCHEMA$, TestRecord.SCHEMA$);
+    Assert.assertTrue(FastSerdeCache.isFastDeserializer(deserializer));
+    Assert.assertSame(deserializer.getClass().getClassLoader(), precompiledClassLoader);
+    if (Utils.isSupportedAvroVersionsForSerializer()) {
+      FastSerializer<?> serializer = cache.getFastGenericSerializer(TEST_RECORD_SCHEMA);
+      Assert.assertSame(serializer.getClass().getClassLoader(), precompiledClassLoader);
+    }
+  }
+
+  private static ClassLoader newClassLoader(File outputDir) throws Exception {
+    return URLClassLoader.newInstance(new URL[]{outputDir.toURI().toURL()}, FastSerdeAotGeneratorTest.class.getClassLoader());
+  }
+}
@@ -1,11 +1,22 @@
 package com.linkedin.avro.fastserde;
 
 import com.linkedin.avro.fastserde.generated.avro.TestRecord;
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
@@ -49,6 +60,25 @@ public class FastSerdeCacheTest {
     cache.buildFastGenericDeserializer(testRecord, testRecord);
   }
 
+  @Test(groups = "deserializationTest")
+  public void testDeserializerBackendPropertyFallsBackToDefault() {
+    String previous = System.getProperty(FastSerdeCache.DESERIALIZER_BACKEND);
+    try {
+      System.setProperty(FastSerdeCache.DESERIALIZER_BACKEND, "plan");
+      Assert.assertEquals(FastSerdeCache.getEnumProperty(FastSerdeCache.DESERIALIZER_BACKEND,
+          FastDeserializerBackend.class, FastDeserializerBackend.JAVAC), FastDeserializerBackend.PLAN);
+      System.setProperty(FastSerdeCache.DESERIALIZER_BACKEND, "plam");
+      Assert.assertEquals(FastSerdeCache.getEnumProperty(FastSerdeCache.DESERIALIZER_BACKEND,
+          FastDeserializerBackend.class, FastDeserializerBackend.JAVAC), FastDeserializerBackend.JAVAC);
+    } finally {
+      if (previous == null) {
+        System.clearProperty(FastSerdeCache.DESERIALIZER_BACKEND);
+      } else {
+        System.setProperty(FastSerdeCache.DESERIALIZER_BACKEND, previous);
+      }
+    }
+  }
+
   @Test(groups = "deserializationTest")
   public void testBuildFastGenericDeserializerWithCorrectClasspath() throws Exception {
     FastSerdeCache cache = FastSerdeCache.getDefaultInstance();
@@ -68,4 +98,409 @@ public class FastSerdeCacheTest {
     FastSerdeCache cache = FastSerdeCache.getDefaultInstance();
     cache.buildFastSpecificDeserializer(TestRecord.SCHEMA$, TestRecord.SCHEMA$);
   }
+
+  @Test(groups = "deserializationTest")
+  public void testBuildFastGenericDeserializerInMemory() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache(null, () -> null, true);
+    Schema testRecord = Schema.parse("{\"type\": \"record\", \"name\": \"test_record\", \"fields\":["
+        + "{\"name\": \"testInt\", \"type\": \"int\"}]}");
+    GenericData.Record record = new GenericData.Record(testRecord);
+    record.put("testInt", 42);
+
+    FastDeserializer<GenericRecord> deserializer =
+        (FastDeserializer<GenericRecord>) cache.buildFastGenericDeserializer(testRecord, testRecord);
+
+    Assert.assertTrue(deserializer.getClass().getClassLoader() instanceof FastSerdeClassLoader);
+    Assert.assertEquals(deserializer.deserialize(FastSerdeTestsSupport.genericDataAsDecoder(record)).get("testInt"), 42);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testBuildFastSpecificDeserializerInMemory() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache(null, () -> null, true);
+    FastDeserializer<?> deserializer = cache.buildFastSpecificDeserializer(TestRecord.SCHEMA$, TestRecord.SCHEMA$);
+
+    Assert.assertTrue(deserializer.getClass().getClassLoader() instanceof FastSerdeClassLoader);
+  }
+
+  @Test(groups = "deserializationTest")
+  @SuppressWarnings("unchecked")
+  public void testBuildDeepReuseGenericDeserializer() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache(null, () -> null, true);
+    Schema testRecord = Schema.parse("{\"type\": \"record\", \"name\": \"test_record\", \"fields\":["
+        + "{\"name\": \"testInt\", \"type\": \"int\"}]}");
+    GenericData.Record record = new GenericData.Record(testRecord);
+    record.put("testInt", 42);
+
+    FastDeserializer<GenericRecord> deserializer =
+        (FastDeserializer<GenericRecord>) cache.buildDeepReuseGenericDeserializer(testRecord, testRecord);
+    FastDeserializer<GenericRecord> otherDeserializer =
+        (FastDeserializer<GenericRecord>) cache.buildDeepReuseGenericDeserializer(testRecord, testRecord);
+
+    // stateful, so each caller gets its own instance of the class generated once
+    Assert.assertNotSame(otherDeserializer, deserializer);
+    Assert.assertSame(otherDeserializer.getClass(), deserializer.getClass());
+
+    GenericRecord deserializedRecord = deserializer.deserialize(FastSerdeTestsSupport.genericDataAsDecoder(record));
+    Assert.assertEquals(deserializedRecord.get("testInt"), 42);
+    deserializer.release(deserializedRecord);
+    Assert.assertSame(deserializer.deserialize(FastSerdeTestsSupport.genericDataAsDecoder(record)), deserializedRecord);
+    Assert.assertNotSame(otherDeserializer.deserialize(FastSerdeTestsSupport.genericDataAsDecoder(record)),
+        deserializedRecord);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testBoundedCacheEvictsDeepReuseDeserializerClasses() throws Exception {
+    FastSerdeCache cache = FastSerdeCache.builder().setMaxCacheEntries(1).build();
+    Schema firstRecord = Schema.parse("{\"type\": \"record\", \"name\": \"first_record\", \"fields\":[]}");
+    Schema secondRecord = Schema.parse("{\"type\": \"record\", \"name\": \"second_record\", \"fields\":[]}");
+
+    cache.buildDeepReuseGenericDeserializer(firstRecord, firstRecord);
+    cache.buildDeepReuseGenericDeserializer(secondRecord, secondRecord);
+    cache.buildDeepReuseGenericDeserializer(secondRecord, secondRecord);
+
+    FastSerdeCacheStats stats = cache.getStats();
+    Assert.assertEquals(stats.getEntryCount(), 1);
+    Assert.assertEquals(stats.getEvictionCount(), 1);
+    Assert.assertEquals(stats.getMissCount(), 2);
+    Assert.assertEquals(stats.getHitCount(), 1);
+  }
+
+  @Test(groups = "deserializationTest")
+  @SuppressWarnings("unchecked")
+  public void testBuildZeroCopyGenericDeserializer() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache(null, () -> null, true);
+    Schema testRecord = Schema.parse("{\"type\": \"record\", \"name\": \"test_record\", \"fields\":["
+        + "{\"name\": \"testString\", \"type\": \"string\"}]}");
+    GenericData.Record record = new GenericData.Record(testRecord);
+    record.put("testString", "abc");
+
+    FastDeserializer<GenericRecord> deserializer =
+        (FastDeserializer<GenericRecord>) cache.buildZeroCopyGenericDeserializer(testRecord, testRecord);
+
+    // stateless, so shared
+    Assert.assertSame(cache.buildZeroCopyGenericDeserializer(testRecord, testRecord), deserializer);
+    FastSerdeCacheStats stats = cache.getStats();
+    Assert.assertEquals(stats.getEntryCount(), 1);
+    Assert.assertEquals(stats.getMissCount(), 1);
+    Assert.assertEquals(stats.getHitCount(), 1);
+    Assert.assertEquals(
+        deserializer.deserialize(FastSerdeTestsSupport.genericDataAsDecoder(record)).get("testString").toString(),
+        "abc");
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testBuildFastGenericDeserializerWithPlanBackend() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache(null, () -> null, false, FastDeserializerBackend.PLAN);
+    Schema testRecord = Schema.parse("{\"type\": \"record\", \"name\": \"test_record\", \"fields\":["
+        + "{\"name\": \"testInt\", \"type\": \"int\"}]}");
+    GenericData.Record record = new GenericData.Record(testRecord);
+    record.put("testInt", 42);
+
+    FastDeserializer<GenericRecord> deserializer =
+        (FastDeserializer<GenericRecord>) cache.buildFastGenericDeserializer(testRecord, testRecord);
+
+    Assert.assertTrue(FastSerdeCache.isFastDeserializer(deserializer));
+    Assert.assertEquals(deserializer.deserialize(FastSerdeTestsSupport.genericDataAsDecoder(record)).get("testInt"), 42);
+  }
+
+  @Test(groups = "serializationTest")
+  public void testBuildFastGenericSerializerInMemory() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache(null, () -> null, true);
+    Schema testRecord = Schema.parse("{\"type\": \"record\", \"name\": \"test_record\", \"fields\":[]}");
+    FastSerializer<?> serializer = cache.buildFastGenericSerializer(testRecord);
+
+    Assert.assertTrue(serializer.getClass().getClassLoader() instanceof FastSerdeClassLoader);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testBuildFastGenericDeserializerFromPersistentClassCache() throws Exception {
+    File cacheDir = Files.createTempDirectory("fast-serde-class-cache").toFile();
+    Schema testRecord = Schema.parse("{\"type\": \"record\", \"name\": \"test_record\", \"fields\":["
+        + "{\"name\": \"testInt\", \"type\": \"int\"}]}");
+    GenericData.Record record = new GenericData.Record(testRecord);
+    record.put("testInt", 42);
+    String className = FastDeserializerGeneratorBase.getClassName(testRecord, testRecord, "Generic");
+    File entry = new File(new PersistentClassCache(cacheDir).getEntriesDir(), className + ".classes");
+
+    FastSerdeCache.builder().setPersistentClassCacheDir(cacheDir).build().buildFastGenericDeserializer(testRecord, testRecord);
+    Assert.assertTrue(entry.isFile());
+    long lastModified = entry.lastModified();
+
+    // a brand new cache should load the persisted classes instead of generating them again
+    FastDeserializer<GenericRecord> deserializer = (FastDeserializer<GenericRecord>) FastSerdeCache.builder()
+        .setPersistentClassCacheDir(cacheDir)
+        .build()
+        .buildFastGenericDeserializer(testRecord, testRecord);
+
+    Assert.assertTrue(deserializer.getClass().getClassLoader() instanceof FastSerdeClassLoader);
+    Assert.assertEquals(entry.lastModified(), lastModified);
+    Assert.assertEquals(deserializer.deserialize(FastSerdeTestsSupport.genericDataAsDecoder(record)).get("testInt"), 42);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testPersistedClassesAreNotReusedForSchemasWithOtherProperties() throws Exception {
+    File cacheDir = Files.createTempDirectory("fast-serde-class-cache").toFile();
+    String avsc = "{\"type\": \"record\", \"name\": \"test_record\", \"fields\":["
+        + "{\"name\": \"testString\", \"type\": %s}]}";
+    Schema utf8Record = Schema.parse(String.format(avsc, "\"string\""));
+    Schema javaStringRecord =
+        Schema.parse(String.format(avsc, "{\"type\": \"string\", \"avro.java.string\": \"String\"}"));
+    // same parsing fingerprints, hence same class name
+    String className = FastDeserializerGeneratorBase.getClassName(utf8Record, utf8Record, "Generic");
+    Assert.assertEquals(FastDeserializerGeneratorBase.getClassName(javaStringRecord, javaStringRecord, "Generic"),
+        className);
+    FastSerdeCache cache = FastSerdeCache.builder().setPersistentClassCacheDir(cacheDir).build();
+    cache.buildFastGenericDeserializer(utf8Record, utf8Record);
+    PersistentClassCache persistentClassCache = new PersistentClassCache(cacheDir);
+    Assert.assertNotNull(persistentClassCache.load(className, cache.hashPersistedSchemas(false, utf8Record, utf8Record)));
+
+    // the classes generated for Utf8 strings are not returned for a schema asking for java strings
+    Assert.assertNull(
+        persistentClassCache.load(className, cache.hashPersistedSchemas(false, javaStringRecord, javaStringRecord)));
+    Assert.assertNotEquals(cache.hashPersistedSchemas(true, TestRecord.SCHEMA$),
+        cache.hashPersistedSchemas(false, TestRecord.SCHEMA$));
+    Assert.assertEquals(PersistentClassCache.getGeneratorVersionHash(), PersistentClassCache.getGeneratorVersionHash());
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testBuildFastSpecificDeserializerSurviveFromCorruptedPersistentClassCache() throws Exception {
+    File cacheDir = Files.createTempDirectory("fast-serde-class-cache").toFile();
+    String className = FastDeserializerGeneratorBase.getClassName(TestRecord.SCHEMA$, TestRecord.SCHEMA$, "Specific");
+    File entry = new File(new PersistentClassCache(cacheDir).getEntriesDir(), className + ".classes");
+    Files.write(entry.toPath(), new byte[]{1, 2, 3});
+
+    FastSerdeCache cache = FastSerdeCache.builder().setPersistentClassCacheDir(cacheDir).build();
+    FastDeserializer<?> deserializer = cache.buildFastSpecificDeserializer(TestRecord.SCHEMA$, TestRecord.SCHEMA$);
+
+    Assert.assertTrue(FastSerdeCache.isFastDeserializer(deserializer));
+    Assert.assertNotNull(new PersistentClassCache(cacheDir).load(className,
+        cache.hashPersistedSchemas(true, TestRecord.SCHEMA$, TestRecord.SCHEMA$)));
+  }
+
+  @Test(groups = "serializationTest")
+  public void testBuildFastGenericSerializerFromPersistentClassCache() throws Exception {
+    File cacheDir = Files.createTempDirectory("fast-serde-class-cache").toFile();
+    Schema testRecord = Schema.parse("{\"type\": \"record\", \"name\": \"test_record\", \"fields\":[]}");
+    String className = FastSerializerGenerator.getClassName(testRecord, "Generic");
+
+    FastSerdeCache cache = FastSerdeCache.builder().setPersistentClassCacheDir(cacheDir).build();
+    cache.buildFastGenericSerializer(testRecord);
+    Assert.assertNotNull(new PersistentClassCache(cacheDir).load(className, cache.hashPersistedSchemas(false, testRecord)));
+
+    FastSerializer<?> serializer =
+        FastSerdeCache.builder().setPersistentClassCacheDir(cacheDir).build().buildFastGenericSerializer(testRecord);
+    Assert.assertTrue(serializer.getClass().getClassLoader() instanceof FastSerdeClassLoader);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testBoundedCacheEvictsLeastRecentlyUsedDeserializer() throws Exception {
+    FastSerdeCache cache = FastSerdeCache.builder().setExecutor(Runnable::run).setMaxCacheEntries(2).build();
+    Schema firstRecord = Schema.parse("{\"type\": \"record\", \"name\": \"first_record\", \"fields\":[]}");
+    Schema secondRecord = Schema.parse("{\"type\": \"record\", \"name\": \"second_record\", \"fields\":[]}");
+    Schema thirdRecord = Schema.parse("{\"type\": \"record\", \"name\": \"third_record\", \"fields\":[]}");
+
+    FastDeserializer<?> firstDeserializer = cache.getFastGenericDeserializerAsync(firstRecord, firstRecord).get();
+    cache.getFastGenericDeserializerAsync(secondRecord, secondRecord).get();
+    // makes the second record the least recently used one
+    Assert.assertSame(cache.getFastGenericDeserializer(firstRecord, firstRecord), firstDeserializer);
+    cache.getFastGenericDeserializerAsync(thirdRecord, thirdRecord).get();
+
+    FastSerdeCacheStats stats = cache.getStats();
+    Assert.assertEquals(stats.getEntryCount(), 2);
+    Assert.assertEquals(stats.getEvictionCount(), 1);
+    Assert.assertEquals(stats.getHitCount(), 1);
+    Assert.assertEquals(stats.getMissCount(), 3);
+    Assert.assertTrue(stats.getWeight() > 0);
+    Assert.assertSame(cache.getFastGenericDeserializer(firstRecord, firstRecord), firstDeserializer);
+    Assert.assertFalse(FastSerdeCache.isFastDeserializer(cache.getFastGenericDeserializer(secondRecord, secondRecord)));
+
+    // every generated class lives in its own class loader, so that it can be unloaded once evicted
+    ClassLoader deserializerClassLoader = firstDeserializer.getClass().getClassLoader();
+    Assert.assertTrue(deserializerClassLoader instanceof FastSerdeClassLoader);
+    Assert.assertTrue(deserializerClassLoader.getParent() instanceof FastSerdeClassLoader);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testBoundedCacheEvictsByWeight() throws Exception {
+    FastSerdeCache cache = FastSerdeCache.builder().setExecutor(Runnable::run).setMaxCacheWeight(1).build();
+    Schema testRecord = Schema.parse("{\"type\": \"record\", \"name\": \"test_record\", \"fields\":[]}");
+
+    FastDeserializer<?> deserializer = cache.getFastGenericDeserializerAsync(testRecord, testRecord).get();
+
+    Assert.assertTrue(FastSerdeCache.isFastDeserializer(deserializer));
+    Assert.assertEquals(cache.getStats().getEntryCount(), 0);
+    Assert.assertEquals(cache.getStats().getEvictionCount(), 1);
+    Assert.assertEquals(cache.getStats().getWeight(), 0);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testCacheStatsCountEachMissOnce() {
+    FastSerdeCache cache = FastSerdeCache.builder().setExecutor(Runnable::run).setMaxCacheEntries(10).build();
+    Schema testRecord = Schema.parse("{\"type\": \"record\", \"name\": \"test_record\", \"fields\":[]}");
+
+    // generated synchronously by the executor, replacing the regular deserializer returned by the miss
+    cache.getFastGenericDeserializer(testRecord, testRecord);
+    FastDeserializer<?> deserializer = cache.getFastGenericDeserializer(testRecord, testRecord);
+    Assert.assertTrue(FastSerdeCache.isFastDeserializer(deserializer));
+    Assert.assertSame(cache.getFastGenericDeserializer(testRecord, testRecord), deserializer);
+
+    FastSerdeCacheStats stats = cache.getStats();
+    Assert.assertEquals(stats.getEntryCount(), 1);
+    Assert.assertEquals(stats.getMissCount(), 1);
+    Assert.assertEquals(stats.getHitCount(), 2);
+    Assert.assertTrue(stats.getWeight() > 0);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testPerSchemaPairClassLoaderStrategy() throws Exception {
+    FastSerdeCache cache = FastSerdeCache.builder()
+        .setInMemoryCompilation(true)
+        .setClassLoaderStrategy(FastSerdeClassLoaderStrategy.PER_SCHEMA_PAIR)
+        .build();
+    Schema firstRecord = Schema.parse("{\"type\": \"record\", \"name\": \"first_record\", \"fields\":[]}");
+    Schema secondRecord = Schema.parse("{\"type\": \"record\", \"name\": \"second_record\", \"fields\":[]}");
+
+    ClassLoader firstClassLoader = cache.buildFastGenericDeserializer(firstRecord, firstRecord).getClass().getClassLoader();
+    ClassLoader secondClassLoader = cache.buildFastGenericDeserializer(secondRecord, secondRecord).getClass().getClassLoader();
+
+    Assert.assertTrue(firstClassLoader instanceof FastSerdeClassLoader);
+    Assert.assertNotSame(firstClassLoader, secondClassLoader);
+    Assert.assertSame(firstClassLoader.getParent(), secondClassLoader.getParent());
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testPerBatchClassLoaderStrategy() throws Exception {
+    FastSerdeCache cache = FastSerdeCache.builder()
+        .setClassLoaderStrategy(FastSerdeClassLoaderStrategy.PER_BATCH)
+        .setClassLoaderBatchSize(2)
+        .build();
+    Schema firstRecord = Schema.parse("{\"type\": \"record\", \"name\": \"first_record\", \"fields\":[]}");
+    Schema secondRecord = Schema.parse("{\"type\": \"record\", \"name\": \"second_record\", \"fields\":[]}");
+    Schema thirdRecord = Schema.parse("{\"type\": \"record\", \"name\": \"third_record\", \"fields\":[]}");
+
+    ClassLoader firstClassLoader = cache.buildFastGenericDeserializer(firstRecord, firstRecord).getClass().getClassLoader();
+    ClassLoader secondClassLoader = cache.buildFastGenericDeserializer(secondRecord, secondRecord).getClass().getClassLoader();
+    ClassLoader thirdClassLoader = cache.buildFastGenericDeserializer(thirdRecord, thirdRecord).getClass().getClassLoader();
+
+    Assert.assertSame(firstClassLoader, secondClassLoader);
+    Assert.assertNotSame(secondClassLoader, thirdClassLoader);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testPrewarmGenericDeserializers() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache(null, () -> null, true);
+    List<FastSerdeCache.SchemaPair> schemaPairs = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      Schema testRecord = Schema.parse("{\"type\": \"record\", \"name\": \"test_record_" + i + "\", \"fields\":["
+          + "{\"name\": \"testInt\", \"type\": \"int\"}]}");
+      schemaPairs.add(new FastSerdeCache.SchemaPair(testRecord, testRecord));
+    }
+    // duplicated pairs are only generated once
+    schemaPairs.add(schemaPairs.get(0));
+
+    cache.prewarmGenericDeserializers(schemaPairs);
+
+    Assert.assertEquals(cache.getStats().getEntryCount(), 3);
+    for (FastSerdeCache.SchemaPair schemaPair : schemaPairs) {
+      GenericData.Record record = new GenericData.Record(schemaPair.getReaderSchema());
+      record.put("testInt", 42);
+      FastDeserializer<GenericRecord> deserializer = (FastDeserializer<GenericRecord>) cache.getFastGenericDeserializer(
+          schemaPair.getWriterSchema(), schemaPair.getReaderSchema());
+      Assert.assertTrue(FastSerdeCache.isFastDeserializer(deserializer));
+      Assert.assertEquals(deserializer.deserialize(FastSerdeTestsSupport.genericDataAsDecoder(record)).get("testInt"), 42);
+    }
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testPrewarmSpecificDeserializers() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache(".");
+    List<FastSerdeCache.SchemaPair> schemaPairs = new ArrayList<>();
+    schemaPairs.add(new FastSerdeCache.SchemaPair(TestRecord.SCHEMA$, TestRecord.SCHEMA$));
+
+    cache.prewarmSpecificDeserializers(schemaPairs);
+
+    Assert.assertTrue(FastSerdeCache.isFastDeserializer(
+        cache.getFastSpecificDeserializer(TestRecord.SCHEMA$, TestRecord.SCHEMA$)));
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testWarmUpGenericDeserializersReportsFailures() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache(null, () -> null, true);
+    Schema intRecord = Schema.parse("{\"type\": \"record\", \"name\": \"warm_up_record\", \"fields\":["
+        + "{\"name\": \"testField\", \"type\": \"int\"}]}");
+    Schema stringRecord = Schema.parse("{\"type\": \"record\", \"name\": \"warm_up_record\", \"fields\":["
+        + "{\"name\": \"testField\", \"type\": \"string\"}]}");
+    FastSerdeCache.SchemaPair compatiblePair = new FastSerdeCache.SchemaPair(intRecord, intRecord);
+    FastSerdeCache.SchemaPair incompatiblePair = new FastSerdeCache.SchemaPair(stringRecord, intRecord);
+
+    FastSerdeWarmUpResult result = cache.warmUpGenericDeserializers(Arrays.asList(compatiblePair, incompatiblePair),
+        1, TimeUnit.MINUTES);
+
+    Assert.assertFalse(result.isSuccessful());
+    Assert.assertFalse(result.isTimedOut());
+    Assert.assertEquals(result.getFailedSchemaPairs(), Collections.singleton(incompatiblePair));
+    Assert.assertTrue(FastSerdeCache.isFastDeserializer(cache.getFastGenericDeserializer(intRecord, intRecord)));
+
+    // failures of previous attempts are reported as well
+    result = cache.warmUpGenericDeserializers(Collections.singletonList(incompatiblePair), 1, TimeUnit.MINUTES);
+    Assert.assertEquals(result.getFailedSchemaPairs(), Collections.singleton(incompatiblePair));
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testWarmUpSpecificDeserializers() throws Exception {
+    FastSerdeCache cache = new FastSerdeCache(".");
+
+    FastSerdeWarmUpResult result = cache.warmUpSpecificDeserializers(
+        Collections.singletonList(FastSerdeCache.SchemaPair.forSpecificRecord(TestRecord.class)), 1, TimeUnit.MINUTES);
+
+    Assert.assertTrue(result.isSuccessful(), result.toString());
+    Assert.assertTrue(FastSerdeCache.isFastDeserializer(
+        cache.getFastSpecificDeserializer(TestRecord.SCHEMA$, TestRecord.SCHEMA$)));
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testWarmUpTimeout() throws Exception {
+    // executor which never runs anything
+    FastSerdeCache cache = new FastSerdeCache(command -> { }, () -> null, true);
+    Schema testRecord = Schema.parse("{\"type\": \"record\", \"name\": \"warm_up_timeout_record\", \"fields\":["
+        + "{\"name\": \"testInt\", \"type\": \"int\"}]}");
+    FastSerdeCache.SchemaPair schemaPair = new FastSerdeCache.SchemaPair(testRecord, testRecord);
+
+    FastSerdeWarmUpResult result = cache.warmUpGenericDeserializers(Collections.singletonList(schemaPair), 10,
+        TimeUnit.MILLISECONDS);
+
+    Assert.assertTrue(result.isTimedOut());
+    Assert.assertTrue(result.getFailures().get(schemaPair) instanceof TimeoutException);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testSchemaFingerprintKeysDoNotCollide() {
+    // used to collide when keys were the concatenation of the absolute values of the fingerprints
+    Assert.assertNotEquals(new SchemaFingerprintKey(12L, 345L), new SchemaFingerprintKey(123L, 45L));
+    Assert.assertNotEquals(new SchemaFingerprintKey(-12L, 345L), new SchemaFingerprintKey(12L, 345L));
+    Assert.assertEquals(new SchemaFingerprintKey(-12L, 345L), new SchemaFingerprintKey(-12L, 345L));
+    Assert.assertEquals(new SchemaFingerprintKey(-12L, 345L).hashCode(), new SchemaFingerprintKey(-12L, 345L).hashCode());
+
+    Schema firstRecord = Schema.parse("{\"type\": \"record\", \"name\": \"first_record\", \"fields\":[]}");
+    Schema secondRecord = Schema.parse("{\"type\": \"record\", \"name\": \"second_record\", \"fields\":[]}");
+    SchemaFingerprintKey key = new SchemaFingerprintKey(firstRecord, secondRecord);
+    Assert.assertEquals(SchemaFingerprintKey.probe(firstRecord, secondRecord), key);
+    Assert.assertNotEquals(SchemaFingerprintKey.probe(secondRecord, firstRecord), key);
+    Assert.assertSame(SchemaFingerprintKey.probe(firstRecord, firstRecord), SchemaFingerprintKey.probe(secondRecord, secondRecord));
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testSchemaFingerprintKeyProbesDoNotRetainSchemas() throws Exception {
+    Schema testRecord = Schema.parse("{\"type\": \"record\", \"name\": \"test_record\", \"fields\":[]}");
+    SchemaFingerprintKey key = new SchemaFingerprintKey(testRecord, testRecord);
+    Assert.assertEquals(SchemaFingerprintKey.probe(testRecord, testRecord), key);
+    WeakReference<Schema> schemaReference = new WeakReference<>(testRecord);
+    testRecord = null;
+
+    for (int i = 0; i < 100 && schemaReference.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    Assert.assertNull(schemaReference.get());
+  }
 }
@@ -1,13 +1,24 @@
 package com.linkedin.avro.fastserde;
 
+import com.linkedin.avro.api.PrimitiveDoubleList;
 import com.linkedin.avro.fastserde.primitive.PrimitiveFloatArrayList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveIntArrayList;
 import com.linkedin.avro.fastserde.primitive.PrimitiveLongArrayList;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import com.linkedin.avroutil1.compatibility.PrimitiveArrayDecoder;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 
 
+@SuppressWarnings("unchecked")
 public class PrimitiveArrayListTest {
   @Test
   public void testPrimitiveLongArrayAdd() {
@@ -27,4 +38,90 @@ public class PrimitiveArrayListTest {
     List<Float> expectedVector = Arrays.asList(1.0f, 2.0f, 3.0f);
     Assert.assertEquals(newVector, expectedVector);
   }
-}
\ No newline at end of file
+
+  @Test
+  public void testReadPrimitiveDoubleArrayInBlocks() throws Exception {
+    List<Double> array = (List<Double>) ByteBufferBackedPrimitiveDoubleList.readPrimitiveDoubleArray(null,
+        encodeBlocks(Encoder::writeDouble, Arrays.asList(Arrays.asList(1.0, 2.0, 3.0), Arrays.asList(4.0, 5.0))));
+    Assert.assertEquals(array, Arrays.asList(1.0, 2.0, 3.0, 4.0, 5.0));
+
+    // reused ByteBuffers are larger than the new blocks
+    List<Double> reused = (List<Double>) ByteBufferBackedPrimitiveDoubleList.readPrimitiveDoubleArray(array,
+        encodeBlocks(Encoder::writeDouble, Arrays.asList(Arrays.asList(6.0), Arrays.asList(7.0))));
+    Assert.assertSame(reused, array);
+    Assert.assertEquals(reused, Arrays.asList(6.0, 7.0));
+    Assert.assertEquals(((PrimitiveDoubleList) reused).getPrimitive(1), 7.0);
+
+    reused.add(8.0);
+    reused.set(0, 9.0);
+    Assert.assertEquals(reused, Arrays.asList(9.0, 7.0, 8.0));
+  }
+
+  @Test
+  public void testReadPrimitiveLongArrayInBlocks() throws Exception {
+    List<Long> array = (List<Long>) PrimitiveLongArrayList.readPrimitiveLongArray(new PrimitiveLongArrayList(1),
+        encodeBlocks(Encoder::writeLong,
+            Arrays.asList(Arrays.asList(1L, -2L, Long.MAX_VALUE), Arrays.asList(Long.MIN_VALUE))));
+    Assert.assertEquals(array, Arrays.asList(1L, -2L, Long.MAX_VALUE, Long.MIN_VALUE));
+
+    List<Long> reused = (List<Long>) PrimitiveLongArrayList.readPrimitiveLongArray(array,
+        encodeBlocks(Encoder::writeLong, Arrays.asList(Arrays.asList(3L))));
+    Assert.assertSame(reused, array);
+    Assert.assertEquals(reused, Arrays.asList(3L));
+  }
+
+  @Test
+  public void testReadPrimitiveIntArrayInBlocks() throws Exception {
+    List<Integer> array = (List<Integer>) PrimitiveIntArrayList.readPrimitiveIntArray(null,
+        encodeBlocks(Encoder::writeInt,
+            Arrays.asList(Arrays.asList(1, -2), Arrays.asList(Integer.MAX_VALUE, Integer.MIN_VALUE))));
+    Assert.assertEquals(array, Arrays.asList(1, -2, Integer.MAX_VALUE, Integer.MIN_VALUE));
+  }
+
+  @Test
+  public void testReadPrimitiveIntAndLongArraysWithBulkDecoder() throws Exception {
+    List<Integer> ints = new ArrayList<>();
+    List<Long> longs = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      ints.add((i % 2 == 0 ? -i : i) << (i % 32));
+      longs.add((i % 2 == 0 ? -(long) i : i) << (i % 64));
+    }
+    List<Integer> intBlock = Arrays.asList(Integer.MAX_VALUE, Integer.MIN_VALUE);
+    List<Long> longBlock = Arrays.asList(Long.MAX_VALUE, Long.MIN_VALUE);
+
+    Decoder intDecoder =
+        AvroCompatibilityHelper.newBoundedMemoryDecoder(encode(Encoder::writeInt, Arrays.asList(ints, intBlock)));
+    Assert.assertTrue(intDecoder instanceof PrimitiveArrayDecoder);
+    List<Integer> intArray = (List<Integer>) PrimitiveIntArrayList.readPrimitiveIntArray(null, intDecoder);
+    Assert.assertEquals(intArray.subList(0, ints.size()), ints);
+    Assert.assertEquals(intArray.subList(ints.size(), intArray.size()), intBlock);
+
+    Decoder longDecoder = AvroCompatibilityHelper.newBoundedMemoryDecoder(
+        new ByteArrayInputStream(encode(Encoder::writeLong, Arrays.asList(longs, longBlock))));
+    List<Long> longArray = (List<Long>) PrimitiveLongArrayList.readPrimitiveLongArray(null, longDecoder);
+    Assert.assertEquals(longArray.subList(0, longs.size()), longs);
+    Assert.assertEquals(longArray.subList(longs.size(), longArray.size()), longBlock);
+  }
+
+  private interface ElementWriter<E> {
+    void write(Encoder encoder, E element) throws IOException;
+  }
+
+  private static <E> Decoder encodeBlocks(ElementWriter<E> elementWriter, List<List<E>> blocks) throws IOException {
+    return AvroCompatibilityHelper.newBinaryDecoder(encode(elementWriter, blocks));
+  }
+
+  private static <E> byte[] encode(ElementWriter<E> elementWriter, List<List<E>> blocks) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    for (List<E> block : blocks) {
+      encoder.writeLong(block.size());
+      for (E element : block) {
+        elementWriter.write(encoder, element);
+      }
+    }
+    encoder.writeLong(0);
+    encoder.flush();
+    return baos.toByteArray();
+  }
+}
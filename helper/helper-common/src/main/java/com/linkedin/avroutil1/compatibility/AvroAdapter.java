@@ -11,6 +11,7 @@ import java.io.InputStream;
 import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -53,6 +54,8 @@ public interface AvroAdapter {
   BinaryDecoder newBinaryDecoder(byte[] bytes, int offset,
       int length, BinaryDecoder reuse);
 
+  Decoder newBinaryDecoder(ByteBuffer buffer, Decoder reuse);
+
   JsonEncoder newJsonEncoder(Schema schema, OutputStream out, boolean pretty) throws IOException;
 
   Encoder newJsonEncoder(Schema schema, OutputStream out, boolean pretty, AvroVersion jsonFormat) throws IOException;
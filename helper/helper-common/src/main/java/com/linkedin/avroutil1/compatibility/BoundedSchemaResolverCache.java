@@ -0,0 +1,125 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ * Licensed under the BSD 2-Clause License (the "License").
+ * See License in the project root for license information.
+ */
+
+package com.linkedin.avroutil1.compatibility;
+
+import java.io.IOException;
+import org.apache.avro.Schema;
+
+
+/**
+ * {@link SchemaResolverCache} bounded by number of schema pairs, the least recently used pairs being evicted first,
+ * see {@link EvictingConcurrentHashMap}. It counts hits, misses and evictions.
+ *
+ * Pairs are hashed by the 64-bit parsing fingerprints of their schemas, which {@link SchemaFingerprintCache} computes
+ * once per schema instance, and compared by identity first. Equal schema instances are still compared with
+ * {@link Schema#equals(Object)}, since fingerprints ignore defaults and aliases, which resolvers depend on.
+ */
+public class BoundedSchemaResolverCache implements SchemaResolverCache {
+  /**
+   * Maximum number of schema pairs of the shared cache, unless set by the {@value #MAX_ENTRIES_PROPERTY} system
+   * property. Resolvers are small compared to schemas, so this only bounds applications resolving an ever growing
+   * number of schemas, such as ones fetching them from a registry.
+   */
+  public static final int DEFAULT_MAX_ENTRIES = 10000;
+
+  /**
+   * System property setting the maximum number of schema pairs of the shared cache, read once when the shared cache
+   * is first used, see {@link SchemaResolverCache#getShared()}.
+   */
+  public static final String MAX_ENTRIES_PROPERTY = "com.linkedin.avroutil1.schemaResolverCache.maxEntries";
+
+  private final EvictingConcurrentHashMap<Key, Object> resolvers;
+
+  /**
+   * @param maxEntries maximum number of schema pairs
+   */
+  public BoundedSchemaResolverCache(int maxEntries) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive, got: " + maxEntries);
+    }
+    this.resolvers = new EvictingConcurrentHashMap<>(maxEntries, Long.MAX_VALUE, resolver -> 0L);
+  }
+
+  @Override
+  public Object getResolver(Schema writer, Schema reader, Resolver resolver) throws IOException {
+    Key key = new Key(writer, reader);
+    Object cached = resolvers.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    // resolved outside of any lock, concurrent misses of a pair resolving it more than once
+    Object resolved = resolver.resolve(writer, reader);
+    return resolvers.computeIfAbsent(key, k -> resolved);
+  }
+
+  @Override
+  public void clear() {
+    resolvers.clear();
+  }
+
+  public int size() {
+    return resolvers.size();
+  }
+
+  public int getMaxEntries() {
+    return (int) resolvers.getMaxEntries();
+  }
+
+  public long getHitCount() {
+    return resolvers.getHitCount();
+  }
+
+  public long getMissCount() {
+    return resolvers.getMissCount();
+  }
+
+  public long getEvictionCount() {
+    return resolvers.getEvictionCount();
+  }
+
+  /**
+   * @return ratio of the lookups which found their resolver cached, 0 if there was no lookup yet
+   */
+  public double getHitRate() {
+    long hits = getHitCount();
+    long lookups = hits + getMissCount();
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  private static final class Key {
+    private final Schema writer;
+    private final Schema reader;
+    private final int hash;
+
+    Key(Schema writer, Schema reader) {
+      this.writer = writer;
+      this.reader = reader;
+      SchemaFingerprintCache fingerprints = SchemaFingerprintCache.getDefaultInstance();
+      this.hash = SchemaFingerprintCache.pairHashCode(fingerprints.parsingFingerprint64(writer),
+          fingerprints.parsingFingerprint64(reader));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key that = (Key) o;
+      return hash == that.hash
+          && (writer == that.writer || writer.equals(that.writer))
+          && (reader == that.reader || reader.equals(that.reader));
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
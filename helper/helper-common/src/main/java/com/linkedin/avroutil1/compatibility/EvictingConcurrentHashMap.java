@@ -0,0 +1,264 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ * Licensed under the BSD 2-Clause License (the "License").
+ * See License in the project root for license information.
+ */
+
+package com.linkedin.avroutil1.compatibility;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+
+/**
+ * Cache backed by a {@link ConcurrentHashMap} which can be bounded by number of entries and/or by total weight of its
+ * values, the least recently used entries being evicted first once a bound is exceeded. It also counts hits, misses
+ * and evictions, a miss being counted when a value is computed or put for an absent key rather than by lookups, so
+ * that callers probing with {@link #get(Object)} before {@link #computeIfAbsent(Object, Function)} count each miss
+ * once.
+ *
+ * It wraps the map rather than extending it, so that only the operations keeping the weight and the recency of the
+ * entries up to date are exposed.
+ *
+ * Recency is tracked with a logical clock per entry, which keeps lookups free of any lock. Once a bound is exceeded,
+ * the entries are sorted by recency under a lock, and the least recently used ones are evicted until the map is a
+ * sixteenth below its bounds, so that a full map sorts its entries once per batch of insertions rather than scanning
+ * them on every insertion. This fits caches whose insertions are expensive and rare compared to lookups, such as the
+ * ones of schema resolvers or of generated serializers and deserializers, not general purpose caches. Values are
+ * weighed once, when put.
+ *
+ * {@link #computeIfAbsent(Object, Function)} looks the key up first, to avoid the contention of the JDK implementation
+ * on existing keys.
+ */
+public class EvictingConcurrentHashMap<K, V> {
+  private static final int EVICTION_BATCH_DIVISOR = 16;
+
+  private final long maxEntries;
+  private final long maxWeight;
+  private final ToLongFunction<? super V> weigher;
+
+  private final ConcurrentHashMap<K, Entry<V>> entries = new ConcurrentHashMap<>();
+  private final AtomicLong clock = new AtomicLong();
+  private final AtomicLong weight = new AtomicLong();
+  private final LongAdder hitCount = new LongAdder();
+  private final LongAdder missCount = new LongAdder();
+  private final LongAdder evictionCount = new LongAdder();
+  private final Object evictionLock = new Object();
+
+  /**
+   * Creates an unbounded map, which only counts hits and misses.
+   */
+  public EvictingConcurrentHashMap() {
+    this(Long.MAX_VALUE, Long.MAX_VALUE, value -> 0L);
+  }
+
+  /**
+   * @param maxEntries maximum number of entries, {@link Long#MAX_VALUE} for no bound
+   * @param maxWeight maximum total weight of the values, {@link Long#MAX_VALUE} for no bound
+   * @param weigher function estimating the weight of a value
+   */
+  public EvictingConcurrentHashMap(long maxEntries, long maxWeight, ToLongFunction<? super V> weigher) {
+    if (maxEntries <= 0 || maxWeight <= 0) {
+      throw new IllegalArgumentException("Bounds must be positive, got maxEntries: " + maxEntries + " and maxWeight: " + maxWeight);
+    }
+    this.maxEntries = maxEntries;
+    this.maxWeight = maxWeight;
+    this.weigher = weigher;
+  }
+
+  public boolean isBounded() {
+    return maxEntries != Long.MAX_VALUE || maxWeight != Long.MAX_VALUE;
+  }
+
+  public long getMaxEntries() {
+    return maxEntries;
+  }
+
+  public long getMaxWeight() {
+    return maxWeight;
+  }
+
+  /**
+   * @param key key to look up
+   * @return value of the key, null if absent
+   */
+  public V get(Object key) {
+    Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    hitCount.increment();
+    if (isBounded()) {
+      entry.lastAccess = clock.incrementAndGet();
+    }
+    return entry.value;
+  }
+
+  /**
+   * @param key key to map
+   * @param value value to map the key to, not null
+   * @return previous value of the key, null if absent
+   */
+  public V put(K key, V value) {
+    Entry<V> entry = newEntry(value);
+    Entry<V> previous = entries.put(key, entry);
+    if (previous == null) {
+      missCount.increment();
+    }
+    added(entry, previous);
+    return previous == null ? null : previous.value;
+  }
+
+  /**
+   * Like {@link ConcurrentHashMap#computeIfAbsent(Object, Function)}.
+   *
+   * @param key key to look up
+   * @param mappingFunction function computing the value of an absent key, which isn't mapped if it returns null
+   * @return current or computed value of the key, null if absent and computed as null
+   */
+  public V computeIfAbsent(K key, Function<? super K, ? extends V> mappingFunction) {
+    V value = get(key);
+    if (value != null) {
+      return value;
+    }
+    boolean[] computed = new boolean[1];
+    Entry<V> entry = entries.computeIfAbsent(key, k -> {
+      computed[0] = true;
+      V computedValue = mappingFunction.apply(k);
+      return computedValue == null ? null : newEntry(computedValue);
+    });
+    if (entry == null) {
+      return null;
+    }
+    if (computed[0]) {
+      missCount.increment();
+      added(entry, null);
+    } else {
+      // computed meanwhile by another caller
+      hitCount.increment();
+    }
+    return entry.value;
+  }
+
+  /**
+   * @param key key to remove
+   * @return removed value of the key, null if absent
+   */
+  public V remove(Object key) {
+    Entry<V> entry = entries.remove(key);
+    if (entry == null) {
+      return null;
+    }
+    weight.addAndGet(-entry.weight);
+    return entry.value;
+  }
+
+  /**
+   * Removes every entry, entries put concurrently being possibly kept.
+   */
+  public void clear() {
+    for (K key : entries.keySet()) {
+      remove(key);
+    }
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  public long getHitCount() {
+    return hitCount.sum();
+  }
+
+  public long getMissCount() {
+    return missCount.sum();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.sum();
+  }
+
+  /**
+   * @return current total weight of the values, as estimated by the weigher
+   */
+  public long getWeight() {
+    return weight.get();
+  }
+
+  private Entry<V> newEntry(V value) {
+    return new Entry<>(value, weigher.applyAsLong(value), clock.incrementAndGet());
+  }
+
+  private void added(Entry<V> entry, Entry<V> previous) {
+    weight.addAndGet(previous == null ? entry.weight : entry.weight - previous.weight);
+    if (isBounded() && exceeds(maxEntries, maxWeight)) {
+      evict();
+    }
+  }
+
+  private boolean exceeds(long entryBound, long weightBound) {
+    return entries.size() > entryBound || weight.get() > weightBound;
+  }
+
+  private void evict() {
+    synchronized (evictionLock) {
+      // evicted meanwhile by another caller
+      if (!exceeds(maxEntries, maxWeight)) {
+        return;
+      }
+      // access times are copied, as they change while being sorted
+      List<EvictionCandidate<K, V>> candidates = new ArrayList<>(entries.size());
+      for (Map.Entry<K, Entry<V>> entry : entries.entrySet()) {
+        candidates.add(new EvictionCandidate<>(entry.getKey(), entry.getValue()));
+      }
+      candidates.sort(Comparator.comparingLong(candidate -> candidate.lastAccess));
+      long entryTarget = maxEntries - maxEntries / EVICTION_BATCH_DIVISOR;
+      long weightTarget = maxWeight - maxWeight / EVICTION_BATCH_DIVISOR;
+      for (EvictionCandidate<K, V> candidate : candidates) {
+        if (!exceeds(entryTarget, weightTarget)) {
+          return;
+        }
+        // skips entries which were replaced meanwhile, and so were just used
+        if (entries.remove(candidate.key, candidate.entry)) {
+          weight.addAndGet(-candidate.entry.weight);
+          evictionCount.increment();
+        }
+      }
+    }
+  }
+
+  private static final class Entry<V> {
+    private final V value;
+    private final long weight;
+    private volatile long lastAccess;
+
+    private Entry(V value, long weight, long lastAccess) {
+      this.value = value;
+      this.weight = weight;
+      this.lastAccess = lastAccess;
+    }
+  }
+
+  private static final class EvictionCandidate<K, V> {
+    private final K key;
+    private final Entry<V> entry;
+    private final long lastAccess;
+
+    private EvictionCandidate(K key, Entry<V> entry) {
+      this.key = key;
+      this.entry = entry;
+      this.lastAccess = entry.lastAccess;
+    }
+  }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ * Licensed under the BSD 2-Clause License (the "License").
+ * See License in the project root for license information.
+ */
+
+package com.linkedin.avroutil1.compatibility;
+
+import java.io.IOException;
+
+
+/**
+ * Implemented by decoders able to decode many consecutive ints or longs in one call, e.g. the items of a block of an
+ * array of ints or longs. Decoding them in bulk saves a buffer bounds check and a method call per item compared with
+ * calling {@link org.apache.avro.io.Decoder#readInt()} or {@link org.apache.avro.io.Decoder#readLong()} in a loop.
+ */
+public interface PrimitiveArrayDecoder {
+
+  /**
+   * Decodes {@code count} consecutive zig-zag varint encoded ints, as {@link org.apache.avro.io.Decoder#readInt()}
+   * would one by one.
+   *
+   * @param values array to store the decoded ints into
+   * @param offset index in values of the first decoded int
+   * @param count number of ints to decode
+   * @throws IOException on io errors or invalid int encodings
+   */
+  void readInts(int[] values, int offset, int count) throws IOException;
+
+  /**
+   * Decodes {@code count} consecutive zig-zag varint encoded longs, as {@link org.apache.avro.io.Decoder#readLong()}
+   * would one by one.
+   *
+   * @param values array to store the decoded longs into
+   * @param offset index in values of the first decoded long
+   * @param count number of longs to decode
+   * @throws IOException on io errors or invalid long encodings
+   */
+  void readLongs(long[] values, int offset, int count) throws IOException;
+}
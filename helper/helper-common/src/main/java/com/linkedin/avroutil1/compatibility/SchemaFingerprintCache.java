@@ -0,0 +1,146 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ * Licensed under the BSD 2-Clause License (the "License").
+ * See License in the project root for license information.
+ */
+
+package com.linkedin.avroutil1.compatibility;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.avro.Schema;
+
+
+/**
+ * Thread-safe cache of the {@link SchemaNormalization#parsingFingerprint64(Schema)} of schemas, keyed by schema
+ * identity and holding the schemas weakly, so that it never prevents schemas from being garbage collected, and
+ * looking a schema up never hashes nor compares whole schemas, as {@link Schema#hashCode()} and
+ * {@link Schema#equals(Object)} do.
+ *
+ * The parsing canonical form of a schema can't change once its fields are set, so the fingerprint of a schema
+ * instance can be computed only once. Equal schema instances are fingerprinted once each.
+ */
+public class SchemaFingerprintCache {
+  private static final SchemaFingerprintCache DEFAULT_INSTANCE = new SchemaFingerprintCache();
+
+  private final ConcurrentHashMap<Key, Long> fingerprints = new ConcurrentHashMap<>();
+  private final ReferenceQueue<Schema> collectedSchemas = new ReferenceQueue<>();
+
+  /**
+   * @return a cache shared by all the callers of this library
+   */
+  public static SchemaFingerprintCache getDefaultInstance() {
+    return DEFAULT_INSTANCE;
+  }
+
+  /**
+   * @param schema a schema
+   * @return the 64-bit parsing fingerprint of the schema, see {@link SchemaNormalization#parsingFingerprint64(Schema)}
+   */
+  public long parsingFingerprint64(Schema schema) {
+    Long fingerprint = fingerprints.get(new LookupKey(schema));
+    if (fingerprint == null) {
+      expungeCollectedSchemas();
+      fingerprint = SchemaNormalization.parsingFingerprint64(schema);
+      fingerprints.putIfAbsent(new WeakKey(schema, collectedSchemas), fingerprint);
+    }
+    return fingerprint;
+  }
+
+  /**
+   * @param writerFingerprint fingerprint of the writer schema of a pair
+   * @param readerFingerprint fingerprint of the reader schema of a pair
+   * @return hash code of the schema pair, mixing the fingerprints so that swapped pairs hash differently
+   */
+  public static int pairHashCode(long writerFingerprint, long readerFingerprint) {
+    long hash = writerFingerprint * 0x9E3779B97F4A7C15L + readerFingerprint;
+    return (int) (hash ^ (hash >>> 32));
+  }
+
+  /**
+   * @return number of schemas in the cache, including those collected since the last lookup of an uncached schema
+   */
+  public int size() {
+    return fingerprints.size();
+  }
+
+  public void clear() {
+    fingerprints.clear();
+    expungeCollectedSchemas();
+  }
+
+  private void expungeCollectedSchemas() {
+    for (Reference<? extends Schema> collected = collectedSchemas.poll(); collected != null;
+        collected = collectedSchemas.poll()) {
+      fingerprints.remove(collected);
+    }
+  }
+
+  /**
+   * Schema compared by identity, either held weakly by the entries of the cache, or strongly by the lookups.
+   */
+  private interface Key {
+    Schema schema();
+  }
+
+  private static boolean sameSchema(Key key, Object other) {
+    if (key == other) {
+      return true;
+    }
+    if (!(other instanceof Key)) {
+      return false;
+    }
+    Schema schema = key.schema();
+    // entries whose schema was collected are only equal to themselves
+    return schema != null && schema == ((Key) other).schema();
+  }
+
+  private static final class WeakKey extends WeakReference<Schema> implements Key {
+    private final int hash;
+
+    WeakKey(Schema schema, ReferenceQueue<Schema> queue) {
+      super(schema, queue);
+      this.hash = System.identityHashCode(schema);
+    }
+
+    @Override
+    public Schema schema() {
+      return get();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return sameSchema(this, o);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private static final class LookupKey implements Key {
+    private final Schema schema;
+
+    LookupKey(Schema schema) {
+      this.schema = schema;
+    }
+
+    @Override
+    public Schema schema() {
+      return schema;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      return sameSchema(this, o);
+    }
+
+    @Override
+    public int hashCode() {
+      return System.identityHashCode(schema);
+    }
+  }
+}
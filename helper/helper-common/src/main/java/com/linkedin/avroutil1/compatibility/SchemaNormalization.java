@@ -24,11 +24,10 @@
 package com.linkedin.avroutil1.compatibility;
 
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.HashSet;
+import java.util.Set;
 import org.apache.avro.Schema;
 
 
@@ -36,6 +35,12 @@ import org.apache.avro.Schema;
  * Collection of static methods for generating the canonical form of schemas
  * (see {@link #toParsingForm}) -- and fingerprints of canonical forms
  * ({@link #fingerprint}).
+ *
+ * The parsing fingerprints of schemas ({@link #parsingFingerprint64} and
+ * {@link #parsingFingerprint}) are computed while traversing the schema, the
+ * canonical form being encoded to UTF-8 straight into the fingerprint state,
+ * without building it as a String. See {@link SchemaFingerprintCache} to
+ * compute them once per schema instance.
  */
 public class SchemaNormalization {
 
@@ -49,7 +54,7 @@ public class SchemaNormalization {
    */
   public static String toParsingForm(Schema s) {
     try {
-      Map<String, String> env = new HashMap<>();
+      Set<String> env = new HashSet<>();
       return build(env, s, new StringBuilder()).toString();
     } catch (IOException e) {
       // Shouldn't happen, b/c StringBuilder can't throw IOException
@@ -111,7 +116,18 @@ public class SchemaNormalization {
    * @throws NoSuchAlgorithmException if algorithm if not found
    */
   public static byte[] parsingFingerprint(String fpName, Schema s) throws NoSuchAlgorithmException {
-    return fingerprint(fpName, toParsingForm(s).getBytes(StandardCharsets.UTF_8));
+    if (fpName.equals("CRC-64-AVRO")) {
+      long fp = parsingFingerprint64(s);
+      byte[] result = new byte[8];
+      for (int i = 0; i < 8; i++) {
+        result[i] = (byte) fp;
+        fp >>= 8;
+      }
+      return result;
+    }
+    DigestSink sink = new DigestSink(MessageDigest.getInstance(fpName));
+    stream(s, sink);
+    return sink.digest();
   }
 
   /**
@@ -121,10 +137,22 @@ public class SchemaNormalization {
    * @return 64bit fingerprint of given schemas parsing canonical form
    */
   public static long parsingFingerprint64(Schema s) {
-    return fingerprint64(toParsingForm(s).getBytes(StandardCharsets.UTF_8));
+    Fingerprint64Sink sink = new Fingerprint64Sink();
+    stream(s, sink);
+    return sink.fingerprint;
   }
 
-  private static Appendable build(Map<String, String> env, Schema s, Appendable o) throws IOException {
+  private static void stream(Schema s, Utf8Sink sink) {
+    try {
+      build(new HashSet<>(), s, sink);
+      sink.end();
+    } catch (IOException e) {
+      // Shouldn't happen, b/c sinks can't throw IOException
+      throw new RuntimeException(e);
+    }
+  }
+
+  private static Appendable build(Set<String> env, Schema s, Appendable o) throws IOException {
     boolean firstTime = true;
     Schema.Type st = s.getType();
     switch (st) {
@@ -152,11 +180,9 @@ public class SchemaNormalization {
       case FIXED:
       case RECORD:
         String name = s.getFullName();
-        if (env.get(name) != null)
-          return o.append(env.get(name));
-        String qname = "\"" + name + "\"";
-        env.put(name, qname);
-        o.append("{\"name\":").append(qname);
+        if (!env.add(name))
+          return o.append('"').append(name).append('"');
+        o.append("{\"name\":\"").append(name).append('"');
         o.append(",\"type\":\"").append(st.name()).append("\"");
         if (st == Schema.Type.ENUM) {
           o.append(",\"symbols\":[");
@@ -186,6 +212,102 @@ public class SchemaNormalization {
     }
   }
 
+  /**
+   * {@link Appendable} encoding what is appended to UTF-8, the same way as
+   * {@link String#getBytes(java.nio.charset.Charset)} does, unpaired surrogates
+   * being replaced by '?', and passing each byte to {@link #write(int)}.
+   */
+  private abstract static class Utf8Sink implements Appendable {
+    private char pendingHighSurrogate;
+
+    abstract void write(int b);
+
+    @Override
+    public Appendable append(CharSequence csq) {
+      return append(csq, 0, csq.length());
+    }
+
+    @Override
+    public Appendable append(CharSequence csq, int start, int end) {
+      for (int i = start; i < end; i++) {
+        append(csq.charAt(i));
+      }
+      return this;
+    }
+
+    @Override
+    public Appendable append(char c) {
+      if (pendingHighSurrogate != 0) {
+        char high = pendingHighSurrogate;
+        pendingHighSurrogate = 0;
+        if (Character.isLowSurrogate(c)) {
+          int codePoint = Character.toCodePoint(high, c);
+          write(0xf0 | (codePoint >> 18));
+          write(0x80 | ((codePoint >> 12) & 0x3f));
+          write(0x80 | ((codePoint >> 6) & 0x3f));
+          write(0x80 | (codePoint & 0x3f));
+          return this;
+        }
+        write('?');
+      }
+      if (c < 0x80) {
+        write(c);
+      } else if (c < 0x800) {
+        write(0xc0 | (c >> 6));
+        write(0x80 | (c & 0x3f));
+      } else if (Character.isHighSurrogate(c)) {
+        pendingHighSurrogate = c;
+      } else if (Character.isLowSurrogate(c)) {
+        write('?');
+      } else {
+        write(0xe0 | (c >> 12));
+        write(0x80 | ((c >> 6) & 0x3f));
+        write(0x80 | (c & 0x3f));
+      }
+      return this;
+    }
+
+    void end() {
+      if (pendingHighSurrogate != 0) {
+        pendingHighSurrogate = 0;
+        write('?');
+      }
+    }
+  }
+
+  private static final class Fingerprint64Sink extends Utf8Sink {
+    private long fingerprint = EMPTY64;
+
+    @Override
+    void write(int b) {
+      fingerprint = (fingerprint >>> 8) ^ FP64.FP_TABLE[(int) (fingerprint ^ b) & 0xff];
+    }
+  }
+
+  private static final class DigestSink extends Utf8Sink {
+    private final MessageDigest digest;
+    private final byte[] buffer = new byte[256];
+    private int count;
+
+    DigestSink(MessageDigest digest) {
+      this.digest = digest;
+    }
+
+    @Override
+    void write(int b) {
+      if (count == buffer.length) {
+        digest.update(buffer, 0, count);
+        count = 0;
+      }
+      buffer[count++] = (byte) b;
+    }
+
+    byte[] digest() {
+      digest.update(buffer, 0, count);
+      return digest.digest();
+    }
+  }
+
   final static long EMPTY64 = 0xc15d213aa4d7a795L;
   /* An inner class ensures that FP_TABLE initialized only when needed. */
   private static class FP64 {
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ * Licensed under the BSD 2-Clause License (the "License").
+ * See License in the project root for license information.
+ */
+
+package com.linkedin.avroutil1.compatibility;
+
+import java.io.IOException;
+import org.apache.avro.Schema;
+
+
+/**
+ * Cache of the resolvers (resolving grammars) of writer and reader schema pairs, used by the decoders returned by
+ * {@link AvroCompatibilityHelper#newCachedResolvingDecoder}. Resolvers are specific to the avro version in use, and
+ * opaque to the cache.
+ *
+ * All the avro versions share the cache returned by {@link #getShared()}, by default a
+ * {@link BoundedSchemaResolverCache} of {@link BoundedSchemaResolverCache#DEFAULT_MAX_ENTRIES} pairs, or of as many as
+ * set by the {@link BoundedSchemaResolverCache#MAX_ENTRIES_PROPERTY} system property. It can be replaced through
+ * {@link #setShared(SchemaResolverCache)}.
+ */
+public interface SchemaResolverCache {
+
+  /**
+   * @param writer writer schema
+   * @param reader reader schema
+   * @param resolver creates the resolver of the pair if it isn't cached
+   * @return the resolver of the schema pair
+   * @throws IOException if the resolver can't be created
+   */
+  Object getResolver(Schema writer, Schema reader, Resolver resolver) throws IOException;
+
+  /**
+   * Removes all the cached resolvers.
+   */
+  void clear();
+
+  /**
+   * @return the cache used by {@link AvroCompatibilityHelper#newCachedResolvingDecoder}
+   */
+  static SchemaResolverCache getShared() {
+    return SharedSchemaResolverCache.instance;
+  }
+
+  /**
+   * @param cache the cache to be used from now on by {@link AvroCompatibilityHelper#newCachedResolvingDecoder}
+   */
+  static void setShared(SchemaResolverCache cache) {
+    if (cache == null) {
+      throw new IllegalArgumentException("cache cannot be null");
+    }
+    SharedSchemaResolverCache.instance = cache;
+  }
+
+  @FunctionalInterface
+  interface Resolver {
+    Object resolve(Schema writer, Schema reader) throws IOException;
+  }
+}
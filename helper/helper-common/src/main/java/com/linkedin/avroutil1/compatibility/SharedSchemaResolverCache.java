@@ -0,0 +1,18 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ * Licensed under the BSD 2-Clause License (the "License").
+ * See License in the project root for license information.
+ */
+
+package com.linkedin.avroutil1.compatibility;
+
+/**
+ * Holder of {@link SchemaResolverCache#getShared()}.
+ */
+final class SharedSchemaResolverCache {
+  static volatile SchemaResolverCache instance = new BoundedSchemaResolverCache(
+      Integer.getInteger(BoundedSchemaResolverCache.MAX_ENTRIES_PROPERTY, BoundedSchemaResolverCache.DEFAULT_MAX_ENTRIES));
+
+  private SharedSchemaResolverCache() {
+  }
+}
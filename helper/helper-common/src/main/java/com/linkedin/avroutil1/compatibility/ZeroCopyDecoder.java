@@ -0,0 +1,40 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ * Licensed under the BSD 2-Clause License (the "License").
+ * See License in the project root for license information.
+ */
+
+package com.linkedin.avroutil1.compatibility;
+
+/**
+ * Implemented by decoders of byte arrays able to hand out the content of strings, bytes and fixed as views over the
+ * decoded array rather than as copies. The array is never modified by the decoder, so that such views stay valid for
+ * as long as the caller keeps the array unchanged, e.g. for the lifetime of the records decoded from it.
+ *
+ * Typical usage, for a string:
+ * <pre>
+ *   int length = decoder.readInt();
+ *   byte[] array = decoder.getSourceArray();
+ *   int offset = decoder.readInPlace(length);
+ *   if (offset &lt; 0) {
+ *     // not available in place, to be copied with decoder.readFixed(bytes, 0, length)
+ *   }
+ * </pre>
+ */
+public interface ZeroCopyDecoder {
+
+  /**
+   * @return the byte array being decoded, into which the offsets returned by {@link #readInPlace(int)} point, or null
+   *         if the decoder doesn't read from an array, e.g. because it reads from an {@link java.io.InputStream}
+   */
+  byte[] getSourceArray();
+
+  /**
+   * Consumes the next {@code length} bytes without copying them, if they can be found in {@link #getSourceArray()}.
+   *
+   * @param length number of bytes to consume
+   * @return the offset of the consumed bytes in {@link #getSourceArray()}, or -1, nothing being consumed, if the bytes
+   *         aren't available in place
+   */
+  int readInPlace(int length);
+}
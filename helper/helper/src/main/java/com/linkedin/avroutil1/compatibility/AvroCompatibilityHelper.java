@@ -23,6 +23,7 @@ import java.io.ObjectOutput;
 import java.io.OutputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.util.Collection;
 import java.util.List;
@@ -174,6 +175,32 @@ public class AvroCompatibilityHelper {
     return newBinaryDecoder(new ByteArrayInputStream(in), false, null);
   }
 
+  /**
+   * constructs or reinitializes a binary {@link Decoder} with the remaining bytes of the given buffer as the source
+   * of data, heap or direct, without copying them to an intermediate array first. the position of the buffer is
+   * left unchanged, and the buffer must not be modified while being decoded.
+   * <br>
+   * like {@link #newBoundedMemoryDecoder(byte[])}, the decoder fails on lengths and item counts larger than the
+   * buffer, and it is not a {@link BinaryDecoder}, since the decoders of avro can only read arrays and streams.
+   * @param buffer buffer with data
+   * @param reuse a decoder previously returned by this method to reinitialize, or null
+   * @return a decoder of the given buffer, <i>reuse</i> if it could be reinitialized
+   */
+  public static Decoder newBinaryDecoder(ByteBuffer buffer, Decoder reuse) {
+    assertAvroAvailable();
+    return ADAPTER.newBinaryDecoder(buffer, reuse);
+  }
+
+  /**
+   * convenience method for getting a binary {@link Decoder} for a given {@link ByteBuffer}
+   * @param buffer buffer with data
+   * @return a decoder of the remaining bytes of the given buffer
+   * @see #newBinaryDecoder(ByteBuffer, Decoder)
+   */
+  public static Decoder newBinaryDecoder(ByteBuffer buffer) {
+    return newBinaryDecoder(buffer, null);
+  }
+
   /**
    * convenience method for getting a (buffered) {@link BinaryDecoder} for a given {@link InputStream}
    * @param in an input stream
@@ -183,6 +210,60 @@ public class AvroCompatibilityHelper {
     return newBinaryDecoder(in, true, null);
   }
 
+  /**
+   * borrows the {@link BinaryDecoder} of the calling thread dedicated to byte arrays, reconfigured to decode
+   * the given range of the given array, for code paths which can't keep a decoder to reuse themselves.
+   * the decoder must be returned by closing the borrowed handle, typically with try-with-resources, and must not
+   * be used afterwards, kept, nor handed over to another thread.
+   * <br>
+   * a decoder borrowed while this thread's one is already borrowed, e.g. from nested deserialization code, is a new
+   * one. a handle which is never closed makes every later borrow on the same thread allocate a new decoder.
+   * @param bytes byte array with data
+   * @param offset offset of the data in the array
+   * @param length length of the data
+   * @return a handle lending this thread's pooled {@link BinaryDecoder}, decoding the given array
+   */
+  public static PooledBinaryCodecs.BorrowedDecoder borrowPooledBinaryDecoder(byte[] bytes, int offset, int length) {
+    assertAvroAvailable();
+    return PooledBinaryCodecs.arrayDecoder(bytes, offset, length);
+  }
+
+  /**
+   * same as {@link #borrowPooledBinaryDecoder(byte[], int, int)}, decoding the whole array
+   * @param bytes byte array with data
+   * @return a handle lending this thread's pooled {@link BinaryDecoder}, decoding the given array
+   */
+  public static PooledBinaryCodecs.BorrowedDecoder borrowPooledBinaryDecoder(byte[] bytes) {
+    return borrowPooledBinaryDecoder(bytes, 0, bytes.length);
+  }
+
+  /**
+   * borrows the buffered {@link BinaryDecoder} of the calling thread dedicated to input streams, reconfigured to
+   * decode the given stream. the same rules as {@link #borrowPooledBinaryDecoder(byte[], int, int)} apply.
+   * as with any buffered decoder, the stream may be read ahead of what was decoded, and the bytes read ahead are
+   * dropped when the decoder is returned. note that avro allocates a new read buffer whenever the decoder is
+   * configured with a new stream, so only the decoder itself is reused, which makes decoding arrays with
+   * {@link #borrowPooledBinaryDecoder(byte[], int, int)} preferable when possible.
+   * @param in an input stream
+   * @return a handle lending this thread's pooled {@link BinaryDecoder}, decoding the given stream
+   */
+  public static PooledBinaryCodecs.BorrowedDecoder borrowPooledBinaryDecoder(InputStream in) {
+    assertAvroAvailable();
+    return PooledBinaryCodecs.streamDecoder(in);
+  }
+
+  /**
+   * borrows the buffered {@link BinaryEncoder} of the calling thread, reconfigured to write to the given stream
+   * while keeping its write buffer. closing the borrowed handle flushes the encoder into the given stream before
+   * returning it. the same rules as {@link #borrowPooledBinaryDecoder(byte[], int, int)} apply.
+   * @param out an output stream
+   * @return a handle lending this thread's pooled {@link BinaryEncoder}, writing to the given stream
+   */
+  public static PooledBinaryCodecs.BorrowedEncoder borrowPooledBinaryEncoder(OutputStream out) {
+    assertAvroAvailable();
+    return PooledBinaryCodecs.encoder(out);
+  }
+
   /**
    * constructs a {@link BinaryDecoder} on top of the given {@link ObjectInput}.
    * this is mostly meant as a runtime utility for generated classes that implement {@link java.io.Externalizable}
@@ -284,7 +365,9 @@ public class AvroCompatibilityHelper {
   }
 
   /**
-   * {@link Decoder} that performs type-resolution between the reader's and writer's schemas.
+   * {@link Decoder} that performs type-resolution between the reader's and writer's schemas. The resolvers of schema
+   * pairs are cached in {@link SchemaResolverCache#getShared()}, which can be sized or replaced, see
+   * {@link BoundedSchemaResolverCache}.
    * @param writer writer schema
    * @param reader reader schema
    * @param in a String containing a json-serialized avro payload
@@ -0,0 +1,169 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ * Licensed under the BSD 2-Clause License (the "License").
+ * See License in the project root for license information.
+ */
+
+package com.linkedin.avroutil1.compatibility;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+
+
+/**
+ * per-thread binary decoders and encoders, lent for the scope of a try-with-resources block, see
+ * {@link AvroCompatibilityHelper#borrowPooledBinaryDecoder(byte[], int, int)},
+ * {@link AvroCompatibilityHelper#borrowPooledBinaryDecoder(InputStream)} and
+ * {@link AvroCompatibilityHelper#borrowPooledBinaryEncoder(OutputStream)}.
+ * decoders of arrays and of streams are pooled separately, since avro only reconfigures a decoder of the same kind.
+ * <br>
+ * once returned, a decoder is pointed at an empty array and the encoder at a stream discarding its bytes, so that the
+ * pool doesn't keep the arrays and streams of its last callers reachable, and that bytes left in the buffer of the
+ * encoder by a caller which didn't flush it can't be flushed into the stream of the next caller. a codec borrowed
+ * while the pooled one is already lent on the same thread, e.g. from nested deserialization code, is a new one.
+ */
+public final class PooledBinaryCodecs {
+  private static final ThreadLocal<PooledBinaryCodecs> POOL = ThreadLocal.withInitial(PooledBinaryCodecs::new);
+  private static final byte[] EMPTY = new byte[0];
+  private static final OutputStream DISCARDING_STREAM = new OutputStream() {
+    @Override
+    public void write(int b) {
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+    }
+  };
+
+  private BinaryDecoder arrayDecoder;
+  private boolean arrayDecoderLent;
+  private BinaryDecoder streamDecoder;
+  private boolean streamDecoderLent;
+  private BinaryEncoder encoder;
+  private boolean encoderLent;
+
+  private PooledBinaryCodecs() {
+  }
+
+  static BorrowedDecoder arrayDecoder(byte[] bytes, int offset, int length) {
+    PooledBinaryCodecs codecs = POOL.get();
+    if (codecs.arrayDecoderLent) {
+      return new BorrowedDecoder(AvroCompatibilityHelper.newBinaryDecoder(bytes, offset, length, null), null, false);
+    }
+    codecs.arrayDecoder = AvroCompatibilityHelper.newBinaryDecoder(bytes, offset, length, codecs.arrayDecoder);
+    codecs.arrayDecoderLent = true;
+    return new BorrowedDecoder(codecs.arrayDecoder, codecs, false);
+  }
+
+  static BorrowedDecoder streamDecoder(InputStream in) {
+    PooledBinaryCodecs codecs = POOL.get();
+    if (codecs.streamDecoderLent) {
+      return new BorrowedDecoder(AvroCompatibilityHelper.newBinaryDecoder(in, true, null), null, true);
+    }
+    codecs.streamDecoder = AvroCompatibilityHelper.newBinaryDecoder(in, true, codecs.streamDecoder);
+    codecs.streamDecoderLent = true;
+    return new BorrowedDecoder(codecs.streamDecoder, codecs, true);
+  }
+
+  static BorrowedEncoder encoder(OutputStream out) {
+    PooledBinaryCodecs codecs = POOL.get();
+    if (codecs.encoderLent) {
+      return new BorrowedEncoder(AvroCompatibilityHelper.newBinaryEncoder(out, true, null), null);
+    }
+    codecs.encoder = AvroCompatibilityHelper.newBinaryEncoder(out, true, codecs.encoder);
+    codecs.encoderLent = true;
+    return new BorrowedEncoder(codecs.encoder, codecs);
+  }
+
+  /**
+   * a {@link BinaryDecoder} lent by the pool of the calling thread, returned to it when closed
+   */
+  public static final class BorrowedDecoder implements Closeable {
+    private final BinaryDecoder decoder;
+    private final boolean stream;
+    private PooledBinaryCodecs codecs;
+
+    private BorrowedDecoder(BinaryDecoder decoder, PooledBinaryCodecs codecs, boolean stream) {
+      this.decoder = decoder;
+      this.codecs = codecs;
+      this.stream = stream;
+    }
+
+    /**
+     * @return the lent decoder, which must not be used once this is closed
+     */
+    public BinaryDecoder getDecoder() {
+      return decoder;
+    }
+
+    /**
+     * points the decoder at an empty array and returns it to the pool. a decoder of a stream may have read it ahead
+     * of what was decoded, and the bytes read ahead are dropped.
+     */
+    @Override
+    public void close() {
+      if (codecs == null) {
+        return;
+      }
+      // reconfigured as a decoder of arrays, which doesn't allocate, the next stream allocating its own buffer anyway
+      BinaryDecoder detached = AvroCompatibilityHelper.newBinaryDecoder(EMPTY, 0, 0, decoder);
+      if (stream) {
+        codecs.streamDecoder = detached;
+        codecs.streamDecoderLent = false;
+      } else {
+        codecs.arrayDecoder = detached;
+        codecs.arrayDecoderLent = false;
+      }
+      codecs = null;
+    }
+  }
+
+  /**
+   * a buffered {@link BinaryEncoder} lent by the pool of the calling thread, flushed and returned to it when closed
+   */
+  public static final class BorrowedEncoder implements Closeable {
+    private final BinaryEncoder encoder;
+    private PooledBinaryCodecs codecs;
+    private boolean closed;
+
+    private BorrowedEncoder(BinaryEncoder encoder, PooledBinaryCodecs codecs) {
+      this.encoder = encoder;
+      this.codecs = codecs;
+    }
+
+    /**
+     * @return the lent encoder, which must not be used once this is closed
+     */
+    public BinaryEncoder getEncoder() {
+      return encoder;
+    }
+
+    /**
+     * flushes the encoder into the stream it was lent for, then points it at a stream discarding its bytes and
+     * returns it to the pool. an encoder which failed to flush may still hold bytes, which reconfiguring it would
+     * flush again into the same stream, so it is dropped from the pool instead.
+     */
+    @Override
+    public void close() throws IOException {
+      if (closed) {
+        return;
+      }
+      closed = true;
+      boolean flushed = false;
+      try {
+        encoder.flush();
+        flushed = true;
+      } finally {
+        if (codecs != null) {
+          codecs.encoder = flushed ? AvroCompatibilityHelper.newBinaryEncoder(DISCARDING_STREAM, true, encoder) : null;
+          codecs.encoderLent = false;
+          codecs = null;
+        }
+      }
+    }
+  }
+}
@@ -8,6 +8,7 @@ package com.linkedin.avroutil1.compatibility.avro110.codec;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import org.apache.avro.util.Utf8;
 
 
@@ -68,6 +69,13 @@ public class BoundedMemoryDecoder extends BinaryDecoder {
     }
   }
 
+  /**
+   * @param buffer buffer whose remaining bytes are decoded, its position being left unchanged
+   */
+  public BoundedMemoryDecoder(ByteBuffer buffer) {
+    init(buffer);
+  }
+
   public void init(InputStream in) {
     super.configure(in);
     // Can't determine the length of an InputStream, so use the default instead
@@ -85,6 +93,11 @@ public class BoundedMemoryDecoder extends BinaryDecoder {
     _srcLen = length;
   }
 
+  public void init(ByteBuffer buffer) {
+    super.configure(buffer);
+    _srcLen = buffer.remaining();
+  }
+
   @Override
   protected long doReadItemCount() throws IOException {
     long result = readLong();
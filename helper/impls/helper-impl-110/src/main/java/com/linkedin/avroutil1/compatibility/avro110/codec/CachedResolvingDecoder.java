@@ -6,10 +6,10 @@
 
 package com.linkedin.avroutil1.compatibility.avro110.codec;
 
+import com.linkedin.avroutil1.compatibility.SchemaResolverCache;
 import com.linkedin.avroutil1.compatibility.avro110.parsing.ResolvingGrammarGenerator;
 import com.linkedin.avroutil1.compatibility.avro110.parsing.Symbol;
 import java.io.IOException;
-import java.util.concurrent.ConcurrentHashMap;
 import org.apache.avro.Schema;
 import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.Decoder;
@@ -17,11 +17,13 @@ import org.apache.avro.io.Decoder;
 
 /**
  * A version of ResolvingDecoder that caches the ResolvingGrammarGenerator given a pair of writer and reader schemas,
- * as opposed to the parent class that re-generates the ResolvingGrammarGenerator on each call to DatumReader.read()
+ * as opposed to the parent class that re-generates the ResolvingGrammarGenerator on each call to DatumReader.read().
+ * Resolvers are cached in {@link SchemaResolverCache#getShared()}.
  */
 public class CachedResolvingDecoder extends ResolvingDecoder {
-  private static final ConcurrentHashMap<Schema,ConcurrentHashMap<Schema,Symbol>>
-      SYMBOL_CACHE = new ConcurrentHashMap<>();
+  private static final SchemaResolverCache.Resolver RESOLVER =
+      (writer, reader) -> new ResolvingGrammarGenerator().generate(writer, reader, true);
+
   public CachedResolvingDecoder(Schema writer, Schema reader, Decoder in) throws IOException {
     this(resolve(writer, reader), in);
   }
@@ -83,12 +85,6 @@ public class CachedResolvingDecoder extends ResolvingDecoder {
    */
   public static Object resolve(Schema writer, Schema reader)
       throws IOException {
-    ConcurrentHashMap<Schema,Symbol> cache = SYMBOL_CACHE.computeIfAbsent(writer, k -> new ConcurrentHashMap<>());
-    Symbol resolver = cache.get(reader);
-    if (resolver == null) {
-      resolver =  new ResolvingGrammarGenerator().generate(writer, reader, true);
-      cache.put(reader, resolver);
-    }
-    return resolver;
+    return SchemaResolverCache.getShared().getResolver(writer, reader, RESOLVER);
   }
 }
\ No newline at end of file
@@ -55,6 +55,7 @@ import java.io.OutputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -162,6 +163,15 @@ public class Avro111Adapter implements AvroAdapter {
         return Avro111BinaryDecoderAccessUtil.newBinaryDecoder(bytes, offset, length, reuse);
     }
 
+    @Override
+    public Decoder newBinaryDecoder(ByteBuffer buffer, Decoder reuse) {
+        if (reuse instanceof BoundedMemoryDecoder) {
+            ((BoundedMemoryDecoder) reuse).init(buffer);
+            return reuse;
+        }
+        return new BoundedMemoryDecoder(buffer);
+    }
+
     @Override
     public JsonEncoder newJsonEncoder(Schema schema, OutputStream out, boolean pretty) throws IOException {
         return EncoderFactory.get().jsonEncoder(schema, out, pretty);
@@ -23,6 +23,8 @@
  */
 package com.linkedin.avroutil1.compatibility.avro111.codec;
 
+import com.linkedin.avroutil1.compatibility.PrimitiveArrayDecoder;
+import com.linkedin.avroutil1.compatibility.ZeroCopyDecoder;
 import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.InvalidNumberEncodingException;
 import org.apache.avro.io.Decoder;
@@ -34,13 +36,15 @@ import java.io.InputStream;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
 
-public class BinaryDecoder extends Decoder {
+public class BinaryDecoder extends Decoder implements PrimitiveArrayDecoder, ZeroCopyDecoder {
   private static final long MAX_ARRAY_SIZE = 2147483639L;
   private ByteSource source = null;
   private byte[] buf = null;
   private int minPos = 0;
   private int pos = 0;
   private int limit = 0;
+  /** window of the {@link ByteBufferByteSource}, kept to be reused by the next one */
+  private byte[] byteBufferWindow = null;
   private final Utf8 scratchUtf8 = new Utf8();
 
   byte[] getBuf() {
@@ -91,6 +95,19 @@ public class BinaryDecoder extends Decoder {
     return this;
   }
 
+  /**
+   * decodes the remaining bytes of the buffer, without moving its position. heap buffers are decoded in place, like
+   * arrays, while the bytes of other buffers are read in bulk through a window of this decoder.
+   */
+  BinaryDecoder configure(ByteBuffer buffer) {
+    if (buffer.hasArray()) {
+      return this.configure(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+    }
+    ByteBufferByteSource source = new ByteBufferByteSource(buffer.duplicate());
+    this.configureSource(ByteBufferByteSource.windowSize(buffer.remaining()), source);
+    return this;
+  }
+
   private void configureSource(int bufferSize, ByteSource source) {
     if (null != this.source) {
       this.source.detach();
@@ -217,6 +234,84 @@ public class BinaryDecoder extends Decoder {
     return l;
   }
 
+  /**
+   * Decodes the ints straight from the buffer, without bounds checks, as long as it holds enough bytes for the longest
+   * int encoding, falling back to {@link #readInt()} near its end to refill it.
+   */
+  public void readInts(int[] values, int offset, int count) throws IOException {
+    int end = offset + count;
+    while (offset < end) {
+      int bufferedEnd = Math.min(end, offset + (limit - pos) / 5);
+      if (bufferedEnd == offset) {
+        values[offset++] = readInt();
+        continue;
+      }
+      byte[] bytes = buf;
+      int position = pos;
+      for (; offset < bufferedEnd; offset++) {
+        int b = bytes[position++];
+        int n = b & 0x7f;
+        for (int shift = 7; b < 0; shift += 7) {
+          if (shift > 28) {
+            throw new InvalidNumberEncodingException("Invalid int encoding");
+          }
+          b = bytes[position++];
+          n ^= (b & 0x7f) << shift;
+        }
+        values[offset] = (n >>> 1) ^ -(n & 1);
+      }
+      pos = position;
+    }
+  }
+
+  /**
+   * Decodes the longs straight from the buffer, without bounds checks, as long as it holds enough bytes for the
+   * longest long encoding, falling back to {@link #readLong()} near its end to refill it.
+   */
+  public void readLongs(long[] values, int offset, int count) throws IOException {
+    int end = offset + count;
+    while (offset < end) {
+      int bufferedEnd = Math.min(end, offset + (limit - pos) / 10);
+      if (bufferedEnd == offset) {
+        values[offset++] = readLong();
+        continue;
+      }
+      byte[] bytes = buf;
+      int position = pos;
+      for (; offset < bufferedEnd; offset++) {
+        int b = bytes[position++];
+        long l = b & 0x7f;
+        for (int shift = 7; b < 0; shift += 7) {
+          if (shift > 63) {
+            throw new InvalidNumberEncodingException("Invalid long encoding");
+          }
+          b = bytes[position++];
+          l ^= (b & 0x7fL) << shift;
+        }
+        values[offset] = (l >>> 1) ^ -(l & 1);
+      }
+      pos = position;
+    }
+  }
+
+  /**
+   * Near the end of the decoded array, the buffer is a copy of its last bytes made by
+   * {@code ByteArrayByteSource.compactAndFill}, so offsets in the buffer are translated back to offsets in the array.
+   */
+  public byte[] getSourceArray() {
+    return source instanceof ByteArrayByteSource ? ((ByteArrayByteSource) source).data : null;
+  }
+
+  public int readInPlace(int length) {
+    if (length < 0 || length > limit - pos || !(source instanceof ByteArrayByteSource)) {
+      return -1;
+    }
+    ByteArrayByteSource byteArraySource = (ByteArrayByteSource) source;
+    int offset = buf == byteArraySource.data ? pos : byteArraySource.compactedStart + pos;
+    pos += length;
+    return offset;
+  }
+
   public float readFloat() throws IOException {
     this.ensureBounds(4);
     int len = 1;
@@ -415,6 +510,8 @@ public class BinaryDecoder extends Decoder {
     private int position;
     private int max;
     private boolean compacted;
+    /** index in data of the first byte of the copy made by compactAndFill */
+    private int compactedStart;
 
     private ByteArrayByteSource(byte[] data, int start, int len) {
       this.compacted = false;
@@ -476,6 +573,7 @@ public class BinaryDecoder extends Decoder {
         byte[] tinybuf = new byte[remaining + 16];
         System.arraycopy(buf, pos, tinybuf, 0, remaining);
         this.ba.setBuf(tinybuf, 0, remaining);
+        this.compactedStart = pos;
         this.compacted = true;
       }
 
@@ -622,6 +720,83 @@ public class BinaryDecoder extends Decoder {
     }
   }
 
+  /**
+   * Reads a {@link ByteBuffer}, typically a direct one, through a window of the decoder, large reads being copied from
+   * the buffer straight into their destination. The window is kept by the decoder and reused by the next source of
+   * this kind, so {@link #inputStream()} must not be read once the decoder is reconfigured.
+   */
+  private static class ByteBufferByteSource extends ByteSource {
+    private static final int MIN_WINDOW_SIZE = 16;
+    private static final int MAX_WINDOW_SIZE = 8192;
+    private final ByteBuffer buffer;
+
+    private ByteBufferByteSource(ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    static int windowSize(int remaining) {
+      return Math.max(MIN_WINDOW_SIZE, Math.min(remaining, MAX_WINDOW_SIZE));
+    }
+
+    protected void attach(int bufferSize, BinaryDecoder decoder) {
+      byte[] window = decoder.byteBufferWindow;
+      if (window == null || window.length < bufferSize) {
+        window = new byte[bufferSize];
+        decoder.byteBufferWindow = window;
+      }
+      decoder.buf = window;
+      decoder.pos = 0;
+      decoder.minPos = 0;
+      decoder.limit = 0;
+      this.ba = new BufferAccessor(decoder);
+    }
+
+    protected void skipSourceBytes(long length) throws IOException {
+      if (length > buffer.remaining()) {
+        buffer.position(buffer.limit());
+        throw new EOFException();
+      }
+      buffer.position(buffer.position() + (int) length);
+    }
+
+    protected long trySkipBytes(long length) throws IOException {
+      int skipped = (int) Math.min(length, buffer.remaining());
+      buffer.position(buffer.position() + skipped);
+      return skipped;
+    }
+
+    protected void readRaw(byte[] data, int off, int len) throws IOException {
+      if (len > buffer.remaining()) {
+        buffer.position(buffer.limit());
+        throw new EOFException();
+      }
+      buffer.get(data, off, len);
+    }
+
+    protected int tryReadRaw(byte[] data, int off, int len) throws IOException {
+      int read = Math.min(len, buffer.remaining());
+      buffer.get(data, off, read);
+      return read;
+    }
+
+    public int read() throws IOException {
+      int position = ba.getPos();
+      if (ba.getLim() == position) {
+        return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+      }
+      ba.setPos(position + 1);
+      return ba.getBuf()[position] & 0xff;
+    }
+
+    public boolean isEof() {
+      return !buffer.hasRemaining();
+    }
+
+    public void close() throws IOException {
+      buffer.position(buffer.limit());
+    }
+  }
+
   abstract static class ByteSource extends InputStream {
     protected BufferAccessor ba;
 
@@ -10,6 +10,7 @@ import org.apache.avro.util.Utf8;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 
 /**
@@ -69,6 +70,13 @@ public class BoundedMemoryDecoder extends BinaryDecoder {
     }
   }
 
+  /**
+   * @param buffer buffer whose remaining bytes are decoded, its position being left unchanged
+   */
+  public BoundedMemoryDecoder(ByteBuffer buffer) {
+    init(buffer);
+  }
+
   public void init(InputStream in) {
     super.configure(in);
     // Can't determine the length of an InputStream, so use the default instead
@@ -86,6 +94,11 @@ public class BoundedMemoryDecoder extends BinaryDecoder {
     _srcLen = length;
   }
 
+  public void init(ByteBuffer buffer) {
+    super.configure(buffer);
+    _srcLen = buffer.remaining();
+  }
+
   @Override
   protected long doReadItemCount() throws IOException {
     long result = readLong();
@@ -6,6 +6,7 @@
 
 package com.linkedin.avroutil1.compatibility.avro111.codec;
 
+import com.linkedin.avroutil1.compatibility.SchemaResolverCache;
 import com.linkedin.avroutil1.compatibility.avro111.parsing.ResolvingGrammarGenerator;
 import com.linkedin.avroutil1.compatibility.avro111.parsing.Symbol;
 import org.apache.avro.Schema;
@@ -13,16 +14,17 @@ import org.apache.avro.io.BinaryDecoder;
 import org.apache.avro.io.Decoder;
 
 import java.io.IOException;
-import java.util.concurrent.ConcurrentHashMap;
 
 
 /**
  * A version of ResolvingDecoder that caches the ResolvingGrammarGenerator given a pair of writer and reader schemas,
- * as opposed to the parent class that re-generates the ResolvingGrammarGenerator on each call to DatumReader.read()
+ * as opposed to the parent class that re-generates the ResolvingGrammarGenerator on each call to DatumReader.read().
+ * Resolvers are cached in {@link SchemaResolverCache#getShared()}.
  */
 public class CachedResolvingDecoder extends ResolvingDecoder {
-  private static final ConcurrentHashMap<Schema,ConcurrentHashMap<Schema,Symbol>>
-      SYMBOL_CACHE = new ConcurrentHashMap<>();
+  private static final SchemaResolverCache.Resolver RESOLVER =
+      (writer, reader) -> new ResolvingGrammarGenerator().generate(writer, reader, true);
+
   public CachedResolvingDecoder(Schema writer, Schema reader, Decoder in) throws IOException {
     this(resolve(writer, reader), in);
   }
@@ -84,12 +86,6 @@ public class CachedResolvingDecoder extends ResolvingDecoder {
    */
   public static Object resolve(Schema writer, Schema reader)
       throws IOException {
-    ConcurrentHashMap<Schema,Symbol> cache = SYMBOL_CACHE.computeIfAbsent(writer, k -> new ConcurrentHashMap<>());
-    Symbol resolver = cache.get(reader);
-    if (resolver == null) {
-      resolver =  new ResolvingGrammarGenerator().generate(writer, reader, true);
-      cache.put(reader, resolver);
-    }
-    return resolver;
+    return SchemaResolverCache.getShared().getResolver(writer, reader, RESOLVER);
   }
 }
\ No newline at end of file
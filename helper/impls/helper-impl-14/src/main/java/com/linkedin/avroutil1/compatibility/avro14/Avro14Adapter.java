@@ -38,6 +38,7 @@ import java.io.ObjectOutput;
 import java.io.OutputStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -137,6 +138,15 @@ public class Avro14Adapter implements AvroAdapter {
     return Avro14BinaryDecoderAccessUtil.newBinaryDecoder(bytes, offset, length, reuse);
   }
 
+  @Override
+  public Decoder newBinaryDecoder(ByteBuffer buffer, Decoder reuse) {
+    if (reuse instanceof BoundedMemoryDecoder) {
+      ((BoundedMemoryDecoder) reuse).init(buffer);
+      return reuse;
+    }
+    return new BoundedMemoryDecoder(buffer);
+  }
+
   @Override
   public JsonEncoder newJsonEncoder(Schema schema, OutputStream out, boolean pretty) throws IOException {
     JsonGenerator jsonGenerator = new JsonFactory().createJsonGenerator(out, JsonEncoding.UTF8);
@@ -8,6 +8,7 @@ package com.linkedin.avroutil1.compatibility.avro14.codec;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import org.apache.avro.util.Utf8;
 
 /**
@@ -71,6 +72,13 @@ public class BoundedMemoryDecoder extends BinaryDecoder {
     }
   }
 
+  /**
+   * @param buffer buffer whose remaining bytes are decoded, its position being left unchanged
+   */
+  public BoundedMemoryDecoder(ByteBuffer buffer) {
+    init(buffer);
+  }
+
 
   @Override
   public void init(InputStream in) {
@@ -92,6 +100,11 @@ public class BoundedMemoryDecoder extends BinaryDecoder {
     _srcLen = length;
   }
 
+  public void init(ByteBuffer buffer) {
+    super.init(buffer);
+    _srcLen = buffer.remaining();
+  }
+
   @Override
   protected long doReadItemCount() throws IOException {
     long result = readLong();
@@ -35,6 +35,7 @@ import java.io.OutputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
@@ -164,6 +165,15 @@ public class Avro18Adapter implements AvroAdapter {
     return Avro18BinaryDecoderAccessUtil.newBinaryDecoder(bytes, offset, length, reuse);
   }
 
+  @Override
+  public Decoder newBinaryDecoder(ByteBuffer buffer, Decoder reuse) {
+    if (reuse instanceof BoundedMemoryDecoder) {
+      ((BoundedMemoryDecoder) reuse).init(buffer);
+      return reuse;
+    }
+    return new BoundedMemoryDecoder(buffer);
+  }
+
   @Override
   public JsonEncoder newJsonEncoder(Schema schema, OutputStream out, boolean pretty) throws IOException {
     return EncoderFactory.get().jsonEncoder(schema, out, pretty);
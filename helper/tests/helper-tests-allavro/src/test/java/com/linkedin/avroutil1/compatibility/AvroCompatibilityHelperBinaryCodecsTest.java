@@ -8,6 +8,7 @@ package com.linkedin.avroutil1.compatibility;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.util.Arrays;
@@ -58,6 +59,64 @@ public class AvroCompatibilityHelperBinaryCodecsTest {
     runBinaryEncodeDecodeCycle(null, null, null, null, false, false, false, false);
   }
 
+  @Test
+  public void testByteBufferDecoders() throws Exception {
+    AtomicReference<Decoder> decoderRef = new AtomicReference<>(null);
+    for (boolean reuseDecoder : Arrays.asList(false, true)) {
+      for (boolean direct : Arrays.asList(true, false)) {
+        for (boolean readOnly : Arrays.asList(true, false)) {
+          runEncodeDecodeCycle(outputStream -> AvroCompatibilityHelper.newBinaryEncoder(outputStream, false, null),
+              bytes -> {
+                int capacity = bytes.length + 7;
+                ByteBuffer buffer = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+                buffer.position(5);
+                buffer.put(bytes);
+                buffer.flip();
+                buffer.position(5);
+                if (readOnly) {
+                  buffer = buffer.asReadOnlyBuffer();
+                }
+                Decoder decoder = AvroCompatibilityHelper.newBinaryDecoder(buffer, reuseDecoder ? decoderRef.get() : null);
+                if (reuseDecoder) {
+                  Assert.assertSame(decoder, decoderRef.get());
+                } else {
+                  decoderRef.set(decoder);
+                }
+                Assert.assertEquals(buffer.position(), 5);
+                return decoder;
+              });
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testDirectByteBufferLargerThanDecoderWindow() throws Exception {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    BinaryEncoder encoder = AvroCompatibilityHelper.newBinaryEncoder(os, false, null);
+    byte[] bytes = new byte[20000];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) i;
+    }
+    for (long i = 0; i < 5000; i++) {
+      encoder.writeLong(i * i * i);
+    }
+    encoder.writeBytes(bytes);
+    encoder.writeString("end");
+    encoder.flush();
+    ByteBuffer buffer = ByteBuffer.allocateDirect(os.size());
+    buffer.put(os.toByteArray());
+    buffer.flip();
+
+    Decoder decoder = AvroCompatibilityHelper.newBinaryDecoder(buffer);
+    for (long i = 0; i < 5000; i++) {
+      Assert.assertEquals(decoder.readLong(), i * i * i);
+    }
+    Assert.assertEquals(decoder.readBytes(null), ByteBuffer.wrap(bytes));
+    Assert.assertEquals(decoder.readString(null).toString(), "end");
+    Assert.assertThrows(EOFException.class, decoder::readInt);
+  }
+
   private void runBinaryEncodeDecodeCycle(
       AtomicReference<BinaryEncoder> bufferedEncoderRef,
       AtomicReference<BinaryEncoder> directEncoderRef,
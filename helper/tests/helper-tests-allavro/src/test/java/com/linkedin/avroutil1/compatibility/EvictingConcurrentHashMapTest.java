@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ * Licensed under the BSD 2-Clause License (the "License").
+ * See License in the project root for license information.
+ */
+
+package com.linkedin.avroutil1.compatibility;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class EvictingConcurrentHashMapTest {
+
+  @Test
+  public void testFullMapEvictsLeastRecentlyUsedEntriesInBatches() {
+    EvictingConcurrentHashMap<Integer, String> map = new EvictingConcurrentHashMap<>(32, Long.MAX_VALUE, value -> 0L);
+    for (int i = 0; i < 32; i++) {
+      map.put(i, "value" + i);
+    }
+    // makes the first entry the most recently used one
+    Assert.assertEquals(map.get(0), "value0");
+
+    map.put(32, "value32");
+
+    // evicted down to a sixteenth below the bound
+    Assert.assertEquals(map.size(), 30);
+    Assert.assertEquals(map.getEvictionCount(), 3);
+    Assert.assertEquals(map.get(0), "value0");
+    Assert.assertNull(map.get(1));
+    Assert.assertNull(map.get(2));
+    Assert.assertNull(map.get(3));
+    Assert.assertEquals(map.get(4), "value4");
+
+    // no eviction until the bound is exceeded again
+    map.put(33, "value33");
+    map.put(34, "value34");
+    Assert.assertEquals(map.size(), 32);
+    Assert.assertEquals(map.getEvictionCount(), 3);
+  }
+
+  @Test
+  public void testWeightFollowsEveryMutation() {
+    EvictingConcurrentHashMap<String, String> map = new EvictingConcurrentHashMap<>(Long.MAX_VALUE, 10, String::length);
+
+    map.put("a", "123");
+    Assert.assertEquals(map.computeIfAbsent("b", k -> "45"), "45");
+    Assert.assertEquals(map.computeIfAbsent("b", k -> "ignored"), "45");
+    Assert.assertNull(map.computeIfAbsent("c", k -> null));
+    Assert.assertEquals(map.getWeight(), 5);
+
+    Assert.assertEquals(map.put("a", "1"), "123");
+    Assert.assertEquals(map.getWeight(), 3);
+    Assert.assertEquals(map.remove("b"), "45");
+    Assert.assertNull(map.remove("b"));
+    Assert.assertEquals(map.getWeight(), 1);
+
+    // a value heavier than the bound is evicted too, after the least recently used ones
+    map.put("d", "12345678901");
+    Assert.assertNull(map.get("a"));
+    Assert.assertNull(map.get("d"));
+    Assert.assertEquals(map.getWeight(), 0);
+    Assert.assertEquals(map.getEvictionCount(), 2);
+    map.put("e", "12");
+
+    map.clear();
+    Assert.assertTrue(map.isEmpty());
+    Assert.assertEquals(map.getWeight(), 0);
+    Assert.assertEquals(map.getMissCount(), 4);
+  }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ * Licensed under the BSD 2-Clause License (the "License").
+ * See License in the project root for license information.
+ */
+
+package com.linkedin.avroutil1.compatibility;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.atomic.AtomicReference;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.BinaryEncoder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ * tests the per-thread codecs of {@link AvroCompatibilityHelper#borrowPooledBinaryDecoder(byte[])} and friends
+ */
+public class PooledBinaryCodecsTest {
+
+  @Test
+  public void testPooledCodecsAreReusedPerThread() throws Exception {
+    ByteArrayOutputStream first = new ByteArrayOutputStream();
+    BinaryEncoder encoder;
+    try (PooledBinaryCodecs.BorrowedEncoder borrowed = AvroCompatibilityHelper.borrowPooledBinaryEncoder(first)) {
+      encoder = borrowed.getEncoder();
+      encoder.writeLong(42L);
+      encoder.writeString("first");
+    }
+    ByteArrayOutputStream second = new ByteArrayOutputStream();
+    try (PooledBinaryCodecs.BorrowedEncoder borrowed = AvroCompatibilityHelper.borrowPooledBinaryEncoder(second)) {
+      Assert.assertSame(borrowed.getEncoder(), encoder);
+      encoder.writeString("second");
+    }
+
+    BinaryDecoder arrayDecoder;
+    try (PooledBinaryCodecs.BorrowedDecoder borrowed = AvroCompatibilityHelper.borrowPooledBinaryDecoder(first.toByteArray())) {
+      arrayDecoder = borrowed.getDecoder();
+      Assert.assertEquals(arrayDecoder.readLong(), 42L);
+      Assert.assertEquals(arrayDecoder.readString(null).toString(), "first");
+    }
+    byte[] framed = new byte[second.size() + 2];
+    System.arraycopy(second.toByteArray(), 0, framed, 1, second.size());
+    try (PooledBinaryCodecs.BorrowedDecoder borrowed = AvroCompatibilityHelper.borrowPooledBinaryDecoder(framed, 1, second.size())) {
+      Assert.assertSame(borrowed.getDecoder(), arrayDecoder);
+      Assert.assertEquals(arrayDecoder.readString(null).toString(), "second");
+    }
+
+    BinaryDecoder streamDecoder;
+    try (PooledBinaryCodecs.BorrowedDecoder borrowed =
+        AvroCompatibilityHelper.borrowPooledBinaryDecoder(new ByteArrayInputStream(first.toByteArray()))) {
+      streamDecoder = borrowed.getDecoder();
+      Assert.assertEquals(streamDecoder.readLong(), 42L);
+    }
+    try (PooledBinaryCodecs.BorrowedDecoder borrowed =
+        AvroCompatibilityHelper.borrowPooledBinaryDecoder(new ByteArrayInputStream(second.toByteArray()))) {
+      Assert.assertSame(borrowed.getDecoder(), streamDecoder);
+      Assert.assertEquals(streamDecoder.readString(null).toString(), "second");
+      Assert.assertTrue(streamDecoder.isEnd());
+    }
+
+    // other threads get their own codecs
+    AtomicReference<BinaryDecoder> otherThreadDecoder = new AtomicReference<>();
+    Thread thread = new Thread(() -> {
+      try (PooledBinaryCodecs.BorrowedDecoder borrowed = AvroCompatibilityHelper.borrowPooledBinaryDecoder(framed)) {
+        otherThreadDecoder.set(borrowed.getDecoder());
+      }
+    });
+    thread.start();
+    thread.join();
+    Assert.assertNotNull(otherThreadDecoder.get());
+    Assert.assertNotSame(otherThreadDecoder.get(), arrayDecoder);
+  }
+
+  @Test
+  public void testNestedBorrowsGetNewCodecs() throws Exception {
+    byte[] outer = {2};
+    byte[] inner = {4};
+    try (PooledBinaryCodecs.BorrowedDecoder outerDecoder = AvroCompatibilityHelper.borrowPooledBinaryDecoder(outer)) {
+      try (PooledBinaryCodecs.BorrowedDecoder innerDecoder = AvroCompatibilityHelper.borrowPooledBinaryDecoder(inner)) {
+        Assert.assertNotSame(innerDecoder.getDecoder(), outerDecoder.getDecoder());
+        Assert.assertEquals(innerDecoder.getDecoder().readInt(), 2);
+      }
+      Assert.assertEquals(outerDecoder.getDecoder().readInt(), 1);
+    }
+  }
+
+  @Test
+  public void testEncoderFailingToFlushIsNotLentAgain() throws Exception {
+    ByteArrayOutputStream written = new ByteArrayOutputStream();
+    OutputStream failing = new OutputStream() {
+      private boolean failed;
+
+      @Override
+      public void write(int b) throws IOException {
+        write(new byte[]{(byte) b}, 0, 1);
+      }
+
+      @Override
+      public void write(byte[] b, int off, int len) throws IOException {
+        if (!failed) {
+          failed = true;
+          throw new IOException("failing once");
+        }
+        written.write(b, off, len);
+      }
+    };
+
+    PooledBinaryCodecs.BorrowedEncoder borrowed = AvroCompatibilityHelper.borrowPooledBinaryEncoder(failing);
+    BinaryEncoder failedEncoder = borrowed.getEncoder();
+    failedEncoder.writeString("lost");
+    Assert.assertThrows(IOException.class, borrowed::close);
+
+    ByteArrayOutputStream next = new ByteArrayOutputStream();
+    try (PooledBinaryCodecs.BorrowedEncoder nextBorrowed = AvroCompatibilityHelper.borrowPooledBinaryEncoder(next)) {
+      Assert.assertNotSame(nextBorrowed.getEncoder(), failedEncoder);
+      nextBorrowed.getEncoder().writeString("next");
+    }
+    // the bytes left by the failed flush reached neither stream
+    Assert.assertEquals(written.size(), 0);
+    try (PooledBinaryCodecs.BorrowedDecoder decoder = AvroCompatibilityHelper.borrowPooledBinaryDecoder(next.toByteArray())) {
+      Assert.assertEquals(decoder.getDecoder().readString(null).toString(), "next");
+      Assert.assertTrue(decoder.getDecoder().isEnd());
+    }
+  }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ * Licensed under the BSD 2-Clause License (the "License").
+ * See License in the project root for license information.
+ */
+
+package com.linkedin.avroutil1.compatibility;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Random;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.Decoder;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+/**
+ * tests the bulk decoding of ints and longs by the decoders returned by
+ * {@link AvroCompatibilityHelper#newBoundedMemoryDecoder(byte[])}
+ */
+public class PrimitiveArrayDecoderTest {
+
+  private static final int[] INTS = newInts();
+  private static final long[] LONGS = newLongs();
+
+  private static int[] newInts() {
+    Random random = new Random(42);
+    int[] ints = new int[1000];
+    int[] edgeValues = {Integer.MIN_VALUE, -1, 0, 1, 63, 64, -64, -65, Integer.MAX_VALUE};
+    System.arraycopy(edgeValues, 0, ints, 0, edgeValues.length);
+    for (int i = edgeValues.length; i < ints.length; i++) {
+      // values of every encoded length
+      ints[i] = random.nextInt() >> random.nextInt(32);
+    }
+    return ints;
+  }
+
+  private static long[] newLongs() {
+    Random random = new Random(42);
+    long[] longs = new long[1000];
+    long[] edgeValues = {Long.MIN_VALUE, ((long) Integer.MIN_VALUE) - 1L, -1, 0, 1, ((long) Integer.MAX_VALUE) + 1L,
+        Long.MAX_VALUE};
+    System.arraycopy(edgeValues, 0, longs, 0, edgeValues.length);
+    for (int i = edgeValues.length; i < longs.length; i++) {
+      longs[i] = random.nextLong() >> random.nextInt(64);
+    }
+    return longs;
+  }
+
+  private static byte[] encode() throws IOException {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    BinaryEncoder encoder = AvroCompatibilityHelper.newBinaryEncoder(os, false, null);
+    for (int value : INTS) {
+      encoder.writeInt(value);
+    }
+    for (long value : LONGS) {
+      encoder.writeLong(value);
+    }
+    encoder.writeString("end");
+    encoder.flush();
+    return os.toByteArray();
+  }
+
+  @DataProvider(name = "decoders")
+  public Object[][] decoders() throws IOException {
+    byte[] data = encode();
+    return new Object[][]{
+        {AvroCompatibilityHelper.newBoundedMemoryDecoder(data)},
+        // reads through a small buffer, which has to be refilled many times
+        {AvroCompatibilityHelper.newBoundedMemoryDecoder(new ByteArrayInputStream(data))}
+    };
+  }
+
+  @Test(dataProvider = "decoders")
+  public void testReadIntsAndLongs(Decoder decoder) throws Exception {
+    Assert.assertTrue(decoder instanceof PrimitiveArrayDecoder);
+    PrimitiveArrayDecoder bulkDecoder = (PrimitiveArrayDecoder) decoder;
+
+    int[] ints = new int[INTS.length + 1];
+    bulkDecoder.readInts(ints, 1, 10);
+    bulkDecoder.readInts(ints, 11, INTS.length - 10);
+    Assert.assertEquals(Arrays.copyOfRange(ints, 1, ints.length), INTS);
+
+    long[] longs = new long[LONGS.length];
+    bulkDecoder.readLongs(longs, 0, 0);
+    bulkDecoder.readLongs(longs, 0, LONGS.length);
+    Assert.assertEquals(longs, LONGS);
+
+    Assert.assertEquals(decoder.readString(null).toString(), "end");
+  }
+
+  @Test
+  public void testInvalidEncodings() throws Exception {
+    byte[] invalidInts = new byte[64];
+    Arrays.fill(invalidInts, (byte) 0xff);
+    PrimitiveArrayDecoder decoder =
+        (PrimitiveArrayDecoder) AvroCompatibilityHelper.newBoundedMemoryDecoder(invalidInts);
+    Assert.assertThrows(IOException.class, () -> decoder.readInts(new int[4], 0, 4));
+    Assert.assertThrows(IOException.class, () -> decoder.readLongs(new long[4], 0, 4));
+  }
+}
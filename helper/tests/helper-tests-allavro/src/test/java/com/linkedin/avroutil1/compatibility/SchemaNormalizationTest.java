@@ -0,0 +1,62 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ * Licensed under the BSD 2-Clause License (the "License").
+ * See License in the project root for license information.
+ */
+
+package com.linkedin.avroutil1.compatibility;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import org.apache.avro.Schema;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class SchemaNormalizationTest {
+
+  private static final String AVSC = "{\"type\": \"record\", \"name\": \"Outer\", \"namespace\": \"com.acme\","
+      + " \"doc\": \"ignored by the canonical form\", \"fields\": ["
+      + "{\"name\": \"id\", \"type\": \"long\", \"default\": 0},"
+      + "{\"name\": \"kind\", \"type\": {\"type\": \"enum\", \"name\": \"Kind\", \"symbols\": [\"A\", \"B\"]}},"
+      + "{\"name\": \"hash\", \"type\": {\"type\": \"fixed\", \"name\": \"Hash\", \"size\": 16}},"
+      + "{\"name\": \"inner\", \"type\": {\"type\": \"record\", \"name\": \"Inner\", \"fields\": ["
+      + "{\"name\": \"values\", \"type\": {\"type\": \"map\", \"values\": {\"type\": \"array\", \"items\": \"Hash\"}}},"
+      + "{\"name\": \"next\", \"type\": [\"null\", \"Inner\"]}]}},"
+      + "{\"name\": \"kinds\", \"type\": {\"type\": \"array\", \"items\": \"Kind\"}}]}";
+
+  @Test
+  public void testParsingFingerprintsMatchFingerprintsOfParsingForm() throws Exception {
+    Schema schema = AvroCompatibilityHelper.parse(AVSC);
+    byte[] parsingFormBytes = SchemaNormalization.toParsingForm(schema).getBytes(StandardCharsets.UTF_8);
+
+    Assert.assertEquals(SchemaNormalization.parsingFingerprint64(schema),
+        SchemaNormalization.fingerprint64(parsingFormBytes));
+    Assert.assertEquals(SchemaNormalization.parsingFingerprint("CRC-64-AVRO", schema),
+        SchemaNormalization.fingerprint("CRC-64-AVRO", parsingFormBytes));
+    Assert.assertEquals(SchemaNormalization.parsingFingerprint("MD5", schema),
+        MessageDigest.getInstance("MD5").digest(parsingFormBytes));
+    Assert.assertEquals(SchemaNormalization.parsingFingerprint("SHA-256", schema),
+        MessageDigest.getInstance("SHA-256").digest(parsingFormBytes));
+  }
+
+  @Test
+  public void testFingerprintCacheIsKeyedBySchemaInstance() {
+    SchemaFingerprintCache cache = new SchemaFingerprintCache();
+    Schema schema = AvroCompatibilityHelper.parse(AVSC);
+    Schema equalSchema = AvroCompatibilityHelper.parse(AVSC);
+    long expected = SchemaNormalization.parsingFingerprint64(schema);
+
+    Assert.assertEquals(cache.parsingFingerprint64(schema), expected);
+    Assert.assertEquals(cache.parsingFingerprint64(schema), expected);
+    Assert.assertEquals(cache.size(), 1);
+    Assert.assertEquals(cache.parsingFingerprint64(equalSchema), expected);
+    Assert.assertEquals(cache.size(), 2);
+    Assert.assertEquals(cache.parsingFingerprint64(schema.getField("inner").schema()),
+        SchemaNormalization.parsingFingerprint64(equalSchema.getField("inner").schema()));
+    Assert.assertEquals(cache.size(), 3);
+
+    cache.clear();
+    Assert.assertEquals(cache.size(), 0);
+  }
+}
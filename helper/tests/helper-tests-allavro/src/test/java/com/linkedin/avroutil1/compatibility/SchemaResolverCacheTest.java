@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ * Licensed under the BSD 2-Clause License (the "License").
+ * See License in the project root for license information.
+ */
+
+package com.linkedin.avroutil1.compatibility;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.Decoder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class SchemaResolverCacheTest {
+
+  private static final String WRITER_AVSC = "{\"type\": \"record\", \"name\": \"Rec\", \"fields\": ["
+      + "{\"name\": \"a\", \"type\": \"int\"}, {\"name\": \"b\", \"type\": \"string\"}]}";
+  private static final String READER_AVSC = "{\"type\": \"record\", \"name\": \"Rec\", \"fields\": ["
+      + "{\"name\": \"b\", \"type\": \"string\"}, {\"name\": \"c\", \"type\": \"long\", \"default\": 7}]}";
+
+  @Test
+  public void testCachedResolvingDecoderUsesSharedCache() throws Exception {
+    Schema writer = AvroCompatibilityHelper.parse(WRITER_AVSC);
+    Schema reader = AvroCompatibilityHelper.parse(READER_AVSC);
+    GenericData.Record record = new GenericData.Record(writer);
+    record.put("a", 1);
+    record.put("b", "value");
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    BinaryEncoder encoder = AvroCompatibilityHelper.newBinaryEncoder(os, false, null);
+    new GenericDatumWriter<GenericRecord>(writer).write(record, encoder);
+    encoder.flush();
+
+    SchemaResolverCache previous = SchemaResolverCache.getShared();
+    BoundedSchemaResolverCache cache = new BoundedSchemaResolverCache(10);
+    SchemaResolverCache.setShared(cache);
+    try {
+      for (int i = 0; i < 3; i++) {
+        Decoder decoder = AvroCompatibilityHelper.newCachedResolvingDecoder(writer, reader,
+            AvroCompatibilityHelper.newBinaryDecoder(os.toByteArray()));
+        // fields are read in the order of the reader schema
+        Assert.assertEquals(decoder.readString(null).toString(), "value");
+        Assert.assertEquals(decoder.readLong(), 7L);
+      }
+      // equal schemas parsed again
+      AvroCompatibilityHelper.newCachedResolvingDecoder(AvroCompatibilityHelper.parse(WRITER_AVSC),
+          AvroCompatibilityHelper.parse(READER_AVSC), AvroCompatibilityHelper.newBinaryDecoder(os.toByteArray()));
+
+      Assert.assertEquals(cache.size(), 1);
+      Assert.assertEquals(cache.getMissCount(), 1);
+      Assert.assertEquals(cache.getHitCount(), 3);
+      Assert.assertEquals(cache.getHitRate(), 0.75);
+    } finally {
+      SchemaResolverCache.setShared(previous);
+    }
+  }
+
+  @Test
+  public void testLeastRecentlyUsedPairsAreEvicted() throws Exception {
+    BoundedSchemaResolverCache cache = new BoundedSchemaResolverCache(2);
+    AtomicInteger resolutions = new AtomicInteger();
+    SchemaResolverCache.Resolver resolver = (writer, reader) -> resolutions.incrementAndGet();
+    Schema first = Schema.create(Schema.Type.INT);
+    Schema second = Schema.create(Schema.Type.LONG);
+    Schema third = Schema.create(Schema.Type.STRING);
+    // same canonical form as the reader schema, but a different default
+    Schema reader = AvroCompatibilityHelper.parse(READER_AVSC);
+    Schema otherDefaultReader = AvroCompatibilityHelper.parse(READER_AVSC.replace("7", "8"));
+
+    Assert.assertEquals(cache.getResolver(first, reader, resolver), 1);
+    Assert.assertEquals(cache.getResolver(second, reader, resolver), 2);
+    Assert.assertEquals(cache.getResolver(first, reader, resolver), 1);
+    Assert.assertEquals(cache.getResolver(third, reader, resolver), 3);
+    Assert.assertEquals(cache.size(), 2);
+    Assert.assertEquals(cache.getEvictionCount(), 1);
+    Assert.assertEquals(cache.getResolver(first, reader, resolver), 1);
+    Assert.assertEquals(cache.getResolver(second, reader, resolver), 4);
+    Assert.assertEquals(cache.getResolver(second, otherDefaultReader, resolver), 5);
+  }
+}
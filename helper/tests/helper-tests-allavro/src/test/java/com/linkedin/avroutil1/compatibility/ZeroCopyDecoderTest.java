@@ -0,0 +1,65 @@
+/*
+ * Copyright 2022 LinkedIn Corp.
+ * Licensed under the BSD 2-Clause License (the "License").
+ * See License in the project root for license information.
+ */
+
+package com.linkedin.avroutil1.compatibility;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import org.apache.avro.io.BinaryEncoder;
+import org.apache.avro.io.Decoder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+/**
+ * tests the in place reads of the decoders returned by {@link AvroCompatibilityHelper#newBoundedMemoryDecoder(byte[])}
+ */
+public class ZeroCopyDecoderTest {
+
+  private static byte[] encode(String... strings) throws IOException {
+    ByteArrayOutputStream os = new ByteArrayOutputStream();
+    BinaryEncoder encoder = AvroCompatibilityHelper.newBinaryEncoder(os, false, null);
+    for (String string : strings) {
+      encoder.writeString(string);
+    }
+    encoder.flush();
+    return os.toByteArray();
+  }
+
+  @Test
+  public void testReadInPlace() throws Exception {
+    String[] strings = {"a string long enough for the array not to be copied by the decoder", "", "abc", "end"};
+    byte[] data = encode(strings);
+    Decoder decoder = AvroCompatibilityHelper.newBoundedMemoryDecoder(data);
+    Assert.assertTrue(decoder instanceof ZeroCopyDecoder);
+    ZeroCopyDecoder zeroCopyDecoder = (ZeroCopyDecoder) decoder;
+    Assert.assertSame(zeroCopyDecoder.getSourceArray(), data);
+
+    for (String string : strings) {
+      int length = decoder.readInt();
+      int offset = zeroCopyDecoder.readInPlace(length);
+      // the last strings are read from the copy the decoder makes of the end of the array
+      Assert.assertSame(zeroCopyDecoder.getSourceArray(), data);
+      Assert.assertEquals(new String(data, offset, length, "UTF-8"), string);
+    }
+    Assert.assertEquals(zeroCopyDecoder.readInPlace(1), -1);
+  }
+
+  @Test
+  public void testReadInPlaceFromStream() throws Exception {
+    byte[] data = encode("abc");
+    Decoder decoder = AvroCompatibilityHelper.newBoundedMemoryDecoder(new ByteArrayInputStream(data));
+    ZeroCopyDecoder zeroCopyDecoder = (ZeroCopyDecoder) decoder;
+    Assert.assertNull(zeroCopyDecoder.getSourceArray());
+    int length = decoder.readInt();
+    Assert.assertEquals(zeroCopyDecoder.readInPlace(length), -1);
+    // nothing was consumed
+    byte[] bytes = new byte[length];
+    decoder.readFixed(bytes, 0, length);
+    Assert.assertEquals(new String(bytes, "UTF-8"), "abc");
+  }
+}